@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.communication.gateway.activity;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -48,16 +49,15 @@ public enum ActivityType implements SimpleDatable {
         this.format = format;
     }
 
+    private static final IntEnumTable<ActivityType> VALUE_TABLE = new IntEnumTable<>(values(), t -> t.id, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link ActivityType} matching given value or {@link #UNKNOWN} if none matches
      */
     public static @NotNull ActivityType fromValue(int value){
-        for(ActivityType type : ActivityType.values()){
-            if(type.id == value) return type;
-        }
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getId() {
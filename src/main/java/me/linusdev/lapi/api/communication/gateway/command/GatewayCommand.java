@@ -19,12 +19,15 @@ package me.linusdev.lapi.api.communication.gateway.command;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * @see <a href="https://discord.com/developers/docs/topics/gateway#commands-and-events-gateway-commands" target="_top">Gateway Commands</a>
  */
 public class GatewayCommand {
     private final @NotNull GatewayCommandType type;
     private final @Nullable Object data;
+    private final @NotNull CompletableFuture<Void> sent = new CompletableFuture<>();
 
     public GatewayCommand(@NotNull GatewayCommandType type, @Nullable Object data) {
         this.type = type;
@@ -38,4 +41,13 @@ public class GatewayCommand {
     public @Nullable Object getObject() {
         return data;
     }
+
+    /**
+     * Completes, when this command has been sent to Discord or when a newer command, which replaced this command
+     * in the queue, has been sent. Completes exceptionally, if sending failed.
+     * @return {@link CompletableFuture} completed by the gateway
+     */
+    public @NotNull CompletableFuture<Void> getSentFuture() {
+        return sent;
+    }
 }
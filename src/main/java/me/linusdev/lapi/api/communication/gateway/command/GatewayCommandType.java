@@ -18,6 +18,7 @@ package me.linusdev.lapi.api.communication.gateway.command;
 
 import me.linusdev.data.SimpleDatable;
 import me.linusdev.lapi.api.communication.gateway.enums.GatewayOpcode;
+import me.linusdev.lapi.api.objects.enums.lookup.StringEnumTable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -76,6 +77,8 @@ public enum GatewayCommandType implements SimpleDatable {
         this.name = value;
     }
 
+    private static final StringEnumTable<GatewayCommandType> VALUE_TABLE = new StringEnumTable<>(values(), t -> t.name, UNKNOWN, true);
+
     /**
      *
      * @param value event-string
@@ -83,13 +86,7 @@ public enum GatewayCommandType implements SimpleDatable {
      */
     public static @Nullable GatewayCommandType fromString(@Nullable String value){
         if(value == null) return null;
-        for(GatewayCommandType event : GatewayCommandType.values()){
-            if(event.name.equalsIgnoreCase(value)){
-                return event;
-            }
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public @NotNull String getName() {
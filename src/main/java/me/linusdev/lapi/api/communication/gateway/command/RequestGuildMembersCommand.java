@@ -20,6 +20,7 @@ import me.linusdev.data.so.SOData;
 import me.linusdev.lapi.api.lapi.LApi;
 import me.linusdev.lapi.api.interfaces.HasLApi;
 import me.linusdev.lapi.api.communication.gateway.enums.GatewayIntent;
+import me.linusdev.lapi.api.communication.gateway.sharding.ShardManager;
 import me.linusdev.lapi.api.objects.snowflake.Snowflake;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -197,12 +198,22 @@ public class RequestGuildMembersCommand extends GatewayCommand implements HasLAp
     }
 
     /**
+     * Queues this command on the gateway. If a {@link ShardManager} is used, it is queued on the shard receiving
+     * the events of the guild.
      * @throws UnsupportedOperationException if {@link me.linusdev.lapi.api.config.ConfigFlag#ENABLE_GATEWAY ENABLE_GATEWAY} is not enabled
      */
     public void send() {
         if(lApi.getGateway() == null) {
             throw new UnsupportedOperationException("Gateway must be enabled to queue a command on it");
         }
+
+        ShardManager shardManager = lApi.getShardManager();
+        if(shardManager != null && getObject() instanceof SOData) {
+            String guildId = (String) ((SOData) getObject()).get(GUILD_ID_KEY);
+            shardManager.getShardForGuild(Snowflake.fromString(guildId)).queueCommand(this);
+            return;
+        }
+
         lApi.getGateway().queueCommand(this);
     }
 
@@ -22,6 +22,7 @@ import org.jetbrains.annotations.Nullable;
 import me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket;
 import me.linusdev.lapi.api.communication.gateway.events.transmitter.EventListener;
 import me.linusdev.lapi.api.communication.gateway.events.transmitter.EventIdentifier;
+import me.linusdev.lapi.api.objects.enums.lookup.StringEnumTable;
 
 /**
  * <h2 style="padding:0;margin:0;">Gateway Events</h2>
@@ -349,6 +350,8 @@ public enum GatewayEvent implements SimpleDatable {
         this.value = value;
     }
 
+    private static final StringEnumTable<GatewayEvent> VALUE_TABLE = new StringEnumTable<>(values(), e -> e.value, UNKNOWN, true);
+
     /**
      *
      * @param value event-string
@@ -356,13 +359,7 @@ public enum GatewayEvent implements SimpleDatable {
      */
     public static @Nullable GatewayEvent fromString(@Nullable String value){
         if(value == null) return null;
-        for(GatewayEvent event : GatewayEvent.values()){
-            if(event.value.equalsIgnoreCase(value)){
-                return event;
-            }
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public @NotNull String getValue() {
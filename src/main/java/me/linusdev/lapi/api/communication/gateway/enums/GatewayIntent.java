@@ -20,6 +20,7 @@ import me.linusdev.data.SimpleDatable;
 import me.linusdev.lapi.api.communication.gateway.command.GatewayCommandType;
 import me.linusdev.lapi.api.interfaces.Requireable;
 import me.linusdev.lapi.api.lapi.LApiImpl;
+import me.linusdev.lapi.api.objects.enums.lookup.StringEnumTable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -396,6 +397,8 @@ public enum GatewayIntent implements Requireable, SimpleDatable {
         this.requires = requires;
     }
 
+    private static final StringEnumTable<GatewayIntent> VALUE_TABLE = new StringEnumTable<>(values(), GatewayIntent::toString, null, true);
+
     /**
      *
      * @param value string
@@ -403,11 +406,7 @@ public enum GatewayIntent implements Requireable, SimpleDatable {
      */
     public static @Nullable GatewayIntent fromName(@Nullable String value){
         if(value == null) return null;
-        for(GatewayIntent intent : GatewayIntent.values()){
-            if(intent.toString().equalsIgnoreCase(value)) return intent;
-        }
-
-        return null;
+        return VALUE_TABLE.get(value);
     }
 
     /**
@@ -440,6 +439,10 @@ public enum GatewayIntent implements Requireable, SimpleDatable {
         return flags;
     }
 
+    public int getValue() {
+        return value;
+    }
+
     public boolean isPrivileged() {
         return privileged;
     }
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.communication.gateway.enums;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -92,17 +93,15 @@ public enum GatewayOpcode implements SimpleDatable {
         this.opcode = opcode;
     }
 
+    private static final IntEnumTable<GatewayOpcode> VALUE_TABLE = new IntEnumTable<>(values(), o -> o.opcode, UNKNOWN);
+
     /**
      *
      * @param opcode int
      * @return {@link GatewayOpcode} matching given int or {@link #UNKNOWN} if none matching
      */
     public static @NotNull GatewayOpcode fromValue(int opcode){
-        for(GatewayOpcode o : GatewayOpcode.values()){
-            if(o.opcode == opcode) return o;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(opcode);
     }
 
     /**
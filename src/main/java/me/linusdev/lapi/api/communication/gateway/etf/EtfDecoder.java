@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.etf;
+
+import me.linusdev.data.so.SOData;
+import me.linusdev.lapi.api.exceptions.InvalidDataException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import static me.linusdev.lapi.api.communication.gateway.etf.EtfTag.*;
+
+/**
+ * <p>
+ *     Decodes terms in the External Term Format into the same structures the {@link me.linusdev.data.parser.JsonParser JsonParser}
+ *     creates: maps become {@link SOData}, lists and tuples become {@link ArrayList ArrayLists}, binaries become {@link String Strings},
+ *     integers become {@link Long Longs}, floats become {@link Double Doubles} and the atoms {@code true}, {@code false}
+ *     and {@code nil} become {@link Boolean Booleans} or {@code null}.
+ * </p>
+ * <p>
+ *     Discord sends snowflakes as 64-bit integers in ETF, but as strings in JSON. In JSON, Discord only uses strings
+ *     for integers, which do not fit into the 53 bit mantissa of a double. So {@link EtfTag#SMALL_BIG_EXT big integers}
+ *     are decoded as {@link Long Longs} if they are within {@value #MAX_SAFE_INTEGER} (for example millisecond
+ *     timestamps) and as decimal {@link String Strings} otherwise (for example snowflakes). Integers of the key
+ *     {@code "id"} or of keys ending with {@code "_id"} are always decoded as {@link String Strings}, since these are
+ *     snowflakes, even if they are small. This way, {@code (String) data.get("guild_id")} and
+ *     {@code (Number) data.get("created_at")} work for both encodings.
+ * </p>
+ *
+ * @see <a href="https://www.erlang.org/doc/apps/erts/erl_ext_dist.html" target="_top">External Term Format</a>
+ */
+public class EtfDecoder {
+
+    /**
+     * Largest integer, which can be represented exactly by a {@code double}: 2<sup>53</sup> - 1.
+     */
+    public static final long MAX_SAFE_INTEGER = 9007199254740991L;
+
+    /**
+     * Decodes the term between the position and limit of given buffer. The position of the buffer will be moved.
+     * @param buffer {@link ByteBuffer} starting with the {@link EtfTag#VERSION version} byte
+     * @return {@link SOData} if the term is a map
+     * @throws InvalidDataException if the term is invalid or not a map
+     */
+    public static @NotNull SOData decodeData(@NotNull ByteBuffer buffer) throws InvalidDataException {
+        Object term = decode(buffer);
+        if(!(term instanceof SOData)) throw new InvalidDataException(null, "ETF term is not a map: " + term);
+        return (SOData) term;
+    }
+
+    /**
+     * Decodes the term between the position and limit of given buffer. The position of the buffer will be moved.
+     * @param buffer {@link ByteBuffer} starting with the {@link EtfTag#VERSION version} byte
+     * @return decoded term
+     * @throws InvalidDataException if the term is invalid
+     */
+    public static @Nullable Object decode(@NotNull ByteBuffer buffer) throws InvalidDataException {
+        try {
+            int version = buffer.get() & 0xFF;
+            if(version != VERSION) throw new InvalidDataException(null, "Unsupported ETF version: " + version);
+            return decodeTerm(buffer);
+        } catch (RuntimeException e) {
+            throw new InvalidDataException(null, "Invalid ETF term: " + e.getMessage());
+        }
+    }
+
+    private static @Nullable Object decodeTerm(@NotNull ByteBuffer buffer) throws InvalidDataException {
+        int tag = buffer.get() & 0xFF;
+
+        switch (tag) {
+            case MAP_EXT:
+                return decodeMap(buffer, buffer.getInt());
+            case BINARY_EXT:
+                return decodeString(buffer, buffer.getInt());
+            case SMALL_INTEGER_EXT:
+                return (long) (buffer.get() & 0xFF);
+            case INTEGER_EXT:
+                return (long) buffer.getInt();
+            case SMALL_BIG_EXT:
+                return decodeBig(buffer, buffer.get() & 0xFF);
+            case LARGE_BIG_EXT:
+                return decodeBig(buffer, buffer.getInt());
+            case NEW_FLOAT_EXT:
+                return buffer.getDouble();
+            case FLOAT_EXT:
+                return Double.parseDouble(decodeString(buffer, 31).trim());
+            case ATOM_EXT:
+            case ATOM_UTF8_EXT:
+                return decodeAtom(buffer, buffer.getShort() & 0xFFFF);
+            case SMALL_ATOM_EXT:
+            case SMALL_ATOM_UTF8_EXT:
+                return decodeAtom(buffer, buffer.get() & 0xFF);
+            case NIL_EXT:
+                return new ArrayList<>(0);
+            case LIST_EXT:
+                ArrayList<Object> list = decodeList(buffer, buffer.getInt());
+                //tail of a proper list is NIL_EXT
+                Object tail = decodeTerm(buffer);
+                if(tail instanceof ArrayList && ((ArrayList<?>) tail).isEmpty()) return list;
+                list.add(tail);
+                return list;
+            case SMALL_TUPLE_EXT:
+                return decodeList(buffer, buffer.get() & 0xFF);
+            case LARGE_TUPLE_EXT:
+                return decodeList(buffer, buffer.getInt());
+            case STRING_EXT:
+                return decodeString(buffer, buffer.getShort() & 0xFFFF);
+            default:
+                throw new InvalidDataException(null, "Unsupported ETF tag: " + tag);
+        }
+    }
+
+    private static @NotNull SOData decodeMap(@NotNull ByteBuffer buffer, int arity) throws InvalidDataException {
+        SOData data = SOData.newOrderedDataWithKnownSize(arity);
+
+        for(int i = 0; i < arity; i++) {
+            String key = String.valueOf(decodeTerm(buffer));
+            Object value = decodeTerm(buffer);
+            if(value instanceof Long && isSnowflakeKey(key)) value = value.toString();
+            data.add(key, value);
+        }
+
+        return data;
+    }
+
+    private static boolean isSnowflakeKey(@NotNull String key) {
+        return key.equals("id") || key.endsWith("_id");
+    }
+
+    private static @NotNull ArrayList<Object> decodeList(@NotNull ByteBuffer buffer, int length) throws InvalidDataException {
+        ArrayList<Object> list = new ArrayList<>(length);
+
+        for(int i = 0; i < length; i++) {
+            list.add(decodeTerm(buffer));
+        }
+
+        return list;
+    }
+
+    private static @Nullable Object decodeAtom(@NotNull ByteBuffer buffer, int length) {
+        String atom = decodeString(buffer, length);
+
+        switch (atom) {
+            case ATOM_NIL:
+            case ATOM_NULL:
+                return null;
+            case ATOM_TRUE:
+                return Boolean.TRUE;
+            case ATOM_FALSE:
+                return Boolean.FALSE;
+            default:
+                return atom;
+        }
+    }
+
+    private static @NotNull Object decodeBig(@NotNull ByteBuffer buffer, int length) {
+        boolean negative = buffer.get() != 0;
+
+        if(length <= 8) {
+            //little endian unsigned digits
+            long value = 0L;
+            for(int i = 0; i < length; i++) {
+                value |= (buffer.get() & 0xFFL) << (8 * i);
+            }
+
+            //compared unsigned, so values >= 2^63 are not safe either
+            if(Long.compareUnsigned(value, MAX_SAFE_INTEGER) <= 0) return negative ? -value : value;
+            if(negative) return Long.toString(-value);
+            return Long.toUnsignedString(value);
+        }
+
+        byte[] bytes = new byte[length];
+        for(int i = length - 1; i >= 0; i--) bytes[i] = buffer.get();
+        BigInteger value = new BigInteger(1, bytes);
+        return (negative ? value.negate() : value).toString();
+    }
+
+    private static @NotNull String decodeString(@NotNull ByteBuffer buffer, int length) {
+        if(buffer.hasArray()) {
+            String s = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return s;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.etf;
+
+import me.linusdev.data.AbstractData;
+import me.linusdev.data.Datable;
+import me.linusdev.data.SimpleDatable;
+import me.linusdev.data.entry.Entry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+import static me.linusdev.lapi.api.communication.gateway.etf.EtfTag.*;
+
+/**
+ * <p>
+ *     Encodes objects in the External Term Format. Supported are {@link AbstractData} (encoded as map),
+ *     {@link Datable}, {@link SimpleDatable}, {@link Collection Collections}, arrays, {@link String Strings},
+ *     {@link Number Numbers}, {@link Boolean Booleans} and {@code null}. Any other object is encoded as
+ *     {@link Object#toString() string}.
+ * </p>
+ * <p>
+ *     Strings and map keys are encoded as {@link EtfTag#BINARY_EXT binaries}, {@code null} as the atom
+ *     {@link EtfTag#ATOM_NIL nil}.
+ * </p>
+ * <p>
+ *     Every call of {@link #encode(Object)} uses a new buffer, because
+ *     {@link java.net.http.WebSocket#sendBinary(ByteBuffer, boolean) sendBinary} requires the buffer to stay unchanged
+ *     until the message has been sent.
+ * </p>
+ *
+ * @see <a href="https://www.erlang.org/doc/apps/erts/erl_ext_dist.html" target="_top">External Term Format</a>
+ */
+public class EtfEncoder {
+
+    public static final int DEFAULT_BUFFER_SIZE = 512;
+
+    private @NotNull ByteBuffer buffer;
+
+    private EtfEncoder() {
+        this.buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     *
+     * @param object object to encode
+     * @return {@link ByteBuffer} containing the encoded term between its position and limit
+     */
+    public static @NotNull ByteBuffer encode(@Nullable Object object) {
+        EtfEncoder encoder = new EtfEncoder();
+        encoder.buffer.put((byte) VERSION);
+        encoder.encodeTerm(object);
+        return encoder.buffer.flip();
+    }
+
+    private void encodeTerm(@Nullable Object object) {
+        if(object == null) {
+            encodeAtom(ATOM_NIL);
+
+        } else if(object instanceof AbstractData) {
+            encodeMap((AbstractData<?, ?>) object);
+
+        } else if(object instanceof Datable) {
+            encodeTerm(((Datable) object).getData());
+
+        } else if(object instanceof SimpleDatable) {
+            encodeTerm(((SimpleDatable) object).simplify());
+
+        } else if(object instanceof String) {
+            encodeBinary((String) object);
+
+        } else if(object instanceof Boolean) {
+            encodeAtom((Boolean) object ? ATOM_TRUE : ATOM_FALSE);
+
+        } else if(object instanceof Double || object instanceof Float) {
+            ensureCapacity(9);
+            buffer.put((byte) NEW_FLOAT_EXT);
+            buffer.putDouble(((Number) object).doubleValue());
+
+        } else if(object instanceof Number) {
+            encodeLong(((Number) object).longValue());
+
+        } else if(object instanceof Collection) {
+            Collection<?> collection = (Collection<?>) object;
+            if(collection.isEmpty()) {
+                ensureCapacity(1);
+                buffer.put((byte) NIL_EXT);
+                return;
+            }
+
+            ensureCapacity(5);
+            buffer.put((byte) LIST_EXT);
+            buffer.putInt(collection.size());
+            for(Object o : collection) encodeTerm(o);
+            ensureCapacity(1);
+            buffer.put((byte) NIL_EXT);
+
+        } else if(object instanceof Object[]) {
+            Object[] array = (Object[]) object;
+            if(array.length == 0) {
+                ensureCapacity(1);
+                buffer.put((byte) NIL_EXT);
+                return;
+            }
+
+            ensureCapacity(5);
+            buffer.put((byte) LIST_EXT);
+            buffer.putInt(array.length);
+            for(Object o : array) encodeTerm(o);
+            ensureCapacity(1);
+            buffer.put((byte) NIL_EXT);
+
+        } else {
+            encodeBinary(object.toString());
+        }
+    }
+
+    private void encodeMap(@NotNull AbstractData<?, ?> data) {
+        ensureCapacity(5);
+        buffer.put((byte) MAP_EXT);
+
+        int sizePosition = buffer.position();
+        buffer.putInt(0);
+
+        int size = 0;
+        for(Entry<?, ?> entry : data) {
+            encodeBinary(String.valueOf(entry.getKey()));
+            encodeTerm(entry.getValue());
+            size++;
+        }
+
+        buffer.putInt(sizePosition, size);
+    }
+
+    private void encodeLong(long value) {
+        if(value >= 0 && value <= 255) {
+            ensureCapacity(2);
+            buffer.put((byte) SMALL_INTEGER_EXT);
+            buffer.put((byte) value);
+
+        } else if(value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            ensureCapacity(5);
+            buffer.put((byte) INTEGER_EXT);
+            buffer.putInt((int) value);
+
+        } else {
+            boolean negative = value < 0;
+            //Long.MIN_VALUE stays negative, but its unsigned value is correct
+            long abs = negative ? -value : value;
+
+            ensureCapacity(11);
+            buffer.put((byte) SMALL_BIG_EXT);
+            int lengthPosition = buffer.position();
+            buffer.put((byte) 0);
+            buffer.put((byte) (negative ? 1 : 0));
+
+            int length = 0;
+            while (abs != 0) {
+                buffer.put((byte) (abs & 0xFF));
+                abs >>>= 8;
+                length++;
+            }
+
+            buffer.put(lengthPosition, (byte) length);
+        }
+    }
+
+    private void encodeAtom(@NotNull String atom) {
+        byte[] bytes = atom.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(2 + bytes.length);
+        buffer.put((byte) SMALL_ATOM_UTF8_EXT);
+        buffer.put((byte) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void encodeBinary(@NotNull String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(5 + bytes.length);
+        buffer.put((byte) BINARY_EXT);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if(buffer.remaining() >= bytes) return;
+
+        int newCapacity = buffer.capacity() * 2;
+        while (newCapacity - buffer.position() < bytes) newCapacity *= 2;
+
+        ByteBuffer newBuffer = ByteBuffer.allocate(newCapacity);
+        buffer.flip();
+        newBuffer.put(buffer);
+        buffer = newBuffer;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.etf;
+
+/**
+ * Tags of the External Term Format used by Discord.
+ *
+ * @see <a href="https://www.erlang.org/doc/apps/erts/erl_ext_dist.html" target="_top">External Term Format</a>
+ * @see <a href="https://discord.com/developers/docs/topics/gateway#etfjson" target="_top">ETF/JSON</a>
+ */
+public final class EtfTag {
+
+    public static final int VERSION = 131;
+
+    public static final int NEW_FLOAT_EXT = 70;
+    public static final int SMALL_INTEGER_EXT = 97;
+    public static final int INTEGER_EXT = 98;
+    public static final int FLOAT_EXT = 99;
+    public static final int ATOM_EXT = 100;
+    public static final int SMALL_TUPLE_EXT = 104;
+    public static final int LARGE_TUPLE_EXT = 105;
+    public static final int NIL_EXT = 106;
+    public static final int STRING_EXT = 107;
+    public static final int LIST_EXT = 108;
+    public static final int BINARY_EXT = 109;
+    public static final int SMALL_BIG_EXT = 110;
+    public static final int LARGE_BIG_EXT = 111;
+    public static final int SMALL_ATOM_EXT = 115;
+    public static final int MAP_EXT = 116;
+    public static final int ATOM_UTF8_EXT = 118;
+    public static final int SMALL_ATOM_UTF8_EXT = 119;
+
+    public static final String ATOM_NIL = "nil";
+    public static final String ATOM_NULL = "null";
+    public static final String ATOM_TRUE = "true";
+    public static final String ATOM_FALSE = "false";
+
+    private EtfTag() {}
+}
@@ -44,6 +44,7 @@ public class ReadyEvent extends Event implements Datable, HasLApi {
     public static final String USER_KEY = "user";
     public static final String GUILDS_KEY = "guilds";
     public static final String SESSION_ID_KEY = "session_id";
+    public static final String RESUME_GATEWAY_URL_KEY = "resume_gateway_url";
     public static final String SHARD_KEY = "shard";
     public static final String APPLICATION_KEY = "application";
 
@@ -53,6 +54,7 @@ public class ReadyEvent extends Event implements Datable, HasLApi {
     private final @NotNull User user;
     private final @NotNull UnavailableGuild[] guilds;
     private final @NotNull String  sessionId;
+    private final @Nullable String resumeGatewayUrl;
     private final @Nullable Integer shardId;
     private final @Nullable Integer numShards;
     private final @NotNull PartialApplication application;
@@ -64,17 +66,19 @@ public class ReadyEvent extends Event implements Datable, HasLApi {
      * @param user information about the user including email
      * @param guilds the guilds the user is in
      * @param sessionId used for resuming connections
+     * @param resumeGatewayUrl gateway url for resuming connections
      * @param shardId the shard information associated with this session, if sent when identifying
      * @param numShards the shard information associated with this session, if sent when identifying
      * @param application contains id and flags
      */
-    public ReadyEvent(@NotNull LApi lApi, GatewayPayloadAbstract payload, @NotNull ApiVersion version, @NotNull User user, @NotNull UnavailableGuild[] guilds, @NotNull String sessionId, @Nullable Integer shardId, @Nullable Integer numShards, @NotNull PartialApplication application) {
+    public ReadyEvent(@NotNull LApi lApi, GatewayPayloadAbstract payload, @NotNull ApiVersion version, @NotNull User user, @NotNull UnavailableGuild[] guilds, @NotNull String sessionId, @Nullable String resumeGatewayUrl, @Nullable Integer shardId, @Nullable Integer numShards, @NotNull PartialApplication application) {
         super(lApi, payload, null);
         this.lApi = lApi;
         this.version = version;
         this.user = user;
         this.guilds = guilds;
         this.sessionId = sessionId;
+        this.resumeGatewayUrl = resumeGatewayUrl;
         this.shardId = shardId;
         this.numShards = numShards;
         this.application = application;
@@ -99,6 +103,7 @@ public class ReadyEvent extends Event implements Datable, HasLApi {
                 (ExceptionConverter<SOData, UnavailableGuild, InvalidDataException>) UnavailableGuild::fromData);
 
         String sessionId = (String) data.get(SESSION_ID_KEY);
+        String resumeGatewayUrl = (String) data.get(RESUME_GATEWAY_URL_KEY);
 
         ArrayList<Integer> shard = data.getListAndConvert(SHARD_KEY, (Converter<Number, Integer>) convertible -> {
             if(convertible == null) return null;
@@ -115,7 +120,7 @@ public class ReadyEvent extends Event implements Datable, HasLApi {
         }
 
         //noinspection ConstantConditions
-        return new ReadyEvent(lApi, payload, ApiVersion.fromInt(version.intValue()), user, guilds.toArray(new UnavailableGuild[0]), sessionId,
+        return new ReadyEvent(lApi, payload, ApiVersion.fromInt(version.intValue()), user, guilds.toArray(new UnavailableGuild[0]), sessionId, resumeGatewayUrl,
                 shard == null ? null : shard.get(0), shard == null ? null : shard.get(1), application);
     }
 
@@ -147,6 +152,13 @@ public class ReadyEvent extends Event implements Datable, HasLApi {
         return sessionId;
     }
 
+    /**
+     * gateway url for resuming connections
+     */
+    public @Nullable String getResumeGatewayUrl() {
+        return resumeGatewayUrl;
+    }
+
     /**
      * the shard information associated with this session, if sent when identifying
      */
@@ -170,12 +182,13 @@ public class ReadyEvent extends Event implements Datable, HasLApi {
 
     @Override
     public SOData getData() {
-        SOData data = SOData.newOrderedDataWithKnownSize(6);
+        SOData data = SOData.newOrderedDataWithKnownSize(7);
 
         data.add(VERSION_KEY, version);
         data.add(USER_KEY, user);
         data.add(GUILDS_KEY, guilds);
         data.add(SESSION_ID_KEY, sessionId);
+        if(resumeGatewayUrl != null) data.add(RESUME_GATEWAY_URL_KEY, resumeGatewayUrl);
         if(shardId != null && numShards != null) data.add(SHARD_KEY, new int[]{shardId, numShards});
         data.add(APPLICATION_KEY, application);
 
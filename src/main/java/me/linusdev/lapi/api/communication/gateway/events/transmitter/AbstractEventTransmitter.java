@@ -16,11 +16,13 @@
 
 package me.linusdev.lapi.api.communication.gateway.events.transmitter;
 
+import me.linusdev.lapi.api.communication.gateway.events.Event;
 import me.linusdev.lapi.api.communication.gateway.events.message.GuildMessageCreateEvent;
 import me.linusdev.lapi.api.communication.gateway.events.message.MessageCreateEvent;
 import me.linusdev.lapi.api.lapi.LApi;
 import me.linusdev.lapi.api.interfaces.HasLApi;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
@@ -33,6 +35,16 @@ public interface AbstractEventTransmitter extends HasLApi {
      */
     void addListener(@NotNull EventListener listener);
 
+    /**
+     * Adds a listener, which will listen to all events. Its methods are called as specified by given
+     * {@link ListenerExecutionPolicy}. A listener has only one policy: adding it again with a different policy
+     * replaces its previous policy.
+     *
+     * @param listener the {@link EventListener} to add
+     * @param policy the {@link ListenerExecutionPolicy} of the listener
+     */
+    void addListener(@NotNull EventListener listener, @NotNull ListenerExecutionPolicy policy);
+
     /**
      * This will not remove {@link #addSpecifiedListener(EventListener, EventIdentifier...) specified listener}!
      * @param listener the {@link EventListener} to remove
@@ -75,10 +87,100 @@ public interface AbstractEventTransmitter extends HasLApi {
     void addSpecifiedListener(@NotNull EventListener listener, @NotNull EventIdentifier... specifications);
 
     /**
+     * Same as {@link #addSpecifiedListener(EventListener, EventIdentifier...)}, but the methods of the listener are
+     * called as specified by given {@link ListenerExecutionPolicy}. A listener has only one policy: adding it again with
+     * a different policy replaces its previous policy.
+     *
+     * @param listener the listener
+     * @param policy the {@link ListenerExecutionPolicy} of the listener
+     * @param specifications to which Events the listener shall listen to
+     */
+    void addSpecifiedListener(@NotNull EventListener listener, @NotNull ListenerExecutionPolicy policy,
+                              @NotNull EventIdentifier... specifications);
+
+    /**
+     * Same as {@link #addSpecifiedListener(EventListener, EventIdentifier...)}, but the listener only receives events
+     * within given {@link ListenerScope} (for example events of certain guilds). Scoped listeners are indexed by the
+     * ids of their scope, so they do not slow down events outside their scope. This should be preferred over checking
+     * the guild or channel of an event inside the listener.<br>
+     * A listener added with several scopes receives an event once for every matching scope.
+     *
+     * @param listener the listener
+     * @param scope the {@link ListenerScope} of the listener
+     * @param specifications to which Events the listener shall listen to
+     */
+    void addSpecifiedListener(@NotNull EventListener listener, @NotNull ListenerScope scope,
+                              @NotNull EventIdentifier... specifications);
+
+    /**
+     * Combination of {@link #addSpecifiedListener(EventListener, ListenerExecutionPolicy, EventIdentifier...)} and
+     * {@link #addSpecifiedListener(EventListener, ListenerScope, EventIdentifier...)}.
+     *
+     * @param listener the listener
+     * @param policy the {@link ListenerExecutionPolicy} of the listener
+     * @param scope the {@link ListenerScope} of the listener
+     * @param specifications to which Events the listener shall listen to
+     */
+    void addSpecifiedListener(@NotNull EventListener listener, @NotNull ListenerExecutionPolicy policy,
+                              @NotNull ListenerScope scope, @NotNull EventIdentifier... specifications);
+
+    /**
+     * Removes the listener from given events. This includes {@link #addSpecifiedListener(EventListener, ListenerScope, EventIdentifier...)
+     * scoped} registrations of the listener for these events.
      *
      * @param listener the listener to remove
      * @param specifications to which Events the listener shall not listen to anymore
      * @return true if all {@link List#remove(Object) remove} calls returned true
      */
     boolean removeSpecifiedListener(@NotNull EventListener listener, @NotNull EventIdentifier... specifications);
+
+    /**
+     *
+     * @param listener the listener
+     * @return {@link ListenerExecutionMetrics} of given listener or {@code null} if given listener is not registered or
+     * is called {@link ListenerExecutionPolicy#inline() inline}
+     */
+    @Nullable ListenerExecutionMetrics getExecutionMetrics(@NotNull EventListener listener);
+
+    /**
+     * Adds a {@link BatchEventListener}, which receives the events with given {@link EventIdentifier} in batches. A batch
+     * is delivered as soon as it contains {@code maxBatchSize} events or its oldest event has waited
+     * {@code maxDelayMillis} milliseconds. Full batches are delivered on the thread transmitting the event, delayed
+     * batches on a supervised thread of the {@link LApi}.<br>
+     * The lists used for the batches are reused, so batching does not create garbage per event. This should be preferred
+     * for listeners, which handle many events in the same way (for example count or store them).<br>
+     * A listener can be added for several identifiers. Every identifier has its own batch.
+     *
+     * @param identifier the {@link EventIdentifier} of the events. The events of this identifier must be of type {@code E}.
+     *                   Otherwise a {@link ClassCastException} will be passed to
+     *                   {@link BatchEventListener#onUncaughtException(Throwable)}.
+     * @param listener the listener
+     * @param maxBatchSize max count of events in a batch. At least 1
+     * @param maxDelayMillis max time in milliseconds an event waits in a batch before it is delivered
+     * @param <E> type of the events
+     */
+    <E extends Event> void addBatchListener(@NotNull EventIdentifier identifier, @NotNull BatchEventListener<E> listener,
+                                            int maxBatchSize, long maxDelayMillis);
+
+    /**
+     * Removes given {@link BatchEventListener} from all identifiers it was added for. Events, which have not been
+     * delivered yet, are delivered before this method returns.
+     *
+     * @param listener the listener to remove
+     * @return {@code true} if the listener was removed
+     */
+    boolean removeBatchListener(@NotNull BatchEventListener<?> listener);
+
+    /**
+     * Returns the {@link java.util.concurrent.Flow.Publisher Flow.Publisher} of the events with given
+     * {@link EventIdentifier}. Every call with the same identifier returns the same publisher. Its subscribers receive
+     * the events alongside all other listeners, but only as many as they have requested. Every subscriber has its own
+     * buffer and {@link EventPublisher.OverflowPolicy}, see
+     * {@link EventPublisher#subscribe(java.util.concurrent.Flow.Subscriber, int, EventPublisher.OverflowPolicy)}.
+     *
+     * @param identifier the {@link EventIdentifier} of the events. The events of this identifier must be of type {@code E}.
+     * @param <E> type of the events
+     * @return {@link EventPublisher} of given identifier
+     */
+    <E extends Event> @NotNull EventPublisher<E> getPublisher(@NotNull EventIdentifier identifier);
 }
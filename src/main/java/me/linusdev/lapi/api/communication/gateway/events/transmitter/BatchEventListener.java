@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.events.transmitter;
+
+import me.linusdev.lapi.api.communication.gateway.events.Event;
+import me.linusdev.lapi.api.lapi.LApi;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * <p>
+ *     Receives events in batches instead of one at a time. Useful for listeners, which process many events in the
+ *     same way, for example to write them to a database with a single insert.
+ * </p>
+ * <p>
+ *     A batch is delivered, once it contains the max batch size of events or its oldest event has waited for the max
+ *     delay. See {@link AbstractEventTransmitter#addBatchListener(EventIdentifier, BatchEventListener, int, long)}.
+ * </p>
+ * @param <E> type of the events. Must be a super type of the events of the identifier the listener is added for.
+ */
+@FunctionalInterface
+public interface BatchEventListener<E extends Event> extends UncaughtExceptionListener {
+
+    /**
+     * Called with every batch of events in the order the events were transmitted. Batches are never delivered
+     * concurrently.<br>
+     * The list is reused for later batches: It must not be modified and must not be used after this method returns.
+     * Copy it, if the events are required later.
+     *
+     * @param lApi {@link LApi}
+     * @param events the batch of events. Never empty.
+     */
+    void onEvents(@NotNull LApi lApi, @NotNull List<E> events);
+}
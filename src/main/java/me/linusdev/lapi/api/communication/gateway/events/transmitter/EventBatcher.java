@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.events.transmitter;
+
+import me.linusdev.lapi.api.communication.gateway.events.Event;
+import me.linusdev.lapi.api.lapi.LApi;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ *     Collects the events of a {@link BatchEventListener} and delivers them in batches.
+ * </p>
+ * <p>
+ *     Two buffers are used alternately: Events are added to the collecting buffer, while the other one is delivered.
+ *     Both are allocated once with the max batch size and reused for every batch.
+ * </p>
+ * <p>
+ *     Batches are delivered by {@link LApi#runSupervised(Runnable, long) supervised runnables}, so the thread adding
+ *     the events does not wait for the listener. If the listener is slower than the events arrive, at most
+ *     {@link #MAX_PENDING_BATCHES} batches are collected. Once that many events are waiting, the adding thread delivers
+ *     them itself. It is blocked until the listener has processed them, which slows the event dispatch down to the
+ *     listener's pace instead of buffering an unbounded amount of events.
+ * </p>
+ * @param <E> type of the events
+ */
+class EventBatcher<E extends Event> {
+
+    /**
+     * Max amount of full batches, which are collected while a batch is delivered.
+     */
+    static final int MAX_PENDING_BATCHES = 4;
+
+    private final @NotNull LApi lApi;
+    private final @NotNull EventIdentifier identifier;
+    private final @NotNull BatchEventListener<E> listener;
+    private final int maxBatchSize;
+    private final long maxDelayMillis;
+    /**
+     * Once this many events are collected, they are delivered on the adding thread. See {@link #MAX_PENDING_BATCHES}.
+     */
+    private final int maxCollected;
+
+    /**
+     * Guards {@link #collecting} and {@link #generation}.
+     */
+    private final @NotNull Object lock = new Object();
+    /**
+     * Held while a batch is delivered, so batches are never delivered concurrently.
+     */
+    private final @NotNull Object deliverLock = new Object();
+
+    private @NotNull ArrayList<E> collecting;
+    private @NotNull ArrayList<E> delivering;
+    /**
+     * Incremented with every delivered batch. Used to find out, if the batch a delayed flush was scheduled for, has
+     * already been delivered.
+     */
+    private long generation = 0;
+
+    EventBatcher(@NotNull LApi lApi, @NotNull EventIdentifier identifier, @NotNull BatchEventListener<E> listener,
+                 int maxBatchSize, long maxDelayMillis) {
+        if(maxBatchSize < 1) throw new IllegalArgumentException("maxBatchSize must be at least 1.");
+        if(maxDelayMillis < 0) throw new IllegalArgumentException("maxDelayMillis must not be negative.");
+        this.lApi = lApi;
+        this.identifier = identifier;
+        this.listener = listener;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxCollected = (int) Math.min((long) maxBatchSize * MAX_PENDING_BATCHES, Integer.MAX_VALUE);
+        this.collecting = new ArrayList<>(maxBatchSize);
+        this.delivering = new ArrayList<>(maxBatchSize);
+    }
+
+    /**
+     * Adds given event to the current batch. If it is the first event of the batch, a delayed delivery is scheduled.
+     * If the batch is full, its delivery is scheduled immediately. If {@link #maxCollected} events are waiting, because
+     * the listener cannot keep up, they are delivered on the current thread.
+     * @param event the event. Must be of type {@code E}
+     */
+    @SuppressWarnings("unchecked")
+    void add(@NotNull Event event) {
+        int size;
+        long generation;
+
+        synchronized (lock) {
+            collecting.add((E) event);
+            size = collecting.size();
+            generation = this.generation;
+        }
+
+        if(size >= maxCollected) {
+            //backpressure: wait for the listener
+            flush(-1);
+        } else if(size == maxBatchSize) {
+            lApi.runSupervised(() -> flush(generation));
+        } else if(size == 1) {
+            lApi.runSupervised(() -> flush(generation), maxDelayMillis);
+        }
+    }
+
+    /**
+     * Delivers the current batch.
+     * @param expectedGeneration generation of the batch to deliver. If it has been delivered already, nothing happens.
+     *                           {@code -1} to deliver the current batch in any case.
+     */
+    void flush(long expectedGeneration) {
+        synchronized (deliverLock) {
+            synchronized (lock) {
+                if(collecting.isEmpty()) return;
+                if(expectedGeneration != -1 && expectedGeneration != generation) return;
+
+                ArrayList<E> batch = collecting;
+                collecting = delivering;
+                delivering = batch;
+                generation++;
+            }
+
+            try {
+                //events may have been added by other threads, while the previous batch was delivered
+                for(int i = 0; i < delivering.size(); i += maxBatchSize) {
+                    List<E> batch = i == 0 && delivering.size() <= maxBatchSize ?
+                            delivering : delivering.subList(i, Math.min(i + maxBatchSize, delivering.size()));
+                    try {
+                        listener.onEvents(lApi, Collections.unmodifiableList(batch));
+                    } catch (Throwable t) {
+                        listener.onUncaughtException(t);
+                    }
+                }
+            } finally {
+                delivering.clear();
+            }
+        }
+    }
+
+    @NotNull EventIdentifier getIdentifier() {
+        return identifier;
+    }
+
+    @NotNull BatchEventListener<E> getListener() {
+        return listener;
+    }
+}
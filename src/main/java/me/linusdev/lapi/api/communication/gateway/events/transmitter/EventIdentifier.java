@@ -268,7 +268,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    CHANNEL_CREATE,
+    CHANNEL_CREATE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onChannelUpdate(LApi, ChannelUpdateEvent)}.
@@ -280,7 +280,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    CHANNEL_UPDATE,
+    CHANNEL_UPDATE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onChannelDelete(LApi, ChannelDeleteEvent)}.
@@ -292,7 +292,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    CHANNEL_DELETE,
+    CHANNEL_DELETE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onThreadCreate(LApi, ThreadCreateEvent)}.
@@ -304,7 +304,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    THREAD_CREATE,
+    THREAD_CREATE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onThreadUpdate(LApi, ThreadUpdateEvent)}.
@@ -316,7 +316,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    THREAD_UPDATE,
+    THREAD_UPDATE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onThreadDelete(LApi, ThreadDeleteEvent)}.
@@ -328,7 +328,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    THREAD_DELETE,
+    THREAD_DELETE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onThreadListSync(LApi, ThreadListSyncEvent)}.
@@ -340,7 +340,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    THREAD_LIST_SYNC,
+    THREAD_LIST_SYNC(GUILDS),
 
     /**
      * identifier for {@link EventListener#onThreadMemberUpdate(LApi, ThreadMemberUpdateEvent)}.
@@ -352,7 +352,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    THREAD_MEMBER_UPDATE,
+    THREAD_MEMBER_UPDATE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onThreadMembersUpdate(LApi, ThreadMembersUpdateEvent)}.
@@ -364,7 +364,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    THREAD_MEMBERS_UPDATE,
+    THREAD_MEMBERS_UPDATE(GUILDS, GUILD_MEMBERS),
 
     /**
      * identifier for {@link EventListener#onChannelPinsUpdate(LApi, ChannelPinsUpdateEvent)}.
@@ -376,7 +376,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    CHANNEL_PINS_UPDATE,
+    CHANNEL_PINS_UPDATE(GUILDS, DIRECT_MESSAGES),
 
     /* * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * *
      *                                                               *
@@ -396,7 +396,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_CREATE,
+    GUILD_CREATE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onGuildDelete(LApi, GuildDeleteEvent)}.
@@ -408,7 +408,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_DELETE,
+    GUILD_DELETE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onGuildUpdate(LApi, GuildUpdateEvent)}.
@@ -420,7 +420,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_UPDATE,
+    GUILD_UPDATE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onGuildJoined(LApi, GuildJoinedEvent)}.
@@ -439,7 +439,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_JOINED,
+    GUILD_JOINED(GUILDS),
 
     /**
      * identifier for {@link EventListener#onGuildLeft(LApi, GuildLeftEvent)}.
@@ -457,7 +457,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_LEFT,
+    GUILD_LEFT(GUILDS),
 
     /**
      * identifier for {@link EventListener#onGuildUnavailable(LApi, GuildUnavailableEvent)}.
@@ -469,7 +469,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_UNAVAILABLE,
+    GUILD_UNAVAILABLE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onGuildAvailable(LApi, GuildAvailableEvent)}.
@@ -481,7 +481,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_AVAILABLE,
+    GUILD_AVAILABLE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onGuildBanAdd(LApi, GuildBanEvent)}.
@@ -493,7 +493,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_BAN_ADD,
+    GUILD_BAN_ADD(GUILD_BANS),
 
     /**
      * identifier for {@link EventListener#onGuildBanRemove(LApi, GuildBanEvent)}.
@@ -505,7 +505,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_BAN_REMOVE,
+    GUILD_BAN_REMOVE(GUILD_BANS),
 
     /**
      * identifier for {@link EventListener#onGuildEmojisUpdate(LApi, GuildEmojisUpdateEvent)}.
@@ -517,7 +517,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_EMOJIS_UPDATE,
+    GUILD_EMOJIS_UPDATE(GUILD_EMOJIS_AND_STICKERS),
 
     /**
      * identifier for {@link EventListener#onGuildStickersUpdate(LApi, GuildStickersUpdateEvent)}.
@@ -529,7 +529,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_STICKERS_UPDATE,
+    GUILD_STICKERS_UPDATE(GUILD_EMOJIS_AND_STICKERS),
 
     /**
      * identifier for {@link EventListener#onGuildIntegrationsUpdate(LApi, GuildIntegrationsUpdateEvent)}.
@@ -541,7 +541,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_INTEGRATIONS_UPDATE,
+    GUILD_INTEGRATIONS_UPDATE(GUILD_INTEGRATIONS),
 
     /**
      * identifier for {@link EventListener#onGuildMemberAdd(LApi, GuildMemberAddEvent)}.
@@ -553,7 +553,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_MEMBER_ADD,
+    GUILD_MEMBER_ADD(GUILD_MEMBERS),
 
     /**
      * identifier for {@link EventListener#onGuildMemberUpdate(LApi, GuildMemberUpdateEvent)}.
@@ -565,7 +565,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_MEMBER_UPDATE,
+    GUILD_MEMBER_UPDATE(GUILD_MEMBERS),
 
     /**
      * identifier for {@link EventListener#onGuildMemberRemove(LApi, GuildMemberRemoveEvent)}.
@@ -577,7 +577,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_MEMBER_REMOVE,
+    GUILD_MEMBER_REMOVE(GUILD_MEMBERS),
 
     /**
      * identifier for {@link EventListener#onGuildMembersChunk(LApi, GuildMembersChunkEvent)}.
@@ -595,7 +595,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_ROLE_CREATE,
+    GUILD_ROLE_CREATE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onGuildRoleUpdate(LApi, GuildRoleUpdateEvent)}.
@@ -607,7 +607,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_ROLE_UPDATE,
+    GUILD_ROLE_UPDATE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onGuildRoleUpdate(LApi, GuildRoleUpdateEvent)}.
@@ -619,7 +619,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_ROLE_DELETE,
+    GUILD_ROLE_DELETE(GUILDS),
 
 
     /* * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * *
@@ -640,7 +640,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_SCHEDULED_EVENT_CREATE,
+    GUILD_SCHEDULED_EVENT_CREATE(GUILD_SCHEDULED_EVENTS),
 
     /**
      * identifier for {@link EventListener#onGuildScheduledEventUpdate(LApi, GuildScheduledEventEvent)}.
@@ -652,7 +652,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_SCHEDULED_EVENT_UPDATE,
+    GUILD_SCHEDULED_EVENT_UPDATE(GUILD_SCHEDULED_EVENTS),
 
     /**
      * identifier for {@link EventListener#onGuildScheduledEventDelete(LApi, GuildScheduledEventEvent)}.
@@ -664,7 +664,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_SCHEDULED_EVENT_DELETE,
+    GUILD_SCHEDULED_EVENT_DELETE(GUILD_SCHEDULED_EVENTS),
 
     /**
      * identifier for {@link EventListener#onGuildScheduledEventUserAdd(LApi, GuildScheduledEventUserEvent)}.
@@ -676,7 +676,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_SCHEDULED_EVENT_USER_ADD,
+    GUILD_SCHEDULED_EVENT_USER_ADD(GUILD_SCHEDULED_EVENTS),
 
     /**
      * identifier for {@link EventListener#onGuildScheduledEventUserRemove(LApi, GuildScheduledEventUserEvent)}.
@@ -688,7 +688,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    GUILD_SCHEDULED_EVENT_USER_REMOVE,
+    GUILD_SCHEDULED_EVENT_USER_REMOVE(GUILD_SCHEDULED_EVENTS),
 
     /* * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * *
      *                                                               *
@@ -708,7 +708,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    INTEGRATION_CREATE,
+    INTEGRATION_CREATE(GUILD_INTEGRATIONS),
 
     /**
      * identifier for {@link EventListener#onIntegrationUpdate(LApi, IntegrationUpdateEvent)}.
@@ -720,7 +720,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    INTEGRATION_UPDATE,
+    INTEGRATION_UPDATE(GUILD_INTEGRATIONS),
 
     /**
      * identifier for {@link EventListener#onIntegrationDelete(LApi, IntegrationDeleteEvent)}.
@@ -732,7 +732,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    INTEGRATION_DELETE,
+    INTEGRATION_DELETE(GUILD_INTEGRATIONS),
 
     /* * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * *
      *                                                               *
@@ -752,7 +752,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    INVITE_CREATE,
+    INVITE_CREATE(GUILD_INVITES),
 
     /**
      * identifier for {@link EventListener#onInviteDelete(LApi, InviteDeleteEvent)}.
@@ -764,7 +764,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    INVITE_DELETE,
+    INVITE_DELETE(GUILD_INVITES),
 
     /* * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * *
      *                                                               *
@@ -776,57 +776,64 @@ public enum EventIdentifier implements Requireable {
 
     /**
      * identifier for {@link EventListener#onMessageCreate(LApi, MessageCreateEvent)}.
-     *
-     * TODO: What does this one require and also all other Message Events below
+     * <br><br>
+     * requires:
+     * <ul>
+     *     <li>
+     *         {@link GatewayIntent#GUILD_MESSAGES GUILD_MESSAGES}
+     *         And / or {@link GatewayIntent#DIRECT_MESSAGES DIRECT_MESSAGES}
+     *     </li>
+     * </ul>
+     * The same applies to all other message events below.
      */
-    MESSAGE_CREATE,
+    MESSAGE_CREATE(GUILD_MESSAGES, DIRECT_MESSAGES),
 
     /**
      * identifier for {@link EventListener#onGuildMessageCreate(LApi, GuildMessageCreateEvent)}.<br>
      * sub-event of {@link #MESSAGE_CREATE}.
      */
-    GUILD_MESSAGE_CREATE,
+    GUILD_MESSAGE_CREATE(GUILD_MESSAGES),
 
     /**
      * identifier for {@link EventListener#onNonGuildMessageCreate(LApi, MessageCreateEvent)}.<br>
      * sub-event of {@link #MESSAGE_CREATE}.
      */
-    NON_GUILD_MESSAGE_CREATE,
+    NON_GUILD_MESSAGE_CREATE(DIRECT_MESSAGES),
 
     /**
      * identifier for {@link EventListener#onMessageUpdate(LApi, MessageUpdateEvent)}.
      */
-    MESSAGE_UPDATE,
+    MESSAGE_UPDATE(GUILD_MESSAGES, DIRECT_MESSAGES),
 
     /**
      * identifier for {@link EventListener#onMessageDelete(LApi, MessageDeleteEvent)}.
      */
-    MESSAGE_DELETE,
+    MESSAGE_DELETE(GUILD_MESSAGES, DIRECT_MESSAGES),
 
     /**
      * identifier for {@link EventListener#onMessageDeleteBulk(LApi, MessageDeleteBulkEvent)}.
      */
-    MESSAGE_DELETE_BULK,
+    MESSAGE_DELETE_BULK(GUILD_MESSAGES),
 
     /**
      * identifier for {@link EventListener#onMessageReactionAdd(LApi, MessageReactionEvent)}.
      */
-    MESSAGE_REACTION_ADD,
+    MESSAGE_REACTION_ADD(GUILD_MESSAGE_REACTIONS, DIRECT_MESSAGE_REACTIONS),
 
     /**
      * identifier for {@link EventListener#onMessageReactionRemove(LApi, MessageReactionEvent)}.
      */
-    MESSAGE_REACTION_REMOVE,
+    MESSAGE_REACTION_REMOVE(GUILD_MESSAGE_REACTIONS, DIRECT_MESSAGE_REACTIONS),
 
     /**
      * identifier for {@link EventListener#onMessageReactionRemoveAll(LApi, MessageReactionRemoveAllEvent)}.
      */
-    MESSAGE_REACTION_REMOVE_ALL,
+    MESSAGE_REACTION_REMOVE_ALL(GUILD_MESSAGE_REACTIONS, DIRECT_MESSAGE_REACTIONS),
 
     /**
      * identifier for {@link EventListener#onMessageReactionRemoveEmoji(LApi, MessageReactionRemoveEmojiEvent)}.
      */
-    MESSAGE_REACTION_REMOVE_EMOJI,
+    MESSAGE_REACTION_REMOVE_EMOJI(GUILD_MESSAGE_REACTIONS, DIRECT_MESSAGE_REACTIONS),
 
     /* * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * *
      *                                                               *
@@ -859,7 +866,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    PRESENCE_UPDATE,
+    PRESENCE_UPDATE(GUILD_PRESENCES),
 
     /* * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * *
      *                                                               *
@@ -879,7 +886,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    STAGE_INSTANCE_CREATE,
+    STAGE_INSTANCE_CREATE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onStageInstanceDelete(LApi, StageInstanceEvent)}.
@@ -891,7 +898,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    STAGE_INSTANCE_DELETE,
+    STAGE_INSTANCE_DELETE(GUILDS),
 
     /**
      * identifier for {@link EventListener#onStageInstanceUpdate(LApi, StageInstanceEvent)}.
@@ -903,7 +910,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    STAGE_INSTANCE_UPDATE,
+    STAGE_INSTANCE_UPDATE(GUILDS),
 
     /* * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * *
      *                                                               *
@@ -924,7 +931,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    TYPING_START,
+    TYPING_START(GUILD_MESSAGE_TYPING, DIRECT_MESSAGE_TYPING),
 
     /* * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * *
      *                                                               *
@@ -958,7 +965,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    VOICE_STATE_UPDATE,
+    VOICE_STATE_UPDATE(GUILD_VOICE_STATES),
 
     /**
      * identifier for {@link EventListener#onVoiceServerUpdate(LApi, VoiceServerUpdateEvent)}.
@@ -984,7 +991,7 @@ public enum EventIdentifier implements Requireable {
      *     </li>
      * </ul>
      */
-    WEBHOOKS_UPDATE,
+    WEBHOOKS_UPDATE(GUILD_WEBHOOKS),
 
     /* * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * *
      *                                                               *
@@ -1013,17 +1020,31 @@ public enum EventIdentifier implements Requireable {
     private final @Nullable Requireable[] requires;
     private final boolean isReadyEvent;
     private final boolean requiredForLApiReady;
+    private final @NotNull GatewayIntent[] intents;
 
     EventIdentifier() {
         this.requires = null;
         this.isReadyEvent = false;
         this.requiredForLApiReady = false;
+        this.intents = new GatewayIntent[0];
+    }
+
+    /**
+     *
+     * @param intents the {@link GatewayIntent intents}, which cause Discord to send this event. Any of them is enough.
+     */
+    EventIdentifier(@NotNull GatewayIntent... intents) {
+        this.requires = null;
+        this.isReadyEvent = false;
+        this.requiredForLApiReady = false;
+        this.intents = intents;
     }
 
     EventIdentifier(boolean isReadyEvent, boolean requiredForLApiReady, @Nullable Requireable... requires) {
         this.isReadyEvent = isReadyEvent;
         this.requiredForLApiReady = requiredForLApiReady;
         this.requires = requires;
+        this.intents = new GatewayIntent[0];
     }
 
     @Override
@@ -1047,4 +1068,26 @@ public enum EventIdentifier implements Requireable {
     public boolean isRequiredForLApiReady() {
         return requiredForLApiReady;
     }
+
+    /**
+     * Discord only sends this event, if at least one of these {@link GatewayIntent intents} is set. If the returned
+     * array is empty, the event does not depend on any intent.
+     * @return the {@link GatewayIntent intents}, which cause Discord to send this event. Do not modify the returned array.
+     */
+    public @NotNull GatewayIntent[] getIntents() {
+        return intents;
+    }
+
+    /**
+     *
+     * @param intents the intents as int, see {@link GatewayIntent#toInt(GatewayIntent[])}
+     * @return {@code true} if Discord will send this event, if given intents are set.
+     */
+    public boolean isDeliveredWith(int intents) {
+        if(this.intents.length == 0) return true;
+        for(GatewayIntent intent : this.intents) {
+            if(intent.isSet(intents)) return true;
+        }
+        return false;
+    }
 }
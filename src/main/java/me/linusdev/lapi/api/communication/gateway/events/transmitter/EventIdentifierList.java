@@ -16,32 +16,80 @@
 
 package me.linusdev.lapi.api.communication.gateway.events.transmitter;
 
-import de.linusdev.lutils.llist.LLinkedList;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
 
+/**
+ * <p>
+ *     Copy-on-write table, which contains an array of {@link EventListener EventListeners} for every
+ *     {@link EventIdentifier}.
+ * </p>
+ * <p>
+ *     Adding or removing a listener copies the array of the affected identifier and publishes a new table. Arrays
+ *     returned by {@link #get(EventIdentifier)} are never modified, so they can be iterated without locking, while
+ *     listeners are added or removed concurrently.
+ * </p>
+ */
 public class EventIdentifierList {
 
-    final LLinkedList<?>[] listenersMap;
-    final Object writeLock = new Object();
+    static final EventListener @NotNull [] EMPTY = new EventListener[0];
+
+    private volatile EventListener @NotNull [] @NotNull [] table;
+    private final Object writeLock = new Object();
 
     public EventIdentifierList() {
-        listenersMap = new LLinkedList[EventIdentifier.values().length];
+        EventListener[][] table = new EventListener[EventIdentifier.values().length][];
+        Arrays.fill(table, EMPTY);
+        this.table = table;
     }
 
-    @SuppressWarnings("unchecked")
-    public LLinkedList<EventListener> get(@NotNull EventIdentifier identifier) {
-        return (LLinkedList<EventListener>) listenersMap[identifier.ordinal()];
+    /**
+     *
+     * @param identifier the {@link EventIdentifier}
+     * @return array of all listeners of given identifier. Must not be modified!
+     */
+    public EventListener @NotNull [] get(@NotNull EventIdentifier identifier) {
+        return table[identifier.ordinal()];
     }
 
     public void put(@NotNull EventIdentifier identifier, @NotNull EventListener listener) {
         synchronized (writeLock) {
-            if(listenersMap[identifier.ordinal()] == null) {
-                listenersMap[identifier.ordinal()] = new LLinkedList<EventListener>();
+            EventListener[] old = table[identifier.ordinal()];
+            EventListener[] listeners = Arrays.copyOf(old, old.length + 1);
+            listeners[old.length] = listener;
+            publish(identifier, listeners);
+        }
+    }
+
+    /**
+     *
+     * @param identifier the {@link EventIdentifier}
+     * @param listener the listener to remove
+     * @return {@code true} if given listener was listening to given identifier
+     */
+    public boolean remove(@NotNull EventIdentifier identifier, @NotNull EventListener listener) {
+        synchronized (writeLock) {
+            EventListener[] old = table[identifier.ordinal()];
+
+            for(int i = 0; i < old.length; i++) {
+                if(!old[i].equals(listener)) continue;
+
+                EventListener[] listeners = new EventListener[old.length - 1];
+                System.arraycopy(old, 0, listeners, 0, i);
+                System.arraycopy(old, i + 1, listeners, i, old.length - i - 1);
+                publish(identifier, listeners.length == 0 ? EMPTY : listeners);
+                return true;
             }
+
+            return false;
         }
+    }
 
-        get(identifier).add(listener);
+    private void publish(@NotNull EventIdentifier identifier, EventListener @NotNull [] listeners) {
+        EventListener[][] table = this.table.clone();
+        table[identifier.ordinal()] = listeners;
+        this.table = table;
     }
 
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package me.linusdev.lapi.api.communication.gateway.events.transmitter;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ *     Finds the {@link EventIdentifier identifiers} of all {@link EventListener} methods, which are overridden by
+ *     a listener class. Every other method of the listener is empty and calling it is pointless.
+ * </p>
+ * <p>
+ *     The result is computed once per listener class using reflection and cached afterwards.
+ * </p>
+ */
+@ApiStatus.Internal
+public class EventListenerInspector {
+
+    private static final @NotNull Map<String, EventIdentifier> METHOD_NAME_TO_IDENTIFIER = new HashMap<>();
+
+    static {
+        for(EventIdentifier identifier : EventIdentifier.values()) {
+            METHOD_NAME_TO_IDENTIFIER.put(getMethodName(identifier), identifier);
+        }
+    }
+
+    private static final @NotNull ClassValue<Set<EventIdentifier>> OVERRIDDEN = new ClassValue<>() {
+        @Override
+        protected Set<EventIdentifier> computeValue(@NotNull Class<?> type) {
+            EnumSet<EventIdentifier> identifiers = EnumSet.noneOf(EventIdentifier.class);
+
+            for(Method method : EventListener.class.getMethods()) {
+                if(!method.isDefault() || Modifier.isStatic(method.getModifiers())) continue;
+                EventIdentifier identifier = METHOD_NAME_TO_IDENTIFIER.get(method.getName());
+                if(identifier == null) continue;
+
+                try {
+                    Method implementation = type.getMethod(method.getName(), method.getParameterTypes());
+                    if(implementation.getDeclaringClass() != EventListener.class) identifiers.add(identifier);
+                } catch (NoSuchMethodException ignored) {
+                    //cannot happen, type implements EventListener
+                }
+            }
+
+            return Collections.unmodifiableSet(identifiers);
+        }
+    };
+
+    /**
+     *
+     * @param listener the {@link EventListener}
+     * @return unmodifiable {@link Set} containing the {@link EventIdentifier} of every method overridden by given listener
+     */
+    public static @NotNull Set<EventIdentifier> getOverriddenIdentifiers(@NotNull EventListener listener) {
+        return getOverriddenIdentifiers(listener.getClass());
+    }
+
+    /**
+     *
+     * @param listenerClass class implementing {@link EventListener}
+     * @return unmodifiable {@link Set} containing the {@link EventIdentifier} of every method overridden by given class
+     */
+    public static @NotNull Set<EventIdentifier> getOverriddenIdentifiers(@NotNull Class<? extends EventListener> listenerClass) {
+        return OVERRIDDEN.get(listenerClass);
+    }
+
+    /**
+     *
+     * @param listener the {@link EventListener}
+     * @param identifier the {@link EventIdentifier}
+     * @return {@code true} if given listener overrides the method for given identifier
+     */
+    public static boolean overrides(@NotNull EventListener listener, @NotNull EventIdentifier identifier) {
+        return OVERRIDDEN.get(listener.getClass()).contains(identifier);
+    }
+
+    /**
+     *
+     * @param methodName name of a method in {@link EventListener}
+     * @return the {@link EventIdentifier} for given method or {@code null} if there is none
+     */
+    public static @Nullable EventIdentifier getIdentifier(@NotNull String methodName) {
+        return METHOD_NAME_TO_IDENTIFIER.get(methodName);
+    }
+
+    /**
+     * {@link EventListener} method names are "on" followed by the identifier in camel case. Only
+     * {@link EventIdentifier#UNKNOWN UNKNOWN} and the LApi events differ from this rule.
+     */
+    private static @NotNull String getMethodName(@NotNull EventIdentifier identifier) {
+        switch (identifier) {
+            case UNKNOWN: return "onUnknownEvent";
+            case LAPI_READY: return "onLApiReady";
+            case LAPI_ERROR: return "onLApiError";
+        }
+
+        StringBuilder name = new StringBuilder("on");
+        for(String word : identifier.name().split("_")) {
+            name.append(word.charAt(0)).append(word.substring(1).toLowerCase());
+        }
+
+        return name.toString();
+    }
+}
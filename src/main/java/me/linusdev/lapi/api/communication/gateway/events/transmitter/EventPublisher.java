@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.events.transmitter;
+
+import me.linusdev.lapi.api.communication.gateway.events.Event;
+import me.linusdev.lapi.log.LogInstance;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ *     {@link Flow.Publisher} of all events with a single {@link EventIdentifier}. Can be retrieved with
+ *     {@link AbstractEventTransmitter#getPublisher(EventIdentifier)} and is notified alongside the classic listeners.
+ * </p>
+ * <p>
+ *     Events are only delivered as requested by the subscriber. Until then, they are stored in the buffer of the
+ *     subscription. Every subscription has its own buffer and {@link OverflowPolicy}, which decides what happens if
+ *     the buffer is full. Events are delivered on a pool thread, never on the thread transmitting the event.
+ * </p>
+ * <p>
+ *     The publisher never completes. Subscribers stop receiving events by {@link Flow.Subscription#cancel() cancelling}
+ *     their subscription.
+ * </p>
+ * @param <E> type of the events
+ */
+public class EventPublisher<E extends Event> implements Flow.Publisher<E> {
+
+    /**
+     * Decides what happens with a new event, if the buffer of a subscription is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The oldest event in the buffer is dropped to make room for the new event.
+         */
+        DROP_OLDEST,
+
+        /**
+         * The new event is dropped.
+         */
+        DROP_NEWEST,
+
+        /**
+         * The thread transmitting the event waits until the subscriber has requested enough events to make room for
+         * the new event. This blocks the dispatch lane of the event (see
+         * {@link me.linusdev.lapi.api.config.GatewayConfigBuilder#setDispatchEventProcessorFactory(me.linusdev.lapi.api.communication.gateway.queue.processor.DispatchEventProcessorFactory)
+         * setDispatchEventProcessorFactory}), so a slow subscriber slows down all events of that lane.
+         */
+        BLOCK,
+    }
+
+    public static final OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.DROP_OLDEST;
+
+    /**
+     * A warning is logged for the first dropped event and then for every {@value}th dropped event of a subscription.
+     */
+    private static final int DROP_WARNING_INTERVAL = 1_000;
+
+    /**
+     * Max amount of events delivered to a subscriber, before the pool thread is given to another subscription.
+     */
+    private static final int MAX_EVENTS_PER_RUN = 32;
+
+    private static final EventSubscription<?> @NotNull [] NO_SUBSCRIPTIONS = new EventSubscription<?>[0];
+
+    private final @NotNull EventIdentifier identifier;
+    private final @NotNull ExecutorService executor;
+    private final @NotNull Runnable onSubscribersChanged;
+    private final @NotNull LogInstance logger;
+
+    /**
+     * Copy-on-write. Replaced (under the lock of this publisher) whenever a subscriber subscribes or cancels.
+     */
+    private volatile EventSubscription<?> @NotNull [] subscriptions = NO_SUBSCRIPTIONS;
+
+    /**
+     *
+     * @param identifier the identifier of the published events
+     * @param executor executor the events are delivered on
+     * @param onSubscribersChanged called after a subscriber has been added or removed
+     * @param logger logger for dropped events
+     */
+    EventPublisher(@NotNull EventIdentifier identifier, @NotNull ExecutorService executor,
+                   @NotNull Runnable onSubscribersChanged, @NotNull LogInstance logger) {
+        this.identifier = identifier;
+        this.executor = executor;
+        this.onSubscribersChanged = onSubscribersChanged;
+        this.logger = logger;
+    }
+
+    /**
+     * Subscribes given subscriber with a buffer of {@link Flow#defaultBufferSize()} events and the
+     * {@link #DEFAULT_OVERFLOW_POLICY}.
+     * @param subscriber the subscriber
+     */
+    @Override
+    public void subscribe(@NotNull Flow.Subscriber<? super E> subscriber) {
+        subscribe(subscriber, Flow.defaultBufferSize(), DEFAULT_OVERFLOW_POLICY);
+    }
+
+    /**
+     * Subscribes given subscriber. The subscriber receives all events transmitted after its
+     * {@link Flow.Subscriber#onSubscribe(Flow.Subscription) onSubscribe} method has returned.
+     * @param subscriber the subscriber
+     * @param bufferSize max amount of events, which are stored until they are requested by the subscriber. At least 1
+     * @param policy {@link OverflowPolicy} used if the buffer is full
+     */
+    public void subscribe(@NotNull Flow.Subscriber<? super E> subscriber, int bufferSize, @NotNull OverflowPolicy policy) {
+        if(bufferSize < 1) throw new IllegalArgumentException("bufferSize must be at least 1.");
+        EventSubscription<E> subscription = new EventSubscription<>(this, subscriber, bufferSize, policy);
+
+        try {
+            subscriber.onSubscribe(subscription);
+        } catch (Throwable t) {
+            logger.error(t);
+            return;
+        }
+
+        synchronized (this) {
+            //the subscriber may have cancelled in onSubscribe
+            if(subscription.cancelled) return;
+            EventSubscription<?>[] appended = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+            appended[subscriptions.length] = subscription;
+            subscriptions = appended;
+        }
+        onSubscribersChanged.run();
+    }
+
+    private void remove(@NotNull EventSubscription<?> subscription) {
+        synchronized (this) {
+            EventSubscription<?>[] subscriptions = this.subscriptions;
+            int i = 0;
+            while (i < subscriptions.length && subscriptions[i] != subscription) i++;
+            if(i == subscriptions.length) return;
+
+            EventSubscription<?>[] removed = Arrays.copyOf(subscriptions, subscriptions.length - 1);
+            System.arraycopy(subscriptions, i + 1, removed, i, subscriptions.length - i - 1);
+            this.subscriptions = removed;
+        }
+        onSubscribersChanged.run();
+    }
+
+    /**
+     * Passes given event to every subscription. May block, if a subscription uses the
+     * {@link OverflowPolicy#BLOCK BLOCK} policy.
+     * @param event the event. Must be of type {@code E}
+     */
+    @SuppressWarnings("unchecked")
+    void offer(@NotNull Event event) {
+        for(EventSubscription<?> subscription : subscriptions) {
+            ((EventSubscription<E>) subscription).offer((E) event);
+        }
+    }
+
+    boolean hasSubscribers() {
+        return subscriptions.length > 0;
+    }
+
+    /**
+     *
+     * @return the current amount of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriptions.length;
+    }
+
+    public @NotNull EventIdentifier getIdentifier() {
+        return identifier;
+    }
+
+    /**
+     * Buffers the events of a single subscriber in a ring buffer. Events are delivered by a drain task on the
+     * executor of the publisher. Only one drain task runs at a time, so the subscriber is never called concurrently.
+     */
+    private static class EventSubscription<E extends Event> implements Flow.Subscription {
+
+        private final @NotNull EventPublisher<E> publisher;
+        private final @NotNull Flow.Subscriber<? super E> subscriber;
+        private final @NotNull OverflowPolicy policy;
+
+        /**
+         * Guards all fields below except {@link #cancelled}, which may be read without it.
+         */
+        private final @NotNull ReentrantLock lock = new ReentrantLock();
+        private final @NotNull Condition notFull = lock.newCondition();
+
+        private final Object @NotNull [] buffer;
+        private int head = 0;
+        private int count = 0;
+        private long demand = 0;
+        private long dropped = 0;
+        private @Nullable Throwable error = null;
+        private volatile boolean cancelled = false;
+
+        /**
+         * Amount of signals since the drain task has last checked for work. The drain task is only scheduled, if
+         * this changes from 0 to 1.
+         */
+        private final @NotNull AtomicInteger wip = new AtomicInteger(0);
+
+        private EventSubscription(@NotNull EventPublisher<E> publisher, @NotNull Flow.Subscriber<? super E> subscriber,
+                                  int bufferSize, @NotNull OverflowPolicy policy) {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.buffer = new Object[bufferSize];
+        }
+
+        private void offer(@NotNull E event) {
+            long dropped = 0;
+
+            lock.lock();
+            try {
+                if(cancelled) return;
+
+                if(count == buffer.length) {
+                    switch (policy) {
+                        case DROP_OLDEST:
+                            buffer[head] = null;
+                            head = (head + 1) % buffer.length;
+                            count--;
+                            dropped = ++this.dropped;
+                            break;
+                        case DROP_NEWEST:
+                            dropped = ++this.dropped;
+                            break;
+                        case BLOCK:
+                            while (count == buffer.length && !cancelled) notFull.awaitUninterruptibly();
+                            if(cancelled) return;
+                            break;
+                    }
+                }
+
+                if(policy != OverflowPolicy.DROP_NEWEST || dropped == 0) {
+                    buffer[(head + count) % buffer.length] = event;
+                    count++;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if(dropped % DROP_WARNING_INTERVAL == 1)
+                publisher.logger.warning("Buffer of subscriber " + subscriber + " of " + publisher.identifier
+                        + " publisher is full. " + dropped + " events dropped so far.");
+
+            signal();
+        }
+
+        @Override
+        public void request(long n) {
+            lock.lock();
+            try {
+                if(cancelled) return;
+                if(n <= 0) error = new IllegalArgumentException("Requested " + n + " events, but must request at least 1 (§3.9).");
+                else demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            } finally {
+                lock.unlock();
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                if(cancelled) return;
+                cancelled = true;
+                Arrays.fill(buffer, null);
+                count = 0;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            publisher.remove(this);
+        }
+
+        private void signal() {
+            if(wip.getAndIncrement() == 0) publisher.executor.execute(this::drain);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void drain() {
+            int missed = 1;
+            int emitted = 0;
+
+            while (true) {
+                while (true) {
+                    E event;
+                    Throwable error;
+
+                    lock.lock();
+                    try {
+                        if(cancelled) return;
+                        error = this.error;
+                        if(error == null) {
+                            if(count == 0 || demand == 0) break;
+                            event = (E) buffer[head];
+                            buffer[head] = null;
+                            head = (head + 1) % buffer.length;
+                            count--;
+                            if(demand != Long.MAX_VALUE) demand--;
+                            notFull.signal();
+                        } else {
+                            event = null;
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+
+                    if(error != null) {
+                        cancel();
+                        subscriber.onError(error);
+                        return;
+                    }
+
+                    try {
+                        subscriber.onNext(event);
+                    } catch (Throwable t) {
+                        //the subscriber violated §2.13. Consider the subscription cancelled
+                        publisher.logger.error(t);
+                        cancel();
+                        return;
+                    }
+
+                    if(++emitted == MAX_EVENTS_PER_RUN) {
+                        //give other subscriptions a chance. wip is still not 0, so no other drain task is scheduled
+                        publisher.executor.execute(this::drain);
+                        return;
+                    }
+                }
+
+                missed = wip.addAndGet(-missed);
+                if(missed == 0) return;
+            }
+        }
+    }
+}
@@ -16,7 +16,6 @@
 
 package me.linusdev.lapi.api.communication.gateway.events.transmitter;
 
-import de.linusdev.lutils.llist.LLinkedList;
 import me.linusdev.lapi.api.cache.CacheReadyEvent;
 import me.linusdev.lapi.api.communication.gateway.abstracts.GatewayPayloadAbstract;
 import me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent;
@@ -62,16 +61,34 @@ import me.linusdev.lapi.api.communication.gateway.events.user.UserUpdateEvent;
 import me.linusdev.lapi.api.communication.gateway.events.voice.VoiceServerUpdateEvent;
 import me.linusdev.lapi.api.communication.gateway.events.voice.VoiceStateUpdateEvent;
 import me.linusdev.lapi.api.communication.gateway.events.webhooks.WebhooksUpdateEvent;
+import me.linusdev.lapi.api.communication.gateway.queue.DispatchMetrics;
+import me.linusdev.lapi.api.communication.gateway.sharding.ShardManager;
 import me.linusdev.lapi.api.interfaces.HasLApi;
 import me.linusdev.lapi.api.lapi.LApi;
 import me.linusdev.lapi.api.lapi.LApiImpl;
 import me.linusdev.lapi.api.manager.command.event.CommandManagerInitializedEvent;
 import me.linusdev.lapi.api.manager.command.event.CommandManagerReadyEvent;
+import me.linusdev.lapi.api.manager.guild.GuildManager;
 import me.linusdev.lapi.api.manager.voiceregion.VoiceRegionManagerReadyEvent;
+import me.linusdev.lapi.api.thread.LApiThreadFactory;
+import me.linusdev.lapi.log.LogInstance;
+import me.linusdev.lapi.log.Logger;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static me.linusdev.lapi.api.communication.gateway.events.transmitter.EventIdentifier.*;
@@ -81,62 +98,485 @@ public class EventTransmitter implements HasLApi, EventListener, AbstractEventTr
 
     private final @NotNull LApiImpl lApi;
 
-    private final LLinkedList<AnyEventListener> anyEventListeners = new LLinkedList<>();
-    private final LLinkedList<EventListener> listeners = new LLinkedList<>();
+    /**
+     * Thread count of the pool shared by all listeners with the {@link ListenerExecutionPolicy.Type#SHARED_POOL SHARED_POOL}
+     * or {@link ListenerExecutionPolicy.Type#PER_GUILD PER_GUILD} policy.
+     */
+    public static final int LISTENER_POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final AnyEventListener @NotNull [] NO_ANY_EVENT_LISTENERS = new AnyEventListener[0];
+    private static final RegisteredListener @NotNull [] NO_REGISTERED_LISTENERS = new RegisteredListener[0];
+    private static final EventBatcher<?> @NotNull [] NO_BATCHERS = new EventBatcher<?>[0];
+
+    /*
+     * All listener arrays are copy-on-write. They are replaced (under the lock of this transmitter) whenever a listener
+     * is added or removed, so events can be transmitted without locking.
+     */
+    private volatile AnyEventListener @NotNull [] anyEventListeners = NO_ANY_EVENT_LISTENERS;
+    private volatile EventListener @NotNull [] listeners = EventIdentifierList.EMPTY;
     private final EventIdentifierList specifiedListeners = new EventIdentifierList();
 
+    /**
+     * {@code dispatchTable[identifier.ordinal()]} contains every listener, which must be called for the event with
+     * given identifier: All {@link #listeners} overriding the method of the event (see {@link EventListenerInspector})
+     * followed by the {@link #specifiedListeners} of the event. Rebuilt whenever a listener is added or removed.
+     */
+    private volatile RegisteredListener @NotNull [] @NotNull [] dispatchTable;
+
+    /**
+     * All {@link #addSpecifiedListener(EventListener, ListenerScope, EventIdentifier...) scoped listeners}. Guarded by
+     * the lock of this transmitter.
+     */
+    private final @NotNull ArrayList<ScopedRegistration> scopedListeners = new ArrayList<>();
+    /**
+     * {@code scopeTable[identifier.ordinal()]} indexes the scoped listeners of the event with given identifier or is
+     * {@code null} if the event has no scoped listeners. Rebuilt whenever a listener is added or removed.
+     */
+    private volatile @Nullable ScopeIndex @NotNull [] scopeTable;
+
+    /**
+     * All {@link #addBatchListener(EventIdentifier, BatchEventListener, int, long) batch listeners}. Guarded by the lock
+     * of this transmitter.
+     */
+    private final @NotNull ArrayList<EventBatcher<?>> batchers = new ArrayList<>();
+    /**
+     * {@code batchTable[identifier.ordinal()]} contains the {@link EventBatcher EventBatchers} of the event with given
+     * identifier. Rebuilt whenever a listener is added or removed.
+     */
+    private volatile EventBatcher<?> @NotNull [] @NotNull [] batchTable;
+
+    /**
+     * {@code publishers[identifier.ordinal()]} is the {@link #getPublisher(EventIdentifier) publisher} of given
+     * identifier or {@code null} if it has not been created yet. Guarded by the lock of this transmitter.
+     */
+    private final @Nullable EventPublisher<?> @NotNull [] publishers = new EventPublisher<?>[EventIdentifier.values().length];
+    /**
+     * {@code publisherTable[identifier.ordinal()]} is the publisher of given identifier, if it has at least one subscriber.
+     * {@code null} otherwise. Rebuilt whenever a listener is added or removed or the subscribers of a publisher change.
+     */
+    private volatile @Nullable EventPublisher<?> @NotNull [] publisherTable;
+
+    /**
+     * {@link ListenerExecutor} of every listener, which is not executed {@link ListenerExecutionPolicy#inline() inline}.
+     * Guarded by the lock of this transmitter.
+     */
+    private final @NotNull Map<EventListener, ListenerExecutor> executors = new HashMap<>();
+    /**
+     * Created, when the first listener requiring it is added.
+     */
+    private @Nullable ExecutorService listenerPool = null;
+
     private final AtomicBoolean triggeredGuildsReadyEvent = new AtomicBoolean(false);
     private final AtomicBoolean triggeredLApiReadyEvent = new AtomicBoolean(false);
 
+    /**
+     * The intents of the last identify or {@code -1} if the gateway did not identify yet.
+     * Used to warn about listeners, which will never receive any events.
+     */
+    private volatile int identifiedIntents = -1;
+    private final @NotNull EnumSet<EventIdentifier> warnedUndeliverable = EnumSet.noneOf(EventIdentifier.class);
+
+    /**
+     * {@code listened[identifier.ordinal()]} is {@code true} if the event has at least one listener.
+     * Replaced whenever a listener is added or removed.
+     */
+    private volatile boolean @NotNull [] listened;
+    /**
+     * Same as {@link #listened}, but without scoped listeners.
+     */
+    private volatile boolean @NotNull [] listenedUnscoped;
+
+    private final @NotNull LogInstance logger;
+
     public EventTransmitter(@NotNull LApiImpl lApi){
         this.lApi = lApi;
+        this.logger = Logger.getLogger(EventTransmitter.class.getSimpleName(), Logger.Type.DEBUG);
+        updateListened();
     }
 
     @Override
     public void addListener(@NotNull EventListener listener){
-        listeners.add(listener);
+        addListener(listener, ListenerExecutionPolicy.inline());
+    }
+
+    @Override
+    public void addListener(@NotNull EventListener listener, @NotNull ListenerExecutionPolicy policy) {
+        synchronized (this) {
+            setPolicy(listener, policy);
+            listeners = append(listeners, listener);
+            updateListened();
+        }
+        warnIfUndeliverable(EventListenerInspector.getOverriddenIdentifiers(listener));
     }
 
     @Override
     public boolean removeListener(@NotNull EventListener listener){
-        return listeners.remove(listener);
+        synchronized (this) {
+            EventListener[] removed = remove(listeners, listener);
+            if(removed == null) return false;
+            listeners = removed;
+            updateListened();
+            return true;
+        }
     }
 
     @Override
     public void addAnyEventListener(@NotNull AnyEventListener listener) {
-        anyEventListeners.add(listener);
+        synchronized (this) {
+            anyEventListeners = append(anyEventListeners, listener);
+            updateListened();
+        }
     }
 
     @Override
     public void removeAnyEventListener(@NotNull AnyEventListener listener) {
-        anyEventListeners.remove(listener);
+        synchronized (this) {
+            AnyEventListener[] removed = remove(anyEventListeners, listener);
+            if(removed == null) return;
+            anyEventListeners = removed;
+            updateListened();
+        }
     }
 
     @Override
     public void addSpecifiedListener(@NotNull EventListener listener, @NotNull EventIdentifier... specifications){
-        for(EventIdentifier spec : specifications){
-            specifiedListeners.put(spec, listener);
+        addSpecifiedListener(listener, ListenerExecutionPolicy.inline(), specifications);
+    }
+
+    @Override
+    public void addSpecifiedListener(@NotNull EventListener listener, @NotNull ListenerExecutionPolicy policy,
+                                     @NotNull EventIdentifier... specifications) {
+        synchronized (this) {
+            setPolicy(listener, policy);
+            for(EventIdentifier spec : specifications){
+                specifiedListeners.put(spec, listener);
+            }
+            updateListened();
+        }
+        warnIfUndeliverable(Arrays.asList(specifications));
+    }
+
+    @Override
+    public void addSpecifiedListener(@NotNull EventListener listener, @NotNull ListenerScope scope,
+                                     @NotNull EventIdentifier... specifications) {
+        addSpecifiedListener(listener, ListenerExecutionPolicy.inline(), scope, specifications);
+    }
+
+    @Override
+    public void addSpecifiedListener(@NotNull EventListener listener, @NotNull ListenerExecutionPolicy policy,
+                                     @NotNull ListenerScope scope, @NotNull EventIdentifier... specifications) {
+        synchronized (this) {
+            setPolicy(listener, policy);
+            for(EventIdentifier spec : specifications){
+                scopedListeners.add(new ScopedRegistration(listener, scope, spec));
+            }
+            updateListened();
         }
+        warnIfUndeliverable(Arrays.asList(specifications));
     }
 
     @Override
     public boolean removeSpecifiedListener(@NotNull EventListener listener, @NotNull EventIdentifier... specifications){
         boolean r = true;
 
-        for(EventIdentifier spec : specifications){
-            LLinkedList<EventListener> listeners = specifiedListeners.get(spec);
-            if(listeners == null){
-                r = false;
-                continue;
+        synchronized (this) {
+            for(EventIdentifier spec : specifications){
+                //remove the listener from every given identifier, even if it was missing for a previous one
+                boolean removed = specifiedListeners.remove(spec, listener);
+                removed |= scopedListeners.removeIf(scoped -> scoped.identifier == spec && scoped.listener.equals(listener));
+                r = removed && r;
             }
-            r = r && listeners.remove(listener);
+            updateListened();
         }
 
         return r;
     }
 
+    @Override
+    public <E extends Event> void addBatchListener(@NotNull EventIdentifier identifier, @NotNull BatchEventListener<E> listener,
+                                                   int maxBatchSize, long maxDelayMillis) {
+        EventBatcher<E> batcher = new EventBatcher<>(lApi, identifier, listener, maxBatchSize, maxDelayMillis);
+        synchronized (this) {
+            batchers.add(batcher);
+            updateListened();
+        }
+        warnIfUndeliverable(List.of(identifier));
+    }
+
+    @Override
+    public boolean removeBatchListener(@NotNull BatchEventListener<?> listener) {
+        ArrayList<EventBatcher<?>> removed = new ArrayList<>();
+        synchronized (this) {
+            batchers.removeIf(batcher -> batcher.getListener().equals(listener) && removed.add(batcher));
+            if(removed.isEmpty()) return false;
+            updateListened();
+        }
+
+        //deliver the remaining events outside the lock, so the listener cannot block adding or removing listeners
+        for(EventBatcher<?> batcher : removed) batcher.flush(-1);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <E extends Event> @NotNull EventPublisher<E> getPublisher(@NotNull EventIdentifier identifier) {
+        EventPublisher<?> publisher;
+        synchronized (this) {
+            publisher = publishers[identifier.ordinal()];
+            if(publisher != null) return (EventPublisher<E>) publisher;
+            publisher = new EventPublisher<>(identifier, getListenerPool(), this::updateListened, logger);
+            publishers[identifier.ordinal()] = publisher;
+        }
+        warnIfUndeliverable(List.of(identifier));
+        return (EventPublisher<E>) publisher;
+    }
+
+    @Override
+    public synchronized @Nullable ListenerExecutionMetrics getExecutionMetrics(@NotNull EventListener listener) {
+        ListenerExecutor executor = executors.get(listener);
+        return executor == null ? null : executor.getMetrics();
+    }
+
+    /**
+     * Replaces the {@link ListenerExecutor} of given listener, if it does not match given policy.
+     * Must be called while holding the lock of this transmitter.
+     */
+    private void setPolicy(@NotNull EventListener listener, @NotNull ListenerExecutionPolicy policy) {
+        ListenerExecutor executor = executors.get(listener);
+        if(executor != null) {
+            ListenerExecutionPolicy current = executor.getPolicy();
+            if(current.getType() == policy.getType() && current.getMaxQueued() == policy.getMaxQueued()) return;
+            executors.remove(listener).shutdown();
+        }
+
+        if(policy.getType() == ListenerExecutionPolicy.Type.INLINE) return;
+        executors.put(listener, ListenerExecutor.create(lApi, listener, policy, getListenerPool(), logger));
+    }
+
+    /**
+     * Must be called while holding the lock of this transmitter.
+     * @return the {@link #listenerPool}. Creates it if required.
+     */
+    private @NotNull ExecutorService getListenerPool() {
+        if(listenerPool == null)
+            listenerPool = Executors.newFixedThreadPool(LISTENER_POOL_SIZE, new LApiThreadFactory(lApi, true, "Listener Pool"));
+        return listenerPool;
+    }
+
+    private static <T> T @NotNull [] append(T @NotNull [] array, @NotNull T element) {
+        T[] appended = Arrays.copyOf(array, array.length + 1);
+        appended[array.length] = element;
+        return appended;
+    }
+
+    /**
+     *
+     * @return copy of given array without the first occurrence of given element or {@code null} if given array does not
+     * contain given element
+     */
+    private static <T> T @Nullable [] remove(T @NotNull [] array, @NotNull T element) {
+        for(int i = 0; i < array.length; i++) {
+            if(!array[i].equals(element)) continue;
+
+            T[] removed = Arrays.copyOf(array, array.length - 1);
+            System.arraycopy(array, i + 1, removed, i, array.length - i - 1);
+            return removed;
+        }
+
+        return null;
+    }
+
+    /**
+     *
+     * @param identifier the {@link EventIdentifier}
+     * @return {@code true} if at least one listener would receive the event with given identifier
+     */
+    public boolean hasListeners(@NotNull EventIdentifier identifier) {
+        return listened[identifier.ordinal()];
+    }
+
+    /**
+     *
+     * @param identifier the {@link EventIdentifier}
+     * @param guildId the guild of the event or {@code null}
+     * @return {@code true} if at least one listener may receive the event with given identifier of given guild.
+     * Listeners scoped to other guilds are not considered.
+     */
+    public boolean hasListeners(@NotNull EventIdentifier identifier, @Nullable String guildId) {
+        if(listenedUnscoped[identifier.ordinal()]) return true;
+        ScopeIndex index = scopeTable[identifier.ordinal()];
+        return index != null && index.mayMatch(guildId);
+    }
+
+    /**
+     * Shuts down the {@link #listenerPool} and the {@link ListenerExecutor ListenerExecutors} of all listeners.
+     * Already queued events are still processed until {@code shutdownBy}, remaining ones are discarded. Events
+     * transmitted afterwards are dropped.
+     * @param shutdownBy time in milliseconds since epoch, until which queued events may be processed. If it has
+     *                   already passed, queued events are discarded without waiting
+     */
+    @ApiStatus.Internal
+    public void shutdownListenerExecutors(long shutdownBy) {
+        List<ListenerExecutor> executors;
+        ExecutorService pool;
+        synchronized (this) {
+            executors = new ArrayList<>(this.executors.values());
+            pool = listenerPool;
+        }
+
+        for(ListenerExecutor executor : executors) executor.shutdown();
+        if(pool != null) pool.shutdown();
+
+        try {
+            for(ListenerExecutor executor : executors) {
+                long remaining = shutdownBy - System.currentTimeMillis();
+                if(remaining <= 0 || !executor.awaitTermination(remaining)) executor.shutdownNow();
+            }
+
+            if(pool != null) {
+                long remaining = shutdownBy - System.currentTimeMillis();
+                if(remaining <= 0 || !pool.awaitTermination(remaining, TimeUnit.MILLISECONDS)) pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            for(ListenerExecutor executor : executors) executor.shutdownNow();
+            if(pool != null) pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Rebuilds the {@link #dispatchTable} and {@link #listened}. Must be called after the listeners have changed.
+     * {@link ListenerExecutor ListenerExecutors} of listeners, which are not registered anymore, are shut down.
+     */
+    private synchronized void updateListened() {
+        EventIdentifier[] identifiers = EventIdentifier.values();
+        EventListener[] listeners = this.listeners;
+        boolean anyEventListener = anyEventListeners.length > 0;
+
+        HashMap<EventListener, RegisteredListener> registered = new HashMap<>();
+        RegisteredListener[][] dispatchTable = new RegisteredListener[identifiers.length][];
+        ScopeIndex[] scopeTable = new ScopeIndex[identifiers.length];
+        EventBatcher<?>[][] batchTable = new EventBatcher<?>[identifiers.length][];
+        EventPublisher<?>[] publisherTable = new EventPublisher<?>[identifiers.length];
+        boolean[] listened = new boolean[identifiers.length];
+        boolean[] listenedUnscoped = new boolean[identifiers.length];
+
+        for(EventIdentifier identifier : identifiers) {
+            EventListener[] specified = specifiedListeners.get(identifier);
+            RegisteredListener[] table = new RegisteredListener[listeners.length + specified.length];
+            int size = 0;
+
+            for(EventListener listener : listeners) {
+                if(EventListenerInspector.overrides(listener, identifier))
+                    table[size++] = registered.computeIfAbsent(listener, l -> new RegisteredListener(l, executors.get(l)));
+            }
+
+            for(EventListener listener : specified) {
+                table[size++] = registered.computeIfAbsent(listener, l -> new RegisteredListener(l, executors.get(l)));
+            }
+
+            dispatchTable[identifier.ordinal()] = size == 0 ? NO_REGISTERED_LISTENERS : Arrays.copyOf(table, size);
+            listenedUnscoped[identifier.ordinal()] = anyEventListener || size > 0;
+        }
+
+        for(ScopedRegistration scoped : scopedListeners) {
+            int i = scoped.identifier.ordinal();
+            if(scopeTable[i] == null) scopeTable[i] = new ScopeIndex();
+            scopeTable[i].add(scoped.scope,
+                    registered.computeIfAbsent(scoped.listener, l -> new RegisteredListener(l, executors.get(l))));
+        }
+
+        Arrays.fill(batchTable, NO_BATCHERS);
+        for(EventBatcher<?> batcher : batchers) {
+            int i = batcher.getIdentifier().ordinal();
+            batchTable[i] = append(batchTable[i], batcher);
+            listenedUnscoped[i] = true;
+        }
+
+        for(EventIdentifier identifier : identifiers) {
+            int i = identifier.ordinal();
+            EventPublisher<?> publisher = publishers[i];
+            if(publisher != null && publisher.hasSubscribers()) {
+                publisherTable[i] = publisher;
+                listenedUnscoped[i] = true;
+            }
+            listened[i] = listenedUnscoped[i] || scopeTable[i] != null;
+        }
+
+        this.dispatchTable = dispatchTable;
+        this.scopeTable = scopeTable;
+        this.batchTable = batchTable;
+        this.publisherTable = publisherTable;
+        this.listenedUnscoped = listenedUnscoped;
+        this.listened = listened;
+
+        for(Iterator<Map.Entry<EventListener, ListenerExecutor>> it = executors.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<EventListener, ListenerExecutor> entry = it.next();
+            if(registered.containsKey(entry.getKey()) || contains(listeners, entry.getKey())) continue;
+            entry.getValue().shutdown();
+            it.remove();
+        }
+    }
+
+    private static boolean contains(EventListener @NotNull [] listeners, @NotNull EventListener listener) {
+        for(EventListener l : listeners) if(l.equals(listener)) return true;
+        return false;
+    }
+
+    /**
+     * {@link AnyEventListener AnyEventListeners} listen to every event. Listeners added with
+     * {@link #addListener(EventListener)} listen to every event, whose method they override.
+     * @return {@link Set} containing every {@link EventIdentifier} with at least one listener.
+     */
+    public @NotNull Set<EventIdentifier> getListenedIdentifiers() {
+        boolean[] listened = this.listened;
+        EnumSet<EventIdentifier> identifiers = EnumSet.noneOf(EventIdentifier.class);
+
+        for(EventIdentifier identifier : EventIdentifier.values()) {
+            if(listened[identifier.ordinal()]) identifiers.add(identifier);
+        }
+
+        return identifiers;
+    }
+
+    /**
+     * Called by the gateway, when it identifies. Logs a warning for every listened event, which Discord will not send
+     * with given intents.
+     * @param intents the intents sent in the identify
+     */
+    @ApiStatus.Internal
+    public void onIdentify(int intents) {
+        synchronized (warnedUndeliverable) {
+            if(identifiedIntents != intents) warnedUndeliverable.clear();
+            identifiedIntents = intents;
+        }
+        warnIfUndeliverable(getListenedIdentifiers());
+    }
+
+    private void warnIfUndeliverable(@NotNull Iterable<EventIdentifier> identifiers) {
+        int intents = identifiedIntents;
+        if(intents == -1) return;
+
+        for(EventIdentifier identifier : GatewayIntentCalculator.getUndeliverable(identifiers, intents)) {
+            synchronized (warnedUndeliverable) {
+                if(!warnedUndeliverable.add(identifier)) continue;
+            }
+            logger.warning("Listening to " + identifier + ", but it requires one of the intents "
+                    + Arrays.toString(identifier.getIntents()) + ", which are not set.");
+        }
+    }
+
     private <E extends Event> void transmitForEachListener(@NotNull E event, @NotNull EventIdentifier identifier, @NotNull EventConsumer<E> consumer) {
-        if(anyEventListeners.size() > 0) {
+        AnyEventListener[] anyEventListeners = this.anyEventListeners;
+        RegisteredListener[] listeners = dispatchTable[identifier.ordinal()];
+        ScopeIndex scoped = scopeTable[identifier.ordinal()];
+        EventBatcher<?>[] batchers = batchTable[identifier.ordinal()];
+        EventPublisher<?> publisher = publisherTable[identifier.ordinal()];
+        if(anyEventListeners.length == 0 && listeners.length == 0 && scoped == null && batchers.length == 0
+                && publisher == null) return;
+
+        long start = System.nanoTime();
+        try {
             for(AnyEventListener listener : anyEventListeners) {
                 try {
                     listener.onEvent(lApi, event, identifier);
@@ -144,25 +584,37 @@ public class EventTransmitter implements HasLApi, EventListener, AbstractEventTr
                     listener.onUncaughtException(t);
                 }
             }
-        }
 
-        for(EventListener listener : listeners){
-            try {
-                consumer.accept(listener, lApi, event);
-            } catch (Throwable t) {
-                listener.onUncaughtException(t);
-            }
-        }
+            for(RegisteredListener registered : listeners) transmit(registered, event, consumer);
 
-        LLinkedList<EventListener> listeners = specifiedListeners.get(identifier);
-        if(listeners != null){
-            for(EventListener listener : listeners){
-                try {
-                    consumer.accept(listener, lApi, event);
-                } catch (Throwable t) {
-                    listener.onUncaughtException(t);
+            for(EventBatcher<?> batcher : batchers) batcher.add(event);
+
+            if(publisher != null) publisher.offer(event);
+
+            if(scoped != null) {
+                for(ListenerScope.Type type : ListenerScope.Type.values()) {
+                    if(!scoped.has(type)) continue;
+                    String id = ListenerScope.getId(type, event, identifier);
+                    if(id == null) continue;
+                    for(RegisteredListener registered : scoped.get(type, id)) transmit(registered, event, consumer);
                 }
             }
+        } finally {
+            DispatchMetrics.addListenerNanos(System.nanoTime() - start);
+        }
+    }
+
+    private <E extends Event> void transmit(@NotNull RegisteredListener registered, @NotNull E event, @NotNull EventConsumer<E> consumer) {
+        EventListener listener = registered.listener;
+        if(registered.executor != null) {
+            registered.executor.execute(event.getGuildId(), () -> consumer.accept(listener, lApi, event));
+            return;
+        }
+
+        try {
+            consumer.accept(listener, lApi, event);
+        } catch (Throwable t) {
+            listener.onUncaughtException(t);
         }
     }
 
@@ -179,24 +631,19 @@ public class EventTransmitter implements HasLApi, EventListener, AbstractEventTr
 
     @Override
     public void onUnknownEvent(@NotNull LApi lApi, @Nullable GatewayEvent type, @Nullable GatewayPayloadAbstract payload) {
-        for(EventListener listener : listeners){
+        for(RegisteredListener registered : dispatchTable[UNKNOWN.ordinal()]){
+            EventListener listener = registered.listener;
+            if(registered.executor != null) {
+                registered.executor.execute(null, () -> listener.onUnknownEvent(lApi, type, payload));
+                continue;
+            }
+
             try {
                 listener.onUnknownEvent(lApi, type, payload);
             } catch (Throwable t) {
                 listener.onUncaughtException(t);
             }
         }
-
-        LLinkedList<EventListener> listeners = specifiedListeners.get(UNKNOWN);
-        if(listeners != null){
-            for(EventListener listener : listeners){
-                try {
-                    listener.onUnknownEvent(lApi, type, payload);
-                } catch (Throwable t) {
-                    listener.onUncaughtException(t);
-                }
-            }
-        }
     }
 
     @Override
@@ -206,6 +653,9 @@ public class EventTransmitter implements HasLApi, EventListener, AbstractEventTr
         triggeredGuildsReadyEvent.set(false);
 
         transmitForEachListener(event, READY, EventListener::onReady);
+
+        //the guilds of other shards may already be ready or this shard may have no guilds
+        if(lApi.getShardManager() != null) checkGuildsReady();
     }
 
     @Override
@@ -304,10 +754,7 @@ public class EventTransmitter implements HasLApi, EventListener, AbstractEventTr
         transmitForEachListener(event, GUILD_CREATE, EventListener::onGuildCreate);
 
         //Sub-events
-        if(!triggeredGuildsReadyEvent.get() && this.lApi.getGuildManager() != null && this.lApi.getGuildManager().allGuildsReceivedEvent()){
-            //check if guild Manager is not null. if it is CACHE_GUILDS is disabled and this event can't be triggered
-            onGuildsReady(lApi, new GuildsReadyEvent(lApi, this.lApi.getGuildManager()));
-        }
+        checkGuildsReady();
     }
 
     @Override
@@ -315,10 +762,26 @@ public class EventTransmitter implements HasLApi, EventListener, AbstractEventTr
         transmitForEachListener(event, GUILD_DELETE, EventListener::onGuildDelete);
 
         //Sub-events
-        if(!triggeredGuildsReadyEvent.get() && this.lApi.getGuildManager() != null && this.lApi.getGuildManager().allGuildsReceivedEvent()){
-            //check if guild Manager is not null. if it is CACHE_GUILDS is disabled and this event can't be triggered
-            onGuildsReady(lApi, new GuildsReadyEvent(this.lApi, this.lApi.getGuildManager()));
-        }
+        checkGuildsReady();
+    }
+
+    /**
+     * Triggers the {@link EventIdentifier#GUILDS_READY GUILDS_READY} event, if all guilds received their first event
+     * and it has not been triggered since the last {@link EventIdentifier#READY READY} event. This is also called by
+     * the {@link GuildManager}, if some guilds did not receive an event in time.<br>
+     * If a {@link ShardManager} is used, all shards must have received their READY event as well.
+     */
+    @ApiStatus.Internal
+    public void checkGuildsReady() {
+        GuildManager guildManager = this.lApi.getGuildManager();
+        //check if guild Manager is not null. if it is CACHE_GUILDS is disabled and this event can't be triggered
+        if(guildManager == null || triggeredGuildsReadyEvent.get()) return;
+        ShardManager shardManager = this.lApi.getShardManager();
+        if(shardManager != null && !shardManager.allShardsReady()) return;
+        if(!guildManager.allGuildsReceivedEvent()) return;
+
+        if(triggeredGuildsReadyEvent.compareAndSet(false, true))
+            onGuildsReady(this.lApi, new GuildsReadyEvent(this.lApi, guildManager));
     }
 
     @Override
@@ -568,6 +1031,75 @@ public class EventTransmitter implements HasLApi, EventListener, AbstractEventTr
         transmitForEachListener(event, LAPI_ERROR, EventListener::onLApiError);
     }
 
+    /**
+     * Registration of a {@link #addSpecifiedListener(EventListener, ListenerScope, EventIdentifier...) scoped listener}
+     * for a single {@link EventIdentifier}.
+     */
+    private static final class ScopedRegistration {
+        private final @NotNull EventListener listener;
+        private final @NotNull ListenerScope scope;
+        private final @NotNull EventIdentifier identifier;
+
+        private ScopedRegistration(@NotNull EventListener listener, @NotNull ListenerScope scope, @NotNull EventIdentifier identifier) {
+            this.listener = listener;
+            this.scope = scope;
+            this.identifier = identifier;
+        }
+    }
+
+    /**
+     * Scoped listeners of a single {@link EventIdentifier}, indexed by the ids of their {@link ListenerScope}. Only
+     * modified while the {@link #scopeTable} is rebuilt, before it is published.
+     */
+    private static final class ScopeIndex {
+        private final @NotNull EnumMap<ListenerScope.Type, HashMap<String, RegisteredListener[]>> indices = new EnumMap<>(ListenerScope.Type.class);
+
+        private void add(@NotNull ListenerScope scope, @NotNull RegisteredListener listener) {
+            HashMap<String, RegisteredListener[]> index = indices.computeIfAbsent(scope.getType(), type -> new HashMap<>());
+
+            for(String id : scope.getIds()) {
+                index.compute(id, (k, listeners) -> listeners == null ? new RegisteredListener[]{listener} : append(listeners, listener));
+            }
+        }
+
+        private boolean has(@NotNull ListenerScope.Type type) {
+            return indices.containsKey(type);
+        }
+
+        private RegisteredListener @NotNull [] get(@NotNull ListenerScope.Type type, @NotNull String id) {
+            HashMap<String, RegisteredListener[]> index = indices.get(type);
+            if(index == null) return NO_REGISTERED_LISTENERS;
+            return index.getOrDefault(id, NO_REGISTERED_LISTENERS);
+        }
+
+        /**
+         *
+         * @param guildId the guild of an event or {@code null}
+         * @return {@code false} if no listener of this index can receive the event of given guild
+         */
+        private boolean mayMatch(@Nullable String guildId) {
+            //channel and user ids are only known after decoding the event
+            if(has(ListenerScope.Type.CHANNEL) || has(ListenerScope.Type.USER)) return true;
+            return guildId != null && get(ListenerScope.Type.GUILD, guildId).length > 0;
+        }
+    }
+
+    /**
+     * Entry of the {@link #dispatchTable}.
+     */
+    private static final class RegisteredListener {
+        private final @NotNull EventListener listener;
+        /**
+         * {@code null} if the listener is called inline
+         */
+        private final @Nullable ListenerExecutor executor;
+
+        private RegisteredListener(@NotNull EventListener listener, @Nullable ListenerExecutor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+    }
+
     @Override
     public @NotNull LApi getLApi() {
         return lApi;
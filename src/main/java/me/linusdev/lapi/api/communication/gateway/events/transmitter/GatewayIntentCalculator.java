@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package me.linusdev.lapi.api.communication.gateway.events.transmitter;
+
+import me.linusdev.lapi.api.communication.gateway.enums.GatewayIntent;
+import me.linusdev.lapi.api.config.ConfigFlag;
+import me.linusdev.lapi.api.lapi.LApiImpl;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static me.linusdev.lapi.api.communication.gateway.enums.GatewayIntent.*;
+import static me.linusdev.lapi.api.config.ConfigFlag.*;
+
+/**
+ * <p>
+ *     Calculates the smallest set of {@link GatewayIntent intents}, which is required to receive all events listened to
+ *     and to fill all enabled caches.
+ * </p>
+ * <p>
+ *     An event may be delivered with one of several intents. Non-{@link GatewayIntent#isPrivileged() privileged}
+ *     alternatives usually deliver it from different sources (for example {@link GatewayIntent#GUILD_MESSAGES guild}
+ *     and {@link GatewayIntent#DIRECT_MESSAGES direct} messages), so all allowed ones are used. A privileged intent is
+ *     only used, if no allowed non-privileged intent delivers the event and no other chosen intent does.
+ * </p>
+ * @see me.linusdev.lapi.api.config.GatewayConfigBuilder#setAutomaticIntents(Boolean)
+ */
+@ApiStatus.Internal
+public class GatewayIntentCalculator {
+
+    /**
+     * Every non-{@link GatewayIntent#isPrivileged() privileged} intent as int.
+     */
+    public static final int NON_PRIVILEGED_INTENTS;
+
+    static {
+        int intents = 0;
+        for(GatewayIntent intent : GatewayIntent.values()) {
+            if(!intent.isPrivileged()) intents |= intent.getValue();
+        }
+        NON_PRIVILEGED_INTENTS = intents;
+    }
+
+    /**
+     *
+     * @param lApi {@link LApiImpl}
+     * @param listened the {@link EventIdentifier identifiers} of all events, which have at least one listener
+     * @param allowed the intents, which may be used
+     * @return the intents required to receive given events and fill all enabled caches. Only allowed intents are included.
+     */
+    public static int calculate(@NotNull LApiImpl lApi, @NotNull Set<EventIdentifier> listened, int allowed) {
+        int intents = getCacheIntents(lApi) & allowed;
+        ArrayList<EventIdentifier> requirePrivileged = new ArrayList<>();
+
+        for(EventIdentifier identifier : listened) {
+            boolean delivered = identifier.getIntents().length == 0;
+            for(GatewayIntent intent : identifier.getIntents()) {
+                if(intent.isPrivileged() || !intent.isSet(allowed)) continue;
+                intents |= intent.getValue();
+                delivered = true;
+            }
+            if(!delivered) requirePrivileged.add(identifier);
+        }
+
+        //only after all non-privileged intents are known, it is clear which events still require a privileged one
+        for(EventIdentifier identifier : requirePrivileged) {
+            if(identifier.isDeliveredWith(intents)) continue;
+            for(GatewayIntent intent : identifier.getIntents()) {
+                if(!intent.isSet(allowed)) continue;
+                intents |= intent.getValue();
+                break;
+            }
+        }
+
+        //MESSAGE_CONTENT does not cause any events, but is required to receive the content of messages
+        if(GUILD_MESSAGES.isSet(intents) || DIRECT_MESSAGES.isSet(intents)) intents |= MESSAGE_CONTENT.getValue();
+
+        return intents & allowed;
+    }
+
+    /**
+     *
+     * @param lApi {@link LApiImpl}
+     * @return the intents required by the enabled cache {@link ConfigFlag flags}
+     */
+    public static int getCacheIntents(@NotNull LApiImpl lApi) {
+        int intents = 0;
+
+        if(CACHE_GUILDS.isPresent(lApi) || CACHE_ROLES.isPresent(lApi) || CACHE_CHANNELS.isPresent(lApi)
+                || CACHE_THREADS.isPresent(lApi) || CACHE_STAGE_INSTANCES.isPresent(lApi))
+            intents |= GUILDS.getValue();
+        if(CACHE_EMOJIS.isPresent(lApi) || CACHE_STICKERS.isPresent(lApi))
+            intents |= GUILD_EMOJIS_AND_STICKERS.getValue();
+        if(CACHE_VOICE_STATES.isPresent(lApi)) intents |= GUILD_VOICE_STATES.getValue();
+        if(CACHE_MEMBERS.isPresent(lApi)) intents |= GUILD_MEMBERS.getValue();
+        if(CACHE_PRESENCES.isPresent(lApi)) intents |= GUILD_PRESENCES.getValue();
+        if(CACHE_GUILD_SCHEDULED_EVENTS.isPresent(lApi)) intents |= GUILD_SCHEDULED_EVENTS.getValue();
+
+        return intents;
+    }
+
+    /**
+     *
+     * @param listened the {@link EventIdentifier identifiers} of all events, which have at least one listener
+     * @param intents the intents as int
+     * @return all given identifiers, which Discord will not send with given intents
+     */
+    public static @NotNull Set<EventIdentifier> getUndeliverable(@NotNull Iterable<EventIdentifier> listened, int intents) {
+        EnumSet<EventIdentifier> undeliverable = EnumSet.noneOf(EventIdentifier.class);
+        for(EventIdentifier identifier : listened) {
+            if(!identifier.isDeliveredWith(intents)) undeliverable.add(identifier);
+        }
+        return undeliverable;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.events.transmitter;
+
+import me.linusdev.lapi.api.communication.gateway.other.LatencyHistogram;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of a listener, which is not executed {@link ListenerExecutionPolicy#inline() inline}. This class is thread
+ * safe.
+ * @see AbstractEventTransmitter#getExecutionMetrics(EventListener)
+ */
+public class ListenerExecutionMetrics {
+
+    private final @NotNull ListenerExecutionPolicy policy;
+
+    private final @NotNull AtomicLong submitted = new AtomicLong(0);
+    private final @NotNull AtomicLong executed = new AtomicLong(0);
+    private final @NotNull AtomicLong dropped = new AtomicLong(0);
+    private final @NotNull AtomicInteger queued = new AtomicInteger(0);
+    private final @NotNull AtomicInteger peakQueued = new AtomicInteger(0);
+
+    private final @NotNull LatencyHistogram queueWait = new LatencyHistogram();
+    private final @NotNull LatencyHistogram executionTime = new LatencyHistogram();
+
+    ListenerExecutionMetrics(@NotNull ListenerExecutionPolicy policy) {
+        this.policy = policy;
+    }
+
+    void onQueued() {
+        submitted.incrementAndGet();
+        int queued = this.queued.incrementAndGet();
+        peakQueued.accumulateAndGet(queued, Math::max);
+    }
+
+    /**
+     * Reverts {@link #onQueued()}, if the event could not be queued after all.
+     */
+    void onUnqueued() {
+        submitted.decrementAndGet();
+        queued.decrementAndGet();
+    }
+
+    /**
+     *
+     * @return the total amount of dropped events
+     */
+    long onDropped() {
+        submitted.incrementAndGet();
+        return dropped.incrementAndGet();
+    }
+
+    void onStart(long waitedNanos) {
+        queued.decrementAndGet();
+        queueWait.record(waitedNanos);
+    }
+
+    void onExecuted(long executionNanos) {
+        executed.incrementAndGet();
+        executionTime.record(executionNanos);
+    }
+
+    public @NotNull ListenerExecutionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     *
+     * @return count of events, which were submitted to the listener, including dropped events
+     */
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    /**
+     *
+     * @return count of events, which the listener has processed
+     */
+    public long getExecuted() {
+        return executed.get();
+    }
+
+    /**
+     *
+     * @return count of events, which were dropped, because the queue of the listener was full
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     *
+     * @return count of events currently waiting for the listener
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     *
+     * @return max count of events, which were waiting for the listener at the same time
+     */
+    public int getPeakQueued() {
+        return peakQueued.get();
+    }
+
+    /**
+     *
+     * @return time between submitting an event and the start of the listener
+     */
+    public @NotNull LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    /**
+     *
+     * @return time spent in the listener
+     */
+    public @NotNull LatencyHistogram getExecutionTime() {
+        return executionTime;
+    }
+
+    @Override
+    public String toString() {
+        return policy + ": submitted " + submitted.get() + ", executed " + executed.get() + ", dropped " + dropped.get()
+                + ", queued " + queued.get() + " (peak " + peakQueued.get() + "), queue wait [" + queueWait
+                + "], execution time [" + executionTime + "]";
+    }
+}
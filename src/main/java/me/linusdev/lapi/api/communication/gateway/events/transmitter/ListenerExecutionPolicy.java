@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.events.transmitter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * <p>
+ *     Decides on which {@link Thread} the methods of an {@link EventListener} are called. By default listeners are
+ *     called {@link #inline() inline} on the thread handling the event. A listener, which blocks (for example by calling
+ *     {@link me.linusdev.lapi.api.async.Task#queueAndWait() queueAndWait()}) or takes long to process an event
+ *     (for example because it accesses a database) delays every following event. Such listeners should be
+ *     added with a different policy.
+ * </p>
+ * <p>
+ *     Every policy, which does not call the listener inline, has a max amount of queued events. If the queue of a
+ *     listener is full, new events are dropped for this listener and counted in its {@link ListenerExecutionMetrics}.
+ *     Listeners executed on other threads may block.
+ * </p>
+ * @see AbstractEventTransmitter#addListener(EventListener, ListenerExecutionPolicy)
+ * @see AbstractEventTransmitter#getExecutionMetrics(EventListener)
+ */
+public final class ListenerExecutionPolicy {
+
+    public enum Type {
+        /**
+         * The listener is called on the thread handling the event.
+         */
+        INLINE,
+        /**
+         * The listener is called on a thread pool shared by all listeners with this type. Events may be processed
+         * concurrently and in any order.
+         */
+        SHARED_POOL,
+        /**
+         * The listener is called on its own {@link Thread}. Events are processed in the order they were handled.
+         */
+        SINGLE_THREAD,
+        /**
+         * The listener is called on the shared thread pool, but events of the same guild are processed one after
+         * another in the order they were handled. Events of different guilds may be processed concurrently. All events
+         * without a guild are processed in order as well.
+         */
+        PER_GUILD,
+    }
+
+    public static final int DEFAULT_MAX_QUEUED = 1_000;
+
+    private static final @NotNull ListenerExecutionPolicy INLINE = new ListenerExecutionPolicy(Type.INLINE, 0);
+
+    private final @NotNull Type type;
+    private final int maxQueued;
+
+    private ListenerExecutionPolicy(@NotNull Type type, int maxQueued) {
+        this.type = type;
+        this.maxQueued = maxQueued;
+    }
+
+    private static @NotNull ListenerExecutionPolicy of(@NotNull Type type, int maxQueued) {
+        if(maxQueued < 1) throw new IllegalArgumentException("maxQueued must be at least 1.");
+        return new ListenerExecutionPolicy(type, maxQueued);
+    }
+
+    /**
+     *
+     * @return {@link ListenerExecutionPolicy} calling the listener on the thread handling the event
+     * @see Type#INLINE
+     */
+    public static @NotNull ListenerExecutionPolicy inline() {
+        return INLINE;
+    }
+
+    /**
+     *
+     * @param maxQueued max amount of events queued for the listener
+     * @return {@link ListenerExecutionPolicy} calling the listener on a shared thread pool
+     * @see Type#SHARED_POOL
+     */
+    public static @NotNull ListenerExecutionPolicy sharedPool(int maxQueued) {
+        return of(Type.SHARED_POOL, maxQueued);
+    }
+
+    /**
+     *
+     * @param maxQueued max amount of events queued for the listener
+     * @return {@link ListenerExecutionPolicy} calling the listener on its own thread
+     * @see Type#SINGLE_THREAD
+     */
+    public static @NotNull ListenerExecutionPolicy singleThread(int maxQueued) {
+        return of(Type.SINGLE_THREAD, maxQueued);
+    }
+
+    /**
+     *
+     * @param maxQueuedPerGuild max amount of events queued for the listener per guild
+     * @return {@link ListenerExecutionPolicy} calling the listener on a shared thread pool, one event per guild at a time
+     * @see Type#PER_GUILD
+     */
+    public static @NotNull ListenerExecutionPolicy perGuild(int maxQueuedPerGuild) {
+        return of(Type.PER_GUILD, maxQueuedPerGuild);
+    }
+
+    public @NotNull Type getType() {
+        return type;
+    }
+
+    /**
+     *
+     * @return max amount of queued events of a listener ({@link Type#PER_GUILD per guild}). {@code 0} for
+     * {@link Type#INLINE inline} listeners
+     */
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.INLINE ? type.toString() : type + "(maxQueued=" + maxQueued + ")";
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.events.transmitter;
+
+import me.linusdev.lapi.api.lapi.LApiImpl;
+import me.linusdev.lapi.api.thread.LApiThreadFactory;
+import me.linusdev.lapi.log.LogInstance;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes the calls of a single {@link EventListener} according to its {@link ListenerExecutionPolicy}.
+ */
+abstract class ListenerExecutor {
+
+    /**
+     * A warning is logged for the first dropped event and then for every {@value}th dropped event.
+     */
+    private static final int DROP_WARNING_INTERVAL = 1_000;
+
+    protected final @NotNull EventListener listener;
+    protected final @NotNull ListenerExecutionPolicy policy;
+    protected final @NotNull ListenerExecutionMetrics metrics;
+    protected final @NotNull LogInstance logger;
+
+    private ListenerExecutor(@NotNull EventListener listener, @NotNull ListenerExecutionPolicy policy, @NotNull LogInstance logger) {
+        this.listener = listener;
+        this.policy = policy;
+        this.metrics = new ListenerExecutionMetrics(policy);
+        this.logger = logger;
+    }
+
+    /**
+     *
+     * @param listener the listener
+     * @param policy the policy, must not be {@link ListenerExecutionPolicy.Type#INLINE INLINE}
+     * @param sharedPool the pool shared by all listeners
+     * @return {@link ListenerExecutor} for given policy
+     */
+    static @NotNull ListenerExecutor create(@NotNull LApiImpl lApi, @NotNull EventListener listener,
+                                            @NotNull ListenerExecutionPolicy policy, @NotNull ExecutorService sharedPool,
+                                            @NotNull LogInstance logger) {
+        switch (policy.getType()) {
+            case SHARED_POOL: return new Pooled(listener, policy, sharedPool, logger);
+            case SINGLE_THREAD: return new Pooled(listener, policy, Executors.newSingleThreadExecutor(
+                    new LApiThreadFactory(lApi, true, "Listener " + listener.getClass().getSimpleName())), true, logger);
+            case PER_GUILD: return new PerGuild(listener, policy, sharedPool, logger);
+        }
+
+        throw new IllegalArgumentException("No executor for policy " + policy);
+    }
+
+    /**
+     * Queues given call of the listener. If the queue of the listener is full, the call is dropped.
+     * @param guildId id of the guild of the event or {@code null}
+     * @param call calls the listener
+     */
+    void execute(@Nullable String guildId, @NotNull Runnable call) {
+        long submittedAt = System.nanoTime();
+        Runnable task = () -> {
+            long start = System.nanoTime();
+            metrics.onStart(start - submittedAt);
+            try {
+                call.run();
+            } catch (Throwable t) {
+                listener.onUncaughtException(t);
+            } finally {
+                metrics.onExecuted(System.nanoTime() - start);
+            }
+        };
+
+        if(submit(guildId, task)) return;
+
+        long dropped = metrics.onDropped();
+        if(dropped % DROP_WARNING_INTERVAL == 1)
+            logger.warning("Queue of listener " + listener + " (" + policy + ") is full. " + dropped + " events dropped so far.");
+    }
+
+    /**
+     *
+     * @return {@code false} if the queue is full or the executor has been shut down and given task was not submitted
+     */
+    protected abstract boolean submit(@Nullable String guildId, @NotNull Runnable task);
+
+    /**
+     * Called, when the listener has been removed or {@link me.linusdev.lapi.api.lapi.LApi LApi} shuts down. Already
+     * queued events are still processed.
+     */
+    void shutdown() {
+
+    }
+
+    /**
+     * Discards all queued events of an executor, which has been {@link #shutdown() shut down}.
+     */
+    void shutdownNow() {
+
+    }
+
+    /**
+     *
+     * @param millis max time to wait
+     * @return {@code true} if all queued events have been processed after a {@link #shutdown()}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean awaitTermination(long millis) throws InterruptedException {
+        return true;
+    }
+
+    @NotNull ListenerExecutionPolicy getPolicy() {
+        return policy;
+    }
+
+    @NotNull ListenerExecutionMetrics getMetrics() {
+        return metrics;
+    }
+
+    private static class Pooled extends ListenerExecutor {
+
+        private final @NotNull ExecutorService executor;
+        /**
+         * Whether the {@link #executor} belongs to this listener and must be shut down with it.
+         */
+        private final boolean ownsExecutor;
+        private final @NotNull AtomicInteger queued = new AtomicInteger(0);
+
+        private Pooled(@NotNull EventListener listener, @NotNull ListenerExecutionPolicy policy,
+                       @NotNull ExecutorService executor, boolean ownsExecutor, @NotNull LogInstance logger) {
+            super(listener, policy, logger);
+            this.executor = executor;
+            this.ownsExecutor = ownsExecutor;
+        }
+
+        private Pooled(@NotNull EventListener listener, @NotNull ListenerExecutionPolicy policy,
+                       @NotNull ExecutorService executor, @NotNull LogInstance logger) {
+            this(listener, policy, executor, false, logger);
+        }
+
+        @Override
+        protected boolean submit(@Nullable String guildId, @NotNull Runnable task) {
+            int count;
+            do {
+                count = queued.get();
+                if(count >= policy.getMaxQueued()) return false;
+            } while (!queued.compareAndSet(count, count + 1));
+
+            metrics.onQueued();
+            try {
+                executor.execute(() -> {
+                    queued.decrementAndGet();
+                    task.run();
+                });
+            } catch (RejectedExecutionException e) {
+                //the executor has been shut down
+                queued.decrementAndGet();
+                metrics.onUnqueued();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        void shutdown() {
+            if(ownsExecutor) executor.shutdown();
+        }
+
+        @Override
+        void shutdownNow() {
+            if(ownsExecutor) executor.shutdownNow();
+        }
+
+        @Override
+        boolean awaitTermination(long millis) throws InterruptedException {
+            return !ownsExecutor || executor.awaitTermination(millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Every guild has its own lane. Only one task of a lane runs at a time. Lanes are removed once they are empty.
+     */
+    private static class PerGuild extends ListenerExecutor {
+
+        /**
+         * Max amount of tasks executed by a lane, before the pool thread is given to another lane.
+         */
+        private static final int MAX_TASKS_PER_RUN = 32;
+
+        /**
+         * Key of the lane for events without a guild.
+         */
+        private static final String NO_GUILD = "";
+
+        private final @NotNull ExecutorService pool;
+        private final @NotNull HashMap<String, ArrayDeque<Runnable>> lanes = new HashMap<>();
+
+        private PerGuild(@NotNull EventListener listener, @NotNull ListenerExecutionPolicy policy,
+                         @NotNull ExecutorService pool, @NotNull LogInstance logger) {
+            super(listener, policy, logger);
+            this.pool = pool;
+        }
+
+        @Override
+        protected boolean submit(@Nullable String guildId, @NotNull Runnable task) {
+            String key = guildId == null ? NO_GUILD : guildId;
+
+            synchronized (lanes) {
+                ArrayDeque<Runnable> lane = lanes.get(key);
+
+                if(lane == null) {
+                    //the lane is not running. The running lane keeps the task at its head until it is done
+                    lane = new ArrayDeque<>();
+                    lane.add(task);
+                    lanes.put(key, lane);
+                    metrics.onQueued();
+                    ArrayDeque<Runnable> started = lane;
+                    try {
+                        pool.execute(() -> run(key, started));
+                    } catch (RejectedExecutionException e) {
+                        //the pool has been shut down
+                        lanes.remove(key);
+                        metrics.onUnqueued();
+                        return false;
+                    }
+                    return true;
+                }
+
+                if(lane.size() >= policy.getMaxQueued()) return false;
+                lane.add(task);
+                metrics.onQueued();
+                return true;
+            }
+        }
+
+        private void run(@NotNull String key, @NotNull ArrayDeque<Runnable> lane) {
+            while (true) {
+                for(int i = 0; i < MAX_TASKS_PER_RUN; i++) {
+                    Runnable task;
+                    synchronized (lanes) {
+                        task = lane.peek();
+                    }
+
+                    boolean empty;
+                    try {
+                        //noinspection ConstantConditions: the lane is removed, once it is empty
+                        task.run();
+                    } catch (Throwable t) {
+                        //onUncaughtException threw
+                        logger.error(t);
+                    } finally {
+                        //always remove the task, otherwise the lane would be stuck
+                        synchronized (lanes) {
+                            lane.poll();
+                            empty = lane.isEmpty();
+                            if(empty) lanes.remove(key);
+                        }
+                    }
+
+                    if(empty) return;
+                }
+
+                //give other lanes a chance
+                try {
+                    pool.execute(() -> run(key, lane));
+                    return;
+                } catch (RejectedExecutionException e) {
+                    //the pool has been shut down: the remaining tasks of the lane are executed on this thread
+                }
+            }
+        }
+    }
+}
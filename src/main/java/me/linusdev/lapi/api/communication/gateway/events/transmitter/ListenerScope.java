@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.events.transmitter;
+
+import me.linusdev.data.so.SOData;
+import me.linusdev.lapi.api.communication.gateway.events.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p>
+ *     Restricts a {@link AbstractEventTransmitter#addSpecifiedListener(EventListener, ListenerScope, EventIdentifier...)
+ *     scoped listener} to events of certain guilds, channels or users. The transmitter indexes scoped listeners by
+ *     their ids, so finding the listeners of an event takes constant time, regardless of how many scoped listeners
+ *     are registered. Events of guilds without any listener are not even decoded, if no cache requires them.
+ * </p>
+ * <p>
+ *     The ids are matched against the event data received from Discord:
+ * </p>
+ * <ul>
+ *     <li>{@link Type#GUILD GUILD}: the guild of the event.</li>
+ *     <li>{@link Type#CHANNEL CHANNEL}: the "channel_id" field. For channel and thread events the id of the channel or thread.</li>
+ *     <li>{@link Type#USER USER}: the "user_id" field or the id of the "user", "author" or "member.user" object.</li>
+ * </ul>
+ * <p>
+ *     Events without such an id are not received by scoped listeners of this type.
+ * </p>
+ */
+public final class ListenerScope {
+
+    public enum Type {
+        GUILD,
+        CHANNEL,
+        USER,
+    }
+
+    private static final String CHANNEL_ID_KEY = "channel_id";
+    private static final String USER_ID_KEY = "user_id";
+    private static final String ID_KEY = "id";
+    private static final String USER_KEY = "user";
+    private static final String AUTHOR_KEY = "author";
+    private static final String MEMBER_KEY = "member";
+
+    private final @NotNull Type type;
+    private final @NotNull Set<String> ids;
+
+    private ListenerScope(@NotNull Type type, @NotNull Collection<String> ids) {
+        if(ids.isEmpty()) throw new IllegalArgumentException("A scope requires at least one id.");
+        this.type = type;
+        this.ids = Collections.unmodifiableSet(new HashSet<>(ids));
+    }
+
+    /**
+     *
+     * @param guildIds ids of the guilds
+     * @return {@link ListenerScope} for events of given guilds
+     */
+    public static @NotNull ListenerScope guilds(@NotNull String @NotNull ... guildIds) {
+        return new ListenerScope(Type.GUILD, Arrays.asList(guildIds));
+    }
+
+    /**
+     *
+     * @param guildIds ids of the guilds
+     * @return {@link ListenerScope} for events of given guilds
+     */
+    public static @NotNull ListenerScope guilds(@NotNull Collection<String> guildIds) {
+        return new ListenerScope(Type.GUILD, guildIds);
+    }
+
+    /**
+     *
+     * @param channelIds ids of the channels
+     * @return {@link ListenerScope} for events of given channels
+     */
+    public static @NotNull ListenerScope channels(@NotNull String @NotNull ... channelIds) {
+        return new ListenerScope(Type.CHANNEL, Arrays.asList(channelIds));
+    }
+
+    /**
+     *
+     * @param channelIds ids of the channels
+     * @return {@link ListenerScope} for events of given channels
+     */
+    public static @NotNull ListenerScope channels(@NotNull Collection<String> channelIds) {
+        return new ListenerScope(Type.CHANNEL, channelIds);
+    }
+
+    /**
+     *
+     * @param userIds ids of the users
+     * @return {@link ListenerScope} for events of given users
+     */
+    public static @NotNull ListenerScope users(@NotNull String @NotNull ... userIds) {
+        return new ListenerScope(Type.USER, Arrays.asList(userIds));
+    }
+
+    /**
+     *
+     * @param userIds ids of the users
+     * @return {@link ListenerScope} for events of given users
+     */
+    public static @NotNull ListenerScope users(@NotNull Collection<String> userIds) {
+        return new ListenerScope(Type.USER, userIds);
+    }
+
+    public @NotNull Type getType() {
+        return type;
+    }
+
+    /**
+     *
+     * @return unmodifiable {@link Set} of the ids of this scope
+     */
+    public @NotNull Set<String> getIds() {
+        return ids;
+    }
+
+    /**
+     *
+     * @param type the {@link Type}
+     * @param event the event
+     * @param identifier the {@link EventIdentifier} of the event
+     * @return the id of given type of given event or {@code null} if the event has no such id
+     */
+    static @Nullable String getId(@NotNull Type type, @NotNull Event event, @NotNull EventIdentifier identifier) {
+        if(type == Type.GUILD) return event.getGuildId();
+
+        if(event.getPayload() == null) return null;
+        Object payloadData = event.getPayload().getPayloadData();
+        if(!(payloadData instanceof SOData)) return null;
+        SOData data = (SOData) payloadData;
+
+        if(type == Type.CHANNEL) {
+            Object channelId = data.get(CHANNEL_ID_KEY);
+            if(channelId == null && (identifier.name().startsWith("CHANNEL_") || identifier.name().startsWith("THREAD_")))
+                channelId = data.get(ID_KEY);
+            return channelId instanceof String ? (String) channelId : null;
+        }
+
+        Object userId = data.get(USER_ID_KEY);
+        if(userId instanceof String) return (String) userId;
+
+        Object user = data.get(USER_KEY);
+        if(user == null) user = data.get(AUTHOR_KEY);
+        if(user == null && data.get(MEMBER_KEY) instanceof SOData) user = ((SOData) data.get(MEMBER_KEY)).get(USER_KEY);
+        if(!(user instanceof SOData)) return null;
+
+        userId = ((SOData) user).get(ID_KEY);
+        return userId instanceof String ? (String) userId : null;
+    }
+
+    @Override
+    public String toString() {
+        return type + ids.toString();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package me.linusdev.lapi.api.communication.gateway.other;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ *     Keeps the latest {@link #getWindowSize() window size} latency samples in a ring buffer. Recording a sample is
+ *     constant time, statistics like {@link #getPercentileMillis(double) percentiles} or the
+ *     {@link #getBucketCounts() histogram} are computed, when they are requested.
+ * </p>
+ * <p>
+ *     This class is thread safe.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    public static final int DEFAULT_WINDOW_SIZE = 128;
+
+    /**
+     * Upper bounds (inclusive) of the buckets returned by {@link #getBucketCounts()} in milliseconds. The last bucket
+     * contains all samples above the last bound.
+     */
+    public static final long[] BUCKET_BOUNDS_MILLIS = {10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000};
+
+    private final long[] samples;
+    private int next = 0;
+    private int size = 0;
+    private long totalCount = 0;
+    private long last = -1;
+
+    public LatencyHistogram(int windowSize) {
+        if(windowSize < 1) throw new IllegalArgumentException("windowSize must be at least 1");
+        this.samples = new long[windowSize];
+    }
+
+    public LatencyHistogram() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Adds given sample. If the window is full, the oldest sample is dropped.
+     * @param nanos latency in nanoseconds
+     */
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if(size < samples.length) size++;
+        totalCount++;
+        last = nanos;
+    }
+
+    /**
+     * Removes all samples.
+     */
+    public synchronized void clear() {
+        next = 0;
+        size = 0;
+        totalCount = 0;
+        last = -1;
+    }
+
+    /**
+     *
+     * @return the latest sample in milliseconds or {@code -1} if no sample has been recorded yet
+     */
+    public synchronized double getLastMillis() {
+        return last == -1 ? -1d : last / 1_000_000d;
+    }
+
+    /**
+     *
+     * @return average of all samples in the window in milliseconds or {@code -1} if no sample has been recorded yet
+     */
+    public synchronized double getAverageMillis() {
+        if(size == 0) return -1d;
+        long sum = 0;
+        for(int i = 0; i < size; i++) sum += samples[i];
+        return (sum / (double) size) / 1_000_000d;
+    }
+
+    /**
+     *
+     * @param percentile between {@code 0} and {@code 100}
+     * @return the given percentile of all samples in the window in milliseconds or {@code -1} if no sample has been recorded yet
+     */
+    public synchronized double getPercentileMillis(double percentile) {
+        if(percentile < 0d || percentile > 100d) throw new IllegalArgumentException("percentile must be between 0 and 100");
+        if(size == 0) return -1d;
+
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100d * size) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000d;
+    }
+
+    /**
+     *
+     * @return count of samples in the window for each bucket of {@link #BUCKET_BOUNDS_MILLIS}. The returned array is
+     * one element longer than {@link #BUCKET_BOUNDS_MILLIS}, the last element counts all samples above the last bound.
+     */
+    public synchronized int @NotNull [] getBucketCounts() {
+        int[] counts = new int[BUCKET_BOUNDS_MILLIS.length + 1];
+
+        for(int i = 0; i < size; i++) {
+            long millis = samples[i] / 1_000_000L;
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_MILLIS.length && millis > BUCKET_BOUNDS_MILLIS[bucket]) bucket++;
+            counts[bucket]++;
+        }
+
+        return counts;
+    }
+
+    /**
+     *
+     * @return count of samples currently in the window
+     */
+    public synchronized int getSize() {
+        return size;
+    }
+
+    /**
+     *
+     * @return count of all samples ever recorded
+     */
+    public synchronized long getTotalCount() {
+        return totalCount;
+    }
+
+    public int getWindowSize() {
+        return samples.length;
+    }
+
+    @Override
+    public synchronized String toString() {
+        if(size == 0) return "no samples";
+        return String.format("last=%.2fms, avg=%.2fms, p50=%.2fms, p99=%.2fms, samples=%d",
+                getLastMillis(), getAverageMillis(), getPercentileMillis(50), getPercentileMillis(99), size);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.other;
+
+import me.linusdev.data.so.SOData;
+import me.linusdev.data.parser.JsonParser;
+import me.linusdev.lapi.api.communication.gateway.abstracts.GatewayPayloadAbstract;
+import me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent;
+import me.linusdev.lapi.api.communication.gateway.enums.GatewayOpcode;
+import me.linusdev.lapi.api.communication.gateway.websocket.CharSequenceReader;
+import me.linusdev.lapi.api.exceptions.LApiRuntimeException;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+
+/**
+ * <p>
+ *     A {@link GatewayPayloadAbstract} whose {@link #getOpcode() opcode}, {@link #getSequence() sequence} and
+ *     {@link #getType() type} have been read by a pre-scan of the received json, while the
+ *     {@link #getPayloadData() event data} is kept as unparsed json. The event data is only parsed, when
+ *     {@link #getPayloadData()} is called for the first time. Events nobody is interested in are never parsed.<br>
+ *     The unparsed event data is not copied: This payload references the received json and the offsets of the event
+ *     data within it, until the event data has been parsed.
+ * </p>
+ * <p>
+ *     The {@link #getGuildId() guild id} of the event data is read by the pre-scan as well, so the
+ *     {@link me.linusdev.lapi.api.communication.gateway.queue.ReceivedPayload ReceivedPayload} does not need to parse
+ *     the event data.
+ * </p>
+ * @see me.linusdev.lapi.api.communication.gateway.websocket.JsonPayloadScanner JsonPayloadScanner
+ */
+public class LazyGatewayPayload implements GatewayPayloadAbstract {
+
+    private final @NotNull GatewayOpcode opcode;
+    private final @Nullable Long sequence;
+    private final @Nullable GatewayEvent type;
+    private final @Nullable String guildId;
+
+    private volatile @Nullable CharSequence json;
+    private final int dataStart;
+    private final int dataEnd;
+    private volatile @Nullable Object data;
+
+    /**
+     *
+     * @param opcode opcode for the payload
+     * @param json complete json of the received payload or {@code null} if the payload has no event data. Must not
+     *             be changed afterwards
+     * @param dataStart index of the first char of the event data in {@code json}
+     * @param dataEnd index after the last char of the event data in {@code json}
+     * @param sequence sequence number
+     * @param type the event name for this payload
+     * @param guildId the id of the guild the event belongs to, if the event data contains it. See
+     *                {@link me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket#getGuildIdKey(GatewayEvent) getGuildIdKey}
+     */
+    @ApiStatus.Internal
+    public LazyGatewayPayload(@NotNull GatewayOpcode opcode, @Nullable CharSequence json, int dataStart, int dataEnd,
+                              @Nullable Long sequence, @Nullable GatewayEvent type, @Nullable String guildId) {
+        this.opcode = opcode;
+        this.json = json;
+        this.dataStart = dataStart;
+        this.dataEnd = dataEnd;
+        this.data = null;
+        this.sequence = sequence;
+        this.type = type;
+        this.guildId = guildId;
+    }
+
+    @Override
+    public @NotNull GatewayOpcode getOpcode() {
+        return opcode;
+    }
+
+    /**
+     * Parses the event data on the first call.
+     * @throws LApiRuntimeException if the event data is not valid json
+     */
+    @Override
+    public @Nullable Object getPayloadData() {
+        if(json == null) return data;
+
+        synchronized (this) {
+            CharSequence json = this.json;
+            if(json == null) return data;
+
+            try {
+                if(json.charAt(dataStart) == '{') {
+                    data = new JsonParser().parseReader(new CharSequenceReader(json, dataStart, dataEnd));
+                } else {
+                    //not an object (boolean, number, string or array). Rare and small, so it is copied
+                    String raw = json.subSequence(dataStart, dataEnd).toString();
+                    SOData wrapper = new JsonParser().parseReader(new CharSequenceReader("{\"" + GatewayPayload.DATA_KEY + "\":" + raw + "}"));
+                    data = wrapper.get(GatewayPayload.DATA_KEY);
+                }
+            } catch (Exception e) {
+                throw new LApiRuntimeException(e);
+            }
+
+            //release the received json
+            this.json = null;
+            return data;
+        }
+    }
+
+    /**
+     *
+     * @return {@code true} if the event data has already been parsed (or the payload has no event data)
+     */
+    public boolean isPayloadDataParsed() {
+        return json == null;
+    }
+
+    @Override
+    public @Nullable Long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public @Nullable GatewayEvent getType() {
+        return type;
+    }
+
+    /**
+     *
+     * @return the id of the guild the event belongs to ("guild_id" or for guild events "id" field of the event data)
+     * or {@code null} if it does not contain such
+     */
+    public @Nullable String getGuildId() {
+        return guildId;
+    }
+
+    @Override
+    public @Nullable String toJsonString() {
+        return getData().toJsonString().toString();
+    }
+
+    /**
+     * The pre-scan does not read the trace.
+     * @return {@code null}
+     */
+    @Override
+    public @Nullable String[] get_trace() {
+        return null;
+    }
+
+    @Override
+    public SOData getData() {
+        SOData data = SOData.newOrderedDataWithKnownSize(4);
+
+        data.add(GatewayPayload.OPCODE_KEY, opcode);
+        data.add(GatewayPayload.DATA_KEY, getPayloadData());
+        data.addIfNotNull(GatewayPayload.SEQUENCE_KEY, sequence);
+        data.addIfNotNull(GatewayPayload.TYPE_KEY, type);
+
+        return data;
+    }
+}
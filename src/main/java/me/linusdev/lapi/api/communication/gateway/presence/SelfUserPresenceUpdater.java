@@ -22,6 +22,7 @@ import me.linusdev.lapi.api.communication.gateway.activity.Activity;
 import me.linusdev.lapi.api.communication.gateway.activity.ActivityType;
 import me.linusdev.lapi.api.communication.gateway.command.GatewayCommand;
 import me.linusdev.lapi.api.communication.gateway.command.GatewayCommandType;
+import me.linusdev.lapi.api.communication.gateway.sharding.ShardManager;
 import me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
@@ -29,10 +30,33 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
-
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     Holds the presence of the current user and sends it to Discord, when {@link #updateNow()} is called.
+ * </p>
+ * <p>
+ *     Presence updates are coalesced: The first update is sent immediately. Further updates within the
+ *     {@link #setCoalescingWindow(long) coalescing window} are merged and only the latest presence is sent at the end
+ *     of the window. A pending update is flushed, when the gateway shuts down. The gateway waits until the flushed
+ *     update has been sent before it closes the connection.<br>
+ *     Updates, which are already queued in the gateway, are replaced by newer updates as well (see
+ *     {@link me.linusdev.lapi.api.communication.gateway.websocket.GatewayCommandScheduler.Lane#PRESENCE Lane.PRESENCE}).
+ * </p>
+ */
 public class SelfUserPresenceUpdater {
 
+    public static final long DEFAULT_COALESCING_WINDOW_MILLIS = 5_000L;
+
     protected @Nullable GatewayWebSocket gateway;
+    protected @Nullable ShardManager shardManager;
+
+    protected long coalescingWindowMillis = DEFAULT_COALESCING_WINDOW_MILLIS;
+    private boolean updatePending = false;
+    private boolean flushScheduled = false;
+    private long lastSentAt = Long.MIN_VALUE / 2;
 
     protected @NotNull StatusType status;
 
@@ -123,7 +147,7 @@ public class SelfUserPresenceUpdater {
      * @see #addActivity(String, ActivityType)
      * @see #addActivity(String, ActivityType, String)
      */
-    public SelfUserPresenceUpdater addActivity(@NotNull Activity activity){
+    public synchronized SelfUserPresenceUpdater addActivity(@NotNull Activity activity){
         this.updatePresence = true;
         activities.add(activity);
         return this;
@@ -135,7 +159,7 @@ public class SelfUserPresenceUpdater {
      * </p>
      * @param activity activity to remove
      */
-    public SelfUserPresenceUpdater removeActivity(@NotNull Activity activity){
+    public synchronized SelfUserPresenceUpdater removeActivity(@NotNull Activity activity){
         this.updatePresence = true;
         activities.remove(activity);
         return this;
@@ -147,7 +171,7 @@ public class SelfUserPresenceUpdater {
      * </p>
      * @param name name of activities to remove
      */
-    public SelfUserPresenceUpdater removeActivity(@NotNull String name){
+    public synchronized SelfUserPresenceUpdater removeActivity(@NotNull String name){
         this.updatePresence = true;
         activities.removeIf(activity -> activity.getName().equals(name));
         return this;
@@ -197,14 +221,91 @@ public class SelfUserPresenceUpdater {
     }
 
     /**
-     * Will ask the gateway to send a {@link PresenceUpdate} as soon as possible.
+     * <p>
+     *     Will ask the gateway to send a {@link PresenceUpdate} as soon as possible. If a {@link ShardManager} is used,
+     *     every shard will send the {@link PresenceUpdate}.
+     * </p>
+     * <p>
+     *     If a {@link PresenceUpdate} has already been sent within the {@link #setCoalescingWindow(long) coalescing window},
+     *     the update is delayed until the end of the window. All updates within this time are merged and only the
+     *     latest presence is sent.
+     * </p>
      */
     public SelfUserPresenceUpdater updateNow(){
-        if(gateway == null) throw new IllegalStateException("This SelfUserPresenceUpdater has not gateway! Are you currently adjusting the config? If yes, don't call this method.");
-        gateway.queueCommand(new GatewayCommand(GatewayCommandType.UPDATE_PRESENCE, getPresenceUpdate()));
+        if(gateway == null && shardManager == null)
+            throw new IllegalStateException("This SelfUserPresenceUpdater has not gateway! Are you currently adjusting the config? If yes, don't call this method.");
+
+        synchronized (this) {
+            updatePending = true;
+            //the latest presence will be sent, once the scheduled flush runs
+            if(flushScheduled) return this;
+
+            long wait = lastSentAt + coalescingWindowMillis - now();
+            if(wait > 0L) {
+                flushScheduled = true;
+                getScheduler().schedule(this::flush, wait, TimeUnit.MILLISECONDS);
+                return this;
+            }
+        }
+
+        flush();
+        return this;
+    }
+
+    /**
+     * Sends a pending {@link PresenceUpdate} immediately, ignoring the {@link #setCoalescingWindow(long) coalescing window}.
+     * Does nothing, if no update is pending. This is called when the gateway shuts down.
+     */
+    @ApiStatus.Internal
+    public void flush() {
+        PresenceUpdate update;
+        synchronized (this) {
+            flushScheduled = false;
+            if(!updatePending) return;
+            updatePending = false;
+            lastSentAt = now();
+            update = getPresenceUpdate();
+        }
+
+        //commands are queued outside the lock, because the gateway may call getPresenceUpdate() while holding its own lock
+        if(shardManager != null) {
+            for(GatewayWebSocket shard : shardManager.getShards())
+                shard.queueCommand(new GatewayCommand(GatewayCommandType.UPDATE_PRESENCE, update));
+            return;
+        }
+
+        if(gateway != null) gateway.queueCommand(new GatewayCommand(GatewayCommandType.UPDATE_PRESENCE, update));
+    }
+
+    /**
+     * <p>
+     *     Sets the time window, in which {@link #updateNow() updates} are merged.
+     * </p>
+     * <p>
+     *     Default: {@value #DEFAULT_COALESCING_WINDOW_MILLIS}
+     * </p>
+     * @param coalescingWindowMillis window in milliseconds. {@code 0} to send every update
+     */
+    public synchronized SelfUserPresenceUpdater setCoalescingWindow(long coalescingWindowMillis) {
+        if(coalescingWindowMillis < 0) throw new IllegalArgumentException("coalescingWindowMillis must not be negative");
+        this.coalescingWindowMillis = coalescingWindowMillis;
         return this;
     }
 
+    public long getCoalescingWindowMillis() {
+        return coalescingWindowMillis;
+    }
+
+    private @NotNull ScheduledExecutorService getScheduler() {
+        if(shardManager != null) return shardManager.getScheduler();
+        //noinspection ConstantConditions: checked in updateNow()
+        return gateway.getScheduler();
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1_000_000L;
+    }
+
     /**
      * <p>
      *     whether to send a {@link PresenceUpdate} to Discord ({@code true}) or not ({@code false}).<br>
@@ -223,7 +324,7 @@ public class SelfUserPresenceUpdater {
      * @return {@link PresenceUpdate} or {@code null} if we don't want to update the presence
      */
     @ApiStatus.Internal
-    public @Nullable PresenceUpdate getPresenceUpdate(){
+    public synchronized @Nullable PresenceUpdate getPresenceUpdate(){
         if(!updatePresence) return null;
 
         Long since = afk ? afkSince : null;
@@ -237,4 +338,10 @@ public class SelfUserPresenceUpdater {
         this.gateway = gateway;
         return this;
     }
+
+    @ApiStatus.Internal
+    public SelfUserPresenceUpdater setShardManager(@NotNull ShardManager shardManager){
+        this.shardManager = shardManager;
+        return this;
+    }
 }
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.communication.gateway.presence;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.StringEnumTable;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -63,6 +64,8 @@ public enum StatusType implements SimpleDatable {
         this.value = value;
     }
 
+    private static final StringEnumTable<StatusType> VALUE_TABLE = new StringEnumTable<>(values(), t -> t.value, UNKNOWN, true);
+
     /**
      *
      * @param value {@link String}
@@ -71,11 +74,7 @@ public enum StatusType implements SimpleDatable {
     @Contract("null -> null; !null -> !null")
     public static @Nullable StatusType fromValue(@Nullable String value){
         if(value == null) return null;
-        for(StatusType type : StatusType.values()){
-            if(type.value.equalsIgnoreCase(value)) return type;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public String getValue() {
@@ -23,12 +23,36 @@ import me.linusdev.lapi.api.communication.gateway.abstracts.GatewayPayloadAbstra
 import me.linusdev.lapi.api.communication.gateway.queue.processor.DispatchEventProcessor;
 import org.jetbrains.annotations.*;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Queue that handles all Dispatch Events.<br>
  * It also manages the last received sequence, since only Dispatch Events have a sequence.
+ * <p>
+ *     The queue is a ring indexed by sequence. Every payload is stored at the index {@code sequence + offset}, so
+ *     payloads received out of order are placed correctly and handed to the {@link DispatchEventProcessor processor}
+ *     once all previous sequences have been received. The {@link #offset} only changes, when a new session starts
+ *     after a {@link #reset()}.
+ * </p>
+ * <p>
+ *     There must only be a single producer {@link #push(ReceivedPayload) pushing} payloads. {@link #pull()} and
+ *     {@link #peek()} do not lock and may be called from any thread.
+ * </p>
+ * <p>
+ *     If the ring is full, its capacity is doubled. Once {@link #getBackpressureThreshold() backpressureThreshold}
+ *     payloads are {@link #getPullableSize() ready to be pulled}, the {@link BackpressureListener} is informed, so the
+ *     websocket can stop reading new messages until at most half as many payloads are ready. Payloads waiting behind a
+ *     missing sequence are not counted: the websocket must keep reading, until the missing sequence has been received.
+ * </p>
+ * <p>
+ *     Pulled payloads stay {@link #onHandled(ReceivedPayload) in flight}, until they have been handled.
+ *     {@link #getLastHandledSequence()} is the last sequence, up to which all payloads have been handled.
+ * </p>
  */
 public class DispatchEventQueue implements Datable {
 
@@ -39,38 +63,83 @@ public class DispatchEventQueue implements Datable {
     public static final String PULL_POSITION_KEY = "pull_position";
     public static final String SIZE_KEY = "size";
 
+    public static final int DEFAULT_BACKPRESSURE_THRESHOLD = 10_000;
+
     /**
      * Last received sequence
      */
-    private long lastSequence;
-    private boolean receivedFirstSequence;
+    private volatile long lastSequence;
+    private volatile boolean receivedFirstSequence;
+
+    /**
+     * Sequence of the last {@link #pull() pulled} payload
+     */
+    private volatile long lastPulledSequence;
+
+    /**
+     * Indices of pulled payloads, which have not been {@link #onHandled(ReceivedPayload) handled} yet, mapped to the
+     * amount of times they have been registered. An index is registered before it is pulled, so it may be registered
+     * by several threads at once, of which only one succeeds pulling it.
+     */
+    private final ConcurrentSkipListMap<Long, Integer> inFlight = new ConcurrentSkipListMap<>();
+
+    /**
+     * index = sequence + offset
+     */
+    private long offset;
 
-    private final ReceivedPayload[] array;
-    private int pushPosition;
-    private int pullPosition;
-    private int size;
+    private volatile AtomicReferenceArray<Node> ring;
+
+    /**
+     * Index of the next payload to pull.
+     */
+    private final AtomicLong pullIndex;
+
+    /**
+     * All indices up to this one have been received.
+     */
+    private volatile long lastIndex;
+
+    /**
+     * Highest index, which has been received.
+     */
+    private volatile long maxIndex;
+
+    /**
+     * Held by the single producer while {@link #push(ReceivedPayload) pushing}. It only excludes the rare
+     * {@link #reset()}, {@link #resumeAt(long)}, {@link #getData()} and {@link #getLastHandledSequence()} calls from
+     * other threads, so it is uncontended in the hot path. {@link #pull()} and {@link #peek()} never take it.
+     */
+    private final Object pushLock = new Object();
+
+    private final int backpressureThreshold;
+    private final AtomicBoolean backpressure;
+    private volatile @Nullable BackpressureListener backpressureListener;
 
     private @Nullable DispatchEventProcessor processor;
 
     /**
-     * @param capacity the capacity of the queue
+     * @param capacity the initial capacity of the queue. The queue grows if required
+     * @param backpressureThreshold amount of waiting payloads, at which the {@link BackpressureListener} is informed
      */
-    public DispatchEventQueue(int capacity) {
+    public DispatchEventQueue(int capacity, int backpressureThreshold) {
         this.lastSequence = 0L;
         this.receivedFirstSequence = false;
-        this.array = new ReceivedPayload[capacity];
-        this.pushPosition = 0;
-        this.pullPosition = 0;
-        this.size = 0;
+        this.lastPulledSequence = 0L;
+        this.offset = 0L;
+        this.ring = new AtomicReferenceArray<>(ceilPowerOfTwo(capacity));
+        this.pullIndex = new AtomicLong(1L);
+        this.lastIndex = 0L;
+        this.maxIndex = 0L;
+        this.backpressureThreshold = Math.max(backpressureThreshold, 2);
+        this.backpressure = new AtomicBoolean(false);
     }
 
-    private DispatchEventQueue(long lastSequence, boolean receivedFirstSequence, ReceivedPayload[] array, int pushPosition, int pullPosition, int size) {
-        this.lastSequence = lastSequence;
-        this.receivedFirstSequence = receivedFirstSequence;
-        this.array = array;
-        this.pushPosition = pushPosition;
-        this.pullPosition = pullPosition;
-        this.size = size;
+    /**
+     * @param capacity the initial capacity of the queue. The queue grows if required
+     */
+    public DispatchEventQueue(int capacity) {
+        this(capacity, DEFAULT_BACKPRESSURE_THRESHOLD);
     }
 
     @Contract("null -> null; !null -> !null")
@@ -80,28 +149,52 @@ public class DispatchEventQueue implements Datable {
         Number lastSequence = (Number) data.get(LAST_RECEIVED_SEQUENCE_KEY);
         Boolean receivedFirstSeq = (Boolean) data.get(RECEIVED_FIRST_SEQUENCE_KEY);
         List<Object> list = data.getList(ARRAY_KEY);
-        Number pushPosition = (Number) data.get(PUSH_POSITION_KEY);
-        Number pullPosition = (Number) data.get(PULL_POSITION_KEY);
-        Number size = (Number) data.get(SIZE_KEY);
 
-        if(lastSequence == null || receivedFirstSeq == null || list == null || pushPosition == null || pullPosition == null || size == null){
+        if(lastSequence == null || receivedFirstSeq == null || list == null){
             InvalidDataException.throwException(data, null, DispatchEventQueue.class,
-                    new Object[]{lastSequence, receivedFirstSeq, list, pushPosition, pullPosition, size},
-                    new String[]{LAST_RECEIVED_SEQUENCE_KEY, RECEIVED_FIRST_SEQUENCE_KEY, ARRAY_KEY, PUSH_POSITION_KEY, PULL_POSITION_KEY, SIZE_KEY});
+                    new Object[]{lastSequence, receivedFirstSeq, list},
+                    new String[]{LAST_RECEIVED_SEQUENCE_KEY, RECEIVED_FIRST_SEQUENCE_KEY, ARRAY_KEY});
             return null; //Will never be executed
         }
 
-        ReceivedPayload[] array = new ReceivedPayload[list.size()];
-
-        int i = 0;
+        //older versions stored the whole array including empty positions
+        ArrayList<ReceivedPayload> payloads = new ArrayList<>(list.size());
+        long firstSequence = lastSequence.longValue() + 1;
         for(Object o : list) {
-            if(o instanceof ReceivedPayload) array[i++] = (ReceivedPayload) o;
-            else array[i++] = ReceivedPayload.fromData((SOData) o);
+            if(o == null) continue;
+            ReceivedPayload payload = o instanceof ReceivedPayload ? (ReceivedPayload) o : ReceivedPayload.fromData((SOData) o);
+            //noinspection ConstantConditions: This will never be null, because a payload without a sequence cannot be added.
+            firstSequence = Math.min(firstSequence, payload.getPayload().getSequence());
+            payloads.add(payload);
+        }
+
+        DispatchEventQueue queue = new DispatchEventQueue(Math.max(payloads.size() * 2, 16));
+
+        synchronized (queue.pushLock) {
+            queue.receivedFirstSequence = receivedFirstSeq;
+            queue.lastSequence = lastSequence.longValue();
+            queue.lastPulledSequence = firstSequence - 1;
+            queue.offset = 1 - firstSequence;
+            queue.lastIndex = lastSequence.longValue() + queue.offset;
+            queue.maxIndex = queue.lastIndex;
+            queue.ensureCapacity(queue.lastIndex);
+
+            for(ReceivedPayload payload : payloads) {
+                //noinspection ConstantConditions
+                long index = payload.getPayload().getSequence() + queue.offset;
+                payload.setQueueIndex(index);
+                queue.ensureCapacity(index);
+                queue.ring.set(queue.mask(index), new Node(index, payload));
+                queue.maxIndex = Math.max(queue.maxIndex, index);
+            }
+
+            //received sequences, which are missing in the data, will never be available
+            for(long i = queue.pullIndex.get(); i <= queue.lastIndex; i++) {
+                if(queue.nodeAt(i) == null) queue.ring.set(queue.mask(i), new Node(i, null));
+            }
         }
 
-        return new DispatchEventQueue(lastSequence.longValue(), receivedFirstSeq, array,
-                pushPosition.intValue(), pullPosition.intValue(),
-                size.intValue());
+        return queue;
     }
 
     /**
@@ -109,11 +202,12 @@ public class DispatchEventQueue implements Datable {
      * based on {@link GatewayPayloadAbstract#getSequence() the sequence of given payload}. If this sequence is less than
      * the {@link #getLastSequence() last received sequence} it will be ignored.<br>
      * Only if the given sequence is exactly one more than the last sequence, the last sequence will be changed afterwards.
+     * If the queue is full, it grows.
      * @param payload the payload to push
+     * @return {@code false} if given payload has been ignored, because its sequence has already been received
      * @throws IllegalArgumentException if {@link GatewayPayloadAbstract#getSequence()} is {@code null}
-     * @throws IllegalStateException if this queue is full or has overflown
      */
-    public synchronized void push(@NotNull ReceivedPayload payload) {
+    public boolean push(@NotNull ReceivedPayload payload) {
         Long sequence = payload.getPayload().getSequence();
 
         if(sequence == null) {
@@ -121,108 +215,192 @@ public class DispatchEventQueue implements Datable {
             throw new IllegalArgumentException("Sequence may not be null.");
         }
 
-        if(!receivedFirstSequence) {
-            receivedFirstSequence = true;
-            lastSequence = sequence-1;
+        synchronized (pushLock) {
+            if(!receivedFirstSequence) {
+                receivedFirstSequence = true;
+                offset = lastIndex + 1 - sequence;
+            }
+
+            long index = sequence + offset;
+            if(index <= lastIndex) {
+                //we already have that sequence...
+                return false;
+            }
 
-        } else if (sequence <= lastSequence) {
-            //we already have that sequence...
-            return;
+            ensureCapacity(index);
+            //received twice, before the previous sequences arrived
+            if(nodeAt(index) != null) return false;
+            payload.setQueueIndex(index);
+            ring.set(mask(index), new Node(index, payload));
+            if(index > maxIndex) maxIndex = index;
+
+            //hand all payloads, which are now in order, to the processor
+            while (nodeAt(lastIndex + 1) != null) {
+                lastIndex++;
+                lastSequence = lastIndex - offset;
+                if(processor != null) processor.onNext();
+            }
+
+            if(getPullableSize() >= backpressureThreshold && backpressure.compareAndSet(false, true)) {
+                BackpressureListener listener = backpressureListener;
+                if(listener != null) listener.onBackpressure(true);
+            }
         }
 
-        long difference = sequence - lastSequence;
-        set(payload, (int) difference);
+        return true;
     }
 
     /**
-     * Given payload will be placed at the correct position in the queue (depending on given dif).
-     * If dif is exactly one, the {@link #lastSequence} will be updated accordingly
-     * (if there has not been retrieved any sequence, higher than {@link #lastSequence} + 1, {@link #lastSequence} will
-     * be increased by exactly one)
-     *
-     * @param payload the payload to add to this queue
-     * @param dif the offset from the {@link #lastSequence}
-     * @throws IllegalStateException If after this operation was done, the queue is full or has overflown
+     * Adds given payload, which has no sequence, in front of all payloads, which will be {@link #push(ReceivedPayload)
+     * pushed} afterwards. Used to transmit the READY event of a resumed
+     * {@link me.linusdev.lapi.api.communication.gateway.resume.SessionCheckpoint SessionCheckpoint} before the
+     * replayed events. This queue must be empty.<br>
+     * The payload does not influence the {@link #getLastHandledSequence() last handled sequence}.
+     * @param payload the payload to add
+     * @throws IllegalArgumentException if {@link GatewayPayloadAbstract#getSequence()} is not {@code null}
      */
-    private synchronized void set(@NotNull ReceivedPayload payload, @Range(from = 1, to = Integer.MAX_VALUE) int dif) {
-
-        if(dif == 1) {
-            array[pushPosition] = payload;
-            //noinspection ConstantConditions: This will never be null, because a payload without a sequence cannot be added.
-            this.lastSequence = array[pushPosition].getPayload().getSequence();
-            pushPosition = (pushPosition + 1) % array.length;
-            calculateSize(0);
+    @ApiStatus.Internal
+    public void pushUnsequenced(@NotNull ReceivedPayload payload) {
+        if(payload.getPayload().getSequence() != null)
+            throw new IllegalArgumentException("Payloads with a sequence must be pushed using push().");
+
+        synchronized (pushLock) {
+            if(getSize() != 0) throw new IllegalStateException("Cannot push an unsequenced payload, if the queue is not empty.");
+
+            long index = lastIndex + 1;
+            ensureCapacity(index);
+            payload.setQueueIndex(index);
+            ring.set(mask(index), new Node(index, payload));
+            maxIndex = index;
+            lastIndex = index;
+            //the next sequence must be placed behind the payload
+            offset++;
 
             if(processor != null) processor.onNext();
+        }
+    }
+
+    /**
+     * Doubles the capacity of the {@link #ring}, until given index fits. Must be called while holding the {@link #pushLock}.
+     * Payloads, which are pulled during the copy, may remain in the new ring. They are never returned again,
+     * because {@link Node#index} does not match the {@link #pullIndex}.
+     */
+    private void ensureCapacity(long index) {
+        AtomicReferenceArray<Node> old = ring;
+        long required = index - pullIndex.get() + 1;
+        if(required <= old.length()) return;
+
+        int capacity = old.length();
+        while (capacity < required) {
+            if(capacity >= (1 << 30)) throw new IllegalStateException("The queue cannot grow any further.");
+            capacity <<= 1;
+        }
 
-            while (get(pushPosition) != null) {
-                //noinspection ConstantConditions: This will never be null, because a payload without a sequence cannot be added.
-                this.lastSequence = array[pushPosition].getPayload().getSequence();
-                pushPosition = (pushPosition + 1) % array.length;
+        AtomicReferenceArray<Node> grown = new AtomicReferenceArray<>(capacity);
+        for(long i = pullIndex.get(); i <= maxIndex; i++) {
+            Node node = old.get((int) (i & (old.length() - 1)));
+            if(node != null && node.index == i) grown.set((int) (i & (capacity - 1)), node);
+        }
 
+        ring = grown;
+    }
 
+    /**
+     * Must be called while holding the {@link #pushLock}.
+     */
+    private @Nullable Node nodeAt(long index) {
+        Node node = ring.get(mask(index));
+        if(node == null || node.index != index) return null;
+        return node;
+    }
 
-                if(processor != null) processor.onNext();
+    private int mask(long index) {
+        return (int) (index & (ring.length() - 1));
+    }
+
+    /**
+     * Pulls the first {@link ReceivedPayload} in the queue.
+     * @return {@link ReceivedPayload} at the first position in the queue or {@code null} if there is no such.
+     */
+    public @Nullable ReceivedPayload pull() {
+        while (true) {
+            long index = pullIndex.get();
+            if(index > lastIndex) return null;
+
+            AtomicReferenceArray<Node> ring = this.ring;
+            int i = (int) (index & (ring.length() - 1));
+            Node node = ring.get(i);
+
+            if(node == null || node.index != index) {
+                //the ring may have grown or another thread may have pulled in the meantime
+                if(ring != this.ring || index != pullIndex.get()) continue;
+                return null;
             }
 
+            //payloads without a sequence have been added by pushUnsequenced() and are not tracked
+            Long sequence = node.isSkip() ? null : node.payload.getPayload().getSequence();
 
-        } else {
-            int index = (pushPosition + (dif - 1)) % array.length;
-            array[index] = payload;
-            calculateSize(dif);
+            //register before pulling, so that no pulled index is missing from inFlight, while a higher one is
+            //already stored as lastPulledSequence
+            if(sequence != null) inFlight.merge(index, 1, Integer::sum);
 
-        }
+            if(!pullIndex.compareAndSet(index, index + 1)) {
+                if(sequence != null) removeInFlight(index);
+                continue;
+            }
+            ring.compareAndSet(i, node, null);
+
+            if(node.isSkip()) continue;
+
+            if(sequence != null) lastPulledSequence = sequence;
+
+            if(backpressure.get() && getPullableSize() <= backpressureThreshold / 2 && backpressure.compareAndSet(true, false)) {
+                BackpressureListener listener = backpressureListener;
+                if(listener != null) listener.onBackpressure(false);
+            }
 
-        if(this.size >= array.length) {
-            //This is awful.
-            throw new IllegalStateException("The queue is completely filled or has already overflown!");
+            return node.payload;
         }
     }
 
     /**
-     * Get {@link ReceivedPayload} at given index in {@link #array} (not in the queue!)
-     * @param index index. An index higher than array length is valid.
-     *              Array-index will be calculated by given index modulo array length
-     * @return {@link ReceivedPayload} at given index mod {@link java.lang.reflect.Array#getLength(Object) array length}
+     * Must be called once a {@link #pull() pulled} payload has been handled or will never be handled (for example
+     * because it has been dropped).
+     * @param payload the pulled payload
      */
-    @ApiStatus.Internal
-    private synchronized @Nullable ReceivedPayload get(@Range(from = 0, to = Integer.MAX_VALUE) int index) {
-        index = index % array.length;
-        return array[index];
+    public void onHandled(@NotNull ReceivedPayload payload) {
+        removeInFlight(payload.getQueueIndex());
     }
 
-    /**
-     * Set given {@link ReceivedPayload} at given index in {@link #array} (not in the queue!)
-     * @param index index. An index higher than array length is valid.
-     *              Array-index will be calculated by given index modulo array length
-     * @param payload the {@link ReceivedPayload} or {@code null} to set at given index
-     */
-    private synchronized void set(@Range(from = 0, to = Integer.MAX_VALUE) int index, @Nullable ReceivedPayload payload) {
-        array[index % array.length] = payload;
+    private void removeInFlight(long index) {
+        inFlight.computeIfPresent(index, (i, count) -> count == 1 ? null : count - 1);
     }
 
     /**
-     * Pulls {@link ReceivedPayload} at {@link #pullPosition} and increases {@link #pullPosition} by 1 (if returned value is not {@code null}).
+     * The first payload is not removed from the queue.
      * @return {@link ReceivedPayload} at the first position in the queue or {@code null} if there is no such.
      */
-    public synchronized @Nullable ReceivedPayload pull() {
-        if(array[pullPosition] != null){
-            ReceivedPayload payload = array[pullPosition];
-            array[pullPosition] = null;
-            pullPosition = (pullPosition + 1) % array.length;
-            size--;
-            return payload;
-        }
+    public @Nullable ReceivedPayload peek() {
+        while (true) {
+            long index = pullIndex.get();
+            if(index > lastIndex) return null;
 
-        return null;
-    }
+            AtomicReferenceArray<Node> ring = this.ring;
+            Node node = ring.get((int) (index & (ring.length() - 1)));
 
-    /**
-     * {@link #pullPosition} is not increased.
-     * @return {@link ReceivedPayload} at the first position in the queue or {@code null} if there is no such.
-     */
-    public synchronized @Nullable ReceivedPayload peek() {
-        return array[pullPosition];
+            if(node == null || node.index != index) {
+                if(ring != this.ring || index != pullIndex.get()) continue;
+                return null;
+            }
+
+            if(node.isSkip()) {
+                //skip it, so the next payload can be peeked
+                if(pullIndex.compareAndSet(index, index + 1)) ring.compareAndSet((int) (index & (ring.length() - 1)), node, null);
+                continue;
+            }
+
+            return node.payload;
+        }
     }
 
     /**
@@ -232,79 +410,156 @@ public class DispatchEventQueue implements Datable {
      *         {@link #lastSequence} will be 0.
      *     </li>
      *     <li>
-     *         The queue's {@link #size} will be minimized. That means all missing sequences will be ignored.
+     *         All missing sequences will be ignored. Payloads, which are still in the queue, can still be pulled.
      *     </li>
      *     <li>
-     *         {@link #pushPosition} will be updated accordingly.
+     *         The next pushed payload will be placed behind all payloads, which are still in the queue.
      *     </li>
      * </ul>
      */
-    public synchronized void reset() {
-        lastSequence = 0;
-
-        int tempSize = size - (pushPosition - pullPosition);
-        for(;tempSize > 0; tempSize--) {
-            if(array[pushPosition] != null) continue;
-
-            int i = 1;
-            while(get(pushPosition+i) == null && i < tempSize) i++;
+    public void reset() {
+        synchronized (pushLock) {
+            lastSequence = 0;
+            lastPulledSequence = 0;
+
+            int available = 0;
+            for(long i = lastIndex + 1; i <= maxIndex; i++) {
+                if(nodeAt(i) == null) ring.set(mask(i), new Node(i, null));
+                else available++;
+            }
+            lastIndex = maxIndex;
 
-            if(get(pushPosition+i) == null) break;
+            receivedFirstSequence = false;
 
-            array[pushPosition] = get(pushPosition+i);
-            set(pushPosition+i, null);
-            pushPosition = (pushPosition + 1) % array.length;
+            //the payloads, which were waiting for the missing sequences, are available now
+            if(processor != null) {
+                for(; available > 0; available--) processor.onNext();
+            }
         }
-
-        calculateSize(0);
-        receivedFirstSequence = false;
     }
 
     /**
-     * Calculates the size of the queue after a new element has been added.
-     * @param dif the difference of the position of the added element and the current {@link #pushPosition} (always positive or 0)
-     * @return {@link #size}
+     *
+     * @return amount of payloads in the queue, including missing sequences, which have not been received yet.
      */
-    @SuppressWarnings("UnusedReturnValue")
-    private int calculateSize(int dif) {
-        int tempPushPosition = pushPosition;
-
-        if(pushPosition < pullPosition)
-            tempPushPosition += array.length;
+    public int getSize() {
+        return (int) Math.max(0L, maxIndex - pullIndex.get() + 1);
+    }
 
-        size = Math.max(size, dif + (tempPushPosition - pullPosition));
-        return size;
+    /**
+     *
+     * @return amount of payloads, which can be pulled now. Payloads behind a missing sequence are not included.
+     */
+    public int getPullableSize() {
+        return (int) Math.max(0L, lastIndex - pullIndex.get() + 1);
     }
 
     public void setProcessor(@Nullable DispatchEventProcessor processor) {
         this.processor = processor;
     }
 
+    /**
+     * @param backpressureListener listener to inform, when this queue fills up or has been drained again
+     */
+    public void setBackpressureListener(@Nullable BackpressureListener backpressureListener) {
+        this.backpressureListener = backpressureListener;
+    }
+
+    /**
+     *
+     * @return {@code true} if {@link #getBackpressureThreshold()} or more payloads were {@link #getPullableSize()
+     * pullable} and the queue has not been drained to half of it yet
+     */
+    public boolean isBackpressureActive() {
+        return backpressure.get();
+    }
+
+    public int getBackpressureThreshold() {
+        return backpressureThreshold;
+    }
+
     /**
      * @return next required sequence - 1
      */
-    public synchronized long getLastSequence() {
+    public long getLastSequence() {
         return lastSequence;
     }
 
+    /**
+     * Payloads with a sequence up to the returned one have been handed to the processor. Resuming at this sequence
+     * will not lose any payload, which is still in this queue.
+     * @return sequence of the last {@link #pull() pulled} payload
+     */
+    public long getLastPulledSequence() {
+        return lastPulledSequence;
+    }
+
+    /**
+     * All payloads with a sequence up to the returned one have been {@link #onHandled(ReceivedPayload) handled}.
+     * Unlike {@link #getLastPulledSequence()}, payloads, which are still waiting in the processor, are not included.
+     * @return the sequence before the first payload, which has been pulled, but not handled yet or the
+     * {@link #getLastPulledSequence() last pulled sequence} if all pulled payloads have been handled
+     */
+    public long getLastHandledSequence() {
+        synchronized (pushLock) {
+            //read before inFlight: a payload pulled in the meantime is already registered
+            long lastPulled = lastPulledSequence;
+
+            //payloads of a previous session may still be in flight. Their indices are lower
+            Long first = inFlight.ceilingKey(offset + 1);
+            if(first == null) return lastPulled;
+            return Math.min(lastPulled, first - offset - 1);
+        }
+    }
+
+    /**
+     * Continues at given sequence. Used to resume a session from a
+     * {@link me.linusdev.lapi.api.communication.gateway.resume.SessionCheckpoint SessionCheckpoint}. This queue must be
+     * empty.
+     * @param sequence the last sequence, which has already been processed
+     */
+    @ApiStatus.Internal
+    public void resumeAt(long sequence) {
+        synchronized (pushLock) {
+            if(getSize() != 0) throw new IllegalStateException("Cannot resume at a sequence, if the queue is not empty.");
+            offset = lastIndex - sequence;
+            lastSequence = sequence;
+            lastPulledSequence = sequence;
+            receivedFirstSequence = true;
+        }
+    }
+
     /**
      *
-     * @return the queues max capacity
+     * @return the queues current capacity. The queue grows if required
      */
     public int getCapacity() {
-        return array.length;
+        return ring.length();
     }
 
     @Override
     public SOData getData() {
-        SOData data = SOData.newOrderedDataWithKnownSize(5);
+        SOData data = SOData.newOrderedDataWithKnownSize(4);
+
+        ArrayList<ReceivedPayload> payloads = new ArrayList<>();
+        long lastSequence;
+        boolean receivedFirstSequence;
+
+        synchronized (pushLock) {
+            lastSequence = this.lastSequence;
+            receivedFirstSequence = this.receivedFirstSequence;
+
+            for(long i = pullIndex.get(); i <= maxIndex; i++) {
+                Node node = nodeAt(i);
+                //unsequenced payloads cannot be restored at the correct position
+                if(node != null && !node.isSkip() && node.payload.getPayload().getSequence() != null) payloads.add(node.payload);
+            }
+        }
 
         data.add(LAST_RECEIVED_SEQUENCE_KEY, lastSequence);
         data.add(RECEIVED_FIRST_SEQUENCE_KEY, receivedFirstSequence);
-        data.add(ARRAY_KEY, Arrays.asList(array));
-        data.add(PUSH_POSITION_KEY, pushPosition);
-        data.add(PULL_POSITION_KEY, pullPosition);
-        data.add(SIZE_KEY, size);
+        data.add(ARRAY_KEY, payloads);
+        data.add(SIZE_KEY, payloads.size());
 
         return data;
     }
@@ -314,27 +569,63 @@ public class DispatchEventQueue implements Datable {
 
         StringBuilder s = new StringBuilder();
 
-        s
-                .append("lastSequence: ").append(lastSequence)
-                .append("\npushPosition: ").append(pushPosition)
-                .append("\npullPosition: ").append(pullPosition)
-                .append("\nsize: ").append(size)
-                .append("\npush - pull: ").append(pushPosition - pullPosition);
+        synchronized (pushLock) {
+            s
+                    .append("lastSequence: ").append(lastSequence)
+                    .append("\ncapacity: ").append(ring.length())
+                    .append("\npullIndex: ").append(pullIndex.get())
+                    .append("\nlastIndex: ").append(lastIndex)
+                    .append("\nmaxIndex: ").append(maxIndex)
+                    .append("\nsize: ").append(getSize());
+
+            for(long i = pullIndex.get(); i <= maxIndex; i++) {
+                Node node = nodeAt(i);
+                s.append("\n");
+                s.append(String.format("[%3d]: ", i));
+                if(node == null) s.append("null");
+                else if(node.isSkip()) s.append("skip");
+                else s.append(node.payload.getPayload().getSequence());
+
+                if(i == lastIndex) s.append(" <- lastSequence: ").append(lastSequence);
+            }
+        }
 
-        int i = 0;
-        for(ReceivedPayload payload : array) {
-            s.append("\n");
-            s.append(String.format("[%3d]: ", i));
-            if(payload == null) s.append("null");
-            if(payload != null) s.append(payload.getPayload().getSequence());
+        return s + "\n\n";
+    }
 
-            if(i == pushPosition) s.append(" <- push, lastSequence: ").append(lastSequence);
-            if(i == pullPosition) s.append(" <- pull");
+    private static int ceilPowerOfTwo(int capacity) {
+        if(capacity <= 1) return 1;
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
 
+    /**
+     * Informed by a {@link DispatchEventQueue}, when it fills up faster than its payloads are processed.
+     */
+    public interface BackpressureListener {
+        /**
+         *
+         * @param active {@code true} if the queue has reached its {@link #getBackpressureThreshold() threshold} and no
+         *               new payloads should be received. {@code false} once the queue has been drained to half of the
+         *               threshold.
+         */
+        void onBackpressure(boolean active);
+    }
+
+    /**
+     * Payload at an index of the {@link #ring}. Nodes without a payload are placed at indices, which will never
+     * receive a payload (missing sequences before a {@link #reset()}).
+     */
+    private static class Node {
+        private final long index;
+        private final @Nullable ReceivedPayload payload;
 
-            i++;
+        private Node(long index, @Nullable ReceivedPayload payload) {
+            this.index = index;
+            this.payload = payload;
         }
 
-        return s + "\n\n";
+        private boolean isSkip() {
+            return payload == null;
+        }
     }
 }
@@ -63,6 +63,31 @@ public class DispatchEventQueueTest {
         queue = DispatchEventQueue.fromData(queue.getData());
 
         System.out.println(queue);
+
+        backpressureWithMissingSequence();
+    }
+
+    /**
+     * Payloads behind a missing sequence must not activate the backpressure. Otherwise the websocket would stop
+     * reading and the missing sequence would never be received.
+     */
+    public static void backpressureWithMissingSequence() {
+        DispatchEventQueue queue = new DispatchEventQueue(4, 4);
+
+        queue.push(createPayload(1));
+        for(long sequence = 3; sequence <= 10; sequence++) queue.push(createPayload(sequence));
+        if(queue.isBackpressureActive())
+            throw new IllegalStateException("Backpressure active, although sequence 2 is missing:\n" + queue);
+
+        queue.push(createPayload(2));
+        if(!queue.isBackpressureActive())
+            throw new IllegalStateException("Backpressure not active with " + queue.getPullableSize() + " pullable payloads:\n" + queue);
+
+        while (queue.pull() != null);
+        if(queue.isBackpressureActive())
+            throw new IllegalStateException("Backpressure still active after the queue has been drained:\n" + queue);
+
+        System.out.println("backpressure with missing sequence: ok");
     }
 
     public static ReceivedPayload createPayload(long sequence) {
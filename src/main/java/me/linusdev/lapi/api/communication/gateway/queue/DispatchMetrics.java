@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.queue;
+
+import me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent;
+import me.linusdev.lapi.api.communication.gateway.other.LatencyHistogram;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ *     Measures, where the time between receiving a dispatch event and handling it completely is spent. For every
+ *     {@link GatewayEvent} the following {@link LatencyHistogram histograms} are kept:
+ * </p>
+ * <ul>
+ *     <li>
+ *         {@link EventMetrics#getQueueWait() queue wait}: time between receiving the event and the start of its handling.
+ *         This includes the time in the {@link DispatchEventQueue} and in the executor of the
+ *         {@link me.linusdev.lapi.api.communication.gateway.queue.processor.DispatchEventProcessor DispatchEventProcessor}.
+ *     </li>
+ *     <li>
+ *         {@link EventMetrics#getHandling() handling}: time spent decoding the event and updating the caches.
+ *     </li>
+ *     <li>
+ *         {@link EventMetrics#getListeners() listeners}: time spent in the listeners of the event, including its sub-events.
+ *     </li>
+ * </ul>
+ * <p>
+ *     Additionally, the current {@link #getDispatchLagMillis() dispatch lag} shows how far event handling is behind
+ *     the events received.
+ * </p>
+ * <p>
+ *     This class is thread safe.
+ * </p>
+ */
+public class DispatchMetrics {
+
+    /**
+     * Time spent in listeners by the current thread since the last {@link #onHandleStart(ReceivedPayload)}
+     */
+    private static final ThreadLocal<long[]> LISTENER_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final @NotNull EnumMap<GatewayEvent, EventMetrics> metrics;
+    private final @NotNull EventMetrics unknownEventMetrics;
+
+    private final @NotNull AtomicLong received;
+    /**
+     * Receive time ({@link ReceivedPayload#getReceivedNanos()}) of every received payload, whose handling has not
+     * started yet, by the order they were received in. Payloads may start out of order, if they are handled in
+     * parallel or postponed, so the oldest pending one is not necessarily the next one to start.
+     */
+    private final @NotNull ConcurrentSkipListMap<Long, Long> pending;
+
+    public DispatchMetrics(int windowSize) {
+        this.metrics = new EnumMap<>(GatewayEvent.class);
+        for(GatewayEvent type : GatewayEvent.values()) metrics.put(type, new EventMetrics(type, windowSize));
+        this.unknownEventMetrics = new EventMetrics(null, windowSize);
+
+        this.received = new AtomicLong(0);
+        this.pending = new ConcurrentSkipListMap<>();
+    }
+
+    public DispatchMetrics() {
+        this(LatencyHistogram.DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Adds given time to the listener time of the event currently handled by this thread.
+     * @param nanos time spent in listeners
+     */
+    @ApiStatus.Internal
+    public static void addListenerNanos(long nanos) {
+        LISTENER_NANOS.get()[0] += nanos;
+    }
+
+    /**
+     * Must be called directly before a payload is added to the {@link DispatchEventQueue}. If the payload is not
+     * added, {@link #onDropped(ReceivedPayload)} must be called.
+     * @param payload the received payload
+     */
+    @ApiStatus.Internal
+    public void onReceived(@NotNull ReceivedPayload payload) {
+        long number = received.getAndIncrement();
+        payload.setMetricsNumber(number);
+        pending.put(number, payload.getReceivedNanos());
+    }
+
+    /**
+     * Must be called, if a received payload will never be handled.
+     * @param payload the dropped payload
+     */
+    @ApiStatus.Internal
+    public void onDropped(@NotNull ReceivedPayload payload) {
+        removePending(payload);
+    }
+
+    private void removePending(@NotNull ReceivedPayload payload) {
+        //payloads restored from a previous session were never received by these metrics
+        if(payload.getMetricsNumber() != -1L) pending.remove(payload.getMetricsNumber());
+    }
+
+    /**
+     * Must be called on the thread handling given payload, directly before it is handled.
+     * @param payload the payload
+     * @return the start time, which must be passed to {@link #onHandled(ReceivedPayload, long)}
+     */
+    @ApiStatus.Internal
+    public long onHandleStart(@NotNull ReceivedPayload payload) {
+        long now = System.nanoTime();
+        removePending(payload);
+        getMetrics(payload.getType()).queueWait.record(now - payload.getReceivedNanos());
+        LISTENER_NANOS.get()[0] = 0L;
+        return now;
+    }
+
+    /**
+     * Must be called on the thread, which handled given payload, directly after it has been handled.
+     * @param payload the payload
+     * @param start the time returned by {@link #onHandleStart(ReceivedPayload)}
+     */
+    @ApiStatus.Internal
+    public void onHandled(@NotNull ReceivedPayload payload, long start) {
+        long total = System.nanoTime() - start;
+        long listenerNanos = LISTENER_NANOS.get()[0];
+
+        EventMetrics eventMetrics = getMetrics(payload.getType());
+        eventMetrics.listeners.record(listenerNanos);
+        eventMetrics.handling.record(Math.max(0L, total - listenerNanos));
+    }
+
+    /**
+     * Must be called, when the {@link DispatchEventQueue} is reset. Payloads, which have not been handled yet, are no
+     * longer considered for the {@link #getDispatchLagMillis() dispatch lag}.
+     */
+    @ApiStatus.Internal
+    public void reset() {
+        pending.clear();
+    }
+
+    /**
+     *
+     * @param type the {@link GatewayEvent} or {@code null} for unknown events
+     * @return {@link EventMetrics} of given type
+     */
+    public @NotNull EventMetrics getMetrics(@Nullable GatewayEvent type) {
+        if(type == null) return unknownEventMetrics;
+        return metrics.get(type);
+    }
+
+    /**
+     *
+     * @return age in milliseconds of the oldest received event, whose handling has not yet started. {@code 0} if all
+     * received events are being handled or have been handled.
+     */
+    public double getDispatchLagMillis() {
+        Map.Entry<Long, Long> oldest = pending.firstEntry();
+        if(oldest == null) return 0d;
+        return Math.max(0L, System.nanoTime() - oldest.getValue()) / 1_000_000d;
+    }
+
+    /**
+     *
+     * @return count of received events, whose handling has not yet started. Counts all pending events, so it should
+     * not be called for every event
+     */
+    public long getPendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(String.format("dispatch lag: %.2fms, pending: %d", getDispatchLagMillis(), getPendingCount()));
+
+        for(EventMetrics eventMetrics : metrics.values()) {
+            if(eventMetrics.queueWait.getTotalCount() == 0) continue;
+            s.append('\n').append(eventMetrics);
+        }
+
+        if(unknownEventMetrics.queueWait.getTotalCount() != 0) s.append('\n').append(unknownEventMetrics);
+        return s.toString();
+    }
+
+    /**
+     * The histograms of a single {@link GatewayEvent}.
+     */
+    public static class EventMetrics {
+        private final @Nullable GatewayEvent type;
+        private final @NotNull LatencyHistogram queueWait;
+        private final @NotNull LatencyHistogram handling;
+        private final @NotNull LatencyHistogram listeners;
+
+        private EventMetrics(@Nullable GatewayEvent type, int windowSize) {
+            this.type = type;
+            this.queueWait = new LatencyHistogram(windowSize);
+            this.handling = new LatencyHistogram(windowSize);
+            this.listeners = new LatencyHistogram(windowSize);
+        }
+
+        /**
+         *
+         * @return the {@link GatewayEvent} or {@code null} for unknown events
+         */
+        public @Nullable GatewayEvent getType() {
+            return type;
+        }
+
+        /**
+         *
+         * @return time between receiving an event and the start of its handling
+         */
+        public @NotNull LatencyHistogram getQueueWait() {
+            return queueWait;
+        }
+
+        /**
+         *
+         * @return time spent decoding an event and updating the caches
+         */
+        public @NotNull LatencyHistogram getHandling() {
+            return handling;
+        }
+
+        /**
+         *
+         * @return time spent in the listeners of an event
+         */
+        public @NotNull LatencyHistogram getListeners() {
+            return listeners;
+        }
+
+        @Override
+        public String toString() {
+            return type + ": queue wait [" + queueWait + "], handling [" + handling + "], listeners [" + listeners + "]";
+        }
+    }
+}
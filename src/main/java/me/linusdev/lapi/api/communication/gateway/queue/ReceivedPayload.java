@@ -23,6 +23,7 @@ import me.linusdev.lapi.api.exceptions.InvalidDataException;
 import me.linusdev.lapi.api.communication.gateway.abstracts.GatewayPayloadAbstract;
 import me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent;
 import me.linusdev.lapi.api.communication.gateway.other.GatewayPayload;
+import me.linusdev.lapi.api.communication.gateway.other.LazyGatewayPayload;
 import me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -39,12 +40,32 @@ public class ReceivedPayload implements Datable {
     private final long time;
     private final @Nullable String guildId;
 
+    /**
+     * {@link System#nanoTime()} when this object was created. Not stored in the {@link #getData() data}.
+     */
+    private final long receivedNanos;
+
+    /**
+     * Index in the {@link DispatchEventQueue}, set when this payload is added to it. Not stored in the {@link #getData() data}.
+     */
+    private long queueIndex;
+
+    /**
+     * Number assigned by {@link DispatchMetrics#onReceived(ReceivedPayload)} or {@code -1}. Not stored in the
+     * {@link #getData() data}.
+     */
+    private long metricsNumber = -1L;
+
     public ReceivedPayload(@NotNull GatewayPayloadAbstract payload) {
         this.payload = payload;
         this.time = System.currentTimeMillis();
+        this.receivedNanos = System.nanoTime();
 
-        if(payload.getPayloadData() != null && payload.getPayloadData() instanceof SOData) {
-            this.guildId = (String) ((SOData) payload.getPayloadData()).get(GatewayWebSocket.GUILD_ID_KEY);
+        if(payload instanceof LazyGatewayPayload) {
+            //the event data does not need to be parsed for this
+            this.guildId = ((LazyGatewayPayload) payload).getGuildId();
+        } else if(payload.getPayloadData() != null && payload.getPayloadData() instanceof SOData) {
+            this.guildId = (String) ((SOData) payload.getPayloadData()).get(GatewayWebSocket.getGuildIdKey(payload.getType()));
         } else {
             this.guildId = null;
         }
@@ -54,6 +75,7 @@ public class ReceivedPayload implements Datable {
         this.payload = payload;
         this.time = time;
         this.guildId = guildId;
+        this.receivedNanos = System.nanoTime();
     }
 
     @Contract("null -> null; !null -> !null")
@@ -82,6 +104,30 @@ public class ReceivedPayload implements Datable {
         return time;
     }
 
+    /**
+     *
+     * @return {@link System#nanoTime()} when this payload was received or loaded
+     */
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+
+    long getQueueIndex() {
+        return queueIndex;
+    }
+
+    void setQueueIndex(long queueIndex) {
+        this.queueIndex = queueIndex;
+    }
+
+    long getMetricsNumber() {
+        return metricsNumber;
+    }
+
+    void setMetricsNumber(long metricsNumber) {
+        this.metricsNumber = metricsNumber;
+    }
+
     public @Nullable String getGuildId() {
         return guildId;
     }
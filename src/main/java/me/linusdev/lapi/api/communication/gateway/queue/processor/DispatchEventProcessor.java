@@ -16,10 +16,10 @@
 
 package me.linusdev.lapi.api.communication.gateway.queue.processor;
 
-import me.linusdev.lapi.api.communication.gateway.abstracts.GatewayPayloadAbstract;
 import me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent;
 import me.linusdev.lapi.api.communication.gateway.enums.GatewayOpcode;
 import me.linusdev.lapi.api.communication.gateway.queue.DispatchEventQueue;
+import me.linusdev.lapi.api.communication.gateway.queue.ReceivedPayload;
 import me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket;
 import me.linusdev.lapi.api.lapi.LApi;
 import me.linusdev.lapi.api.lapi.LApiImpl;
@@ -28,10 +28,10 @@ import org.jetbrains.annotations.NotNull;
 
 /**
  * This class processes {@link GatewayOpcode#DISPATCH DISPATCH} events in a different {@link Thread}.
- * This means, this class calls {@link GatewayWebSocket#handleReceivedEvent(GatewayPayloadAbstract)  handleReceivedEvent}
+ * This means, this class calls {@link GatewayWebSocket#handleReceivedEvent(ReceivedPayload)  handleReceivedEvent}
  * for every event in a Thread.<br>
  * The first event handled for each guild, must always be {@link GatewayEvent#GUILD_CREATE GUILD_CREATE}, see also
- * {@link GatewayWebSocket#handleReceivedEvent(GatewayPayloadAbstract)  handleReceivedEvent}.
+ * {@link GatewayWebSocket#handleReceivedEvent(ReceivedPayload)  handleReceivedEvent}.
  */
 public abstract class DispatchEventProcessor implements HasLApi {
 
@@ -50,6 +50,20 @@ public abstract class DispatchEventProcessor implements HasLApi {
      */
     public abstract void onNext();
 
+    /**
+     * Called, when the {@link GatewayWebSocket} is shut down. Stops the threads of this processor, after the events,
+     * which have already been taken from the queue, have been handled.
+     */
+    public void shutdown() {}
+
+    /**
+     * Called, when the {@link GatewayWebSocket} is shut down immediately. Stops the threads of this processor without
+     * waiting for events, which have not been handled yet.
+     */
+    public void shutdownNow() {
+        shutdown();
+    }
+
     @Override
     public @NotNull LApi getLApi() {
         return lApi;
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package me.linusdev.lapi.api.communication.gateway.queue.processor;
+
+import me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent;
+import me.linusdev.lapi.api.communication.gateway.queue.DispatchEventQueue;
+import me.linusdev.lapi.api.communication.gateway.queue.ReceivedPayload;
+import me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket;
+import me.linusdev.lapi.api.lapi.LApiImpl;
+import me.linusdev.lapi.api.manager.guild.GuildManager;
+import me.linusdev.lapi.api.thread.LApiThreadFactory;
+import me.linusdev.lapi.log.LogInstance;
+import me.linusdev.lapi.log.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>
+ *     Processes the events of different guilds in parallel. Every guild id is hashed onto one of several lanes. Each
+ *     lane has its own {@link Thread}, so events of the same guild are always handled in the order they were received.
+ *     {@link GatewayEvent#GUILD_CREATE GUILD_CREATE} and {@link GatewayEvent#GUILD_DELETE GUILD_DELETE} are handled on
+ *     the lane of the guild in their "id" field, followed by the events, which were postponed until then.
+ * </p>
+ * <p>
+ *     Events without a guild id (for example {@link GatewayEvent#READY READY}, {@link GatewayEvent#USER_UPDATE USER_UPDATE}
+ *     or direct messages) are handled as barrier: They wait until all events received before them are handled and all
+ *     events received after them wait until they are handled.
+ * </p>
+ * <p>
+ *     Listeners are called on the lane threads. Listeners of different guilds may therefore be called concurrently.
+ * </p>
+ * <p>
+ *     Use {@link #factory(int)} to create a {@link DispatchEventProcessorFactory} for
+ *     {@link me.linusdev.lapi.api.config.GatewayConfigBuilder#setDispatchEventProcessorFactory(DispatchEventProcessorFactory)
+ *     setDispatchEventProcessorFactory}.
+ * </p>
+ */
+public class GuildParallelDispatchEventProcessor extends DispatchEventProcessor {
+
+    /**
+     * The amount of available processors
+     */
+    public static final int DEFAULT_LANE_COUNT = Runtime.getRuntime().availableProcessors();
+
+    private final LogInstance logger;
+
+    private final @NotNull ExecutorService[] lanes;
+    private final @NotNull ExecutorService barrierLane;
+
+    /**
+     * Completes once the last event submitted to the lane with the same index has been handled.
+     */
+    private final @NotNull CompletableFuture<?>[] tails;
+
+    private final @NotNull PostponedGuildEvents postponedEvents;
+
+    public GuildParallelDispatchEventProcessor(@NotNull LApiImpl lApi, @NotNull DispatchEventQueue queue,
+                                               @NotNull GatewayWebSocket gateway, int laneCount) {
+        super(lApi, queue, gateway);
+        if(laneCount < 1) throw new IllegalArgumentException("laneCount must be at least 1.");
+
+        this.logger = Logger.getLogger(this);
+        this.postponedEvents = new PostponedGuildEvents(dropped -> {
+            gateway.getDispatchMetrics().onDropped(dropped);
+            queue.onHandled(dropped);
+        });
+
+        this.lanes = new ExecutorService[laneCount];
+        this.tails = new CompletableFuture[laneCount];
+        for(int i = 0; i < laneCount; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(new LApiThreadFactory(lApi, false, "Dispatch Event Processor Lane " + i));
+            tails[i] = CompletableFuture.completedFuture(null);
+        }
+
+        this.barrierLane = Executors.newSingleThreadExecutor(new LApiThreadFactory(lApi, false, "Dispatch Event Processor Barrier Lane"));
+    }
+
+    public GuildParallelDispatchEventProcessor(@NotNull LApiImpl lApi, @NotNull DispatchEventQueue queue,
+                                               @NotNull GatewayWebSocket gateway) {
+        this(lApi, queue, gateway, DEFAULT_LANE_COUNT);
+    }
+
+    /**
+     *
+     * @param laneCount the amount of lanes (threads), which handle guild events
+     * @return {@link DispatchEventProcessorFactory} creating {@link GuildParallelDispatchEventProcessor}s with given amount of lanes
+     */
+    public static @NotNull DispatchEventProcessorFactory factory(int laneCount) {
+        return (lApi, queue, gateway) -> new GuildParallelDispatchEventProcessor(lApi, queue, gateway, laneCount);
+    }
+
+    @Override
+    public synchronized void onNext() {
+        ReceivedPayload payload = queue.peek();
+        if(payload == null) return;
+
+        GuildManager guildManager = lApi.getGuildManager();
+        if(guildManager != null) {
+            if(postponedEvents.postponeIfRequired(guildManager, payload)) {
+                //This guild did not receive its GUILD_CREATE yet. we cannot handle its events
+                if(Logger.DEBUG_LOG) logger.debug("onNext(), but event handle will be postponed because the guild is not ready yet");
+                queue.pull();
+                return;
+            }
+
+            for(ReceivedPayload p : postponedEvents.releaseBefore(guildManager, payload)) submit(p);
+        }
+
+        //noinspection ConstantConditions
+        submit(queue.pull());
+    }
+
+    /**
+     * Must be called while holding the lock of this processor.
+     * @param payload payload to handle
+     */
+    private void submit(@NotNull ReceivedPayload payload) {
+        String guildId = payload.getGuildId();
+        Runnable task;
+        if(PostponedGuildEvents.isGuildReadyEvent(payload.getType())) {
+            task = () -> {
+                try {
+                    gateway.handleReceivedEvent(payload);
+                } finally {
+                    //the guild is ready now. Its events are handled on the same lane
+                    ArrayDeque<ReceivedPayload> events = postponedEvents.release(guildId);
+                    if(events != null) for(ReceivedPayload p : events) gateway.handleReceivedEvent(p);
+                }
+            };
+        } else {
+            task = () -> gateway.handleReceivedEvent(payload);
+        }
+
+        if(guildId != null) {
+            //GUILD_CREATE and GUILD_DELETE as well: their guild id is read from d.id
+            int lane = Math.floorMod(guildId.hashCode(), lanes.length);
+            tails[lane] = tails[lane].handleAsync((v, t) -> run(task), lanes[lane]);
+            return;
+        }
+
+        //barrier: wait for all lanes and block all lanes until handled
+        CompletableFuture<?> barrier = CompletableFuture.allOf(tails).handleAsync((v, t) -> run(task), barrierLane);
+        for(int i = 0; i < tails.length; i++) tails[i] = barrier;
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        //events waiting for a barrier (or the other way around) are submitted to their lane, once it has been handled
+        CompletableFuture.allOf(tails).whenComplete((v, t) -> {
+            for(ExecutorService lane : lanes) lane.shutdown();
+            barrierLane.shutdown();
+        });
+    }
+
+    @Override
+    public void shutdownNow() {
+        for(ExecutorService lane : lanes) lane.shutdownNow();
+        barrierLane.shutdownNow();
+    }
+
+    private Void run(@NotNull Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            logger.error(t);
+        }
+        return null;
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.queue.processor;
+
+import me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent;
+import me.linusdev.lapi.api.communication.gateway.queue.ReceivedPayload;
+import me.linusdev.lapi.api.manager.guild.GuildManager;
+import me.linusdev.lapi.log.LogInstance;
+import me.linusdev.lapi.log.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ *     Holds the events of guilds, which did not receive their first {@link GatewayEvent#GUILD_CREATE GUILD_CREATE} or
+ *     {@link GatewayEvent#GUILD_DELETE GUILD_DELETE} yet (see {@link GuildManager#isAwaitingEvent(String)}).
+ *     Every guild has its own buffer, which is {@link #release(String) released} as soon as that guild is ready.
+ * </p>
+ * <p>
+ *     Each buffer holds at most {@link #maxEventsPerGuild} events. If it is full, the oldest event is dropped.
+ * </p>
+ * <p>
+ *     A {@link DispatchEventProcessor} must {@link #release(String) release} the events of a guild on the thread, which
+ *     handled the guild's GUILD_CREATE or GUILD_DELETE, directly after it has been handled. This way no event can be
+ *     postponed after the guild's buffer has been released. The {@link ReceivedPayload#getGuildId() guild id} of these
+ *     events is their "id" field (see
+ *     {@link me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket#getGuildIdKey(GatewayEvent) getGuildIdKey}).
+ * </p>
+ * <p>
+ *     If the GUILD_CREATE is handled on a different thread than the following events, the guild must be
+ *     {@link #markPending(String) marked as pending}. All events of a pending guild are postponed, until
+ *     {@link #releaseOrFinish(String)} returned {@code null}.
+ * </p>
+ */
+public class PostponedGuildEvents {
+
+    public static final int DEFAULT_MAX_EVENTS_PER_GUILD = 1_000;
+
+    private final @NotNull LogInstance logger;
+    private final int maxEventsPerGuild;
+    private final @Nullable Consumer<ReceivedPayload> onDropped;
+
+    //guarded by this
+    private final @NotNull HashMap<String, ArrayDeque<ReceivedPayload>> postponed;
+    private final @NotNull HashSet<String> pending;
+
+    /**
+     *
+     * @param maxEventsPerGuild max amount of events postponed per guild
+     * @param onDropped called with every event, which is dropped because too many events are postponed for its guild
+     */
+    public PostponedGuildEvents(int maxEventsPerGuild, @Nullable Consumer<ReceivedPayload> onDropped) {
+        this.logger = Logger.getLogger(this);
+        this.maxEventsPerGuild = Math.max(maxEventsPerGuild, 1);
+        this.onDropped = onDropped;
+        this.postponed = new HashMap<>();
+        this.pending = new HashSet<>();
+    }
+
+    public PostponedGuildEvents(@Nullable Consumer<ReceivedPayload> onDropped) {
+        this(DEFAULT_MAX_EVENTS_PER_GUILD, onDropped);
+    }
+
+    /**
+     * Postpones given payload, if its guild is still {@link GuildManager#isAwaitingEvent(String) awaiting} its
+     * first event or is {@link #markPending(String) pending}.
+     * @param guildManager the {@link GuildManager}
+     * @param payload the payload, which should be handled next
+     * @return {@code true} if given payload has been postponed. It must not be handled then.
+     */
+    public synchronized boolean postponeIfRequired(@NotNull GuildManager guildManager, @NotNull ReceivedPayload payload) {
+        String guildId = payload.getGuildId();
+        if(guildId == null) return false;
+        if(!pending.contains(guildId) && (isGuildReadyEvent(payload.getType()) || !guildManager.isAwaitingEvent(guildId)))
+            return false;
+
+        ArrayDeque<ReceivedPayload> events = postponed.computeIfAbsent(guildId, id -> new ArrayDeque<>());
+        if(events.size() >= maxEventsPerGuild) {
+            ReceivedPayload dropped = events.poll();
+            if(onDropped != null) onDropped.accept(dropped);
+            if(Logger.DEBUG_LOG) logger.debug("Too many events postponed for guild " + guildId + ". Dropped the oldest event.");
+        }
+        events.add(payload);
+        return true;
+    }
+
+    /**
+     *
+     * @param guildId the id of the guild
+     * @return all postponed events of given guild in the order they have been received or {@code null} if there are none
+     */
+    public synchronized @Nullable ArrayDeque<ReceivedPayload> release(@Nullable String guildId) {
+        if(guildId == null) return null;
+        return postponed.remove(guildId);
+    }
+
+    /**
+     * All following events of given guild will be postponed, until {@link #releaseOrFinish(String)} returned {@code null}.
+     * @param guildId the id of the guild, whose GUILD_CREATE is handled on a different thread
+     */
+    public synchronized void markPending(@NotNull String guildId) {
+        pending.add(guildId);
+    }
+
+    /**
+     * Releases the events of a {@link #markPending(String) pending} guild. Must be called repeatedly, until it returns
+     * {@code null}. The guild is no longer pending afterwards.
+     * @param guildId the id of the guild
+     * @return all postponed events of given guild in the order they have been received or {@code null} if there are none
+     */
+    public synchronized @Nullable ArrayDeque<ReceivedPayload> releaseOrFinish(@NotNull String guildId) {
+        ArrayDeque<ReceivedPayload> events = postponed.remove(guildId);
+        if(events == null) pending.remove(guildId);
+        return events;
+    }
+
+    /**
+     * Releases the events, which must be handled before given payload, because their guild is no longer
+     * {@link GuildManager#isAwaitingEvent(String) awaiting} its first event. This is required for guilds, which
+     * did not receive an event in time.
+     * @param guildManager the {@link GuildManager}
+     * @param payload the payload, which will be handled next. It must not have been {@link #postponeIfRequired(GuildManager, ReceivedPayload) postponed}
+     * @return released events in the order they have been received
+     */
+    public synchronized @NotNull List<ReceivedPayload> releaseBefore(@NotNull GuildManager guildManager, @NotNull ReceivedPayload payload) {
+        if(postponed.isEmpty()) return List.of();
+
+        if(!guildManager.allGuildsReceivedEvent()) {
+            String guildId = payload.getGuildId();
+            if(guildId == null || pending.contains(guildId) || guildManager.isAwaitingEvent(guildId)) return List.of();
+            ArrayDeque<ReceivedPayload> events = postponed.remove(guildId);
+            return events == null ? List.of() : new ArrayList<>(events);
+        }
+
+        ArrayList<ReceivedPayload> released = new ArrayList<>();
+        postponed.entrySet().removeIf(entry -> {
+            if(pending.contains(entry.getKey()) || guildManager.isAwaitingEvent(entry.getKey())) return false;
+            released.addAll(entry.getValue());
+            return true;
+        });
+
+        return released;
+    }
+
+    public synchronized boolean isEmpty() {
+        return postponed.isEmpty();
+    }
+
+    /**
+     *
+     * @param type type of a dispatch event
+     * @return {@code true} if given event is the first event a guild receives after a
+     * {@link GatewayEvent#READY READY} event
+     */
+    public static boolean isGuildReadyEvent(@Nullable GatewayEvent type) {
+        return type == GatewayEvent.GUILD_CREATE || type == GatewayEvent.GUILD_DELETE;
+    }
+}
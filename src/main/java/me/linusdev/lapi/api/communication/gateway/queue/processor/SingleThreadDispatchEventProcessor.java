@@ -24,27 +24,71 @@ import me.linusdev.lapi.api.communication.gateway.queue.ReceivedPayload;
 import me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket;
 import me.linusdev.lapi.api.lapi.LApi;
 import me.linusdev.lapi.api.lapi.LApiImpl;
+import me.linusdev.lapi.api.manager.guild.GuildManager;
 import me.linusdev.lapi.api.thread.LApiThreadFactory;
 import me.linusdev.lapi.log.LogInstance;
 import me.linusdev.lapi.log.Logger;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+/**
+ * <p>
+ *     Handles all events on a single {@link Thread}.
+ * </p>
+ * <p>
+ *     Optionally, the {@link GatewayEvent#GUILD_CREATE GUILD_CREATE} events received after a
+ *     {@link GatewayEvent#READY READY} event can be handled on a pool of hydration threads (see {@link #factory(int)}).
+ *     Guilds are independent of each other, so the guilds can be cached in parallel. All events of a guild,
+ *     which are received while it is hydrated, are handled afterwards on the same hydration thread. Listeners of
+ *     these events may therefore be called concurrently.
+ * </p>
+ */
 public class SingleThreadDispatchEventProcessor extends DispatchEventProcessor implements EventListener {
 
     private final ExecutorService executor;
+    private final @Nullable ExecutorService hydrationExecutor;
     private final LogInstance logger;
 
-    private final ArrayList<ReceivedPayload> postponedEvents;
+    private final PostponedGuildEvents postponedEvents;
 
-    public SingleThreadDispatchEventProcessor(@NotNull LApiImpl lApi, @NotNull DispatchEventQueue queue, @NotNull GatewayWebSocket gateway) {
+    /**
+     *
+     * @param hydrationThreadCount count of threads handling the GUILD_CREATE events after a READY event. {@code 0} to
+     *                             handle them on the same thread as all other events
+     */
+    public SingleThreadDispatchEventProcessor(@NotNull LApiImpl lApi, @NotNull DispatchEventQueue queue,
+                                              @NotNull GatewayWebSocket gateway, int hydrationThreadCount) {
         super(lApi, queue, gateway);
+        if(hydrationThreadCount < 0) throw new IllegalArgumentException("hydrationThreadCount must not be negative.");
+
         this.logger = Logger.getLogger(this);
-        this.postponedEvents = new ArrayList<>();
+        this.postponedEvents = new PostponedGuildEvents(dropped -> {
+            gateway.getDispatchMetrics().onDropped(dropped);
+            queue.onHandled(dropped);
+        });
         executor = Executors.newSingleThreadExecutor(new LApiThreadFactory(lApi, false, "Dispatch Event Processor"));
+
+        if(hydrationThreadCount == 0) hydrationExecutor = null;
+        else hydrationExecutor = Executors.newFixedThreadPool(hydrationThreadCount,
+                new LApiThreadFactory(lApi, false, "Dispatch Event Processor Guild Hydration"));
+    }
+
+    public SingleThreadDispatchEventProcessor(@NotNull LApiImpl lApi, @NotNull DispatchEventQueue queue, @NotNull GatewayWebSocket gateway) {
+        this(lApi, queue, gateway, 0);
+    }
+
+    /**
+     *
+     * @param hydrationThreadCount count of threads handling the GUILD_CREATE events after a READY event in parallel
+     * @return {@link DispatchEventProcessorFactory} creating {@link SingleThreadDispatchEventProcessor}s with given
+     * amount of hydration threads
+     */
+    public static @NotNull DispatchEventProcessorFactory factory(int hydrationThreadCount) {
+        return (lApi, queue, gateway) -> new SingleThreadDispatchEventProcessor(lApi, queue, gateway, hydrationThreadCount);
     }
 
     @Override
@@ -52,28 +96,81 @@ public class SingleThreadDispatchEventProcessor extends DispatchEventProcessor i
         ReceivedPayload payload = queue.peek();
         if(payload == null) return;
 
-        if(payload.getGuildId() != null && payload.getType() != GatewayEvent.GUILD_CREATE && payload.getType() != GatewayEvent.GUILD_DELETE &&
-                lApi.getGuildManager() != null && !lApi.getGuildManager().allGuildsReceivedEvent()) {
-            //Not all guilds received a ready event yet. we cannot call handle events
-            logger.debug("onNext(), but event handle will be postponed because not all guilds are ready yet");
-            postponedEvents.add(queue.pull());
-            return;
-
-        } else if(postponedEvents.size() > 0 && lApi.getGuildManager() != null && lApi.getGuildManager().allGuildsReceivedEvent()) {
-            for(ReceivedPayload p : postponedEvents) {
-                executor.submit(() -> gateway.handleReceivedEvent(p.getPayload()));
+        GuildManager guildManager = lApi.getGuildManager();
+        if(guildManager != null) {
+            if(postponedEvents.postponeIfRequired(guildManager, payload)) {
+                //This guild did not receive its GUILD_CREATE yet. we cannot handle its events
+                if(Logger.DEBUG_LOG) logger.debug("onNext(), but event handle will be postponed because the guild is not ready yet");
+                queue.pull();
+                return;
             }
 
+            for(ReceivedPayload p : postponedEvents.releaseBefore(guildManager, payload)) submit(p);
         }
+
         //noinspection ConstantConditions
-        executor.submit(() -> gateway.handleReceivedEvent(queue.pull().getPayload()));
+        submit(queue.pull());
+    }
+
+    /**
+     * Must be called while holding the lock of this processor.
+     * @param payload payload to handle
+     */
+    private void submit(@NotNull ReceivedPayload payload) {
+        if(!PostponedGuildEvents.isGuildReadyEvent(payload.getType())) {
+            executor.submit(() -> gateway.handleReceivedEvent(payload));
+            return;
+        }
+
+        String guildId = payload.getGuildId();
+        GuildManager guildManager = lApi.getGuildManager();
+        if(hydrationExecutor != null && guildId != null && payload.getType() == GatewayEvent.GUILD_CREATE
+                && guildManager != null && guildManager.isAwaitingEvent(guildId)) {
+            postponedEvents.markPending(guildId);
+
+            //start once all previously submitted events (for example the READY event) have been handled
+            executor.execute(() -> hydrationExecutor.execute(() -> {
+                try {
+                    gateway.handleReceivedEvent(payload);
+                } finally {
+                    //the guild is ready now
+                    ArrayDeque<ReceivedPayload> events;
+                    while ((events = postponedEvents.releaseOrFinish(guildId)) != null) {
+                        for(ReceivedPayload p : events) gateway.handleReceivedEvent(p);
+                    }
+                }
+            }));
+            return;
+        }
+
+        executor.submit(() -> {
+            try {
+                gateway.handleReceivedEvent(payload);
+            } finally {
+                //the guild is ready now
+                ArrayDeque<ReceivedPayload> events = postponedEvents.release(guildId);
+                if(events != null) for(ReceivedPayload p : events) gateway.handleReceivedEvent(p);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        //GUILD_CREATE events are handed to the hydration threads by the executor
+        if(hydrationExecutor != null) executor.execute(hydrationExecutor::shutdown);
+        executor.shutdown();
+    }
+
+    @Override
+    public void shutdownNow() {
+        executor.shutdownNow();
+        if(hydrationExecutor != null) hydrationExecutor.shutdownNow();
     }
 
     @Override
     public synchronized void onGuildsReady(@NotNull LApi lApi, @NotNull GuildsReadyEvent event) {
-        while(queue.peek() != null) {
-            //noinspection ConstantConditions
-            executor.submit(() -> gateway.handleReceivedEvent(queue.pull().getPayload()));
-        }
+        //GUILDS_READY may be triggered on a hydration thread, before the postponed events of its guild have been
+        //released. Remaining events must therefore still be postponed if required
+        while(queue.peek() != null) onNext();
     }
 }
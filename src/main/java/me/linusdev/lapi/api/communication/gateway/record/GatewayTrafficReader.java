@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.linusdev.lapi.api.communication.gateway.record;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads the messages of a file written by a {@link GatewayTrafficRecorder} in the order they were recorded.
+ */
+public class GatewayTrafficReader implements Closeable {
+
+    private final @NotNull DataInputStream in;
+    private final long startMillis;
+
+    /**
+     *
+     * @param file the recorded file
+     * @throws IOException if the file could not be opened or is not a recording
+     */
+    public GatewayTrafficReader(@NotNull Path file) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+
+        try {
+            if(in.readInt() != GatewayTrafficRecorder.MAGIC) throw new IOException("File " + file + " is not a gateway recording");
+            int version = in.readInt();
+            if(version != GatewayTrafficRecorder.VERSION) throw new IOException("Unsupported gateway recording version: " + version);
+            this.startMillis = in.readLong();
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * A record with a length of {@code 0} marks the end of the recording. It is found in recordings, which were not
+     * {@link GatewayTrafficRecorder#close() closed}, because the recording process crashed.
+     * @return the next {@link RecordedMessage} or {@code null} if all messages have been read
+     * @throws IOException if the file could not be read
+     */
+    public @Nullable RecordedMessage next() throws IOException {
+        long nanos;
+        try {
+            nanos = in.readLong();
+        } catch (EOFException e) {
+            return null;
+        }
+
+        byte type = in.readByte();
+        int length = in.readInt();
+        if(length == 0) return null;
+        if(length < 0) throw new IOException("Invalid message length: " + length);
+
+        byte[] message = new byte[length];
+        in.readFully(message);
+
+        return new RecordedMessage(nanos, type == GatewayTrafficRecorder.TYPE_BINARY, ByteBuffer.wrap(message));
+    }
+
+    /**
+     *
+     * @return time in milliseconds since epoch, when the recording was started
+     */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    public static class RecordedMessage {
+        private final long nanos;
+        private final boolean binary;
+        private final @NotNull ByteBuffer message;
+
+        public RecordedMessage(long nanos, boolean binary, @NotNull ByteBuffer message) {
+            this.nanos = nanos;
+            this.binary = binary;
+            this.message = message;
+        }
+
+        /**
+         *
+         * @return time in nanoseconds since the start of the recording, when this message was received
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         *
+         * @return {@code true} if this was a binary message, {@code false} if it was a UTF-8 encoded text message
+         */
+        public boolean isBinary() {
+            return binary;
+        }
+
+        public @NotNull ByteBuffer getMessage() {
+            return message;
+        }
+    }
+}
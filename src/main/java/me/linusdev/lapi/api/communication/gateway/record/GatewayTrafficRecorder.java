@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.linusdev.lapi.api.communication.gateway.record;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>
+ *     Appends every message received by a {@link me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket
+ *     GatewayWebSocket} with the time it was received to a file. The file can be replayed by a {@link GatewayTrafficReplayer}.
+ * </p>
+ * <p>
+ *     Messages are recorded after they have been decompressed and reassembled from their frames. So a recording can
+ *     be replayed without the state of the compression stream.
+ * </p>
+ * <p>
+ *     The file is written through a memory-mapped region of {@link #regionSize} bytes. Recording a message therefore
+ *     only copies it into memory, the operating system writes it to the file in the background. When a region is full,
+ *     the next one is mapped. The file is truncated to the recorded size on {@link #close()}.
+ * </p>
+ * <p>
+ *     If the process crashes, the file is not truncated and ends with the zero-filled rest of the last region. Empty
+ *     messages are never recorded and the length of a record is written last, so a record with a length of {@code 0}
+ *     marks the end of the recording (see {@link GatewayTrafficReader#next()}).
+ * </p>
+ * <p>
+ *     File layout (big endian):
+ *     <pre>{@code
+ * int magic, int version, long startMillis
+ * repeated: long nanosSinceStart, byte type, int length, byte[length] message
+ *     }</pre>
+ *     Text messages are stored in UTF-8.
+ * </p>
+ */
+public class GatewayTrafficRecorder implements Closeable {
+
+    /**
+     * "LGTR" in ASCII
+     */
+    public static final int MAGIC = 0x4C475452;
+    public static final int VERSION = 1;
+
+    public static final byte TYPE_TEXT = 0;
+    public static final byte TYPE_BINARY = 1;
+
+    public static final int FILE_HEADER_SIZE = 4 + 4 + 8;
+    public static final int RECORD_HEADER_SIZE = 8 + 1 + 4;
+
+    /**
+     * 16 MiB
+     */
+    public static final int DEFAULT_REGION_SIZE = 16 * 1024 * 1024;
+
+    private final @NotNull Path file;
+    private final @NotNull FileChannel channel;
+    private final int regionSize;
+    private final long startNanos;
+    private final @NotNull CharsetEncoder encoder;
+
+    //guarded by this
+    private @NotNull MappedByteBuffer region;
+    private long regionStart;
+    private boolean closed;
+
+    /**
+     *
+     * @param file file to record to. An existing file will be overwritten
+     * @param regionSize size of each memory-mapped region in bytes
+     * @throws IOException if the file could not be opened
+     */
+    public GatewayTrafficRecorder(@NotNull Path file, int regionSize) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.regionSize = Math.max(regionSize, FILE_HEADER_SIZE);
+        this.startNanos = System.nanoTime();
+        this.encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.closed = false;
+
+        this.regionStart = 0;
+        this.region = channel.map(FileChannel.MapMode.READ_WRITE, 0, this.regionSize);
+        region.putInt(MAGIC);
+        region.putInt(VERSION);
+        region.putLong(System.currentTimeMillis());
+    }
+
+    public GatewayTrafficRecorder(@NotNull Path file) throws IOException {
+        this(file, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Records a complete text message.
+     * @param message the message. It is not retained
+     * @throws IOException if the next region could not be mapped
+     */
+    public synchronized void recordText(@NotNull CharSequence message) throws IOException {
+        if(closed || message.length() == 0) return;
+        long nanos = System.nanoTime() - startNanos;
+
+        //UTF-8 requires at most 3 bytes per char
+        ensureRemaining(RECORD_HEADER_SIZE + 3L * message.length());
+
+        int start = region.position();
+        region.position(start + RECORD_HEADER_SIZE);
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(message), region, true);
+        encoder.flush(region);
+
+        writeHeader(start, nanos, TYPE_TEXT, region.position() - start - RECORD_HEADER_SIZE);
+    }
+
+    /**
+     * Records a complete binary message.
+     * @param message the message between its position and limit. Its position is not changed
+     * @throws IOException if the next region could not be mapped
+     */
+    public synchronized void recordBinary(@NotNull ByteBuffer message) throws IOException {
+        if(closed || !message.hasRemaining()) return;
+        long nanos = System.nanoTime() - startNanos;
+
+        ByteBuffer bytes = message.duplicate();
+        ensureRemaining(RECORD_HEADER_SIZE + (long) bytes.remaining());
+
+        int start = region.position();
+        region.position(start + RECORD_HEADER_SIZE);
+        region.put(bytes);
+
+        writeHeader(start, nanos, TYPE_BINARY, region.position() - start - RECORD_HEADER_SIZE);
+    }
+
+    /**
+     * The length is written last: until then, the record has a length of {@code 0} and is not read.
+     */
+    private void writeHeader(int start, long nanos, byte type, int length) {
+        region.putLong(start, nanos);
+        region.put(start + 8, type);
+        region.putInt(start + 9, length);
+    }
+
+    /**
+     * Maps the next region, if the current one has less than given amount of bytes remaining.
+     */
+    private void ensureRemaining(long bytes) throws IOException {
+        if(region.remaining() >= bytes) return;
+        if(bytes > Integer.MAX_VALUE) throw new IOException("Message is too large to be recorded.");
+
+        //the previous region is not forced: that would block the websocket thread until it has been written to
+        //the disk. The operating system writes it in the background and close() forces the last region
+        long position = regionStart + region.position();
+        region = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(regionSize, bytes));
+        regionStart = position;
+    }
+
+    public @NotNull Path getFile() {
+        return file;
+    }
+
+    /**
+     * Writes all recorded messages to the file, truncates it to the recorded size and closes it. Further messages
+     * are ignored.
+     * @throws IOException if the file could not be truncated or closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if(closed) return;
+        closed = true;
+
+        try {
+            region.force();
+            channel.truncate(regionStart + region.position());
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.linusdev.lapi.api.communication.gateway.record;
+
+import me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket;
+import me.linusdev.lapi.log.LogInstance;
+import me.linusdev.lapi.log.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     Feeds the messages of a recording (see {@link GatewayTrafficRecorder}) through a {@link GatewayWebSocket}, as if
+ *     they had just been received. No network connection is required. The payloads pass through the
+ *     {@link me.linusdev.lapi.api.communication.gateway.queue.DispatchEventQueue DispatchEventQueue} and its processor
+ *     into the caches and listeners. This can be used to benchmark caches and listeners with real traffic or to replay an incident.
+ * </p>
+ * <p>
+ *     Only {@link me.linusdev.lapi.api.communication.gateway.enums.GatewayOpcode#DISPATCH DISPATCH} payloads are replayed,
+ *     because all other payloads (for example {@link me.linusdev.lapi.api.communication.gateway.enums.GatewayOpcode#HELLO HELLO})
+ *     require a connection. The gateway should not be started and must use the same
+ *     {@link me.linusdev.lapi.api.communication.gateway.enums.GatewayEncoding encoding} the recording was made with.
+ * </p>
+ */
+public class GatewayTrafficReplayer {
+
+    /**
+     * Messages are replayed with the speed they were received
+     */
+    public static final double RECORDED_SPEED = 1d;
+
+    /**
+     * Messages are replayed without waiting between them
+     */
+    public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+
+    private final @NotNull GatewayWebSocket gateway;
+    private final @NotNull Path file;
+    private final @NotNull LogInstance logger;
+
+    /**
+     *
+     * @param gateway the {@link GatewayWebSocket} to replay to
+     * @param file the recording
+     */
+    public GatewayTrafficReplayer(@NotNull GatewayWebSocket gateway, @NotNull Path file) {
+        this.gateway = gateway;
+        this.file = file;
+        this.logger = Logger.getLogger(this);
+    }
+
+    /**
+     * Replays the recording on the current thread. Returns once all messages have been handed to the gateway. Events
+     * may still be processed afterwards.
+     * @param speed speed factor. {@link #RECORDED_SPEED} to replay at recorded speed, {@code 2} to replay twice as fast
+     *              or {@link #AS_FAST_AS_POSSIBLE}
+     * @return count of replayed messages
+     * @throws IOException if the recording could not be read
+     * @throws InterruptedException if interrupted while waiting for the next message
+     */
+    public long replay(double speed) throws IOException, InterruptedException {
+        if(!(speed > 0)) throw new IllegalArgumentException("speed must be positive.");
+
+        long count = 0;
+        try (GatewayTrafficReader reader = new GatewayTrafficReader(file)) {
+            long startNanos = System.nanoTime();
+            GatewayTrafficReader.RecordedMessage message;
+
+            while ((message = reader.next()) != null) {
+                if(speed != AS_FAST_AS_POSSIBLE) {
+                    long wait = startNanos + (long) (message.getNanos() / speed) - System.nanoTime();
+                    if(wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+                }
+
+                try {
+                    gateway.replay(message.isBinary(), message.getMessage());
+                } catch (Throwable t) {
+                    logger.error(t);
+                }
+                count++;
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package me.linusdev.lapi.api.communication.gateway.resume;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * State of a gateway session, which is required to {@link Resume resume} it. Written by the
+ * {@link SessionCheckpointStore}.
+ */
+public class SessionCheckpoint {
+
+    private final @NotNull String sessionId;
+    private final @Nullable String resumeGatewayUrl;
+    private final long sequence;
+    private final int shardId;
+    private final int numShards;
+    private final long createdAtMillis;
+
+    /**
+     *
+     * @param sessionId id of the session
+     * @param resumeGatewayUrl gateway url for resuming the session or {@code null} if unknown
+     * @param sequence sequence of the last processed dispatch event
+     * @param shardId shard id of the gateway or {@code 0} if sharding is not used
+     * @param numShards shard count or {@code 0} if sharding is not used
+     * @param createdAtMillis {@link System#currentTimeMillis()} when this checkpoint was created
+     */
+    public SessionCheckpoint(@NotNull String sessionId, @Nullable String resumeGatewayUrl, long sequence, int shardId, int numShards, long createdAtMillis) {
+        this.sessionId = sessionId;
+        this.resumeGatewayUrl = resumeGatewayUrl;
+        this.sequence = sequence;
+        this.shardId = shardId;
+        this.numShards = numShards;
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    /**
+     *
+     * @param maxAgeMillis max age in milliseconds
+     * @return {@code true} if this checkpoint is not older than given age
+     */
+    public boolean isFresh(long maxAgeMillis) {
+        return System.currentTimeMillis() - createdAtMillis <= maxAgeMillis;
+    }
+
+    public @NotNull String getSessionId() {
+        return sessionId;
+    }
+
+    public @Nullable String getResumeGatewayUrl() {
+        return resumeGatewayUrl;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getShardId() {
+        return shardId;
+    }
+
+    public int getNumShards() {
+        return numShards;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package me.linusdev.lapi.api.communication.gateway.resume;
+
+import me.linusdev.data.parser.JsonParser;
+import me.linusdev.data.so.SOData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * <p>
+ *     Stores {@link SessionCheckpoint SessionCheckpoints} in a local file, so a gateway session can be resumed after
+ *     the process has been restarted.
+ * </p>
+ * <p>
+ *     A checkpoint only consists of a few bytes (session id, resume gateway url, sequence, shard and creation time). The events, which
+ *     have not been processed yet, are not stored, because Discord will send them again after resuming at the
+ *     checkpointed sequence. Every checkpoint is written to a temporary file first, which then replaces the old
+ *     checkpoint with an atomic rename. So a crash while writing cannot leave a corrupt checkpoint.
+ * </p>
+ * <p>
+ *     The data of the {@link me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent#READY READY} event is
+ *     stored once per session in a second file, because it is required to restore the state of the session.
+ * </p>
+ */
+public class SessionCheckpointStore {
+
+    /**
+     * "LApi" in ASCII
+     */
+    private static final int MAGIC = 0x4C417069;
+    private static final int VERSION = 1;
+
+    private final @NotNull Path file;
+    private final @NotNull Path readyFile;
+
+    /**
+     *
+     * @param file file to store the checkpoint in. A file with the suffix {@code .ready} will be created in the same
+     *             directory for the READY event
+     */
+    public SessionCheckpointStore(@NotNull Path file) {
+        this.file = file;
+        this.readyFile = file.resolveSibling(file.getFileName() + ".ready");
+    }
+
+    /**
+     * Replaces the stored checkpoint with given one.
+     * @param checkpoint {@link SessionCheckpoint} to write
+     * @throws IOException if the checkpoint could not be written
+     */
+    public void write(@NotNull SessionCheckpoint checkpoint) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(checkpoint.getCreatedAtMillis());
+            out.writeInt(checkpoint.getShardId());
+            out.writeInt(checkpoint.getNumShards());
+            out.writeLong(checkpoint.getSequence());
+            out.writeUTF(checkpoint.getSessionId());
+            out.writeBoolean(checkpoint.getResumeGatewayUrl() != null);
+            if(checkpoint.getResumeGatewayUrl() != null) out.writeUTF(checkpoint.getResumeGatewayUrl());
+        }
+
+        writeAtomically(file, bytes.toByteArray());
+    }
+
+    /**
+     *
+     * @return the stored {@link SessionCheckpoint} or {@code null} if there is none
+     * @throws IOException if the checkpoint could not be read or is invalid
+     */
+    public @Nullable SessionCheckpoint read() throws IOException {
+        if(!Files.exists(file)) return null;
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            if(in.readInt() != MAGIC) throw new IOException("File " + file + " is not a session checkpoint");
+            int version = in.readInt();
+            if(version != VERSION) throw new IOException("Unsupported session checkpoint version: " + version);
+
+            long createdAtMillis = in.readLong();
+            int shardId = in.readInt();
+            int numShards = in.readInt();
+            long sequence = in.readLong();
+            String sessionId = in.readUTF();
+            String resumeGatewayUrl = in.readBoolean() ? in.readUTF() : null;
+
+            return new SessionCheckpoint(sessionId, resumeGatewayUrl, sequence, shardId, numShards, createdAtMillis);
+        }
+    }
+
+    /**
+     * Stores the data of the READY event of the current session.
+     * @param readyData data of the READY event
+     * @throws IOException if the data could not be written
+     */
+    public void writeReady(@NotNull SOData readyData) throws IOException {
+        writeAtomically(readyFile, readyData.toJsonString().toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     *
+     * @return the stored data of the READY event or {@code null} if there is none
+     * @throws IOException if the data could not be read or parsed
+     */
+    public @Nullable SOData readReady() throws IOException {
+        if(!Files.exists(readyFile)) return null;
+
+        try (Reader reader = Files.newBufferedReader(readyFile, StandardCharsets.UTF_8)) {
+            return new JsonParser().parseReader(reader);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Could not parse " + readyFile, e);
+        }
+    }
+
+    /**
+     * Deletes the stored checkpoint. Must be called, when the session has been invalidated.
+     * @throws IOException if the files could not be deleted
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(readyFile);
+    }
+
+    private static void writeAtomically(@NotNull Path target, byte @NotNull [] content) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(tmp, content);
+
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public @NotNull Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.sharding;
+
+import me.linusdev.lapi.api.async.Future;
+import me.linusdev.lapi.api.async.Nothing;
+import me.linusdev.lapi.api.communication.gateway.events.transmitter.EventTransmitter;
+import me.linusdev.lapi.api.communication.gateway.other.GetGatewayResponse;
+import me.linusdev.lapi.api.communication.gateway.other.SessionStartLimit;
+import me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket;
+import me.linusdev.lapi.api.config.Config;
+import me.linusdev.lapi.api.interfaces.HasLApi;
+import me.linusdev.lapi.api.lapi.LApi;
+import me.linusdev.lapi.api.lapi.LApiImpl;
+import me.linusdev.lapi.api.lapi.shutdown.Shutdownable;
+import me.linusdev.lapi.api.objects.snowflake.Snowflake;
+import me.linusdev.lapi.api.thread.LApiThreadFactory;
+import me.linusdev.lapi.log.LogInstance;
+import me.linusdev.lapi.log.Logger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     Runs all shards of a bot inside one {@link LApi}. Every shard is a {@link GatewayWebSocket}, but they all share
+ *     the {@link java.net.http.HttpClient HttpClient}, the request queue, the cache and the {@link EventTransmitter} of
+ *     the {@link LApi}.
+ * </p>
+ * <p>
+ *     The {@link ShardManager} is used, if {@link me.linusdev.lapi.api.config.GatewayConfigBuilder#setNumShards(Integer) numShards}
+ *     is set, but no {@link me.linusdev.lapi.api.config.GatewayConfigBuilder#setShardId(Integer) shardId}.
+ * </p>
+ * <p>
+ *     Identifies are scheduled in {@link SessionStartLimit#getMaxConcurrency() max_concurrency} buckets: The shard
+ *     with the id {@code shard_id} belongs to the bucket {@code shard_id % max_concurrency}. Each bucket may only
+ *     identify once every {@link #IDENTIFY_INTERVAL_MILLIS}. If no session starts are remaining, identifies are
+ *     delayed until the {@link SessionStartLimit} resets.
+ * </p>
+ * <p>
+ *     The {@link me.linusdev.lapi.api.communication.gateway.events.transmitter.EventIdentifier#READY READY} (as
+ *     required for the {@link me.linusdev.lapi.api.communication.gateway.events.transmitter.EventIdentifier#LAPI_READY
+ *     LAPI_READY} event) and the {@link me.linusdev.lapi.api.communication.gateway.events.transmitter.EventIdentifier#GUILDS_READY
+ *     GUILDS_READY} event are only considered ready, once {@link #allShardsReady() all shards} have received their
+ *     first READY event.
+ * </p>
+ * @see <a href="https://discord.com/developers/docs/topics/gateway#sharding" target="_top">Sharding</a>
+ * @see <a href="https://discord.com/developers/docs/topics/gateway#session-start-limit-object" target="_top">Session Start Limit</a>
+ */
+public class ShardManager implements HasLApi, Shutdownable {
+
+    /**
+     * Each max_concurrency bucket may identify once every 5 seconds.
+     */
+    public static final long IDENTIFY_INTERVAL_MILLIS = 5000L;
+
+    private final @NotNull LApiImpl lApi;
+    private final int numShards;
+    private final @NotNull GatewayWebSocket @NotNull [] shards;
+
+    private final @NotNull ScheduledExecutorService scheduler;
+    private final @Nullable ExecutorService parserExecutor;
+    private final @NotNull LogInstance logger;
+
+    //guarded by this
+    private long @NotNull [] nextIdentifyMillis;
+    private int remainingSessionStarts;
+    private long sessionStartLimitResetMillis;
+    private final boolean @NotNull [] readyShards;
+    private int readyShardCount = 0;
+
+    private volatile boolean allShardsReady = false;
+
+    @ApiStatus.Internal
+    public ShardManager(@NotNull LApiImpl lApi, @NotNull EventTransmitter transmitter, @NotNull Config config) {
+        this.lApi = lApi;
+
+        Integer numShards = config.getGatewayConfig().getNumShards();
+        if(numShards == null || numShards < 1) throw new IllegalArgumentException("numShards must be at least 1.");
+        this.numShards = numShards;
+
+        this.logger = Logger.getLogger(ShardManager.class.getSimpleName(), Logger.Type.DEBUG);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new LApiThreadFactory(lApi, true, "Gateway Heartbeat Thread"));
+        int parserThreadCount = config.getGatewayConfig().getPayloadParserThreadCount();
+        this.parserExecutor = parserThreadCount == 0 ? null : Executors.newFixedThreadPool(parserThreadCount,
+                new LApiThreadFactory(lApi, false, "Gateway Payload Parser Thread"));
+
+        this.nextIdentifyMillis = new long[1];
+        this.remainingSessionStarts = Integer.MAX_VALUE;
+        this.sessionStartLimitResetMillis = 0L;
+
+        this.readyShards = new boolean[numShards];
+        this.shards = new GatewayWebSocket[numShards];
+        for(int shardId = 0; shardId < numShards; shardId++) {
+            shards[shardId] = new GatewayWebSocket(lApi, transmitter, config, this, shardId);
+        }
+
+        config.getGatewayConfig().getStartupPresence().setShardManager(this);
+
+        registerShutdownable();
+    }
+
+    /**
+     * Retrieves the gateway url once and connects all shards.
+     */
+    public void start() {
+        lApi.getRequestFactory().getGatewayBot().queue((getGatewayResponse, response, error) -> {
+            if (error != null) {
+                error.log(logger);
+                logger.error("Could not retrieve the gateway url. Shards will be started one by one.");
+                for(GatewayWebSocket shard : shards) shard.start();
+                return;
+            }
+
+            if(getGatewayResponse.getShards() > numShards) {
+                logger.warning("Discord recommends " + getGatewayResponse.getShards() + " shards, but only "
+                        + numShards + " shards are used.");
+            }
+
+            int sessionStarts = getGatewayResponse.getSessionStartLimit().getRemaining();
+            if(sessionStarts < numShards) {
+                logger.warning("Only " + sessionStarts + " session starts are remaining, but " + numShards
+                        + " shards must identify. Some shards will be delayed for "
+                        + getGatewayResponse.getSessionStartLimit().getResetAfter() + " milliseconds.");
+            }
+
+            for(GatewayWebSocket shard : shards) shard.connect(getGatewayResponse);
+        });
+    }
+
+    /**
+     * Updates the max_concurrency buckets and the remaining session starts.
+     * @param limit {@link SessionStartLimit} of the latest {@link GetGatewayResponse}
+     */
+    @ApiStatus.Internal
+    public synchronized void updateSessionStartLimit(@NotNull SessionStartLimit limit) {
+        int maxConcurrency = Math.max(limit.getMaxConcurrency(), 1);
+        if(nextIdentifyMillis.length != maxConcurrency) {
+            long latest = Arrays.stream(nextIdentifyMillis).max().orElse(0L);
+            nextIdentifyMillis = new long[maxConcurrency];
+            Arrays.fill(nextIdentifyMillis, latest);
+        }
+
+        remainingSessionStarts = limit.getRemaining();
+        sessionStartLimitResetMillis = System.currentTimeMillis() + limit.getResetAfter();
+    }
+
+    /**
+     * Schedules an identify of given shard in its max_concurrency bucket.
+     * @param shardId id of the shard, which wants to identify
+     * @param identify task, which sends the identify
+     */
+    @ApiStatus.Internal
+    public synchronized void scheduleIdentify(int shardId, @NotNull Runnable identify) {
+        long now = System.currentTimeMillis();
+        int bucket = shardId % nextIdentifyMillis.length;
+
+        long identifyAt = Math.max(now, nextIdentifyMillis[bucket]);
+
+        if(remainingSessionStarts <= 0) {
+            //The limit will be refreshed with the next GetGatewayResponse
+            identifyAt = Math.max(identifyAt, sessionStartLimitResetMillis);
+        } else {
+            remainingSessionStarts--;
+        }
+
+        nextIdentifyMillis[bucket] = identifyAt + IDENTIFY_INTERVAL_MILLIS;
+
+        if(identifyAt == now) {
+            scheduler.execute(identify);
+        } else {
+            logger.debug("Identify of shard " + shardId + " delayed by " + (identifyAt - now) + " milliseconds.");
+            scheduler.schedule(identify, identifyAt - now, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Must be called by a shard when it received a READY event, after the guilds of the READY event have been passed to
+     * the {@link me.linusdev.lapi.api.manager.guild.GuildManager GuildManager}.
+     * @param shardId id of the shard
+     */
+    @ApiStatus.Internal
+    public synchronized void onShardReady(int shardId) {
+        if(readyShards[shardId]) return;
+        readyShards[shardId] = true;
+        if(++readyShardCount == numShards) {
+            logger.debug("All " + numShards + " shards are ready.");
+            allShardsReady = true;
+        }
+    }
+
+    /**
+     *
+     * @return {@code true} if every shard has received at least one READY event
+     */
+    public boolean allShardsReady() {
+        return allShardsReady;
+    }
+
+    /**
+     *
+     * @param guildId id of the guild
+     * @return the shard id of the shard, which receives events of given guild
+     * @see <a href="https://discord.com/developers/docs/topics/gateway#sharding-sharding-formula" target="_top">Sharding Formula</a>
+     */
+    public int getShardIdForGuild(@NotNull Snowflake guildId) {
+        return (int) ((guildId.asLong() >>> 22) % numShards);
+    }
+
+    /**
+     *
+     * @param guildId id of the guild
+     * @return the shard ({@link GatewayWebSocket}), which receives events of given guild
+     */
+    public @NotNull GatewayWebSocket getShardForGuild(@NotNull Snowflake guildId) {
+        return shards[getShardIdForGuild(guildId)];
+    }
+
+    /**
+     *
+     * @param shardId id of the shard
+     * @return the shard with given id
+     */
+    public @NotNull GatewayWebSocket getShard(@Range(from = 0, to = Integer.MAX_VALUE) int shardId) {
+        return shards[shardId];
+    }
+
+    /**
+     *
+     * @return unmodifiable list of all shards, ordered by their shard id
+     */
+    public @NotNull List<GatewayWebSocket> getShards() {
+        return Collections.unmodifiableList(Arrays.asList(shards));
+    }
+
+    public int getNumShards() {
+        return numShards;
+    }
+
+    /**
+     *
+     * @return scheduler shared by all shards for heartbeats and identifies
+     */
+    @ApiStatus.Internal
+    public @NotNull ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     *
+     * @return executor shared by all shards to parse large payloads or {@code null} if payloads are parsed on the
+     * websocket listener threads
+     */
+    @ApiStatus.Internal
+    public @Nullable ExecutorService getParserExecutor() {
+        return parserExecutor;
+    }
+
+    @Override
+    public @NotNull LApi getLApi() {
+        return lApi;
+    }
+
+    /**
+     * The shards are {@link Shutdownable Shutdownables} themselves. Only the shared executors are shut down here.
+     * Scheduled identifies are canceled.
+     */
+    @Override
+    public @Nullable Future<Nothing, Shutdownable> shutdown(@NotNull LApiImpl lApi, long shutdownOptions, @NotNull LogInstance log, @NotNull Executor shutdownExecutor, long shutdownBy) {
+        scheduler.shutdownNow();
+        if(parserExecutor != null) parserExecutor.shutdown();
+        return null;
+    }
+
+    @Override
+    public void shutdownNow(@NotNull LApiImpl lApi, @NotNull LogInstance log, @NotNull Executor shutdownExecutor) {
+        scheduler.shutdownNow();
+        if(parserExecutor != null) parserExecutor.shutdownNow();
+    }
+}
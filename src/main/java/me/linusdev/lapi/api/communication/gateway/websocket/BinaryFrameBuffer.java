@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.websocket;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ *     Collects the frames of a binary websocket message into a single direct {@link ByteBuffer}.
+ *     The buffer is reused for every message and only grows if a message does not fit.
+ * </p>
+ * <p>
+ *     The frames passed to {@link #append(ByteBuffer)} are copied, because the {@link java.net.http.WebSocket WebSocket}
+ *     may reuse them after the listener method returned.
+ * </p>
+ * <p>
+ *     This class is not thread safe.
+ * </p>
+ */
+@ApiStatus.Internal
+public class BinaryFrameBuffer {
+
+    private @NotNull ByteBuffer buffer;
+
+    /**
+     * @param initialCapacity initial capacity in bytes
+     */
+    public BinaryFrameBuffer(int initialCapacity) {
+        this.buffer = ByteBuffer.allocateDirect(initialCapacity);
+    }
+
+    /**
+     * Copies the remaining bytes of given frame to the end of this buffer.
+     * @param frame the received frame
+     */
+    public void append(@NotNull ByteBuffer frame) {
+        if(buffer.remaining() < frame.remaining()) {
+            int newCapacity = buffer.capacity();
+            int minCapacity = buffer.position() + frame.remaining();
+            while (newCapacity < minCapacity) newCapacity *= 2;
+
+            ByteBuffer newBuffer = ByteBuffer.allocateDirect(newCapacity);
+            buffer.flip();
+            newBuffer.put(buffer);
+            buffer = newBuffer;
+        }
+
+        buffer.put(frame);
+    }
+
+    /**
+     *
+     * @param suffix int
+     * @return {@code true} if the last four appended bytes equal given suffix
+     */
+    public boolean endsWith(int suffix) {
+        return buffer.position() >= 4 && buffer.getInt(buffer.position() - 4) == suffix;
+    }
+
+    /**
+     * Flips this buffer, so the collected message can be read. {@link #clear()} must be called, before new frames
+     * are {@link #append(ByteBuffer) appended}.
+     * @return {@link ByteBuffer} containing the message between its position and limit.
+     */
+    public @NotNull ByteBuffer getMessage() {
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Clears this buffer, the capacity is kept.
+     */
+    public void clear() {
+        buffer.clear();
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+}
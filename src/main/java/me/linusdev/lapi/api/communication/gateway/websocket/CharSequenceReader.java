@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.websocket;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Reader;
+import java.nio.CharBuffer;
+
+/**
+ * {@link Reader} reading a {@link CharSequence} without converting it to a {@link String} first.
+ * If the sequence is a {@link TextFrameBuffer}, a {@link String} or an array backed {@link CharBuffer}, chars are copied
+ * in bulk.
+ */
+@ApiStatus.Internal
+public class CharSequenceReader extends Reader {
+
+    private final @NotNull CharSequence sequence;
+    private final int end;
+    private int position;
+
+    public CharSequenceReader(@NotNull CharSequence sequence) {
+        this(sequence, 0, sequence.length());
+    }
+
+    /**
+     * Reads only the chars between given offsets.
+     * @param sequence the sequence
+     * @param start index of the first char to read
+     * @param end index after the last char to read
+     */
+    public CharSequenceReader(@NotNull CharSequence sequence, int start, int end) {
+        this.sequence = sequence;
+        this.end = end;
+        this.position = start;
+    }
+
+    @Override
+    public int read() {
+        if(position >= end) return -1;
+        return sequence.charAt(position++);
+    }
+
+    @Override
+    public int read(char @NotNull [] cbuf, int off, int len) {
+        if(len == 0) return 0;
+        int remaining = end - position;
+        if(remaining <= 0) return -1;
+
+        len = Math.min(len, remaining);
+        if(sequence instanceof TextFrameBuffer) {
+            ((TextFrameBuffer) sequence).getChars(position, position + len, cbuf, off);
+        } else if(sequence instanceof String) {
+            ((String) sequence).getChars(position, position + len, cbuf, off);
+        } else if(sequence instanceof CharBuffer && ((CharBuffer) sequence).hasArray()) {
+            CharBuffer buffer = (CharBuffer) sequence;
+            System.arraycopy(buffer.array(), buffer.arrayOffset() + buffer.position() + position, cbuf, off, len);
+        } else {
+            for(int i = 0; i < len; i++) cbuf[off + i] = sequence.charAt(position + i);
+        }
+
+        position += len;
+        return len;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skip = (int) Math.min(Math.max(n, 0), Math.max(end - position, 0));
+        position += skip;
+        return skip;
+    }
+
+    @Override
+    public boolean ready() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+
+    }
+}
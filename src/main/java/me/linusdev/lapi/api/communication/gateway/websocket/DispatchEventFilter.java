@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package me.linusdev.lapi.api.communication.gateway.websocket;
+
+import me.linusdev.data.so.SOData;
+import me.linusdev.lapi.api.communication.gateway.abstracts.GatewayPayloadAbstract;
+import me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent;
+import me.linusdev.lapi.api.communication.gateway.events.transmitter.EventIdentifier;
+import me.linusdev.lapi.api.communication.gateway.events.transmitter.EventTransmitter;
+import me.linusdev.lapi.api.communication.gateway.other.LazyGatewayPayload;
+import me.linusdev.lapi.api.config.ConfigFlag;
+import me.linusdev.lapi.api.lapi.LApiImpl;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumMap;
+
+import static me.linusdev.lapi.api.config.ConfigFlag.*;
+
+/**
+ * <p>
+ *     Decides, whether a dispatch event must be decoded at all. Decoding an event (parsing the json and creating all
+ *     objects of the event) is pointless, if no listener would receive the event and no cache would be updated by it.
+ * </p>
+ * <p>
+ *     Every {@link GatewayEvent} listed here is mapped to the {@link EventIdentifier identifiers} it may trigger and to
+ *     the cache {@link ConfigFlag flag}, whose manager consumes the event. Events not listed here (for example
+ *     {@link GatewayEvent#READY READY} or {@link GatewayEvent#GUILD_CREATE GUILD_CREATE}) are always decoded.
+ * </p>
+ */
+@ApiStatus.Internal
+public class DispatchEventFilter {
+
+    private static final @NotNull EnumMap<GatewayEvent, Entry> ENTRIES = new EnumMap<>(GatewayEvent.class);
+
+    static {
+        put(GatewayEvent.CHANNEL_CREATE, CACHE_CHANNELS);
+        put(GatewayEvent.CHANNEL_UPDATE, CACHE_CHANNELS);
+        put(GatewayEvent.CHANNEL_DELETE, CACHE_CHANNELS);
+        put(GatewayEvent.CHANNEL_PINS_UPDATE, null);
+        put(GatewayEvent.THREAD_CREATE, CACHE_THREADS);
+        put(GatewayEvent.THREAD_UPDATE, CACHE_THREADS);
+        put(GatewayEvent.THREAD_DELETE, CACHE_THREADS);
+        put(GatewayEvent.THREAD_LIST_SYNC, CACHE_THREADS);
+        put(GatewayEvent.THREAD_MEMBER_UPDATE, CACHE_THREADS);
+        put(GatewayEvent.THREAD_MEMBERS_UPDATE, CACHE_THREADS);
+        put(GatewayEvent.GUILD_BAN_ADD, null);
+        put(GatewayEvent.GUILD_BAN_REMOVE, null);
+        put(GatewayEvent.GUILD_EMOJIS_UPDATE, CACHE_EMOJIS);
+        put(GatewayEvent.GUILD_STICKERS_UPDATE, CACHE_STICKERS);
+        put(GatewayEvent.GUILD_INTEGRATIONS_UPDATE, null);
+        put(GatewayEvent.GUILD_MEMBER_ADD, CACHE_MEMBERS);
+        put(GatewayEvent.GUILD_MEMBER_REMOVE, CACHE_MEMBERS);
+        put(GatewayEvent.GUILD_MEMBER_UPDATE, CACHE_MEMBERS);
+        put(GatewayEvent.GUILD_ROLE_CREATE, CACHE_ROLES);
+        put(GatewayEvent.GUILD_ROLE_UPDATE, CACHE_ROLES);
+        put(GatewayEvent.GUILD_ROLE_DELETE, CACHE_ROLES);
+        put(GatewayEvent.GUILD_SCHEDULED_EVENT_CREATE, CACHE_GUILD_SCHEDULED_EVENTS);
+        put(GatewayEvent.GUILD_SCHEDULED_EVENT_UPDATE, CACHE_GUILD_SCHEDULED_EVENTS);
+        put(GatewayEvent.GUILD_SCHEDULED_EVENT_DELETE, CACHE_GUILD_SCHEDULED_EVENTS);
+        put(GatewayEvent.GUILD_SCHEDULED_EVENT_USER_ADD, CACHE_GUILD_SCHEDULED_EVENTS);
+        put(GatewayEvent.GUILD_SCHEDULED_EVENT_USER_REMOVE, CACHE_GUILD_SCHEDULED_EVENTS);
+        put(GatewayEvent.INTEGRATION_CREATE, null);
+        put(GatewayEvent.INTEGRATION_UPDATE, null);
+        put(GatewayEvent.INTEGRATION_DELETE, null);
+        put(GatewayEvent.INTERACTION_CREATE, null);
+        put(GatewayEvent.INVITE_CREATE, null);
+        put(GatewayEvent.INVITE_DELETE, null);
+        put(GatewayEvent.MESSAGE_CREATE, null, EventIdentifier.MESSAGE_CREATE,
+                EventIdentifier.GUILD_MESSAGE_CREATE, EventIdentifier.NON_GUILD_MESSAGE_CREATE);
+        put(GatewayEvent.MESSAGE_UPDATE, null);
+        put(GatewayEvent.MESSAGE_DELETE, null);
+        put(GatewayEvent.MESSAGE_DELETE_BULK, null);
+        put(GatewayEvent.MESSAGE_REACTION_ADD, null);
+        put(GatewayEvent.MESSAGE_REACTION_REMOVE, null);
+        put(GatewayEvent.MESSAGE_REACTION_REMOVE_ALL, null);
+        put(GatewayEvent.MESSAGE_REACTION_REMOVE_EMOJI, null);
+        put(GatewayEvent.PRESENCE_UPDATE, CACHE_PRESENCES);
+        put(GatewayEvent.STAGE_INSTANCE_CREATE, CACHE_STAGE_INSTANCES);
+        put(GatewayEvent.STAGE_INSTANCE_DELETE, CACHE_STAGE_INSTANCES);
+        put(GatewayEvent.STAGE_INSTANCE_UPDATE, CACHE_STAGE_INSTANCES);
+        put(GatewayEvent.TYPING_START, null);
+        put(GatewayEvent.USER_UPDATE, null);
+        put(GatewayEvent.VOICE_STATE_UPDATE, CACHE_VOICE_STATES);
+        put(GatewayEvent.VOICE_SERVER_UPDATE, null);
+        put(GatewayEvent.WEBHOOKS_UPDATE, null);
+    }
+
+    private static void put(@NotNull GatewayEvent type, @Nullable ConfigFlag cacheFlag) {
+        put(type, cacheFlag, EventIdentifier.valueOf(type.name()));
+    }
+
+    private static void put(@NotNull GatewayEvent type, @Nullable ConfigFlag cacheFlag, @NotNull EventIdentifier... identifiers) {
+        ENTRIES.put(type, new Entry(cacheFlag, identifiers));
+    }
+
+    private final @NotNull LApiImpl lApi;
+    private final @NotNull EventTransmitter transmitter;
+
+    public DispatchEventFilter(@NotNull LApiImpl lApi, @NotNull EventTransmitter transmitter) {
+        this.lApi = lApi;
+        this.transmitter = transmitter;
+    }
+
+    /**
+     *
+     * @param type the type of the dispatch event
+     * @return {@code true} if no listener would receive this event and no cache would be updated by it. The event
+     * does not need to be decoded in this case.
+     */
+    public boolean canSkip(@Nullable GatewayEvent type) {
+        if(type == null) return false;
+        Entry entry = ENTRIES.get(type);
+        if(entry == null) return false;
+
+        if(entry.cacheFlag != null && lApi.getGuildManager() != null && entry.cacheFlag.isPresent(lApi))
+            return false;
+
+        for(EventIdentifier identifier : entry.identifiers) {
+            if(transmitter.hasListeners(identifier)) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Same as {@link #canSkip(GatewayEvent)}, but listeners
+     * {@link me.linusdev.lapi.api.communication.gateway.events.transmitter.ListenerScope scoped} to other guilds are
+     * not considered. The guild id is only read, if it is known without decoding the event. Like
+     * {@link me.linusdev.lapi.api.communication.gateway.events.Event#getGuildId() Event.getGuildId()}, the guild id of
+     * guild events ({@link GatewayEvent#GUILD_CREATE GUILD_CREATE}, ...) is their "id" field
+     * (see {@link GatewayWebSocket#getGuildIdKey(GatewayEvent)}).
+     *
+     * @param payload the dispatch event
+     * @return {@code true} if no listener would receive this event and no cache would be updated by it. The event
+     * does not need to be decoded in this case.
+     */
+    public boolean canSkip(@NotNull GatewayPayloadAbstract payload) {
+        GatewayEvent type = payload.getType();
+        if(type == null) return false;
+        Entry entry = ENTRIES.get(type);
+        if(entry == null) return false;
+
+        if(entry.cacheFlag != null && lApi.getGuildManager() != null && entry.cacheFlag.isPresent(lApi))
+            return false;
+
+        String guildId = null;
+        if(payload instanceof LazyGatewayPayload) {
+            guildId = ((LazyGatewayPayload) payload).getGuildId();
+        } else if(payload.getPayloadData() instanceof SOData) {
+            guildId = (String) ((SOData) payload.getPayloadData()).get(GatewayWebSocket.getGuildIdKey(type));
+        }
+
+        for(EventIdentifier identifier : entry.identifiers) {
+            if(transmitter.hasListeners(identifier, guildId)) return false;
+        }
+
+        return true;
+    }
+
+    private static class Entry {
+        private final @Nullable ConfigFlag cacheFlag;
+        private final @NotNull EventIdentifier[] identifiers;
+
+        private Entry(@Nullable ConfigFlag cacheFlag, @NotNull EventIdentifier[] identifiers) {
+            this.cacheFlag = cacheFlag;
+            this.identifiers = identifiers;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package me.linusdev.lapi.api.communication.gateway.websocket;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ *     Token bucket for outbound gateway commands. Discord allows {@value #COMMANDS_PER_WINDOW} commands every
+ *     {@value #WINDOW_MILLIS} milliseconds per connection and will close the connection with
+ *     {@link me.linusdev.lapi.api.communication.gateway.enums.GatewayCloseStatusCode#RATE_LIMITED RATE_LIMITED},
+ *     if this limit is exceeded.
+ * </p>
+ * <p>
+ *     Every send uses one token, which is returned {@value #WINDOW_MILLIS} milliseconds later. The send times are
+ *     kept in a ring buffer, so whether a token is available can be checked in constant time and the limit is never
+ *     exceeded in any window, not only in fixed windows.
+ * </p>
+ * <p>
+ *     {@value #RESERVED_COMMANDS} tokens are reserved for heartbeats, identifies and resumes. These are
+ *     {@link #acquireReserved(long) acquired} without ever waiting. All other commands can only
+ *     {@link #tryAcquire(long) acquire} the remaining tokens.
+ * </p>
+ * <p>
+ *     This class is not thread safe.
+ * </p>
+ * @see <a href="https://discord.com/developers/docs/topics/gateway#rate-limiting" target="_top">Rate Limiting</a>
+ */
+@ApiStatus.Internal
+public class GatewayCommandRateLimiter {
+
+    public static final int COMMANDS_PER_WINDOW = 120;
+    public static final long WINDOW_MILLIS = 60_000L;
+
+    /**
+     * Tokens only usable by {@link #acquireReserved(long)}. Heartbeats are sent about every 41 seconds, so a window
+     * contains at most 2 regular heartbeats, a heartbeat requested by Discord and an identify or resume.
+     */
+    public static final int RESERVED_COMMANDS = 5;
+
+    /**
+     * Tokens usable by {@link #tryAcquire(long)}
+     */
+    public static final int UNRESERVED_COMMANDS = COMMANDS_PER_WINDOW - RESERVED_COMMANDS;
+
+    /**
+     * Send time of a token, which has never been used. Low enough, that adding {@link #WINDOW_MILLIS} cannot overflow
+     */
+    private static final long NEVER = Long.MIN_VALUE / 2;
+
+    private final long[] usedAt;
+    private int next;
+
+    public GatewayCommandRateLimiter() {
+        this.usedAt = new long[COMMANDS_PER_WINDOW];
+        reset();
+    }
+
+    /**
+     * Tries to acquire an unreserved token.
+     * @param now current time in milliseconds, see {@link #now()}
+     * @return {@code true} if a token was acquired and a command can be sent now
+     */
+    public boolean tryAcquire(long now) {
+        if(getWaitMillis(now) > 0L) return false;
+        use(now);
+        return true;
+    }
+
+    /**
+     * Acquires a token, even if no reserved token is left.
+     * @param now current time in milliseconds, see {@link #now()}
+     * @return {@code false} if the limit has been exceeded with this command
+     */
+    public boolean acquireReserved(long now) {
+        boolean withinLimit = usedAt[next] + WINDOW_MILLIS <= now;
+        use(now);
+        return withinLimit;
+    }
+
+    /**
+     * @param now current time in milliseconds, see {@link #now()}
+     * @return milliseconds until {@link #tryAcquire(long)} will succeed. {@code 0} if it would succeed now
+     */
+    public long getWaitMillis(long now) {
+        //the send time of the UNRESERVED_COMMANDS-th latest send
+        long usedAt = this.usedAt[(next - UNRESERVED_COMMANDS + COMMANDS_PER_WINDOW) % COMMANDS_PER_WINDOW];
+        return Math.max(0L, usedAt + WINDOW_MILLIS - now);
+    }
+
+    /**
+     * @param now current time in milliseconds, see {@link #now()}
+     * @return count of tokens {@link #tryAcquire(long)} could acquire right now
+     */
+    public int getAvailableTokens(long now) {
+        int used = 0;
+        for(long time : usedAt) {
+            if(time + WINDOW_MILLIS > now) used++;
+        }
+        return Math.max(0, UNRESERVED_COMMANDS - used);
+    }
+
+    /**
+     * All tokens will be available again. Must be called, when a new connection is opened, because the limit is
+     * per connection.
+     */
+    public void reset() {
+        Arrays.fill(usedAt, NEVER);
+        next = 0;
+    }
+
+    private void use(long now) {
+        usedAt[next] = now;
+        next = (next + 1) % COMMANDS_PER_WINDOW;
+    }
+
+    /**
+     *
+     * @return monotonic time in milliseconds
+     */
+    public static long now() {
+        return System.nanoTime() / 1_000_000L;
+    }
+}
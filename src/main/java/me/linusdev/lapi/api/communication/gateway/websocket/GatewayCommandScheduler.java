@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package me.linusdev.lapi.api.communication.gateway.websocket;
+
+import me.linusdev.lapi.api.communication.gateway.command.GatewayCommand;
+import me.linusdev.lapi.api.communication.gateway.command.GatewayCommandType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ *     Queues {@link GatewayCommand GatewayCommands} of a {@link GatewayWebSocket} in prioritized {@link Lane lanes}
+ *     and hands them out only as fast as the {@link GatewayCommandRateLimiter} allows.
+ * </p>
+ * <p>
+ *     Heartbeats, identifies and resumes are not queued. They are sent directly by the {@link GatewayWebSocket} using
+ *     the reserved tokens of the {@link GatewayCommandRateLimiter}, so they never wait for queued commands.
+ * </p>
+ * <p>
+ *     The queue depth of each {@link Lane} can be retrieved for monitoring.
+ * </p>
+ */
+public class GatewayCommandScheduler {
+
+    /**
+     * Lanes in order of their priority. A command is only taken from a lane, if all lanes with a higher priority are
+     * empty.
+     */
+    public enum Lane {
+        /**
+         * {@link GatewayCommandType#UPDATE_PRESENCE UPDATE_PRESENCE} commands. Only the latest presence is relevant,
+         * so this lane holds at most one command: a newly queued presence replaces the queued one.
+         */
+        PRESENCE,
+
+        /**
+         * all commands, which have no own lane
+         */
+        DEFAULT,
+
+        /**
+         * {@link GatewayCommandType#REQUEST_GUILD_MEMBERS REQUEST_GUILD_MEMBERS} commands. These are often queued in
+         * large amounts (e.g. for every guild at startup), so they have the lowest priority.
+         */
+        REQUEST_GUILD_MEMBERS,
+        ;
+
+        /**
+         *
+         * @param type {@link GatewayCommandType}
+         * @return the {@link Lane} commands of given type are queued in
+         */
+        public static @NotNull Lane of(@NotNull GatewayCommandType type) {
+            switch (type) {
+                case UPDATE_PRESENCE: return PRESENCE;
+                case REQUEST_GUILD_MEMBERS: return REQUEST_GUILD_MEMBERS;
+                default: return DEFAULT;
+            }
+        }
+    }
+
+    private static final Lane[] LANES = Lane.values();
+
+    private final @NotNull GatewayCommandRateLimiter rateLimiter;
+
+    private final @NotNull ConcurrentLinkedQueue<GatewayCommand>[] queues;
+    private final @NotNull AtomicInteger[] depths;
+    private final @NotNull AtomicInteger[] maxDepths;
+    private final @NotNull AtomicLong[] sentCounts;
+
+    @SuppressWarnings("unchecked")
+    public GatewayCommandScheduler() {
+        this.rateLimiter = new GatewayCommandRateLimiter();
+        this.queues = new ConcurrentLinkedQueue[LANES.length];
+        this.depths = new AtomicInteger[LANES.length];
+        this.maxDepths = new AtomicInteger[LANES.length];
+        this.sentCounts = new AtomicLong[LANES.length];
+
+        for(int i = 0; i < LANES.length; i++) {
+            queues[i] = new ConcurrentLinkedQueue<>();
+            depths[i] = new AtomicInteger(0);
+            maxDepths[i] = new AtomicInteger(0);
+            sentCounts[i] = new AtomicLong(0L);
+        }
+    }
+
+    /**
+     * Adds given command to the end of its {@link Lane}.
+     * @param command the command to queue
+     */
+    public void queue(@NotNull GatewayCommand command) {
+        int lane = Lane.of(command.getType()).ordinal();
+        if(lane == Lane.PRESENCE.ordinal()) {
+            replace(lane, command);
+            return;
+        }
+
+        queues[lane].add(command);
+        int depth = depths[lane].incrementAndGet();
+        maxDepths[lane].accumulateAndGet(depth, Math::max);
+    }
+
+    /**
+     * Replaces all commands of given lane with given command. Replaced commands are
+     * {@link GatewayCommand#getSentFuture() completed} together with the new command.
+     */
+    private synchronized void replace(int lane, @NotNull GatewayCommand command) {
+        GatewayCommand replaced;
+        while ((replaced = queues[lane].poll()) != null) {
+            depths[lane].decrementAndGet();
+            final GatewayCommand finalReplaced = replaced;
+            command.getSentFuture().whenComplete((nothing, error) -> {
+                if(error != null) finalReplaced.getSentFuture().completeExceptionally(error);
+                else finalReplaced.getSentFuture().complete(null);
+            });
+        }
+
+        queues[lane].add(command);
+        int depth = depths[lane].incrementAndGet();
+        maxDepths[lane].accumulateAndGet(depth, Math::max);
+    }
+
+    /**
+     *
+     * @param lane {@link Lane}
+     * @return the next command of given lane without removing it or {@code null} if the lane is empty
+     */
+    public @Nullable GatewayCommand peek(@NotNull Lane lane) {
+        return queues[lane.ordinal()].peek();
+    }
+
+    /**
+     * Takes the next command from the lane with the highest priority, if a token is available.
+     * @return the command to send now or {@code null} if no command is queued or no token is available.
+     * @see #getWaitMillis()
+     */
+    public synchronized @Nullable GatewayCommand poll() {
+        for(int i = 0; i < LANES.length; i++) {
+            if(queues[i].isEmpty()) continue;
+            if(!rateLimiter.tryAcquire(GatewayCommandRateLimiter.now())) return null;
+
+            GatewayCommand command = queues[i].poll();
+            depths[i].decrementAndGet();
+            sentCounts[i].incrementAndGet();
+            return command;
+        }
+
+        return null;
+    }
+
+    /**
+     * Uses a reserved token. Must be called for every heartbeat, identify or resume sent.
+     * @return {@code false} if the rate limit has been exceeded with this command
+     */
+    public synchronized boolean acquireReserved() {
+        return rateLimiter.acquireReserved(GatewayCommandRateLimiter.now());
+    }
+
+    /**
+     *
+     * @return milliseconds until the next queued command can be sent. {@code 0} if it can be sent now.
+     */
+    public synchronized long getWaitMillis() {
+        return rateLimiter.getWaitMillis(GatewayCommandRateLimiter.now());
+    }
+
+    /**
+     * Must be called, when a new connection is opened. Queued commands are kept.
+     */
+    public synchronized void onNewConnection() {
+        rateLimiter.reset();
+    }
+
+    /**
+     *
+     * @return {@code true} if any command is queued
+     */
+    public boolean hasQueuedCommands() {
+        for(ConcurrentLinkedQueue<GatewayCommand> queue : queues) {
+            if(!queue.isEmpty()) return true;
+        }
+        return false;
+    }
+
+    /**
+     *
+     * @param lane {@link Lane}
+     * @return count of commands currently queued in given lane
+     */
+    public int getQueueDepth(@NotNull Lane lane) {
+        return depths[lane.ordinal()].get();
+    }
+
+    /**
+     *
+     * @return count of commands currently queued in all lanes
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for(AtomicInteger d : depths) depth += d.get();
+        return depth;
+    }
+
+    /**
+     *
+     * @param lane {@link Lane}
+     * @return the highest count of commands, which were queued in given lane at the same time
+     */
+    public int getMaxQueueDepth(@NotNull Lane lane) {
+        return maxDepths[lane.ordinal()].get();
+    }
+
+    /**
+     *
+     * @param lane {@link Lane}
+     * @return count of commands taken from given lane to be sent
+     */
+    public long getSentCount(@NotNull Lane lane) {
+        return sentCounts[lane.ordinal()].get();
+    }
+
+    /**
+     *
+     * @return count of commands, which could be sent right now without waiting
+     */
+    public synchronized int getAvailableTokens() {
+        return rateLimiter.getAvailableTokens(GatewayCommandRateLimiter.now());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.websocket;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * <p>
+ *     Decompresses binary messages received by the {@link GatewayWebSocket}, if a {@link GatewayCompression} other
+ *     than {@link GatewayCompression#NONE NONE} is used.
+ * </p>
+ * <p>
+ *     For {@link GatewayCompression#ZLIB_STREAM ZLIB_STREAM} a single {@link Inflater} is kept for the whole
+ *     connection, because Discord uses one zlib context per connection. A message is complete, once the received
+ *     bytes end with {@link #ZLIB_SUFFIX}.<br>
+ *     For {@link GatewayCompression#PAYLOAD_COMPRESSION PAYLOAD_COMPRESSION} every binary message is a complete
+ *     zlib stream and the {@link Inflater} is reset before each message.
+ * </p>
+ * <p>
+ *     The compressed input and the inflated output are stored in direct {@link ByteBuffer ByteBuffers}, which are
+ *     reused for every message and only grow if a message does not fit.
+ * </p>
+ * <p>
+ *     This class is not thread safe. It is only used inside the synchronized
+ *     {@link GatewayWebSocket#onBinary(java.net.http.WebSocket, ByteBuffer, boolean) onBinary} method.
+ * </p>
+ * @see <a href="https://discord.com/developers/docs/topics/gateway#transport-compression" target="_top">Transport Compression</a>
+ * @see <a href="https://discord.com/developers/docs/topics/gateway#payload-compression" target="_top">Payload Compression</a>
+ */
+@ApiStatus.Internal
+public class GatewayDecompressor {
+
+    /**
+     * Every complete {@link GatewayCompression#ZLIB_STREAM zlib-stream} message ends with these 4 bytes
+     */
+    public static final int ZLIB_SUFFIX = 0x0000FFFF;
+
+    public static final int DEFAULT_INPUT_BUFFER_SIZE = 16 * 1024;
+    public static final int DEFAULT_OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final @NotNull GatewayCompression compression;
+    private final @NotNull Inflater inflater;
+
+    private final @NotNull BinaryFrameBuffer input;
+    private @NotNull ByteBuffer output;
+
+    /**
+     * @param compression {@link GatewayCompression#ZLIB_STREAM} or {@link GatewayCompression#PAYLOAD_COMPRESSION}
+     * @throws IllegalArgumentException if given compression is {@link GatewayCompression#NONE}
+     */
+    public GatewayDecompressor(@NotNull GatewayCompression compression) {
+        if(compression == GatewayCompression.NONE)
+            throw new IllegalArgumentException("Cannot decompress with compression " + compression);
+
+        this.compression = compression;
+        this.inflater = new Inflater();
+        this.input = new BinaryFrameBuffer(DEFAULT_INPUT_BUFFER_SIZE);
+        this.output = ByteBuffer.allocateDirect(DEFAULT_OUTPUT_BUFFER_SIZE);
+    }
+
+    /**
+     * Appends given frame to the compressed input.
+     * @param frame the received bytes
+     * @param last whether this is the last frame of the websocket message
+     * @return {@code true} if a complete compressed message is buffered and {@link #decompress()} can be called.
+     */
+    public boolean append(@NotNull ByteBuffer frame, boolean last) {
+        input.append(frame);
+
+        if(!last) return false;
+        if(compression == GatewayCompression.PAYLOAD_COMPRESSION) return true;
+
+        return input.endsWith(ZLIB_SUFFIX);
+    }
+
+    /**
+     * Inflates the buffered compressed message.
+     * @return {@link ByteBuffer} containing the inflated message between its position and limit. The returned buffer
+     * is reused and will be overwritten by the next call of this method.
+     * @throws DataFormatException if the compressed data is invalid
+     */
+    public @NotNull ByteBuffer decompress() throws DataFormatException {
+        if(compression == GatewayCompression.PAYLOAD_COMPRESSION) inflater.reset();
+
+        output.clear();
+        inflater.setInput(input.getMessage());
+
+        try {
+            while (true) {
+                inflater.inflate(output);
+
+                if(inflater.finished()) break;
+                if(inflater.needsDictionary()) throw new DataFormatException("Inflater needs a dictionary");
+
+                if(!output.hasRemaining()) {
+                    ByteBuffer newOutput = ByteBuffer.allocateDirect(output.capacity() * 2);
+                    output.flip();
+                    output = newOutput.put(output);
+                    continue;
+                }
+
+                if(inflater.needsInput()) break;
+            }
+        } finally {
+            input.clear();
+        }
+
+        output.flip();
+        return output;
+    }
+
+    /**
+     * Must be called, before a new connection is opened. Discord will start a new zlib context for every connection.
+     */
+    public void reset() {
+        inflater.reset();
+        input.clear();
+        output.clear();
+    }
+
+    /**
+     * Releases the native resources of the {@link Inflater}. This {@link GatewayDecompressor} cannot be used afterwards.
+     */
+    public void end() {
+        inflater.end();
+    }
+
+    public @NotNull GatewayCompression getCompression() {
+        return compression;
+    }
+}
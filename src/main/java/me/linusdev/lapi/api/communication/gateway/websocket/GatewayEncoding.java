@@ -32,8 +32,9 @@ public enum GatewayEncoding implements SimpleDatable {
     JSON("json"),
 
     /**
-     * Not supported by LApi.<br>
-     * You <b>must</b> implement {@link me.linusdev.lapi.api.config.GatewayConfigBuilder#setBytesToPayloadConverter(ExceptionConverter) BytesToPayloadConverter}
+     * Supported by LApi using the {@link me.linusdev.lapi.api.communication.gateway.etf.EtfDecoder EtfDecoder} and
+     * {@link me.linusdev.lapi.api.communication.gateway.etf.EtfEncoder EtfEncoder}.<br>
+     * You can implement {@link me.linusdev.lapi.api.config.GatewayConfigBuilder#setBytesToPayloadConverter(ExceptionConverter) BytesToPayloadConverter}
      */
     ETF("etf"),
     ;
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.websocket;
+
+import me.linusdev.data.functions.ExceptionConverter;
+import me.linusdev.lapi.api.communication.gateway.abstracts.GatewayPayloadAbstract;
+import me.linusdev.lapi.api.communication.gateway.enums.GatewayOpcode;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * <p>
+ *     Moves parsing of received messages off the {@link WebSocket.Listener listener} thread of the {@link GatewayWebSocket}.
+ * </p>
+ * <p>
+ *     Messages larger than {@link #INLINE_PARSE_THRESHOLD} are copied and parsed on the parser executor. Smaller
+ *     messages are parsed directly on the listener thread, because handing them off would take longer than parsing them.
+ *     Parsed payloads are handed to {@link GatewayWebSocket#onPayloadParsed(WebSocket, GatewayPayloadAbstract, Throwable)}
+ *     in the order they have been received. Only {@link #isFastPath(GatewayOpcode) fast path} payloads
+ *     ({@link GatewayOpcode#HELLO HELLO}, {@link GatewayOpcode#HEARTBEAT HEARTBEAT} and
+ *     {@link GatewayOpcode#HEARTBEAT_ACK HEARTBEAT_ACK}) are handled immediately, so they can never be stuck behind
+ *     the parsing of a large GUILD_CREATE.
+ * </p>
+ * <p>
+ *     At most {@link #maxPayloadsInFlight} messages are parsed at the same time. The listener does not request the next
+ *     message from the {@link WebSocket} (see {@link WebSocket#request(long)}) until a parser is free again. This way
+ *     Discord's messages stay in the socket buffers instead of piling up in memory.
+ * </p>
+ * <p>
+ *     The pipeline can also be {@link #setPaused(boolean) paused}, if handled payloads cannot be processed fast enough
+ *     (see {@link me.linusdev.lapi.api.communication.gateway.queue.DispatchEventQueue.BackpressureListener BackpressureListener}).
+ *     While paused, no messages are requested. Note that this includes {@link GatewayOpcode#HEARTBEAT_ACK HEARTBEAT_ACKs},
+ *     so the {@link GatewayWebSocket} does not check for missing ACKs meanwhile.
+ * </p>
+ * <p>
+ *     If no parser executor is given, every message is parsed and handled on the listener thread.
+ * </p>
+ */
+@ApiStatus.Internal
+public class GatewayPayloadPipeline {
+
+    /**
+     * Messages with at most this many chars or bytes are parsed on the listener thread.
+     */
+    public static final int INLINE_PARSE_THRESHOLD = 4 * 1024;
+
+    private final @NotNull GatewayWebSocket gateway;
+    private final @Nullable ExecutorService parserExecutor;
+    private final boolean ownsParserExecutor;
+    private final int maxPayloadsInFlight;
+
+    //guarded by this
+    private final @NotNull ArrayDeque<TextFrameBuffer> freeTextBuffers;
+    private final @NotNull ArrayDeque<BinaryFrameBuffer> freeBinaryBuffers;
+    private int payloadsInFlight;
+    private @Nullable WebSocket pendingRequest;
+    private boolean paused;
+
+    //guarded by slots
+    private final @NotNull ArrayDeque<Slot> slots;
+    private boolean draining;
+
+    /**
+     *
+     * @param gateway the {@link GatewayWebSocket} which received the messages
+     * @param parserExecutor executor to parse messages on or {@code null} to parse every message on the listener thread
+     * @param ownsParserExecutor whether the parserExecutor should be shut down by {@link #shutdown()}. {@code false}
+     *                           if it is shared with other pipelines
+     * @param maxPayloadsInFlight max count of messages parsed on the parserExecutor at the same time
+     */
+    public GatewayPayloadPipeline(@NotNull GatewayWebSocket gateway, @Nullable ExecutorService parserExecutor,
+                                  boolean ownsParserExecutor, int maxPayloadsInFlight) {
+        this.gateway = gateway;
+        this.parserExecutor = parserExecutor;
+        this.ownsParserExecutor = ownsParserExecutor;
+        this.maxPayloadsInFlight = Math.max(maxPayloadsInFlight, 1);
+
+        this.freeTextBuffers = new ArrayDeque<>(this.maxPayloadsInFlight);
+        this.freeBinaryBuffers = new ArrayDeque<>(this.maxPayloadsInFlight);
+        this.payloadsInFlight = 0;
+        this.pendingRequest = null;
+        this.paused = false;
+
+        this.slots = new ArrayDeque<>();
+        this.draining = false;
+    }
+
+    /**
+     *
+     * @param length length of the message in chars or bytes
+     * @return {@code true} if a message of given length should be parsed on the listener thread
+     */
+    public boolean parseInline(int length) {
+        return parserExecutor == null || length <= INLINE_PARSE_THRESHOLD;
+    }
+
+    /**
+     *
+     * @param opcode {@link GatewayOpcode} of a parsed payload
+     * @return {@code true} if payloads with given opcode are handled immediately, without waiting for previously
+     * received payloads.
+     */
+    public static boolean isFastPath(@NotNull GatewayOpcode opcode) {
+        return opcode == GatewayOpcode.HEARTBEAT_ACK || opcode == GatewayOpcode.HEARTBEAT || opcode == GatewayOpcode.HELLO;
+    }
+
+    /**
+     * Hands a payload, which has been parsed on the listener thread, to the {@link GatewayWebSocket}.
+     * @param webSocket the {@link WebSocket} the payload was received on
+     * @param payload the parsed payload or {@code null} if parsing failed
+     * @param error the error, if parsing failed
+     */
+    public void parsed(@NotNull WebSocket webSocket, @Nullable GatewayPayloadAbstract payload, @Nullable Throwable error) {
+        if(payload != null && isFastPath(payload.getOpcode())) {
+            gateway.onPayloadParsed(webSocket, payload, null);
+            return;
+        }
+
+        Slot slot = new Slot(webSocket);
+        slot.complete(payload, error);
+        synchronized (slots) {
+            slots.add(slot);
+        }
+        drain();
+    }
+
+    /**
+     * Copies given text message and parses it on the parser executor.
+     * @param webSocket the {@link WebSocket} the message was received on
+     * @param message the complete message. It is copied, so it may be reused after this method returned
+     * @param converter converter to parse the message
+     */
+    public void submit(@NotNull WebSocket webSocket, @NotNull CharSequence message,
+                       @NotNull ExceptionConverter<CharSequence, GatewayPayloadAbstract, ? extends Throwable> converter) {
+        if(parserExecutor == null) throw new IllegalStateException("No parser executor.");
+
+        TextFrameBuffer buffer;
+        synchronized (this) {
+            buffer = freeTextBuffers.poll();
+            payloadsInFlight++;
+        }
+        if(buffer == null) buffer = new TextFrameBuffer(TextFrameBuffer.DEFAULT_INITIAL_CAPACITY);
+        buffer.append(message);
+
+        Slot slot = new Slot(webSocket);
+        synchronized (slots) {
+            slots.add(slot);
+        }
+
+        final TextFrameBuffer finalBuffer = buffer;
+        parserExecutor.execute(() -> {
+            GatewayPayloadAbstract payload = null;
+            Throwable error = null;
+            try {
+                payload = converter.convert(finalBuffer);
+            } catch (Throwable t) {
+                error = t;
+            } finally {
+                finalBuffer.clear();
+                release(finalBuffer, null);
+            }
+
+            slot.complete(payload, error);
+            drain();
+        });
+    }
+
+    /**
+     * Copies given binary message and parses it on the parser executor.
+     * @param webSocket the {@link WebSocket} the message was received on
+     * @param message the complete message between its position and limit. It is copied, so it may be reused after
+     *                this method returned
+     * @param converter converter to parse the message
+     */
+    public void submit(@NotNull WebSocket webSocket, @NotNull ByteBuffer message,
+                       @NotNull ExceptionConverter<ByteBuffer, GatewayPayloadAbstract, ? extends Throwable> converter) {
+        if(parserExecutor == null) throw new IllegalStateException("No parser executor.");
+
+        BinaryFrameBuffer buffer;
+        synchronized (this) {
+            buffer = freeBinaryBuffers.poll();
+            payloadsInFlight++;
+        }
+        if(buffer == null) buffer = new BinaryFrameBuffer(Math.max(message.remaining(), GatewayDecompressor.DEFAULT_INPUT_BUFFER_SIZE));
+        buffer.append(message);
+
+        Slot slot = new Slot(webSocket);
+        synchronized (slots) {
+            slots.add(slot);
+        }
+
+        final BinaryFrameBuffer finalBuffer = buffer;
+        parserExecutor.execute(() -> {
+            GatewayPayloadAbstract payload = null;
+            Throwable error = null;
+            try {
+                payload = converter.convert(finalBuffer.getMessage());
+            } catch (Throwable t) {
+                error = t;
+            } finally {
+                finalBuffer.clear();
+                release(null, finalBuffer);
+            }
+
+            slot.complete(payload, error);
+            drain();
+        });
+    }
+
+    /**
+     * Requests the next message from given {@link WebSocket}, if less than {@link #maxPayloadsInFlight} messages
+     * are currently parsed and this pipeline is not {@link #setPaused(boolean) paused}. Otherwise the request is
+     * postponed, until a parser is free and the pipeline has been resumed.
+     * @param webSocket the {@link WebSocket} to request the next message from
+     */
+    public void requestNext(@NotNull WebSocket webSocket) {
+        synchronized (this) {
+            if(paused || payloadsInFlight >= maxPayloadsInFlight) {
+                pendingRequest = webSocket;
+                return;
+            }
+        }
+
+        webSocket.request(1);
+    }
+
+    private void release(@Nullable TextFrameBuffer textBuffer, @Nullable BinaryFrameBuffer binaryBuffer) {
+        WebSocket request;
+        synchronized (this) {
+            payloadsInFlight--;
+            if(textBuffer != null) freeTextBuffers.add(textBuffer);
+            if(binaryBuffer != null) freeBinaryBuffers.add(binaryBuffer);
+
+            if(paused) return;
+            request = pendingRequest;
+            pendingRequest = null;
+        }
+
+        if(request != null) request.request(1);
+    }
+
+    /**
+     * Pauses or resumes requesting messages. Once resumed, a postponed request is sent, if a parser is free.
+     * @param paused {@code true} to stop requesting messages, {@code false} to continue
+     */
+    public void setPaused(boolean paused) {
+        WebSocket request;
+        synchronized (this) {
+            this.paused = paused;
+            if(paused || payloadsInFlight >= maxPayloadsInFlight) return;
+            request = pendingRequest;
+            pendingRequest = null;
+        }
+
+        if(request != null) request.request(1);
+    }
+
+    /**
+     *
+     * @return {@code true} if this pipeline is currently {@link #setPaused(boolean) paused}
+     */
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Hands all parsed payloads at the head of {@link #slots} to the {@link GatewayWebSocket}. Only one thread drains
+     * at a time, so the payloads are handled in the order they were received.
+     */
+    private void drain() {
+        while (true) {
+            Slot slot;
+            synchronized (slots) {
+                if(draining) return;
+                slot = slots.peek();
+                if(slot == null || !slot.done) return;
+                slots.poll();
+                draining = true;
+            }
+
+            try {
+                gateway.onPayloadParsed(slot.webSocket, slot.payload, slot.error);
+            } finally {
+                synchronized (slots) {
+                    draining = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Shuts down the parser executor, if it is owned by this pipeline. Messages which are currently parsed will still be handled.
+     */
+    public void shutdown() {
+        if(parserExecutor != null && ownsParserExecutor) parserExecutor.shutdown();
+    }
+
+    private static class Slot {
+        private final @NotNull WebSocket webSocket;
+        private volatile @Nullable GatewayPayloadAbstract payload;
+        private volatile @Nullable Throwable error;
+        private volatile boolean done;
+
+        private Slot(@NotNull WebSocket webSocket) {
+            this.webSocket = webSocket;
+            this.done = false;
+        }
+
+        private void complete(@Nullable GatewayPayloadAbstract payload, @Nullable Throwable error) {
+            this.payload = payload;
+            this.error = error;
+            this.done = true;
+        }
+    }
+}
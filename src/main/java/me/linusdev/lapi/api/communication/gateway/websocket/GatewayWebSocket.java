@@ -30,6 +30,8 @@ import me.linusdev.lapi.api.communication.ApiVersion;
 import me.linusdev.lapi.api.communication.gateway.abstracts.GatewayPayloadAbstract;
 import me.linusdev.lapi.api.communication.gateway.command.GatewayCommand;
 import me.linusdev.lapi.api.communication.gateway.command.GatewayCommandType;
+import me.linusdev.lapi.api.communication.gateway.etf.EtfDecoder;
+import me.linusdev.lapi.api.communication.gateway.etf.EtfEncoder;
 import me.linusdev.lapi.api.communication.gateway.enums.GatewayCloseStatusCode;
 import me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent;
 import me.linusdev.lapi.api.communication.gateway.enums.GatewayIntent;
@@ -73,6 +75,7 @@ import me.linusdev.lapi.api.communication.gateway.events.resumed.ResumedEvent;
 import me.linusdev.lapi.api.communication.gateway.events.stage.StageInstanceEvent;
 import me.linusdev.lapi.api.communication.gateway.events.thread.*;
 import me.linusdev.lapi.api.communication.gateway.events.transmitter.EventTransmitter;
+import me.linusdev.lapi.api.communication.gateway.events.transmitter.GatewayIntentCalculator;
 import me.linusdev.lapi.api.communication.gateway.events.typing.TypingStartEvent;
 import me.linusdev.lapi.api.communication.gateway.events.typing.TypingStartEventFields;
 import me.linusdev.lapi.api.communication.gateway.events.user.UserUpdateEvent;
@@ -82,14 +85,26 @@ import me.linusdev.lapi.api.communication.gateway.events.webhooks.WebhooksUpdate
 import me.linusdev.lapi.api.communication.gateway.identify.ConnectionProperties;
 import me.linusdev.lapi.api.communication.gateway.identify.Identify;
 import me.linusdev.lapi.api.communication.gateway.other.GatewayPayload;
+import me.linusdev.lapi.api.communication.gateway.other.LatencyHistogram;
+import me.linusdev.lapi.api.communication.gateway.other.LazyGatewayPayload;
+import me.linusdev.lapi.api.communication.gateway.other.GetGatewayResponse;
+import me.linusdev.lapi.api.communication.gateway.other.SessionStartLimit;
+import me.linusdev.lapi.api.communication.gateway.sharding.ShardManager;
+import me.linusdev.lapi.api.communication.gateway.record.GatewayTrafficRecorder;
+import me.linusdev.lapi.api.communication.gateway.record.GatewayTrafficReplayer;
 import me.linusdev.lapi.api.communication.gateway.presence.SelfUserPresenceUpdater;
+import me.linusdev.lapi.api.communication.gateway.resume.SessionCheckpoint;
+import me.linusdev.lapi.api.communication.gateway.resume.SessionCheckpointStore;
 import me.linusdev.lapi.api.communication.gateway.queue.DispatchEventQueue;
+import me.linusdev.lapi.api.communication.gateway.queue.DispatchMetrics;
 import me.linusdev.lapi.api.communication.gateway.queue.ReceivedPayload;
+import me.linusdev.lapi.api.communication.gateway.queue.processor.DispatchEventProcessor;
 import me.linusdev.lapi.api.communication.gateway.queue.processor.DispatchEventProcessorFactory;
 import me.linusdev.lapi.api.communication.gateway.resume.Resume;
 import me.linusdev.lapi.api.communication.gateway.update.Update;
 import me.linusdev.lapi.api.communication.http.request.LApiHttpHeader;
 import me.linusdev.lapi.api.config.Config;
+import me.linusdev.lapi.api.config.ConfigFlag;
 import me.linusdev.lapi.api.exceptions.InvalidDataException;
 import me.linusdev.lapi.api.exceptions.LApiException;
 import me.linusdev.lapi.api.interfaces.HasLApi;
@@ -137,13 +152,17 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.io.StringReader;
 import java.net.SocketException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.WebSocket;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -182,6 +201,33 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
         return GatewayPayload.fromData(data);
     };
 
+    /**
+     * Used instead of {@link #STANDARD_JSON_TO_PAYLOAD_CONVERTER}, if no custom jsonToPayloadConverter is set.
+     * Text messages are parsed directly from the received frames, without creating a {@link String} of the whole message.
+     */
+    public static final ExceptionConverter<CharSequence, GatewayPayloadAbstract, Exception> STANDARD_JSON_CHARS_TO_PAYLOAD_CONVERTER = convertible -> {
+        SOData data = new JsonParser().parseReader(new CharSequenceReader(convertible));
+        return GatewayPayload.fromData(data);
+    };
+
+    /**
+     * Used to convert the bytes inflated by the {@link GatewayDecompressor} to a payload, if
+     * {@link GatewayEncoding#JSON} is used.
+     */
+    public static final ExceptionConverter<ByteBuffer, GatewayPayloadAbstract, Exception> STANDARD_JSON_BYTES_TO_PAYLOAD_CONVERTER = convertible -> {
+        SOData data = new JsonParser().parseStream(new ByteBufferInputStream(convertible));
+        return GatewayPayload.fromData(data);
+    };
+
+    /**
+     * Used to convert received binary messages (decompressed by the {@link GatewayDecompressor} if required) to a
+     * payload, if {@link GatewayEncoding#ETF} is used.
+     */
+    public static final ExceptionConverter<ByteBuffer, GatewayPayloadAbstract, Exception> STANDARD_ETF_BYTES_TO_PAYLOAD_CONVERTER = convertible -> {
+        SOData data = EtfDecoder.decodeData(convertible);
+        return GatewayPayload.fromData(data);
+    };
+
     public static final UnexpectedEventHandler STANDARD_UNEXPECTED_EVENT_HANDLER = new UnexpectedEventHandler() {
         @Override
         public void handleError(@NotNull LApi lApi, @NotNull GatewayWebSocket gatewayWebSocket, @NotNull Throwable error) {
@@ -207,6 +253,7 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
     public static final String HEARTBEATS_SENT_KEY = "heartbeats_sent";
     public static final String HEARTBEAT_ACKNOWLEDGEMENTS_RECEIVED_KEY = "heartbeat_acks_received";
     public static final String DATA_GENERATED_TIME_MILLIS_KEY = "generated_at";
+    public static final String RESUME_GATEWAY_URL_KEY = "resume_gateway_url";
 
 
     private final @NotNull LApiImpl lApi;
@@ -220,33 +267,108 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
     private final @NotNull GatewayEncoding encoding;
     private final @NotNull GatewayCompression compression;
     private final int largeThreshold;
+    private final @Nullable ShardManager shardManager;
     private final boolean usesSharding;
     private final int shardId;
     private final int numShards;
     private final @NotNull SelfUserPresenceUpdater selfPresence;
     private final @NotNull GatewayIntent[] intents;
+    private final boolean automaticIntents;
+    private final @NotNull DispatchEventFilter dispatchEventFilter;
+    private final boolean preConnectOnResume;
 
-    private WebSocket webSocket = null;
+    private volatile WebSocket webSocket = null;
+    /**
+     * The {@link WebSocket}, which is replaced by a pre-connection (see {@link #resume()}). It still receives events,
+     * until the new {@link WebSocket} has been {@link #onOpen(WebSocket) opened}, but it is not closed on errors.
+     */
+    private volatile @Nullable WebSocket replacedWebSocket = null;
+    /**
+     * Url to {@link Resume resume} the current session at, received in the {@link ReadyEvent}.
+     */
+    private volatile @Nullable String resumeGatewayUrl = null;
 
     private DispatchEventQueue dispatchEventQueue;
+    private final @NotNull DispatchEventProcessor dispatchEventProcessor;
     private long heartbeatInterval;
     private String sessionId;
 
     private final AtomicLong heartbeatsSent;
     private final AtomicLong heartbeatAcknowledgementsReceived;
 
+    /**
+     * Round trip time of scheduled heartbeats.
+     */
+    private final @NotNull LatencyHistogram heartbeatLatency;
+    /**
+     * Time spent between receiving dispatch events and handling them completely.
+     */
+    private final @NotNull DispatchMetrics dispatchMetrics;
+    /**
+     * Heartbeats sent and ACKs received on the current connection. Discord acknowledges heartbeats in order, so the
+     * {@code n}-th ACK belongs to the {@code n}-th heartbeat.
+     */
+    private final AtomicLong connectionHeartbeats;
+    private final AtomicLong connectionHeartbeatAcks;
+    /**
+     * Number (see {@link #connectionHeartbeats}) of the last scheduled heartbeat. If it has not been acknowledged when
+     * the next heartbeat is due, the connection is considered dead. Heartbeats requested by Discord are not considered.
+     */
+    private volatile long scheduledHeartbeat;
+    private volatile long lastHeartbeatSentNanos;
+    /**
+     * Whether reading has been paused due to backpressure since the last scheduled heartbeat. HEARTBEAT_ACKs are not
+     * read while paused, so the connection must not be considered dead.
+     */
+    private volatile boolean readPausedSinceHeartbeat;
+
     private final AtomicBoolean canResume;
 
-    private String currentText = null;
+    private final @NotNull TextFrameBuffer textFrameBuffer;
     private ArrayList<ByteBuffer> currentBytes = null;
 
     private final ScheduledExecutorService heartbeatExecutor;
     private ScheduledFuture<?> heartbeatFuture;
 
+    /**
+     * Periodically writes the session state, see {@link me.linusdev.lapi.api.config.GatewayConfigBuilder#setSessionCheckpointFile(Path)}
+     */
+    private final @Nullable SessionCheckpointStore checkpointStore;
+    private final @Nullable ScheduledFuture<?> checkpointFuture;
+    private long lastCheckpointSequence = -1;
+    private @Nullable String lastCheckpointSessionId = null;
+
+    /**
+     * Data of the READY event of a session loaded from a checkpoint. Is transmitted once the session has been resumed.
+     */
+    private volatile @Nullable SOData checkpointReadyData = null;
+
+    /**
+     * Records all received messages, see {@link me.linusdev.lapi.api.config.GatewayConfigBuilder#setTrafficRecordingFile(Path)}
+     */
+    private volatile @Nullable GatewayTrafficRecorder trafficRecorder;
+
     //Converter and handler
     private final @NotNull ExceptionConverter<String, GatewayPayloadAbstract, ? extends Throwable> jsonToPayloadConverter;
     private final ExceptionConverter<ArrayList<ByteBuffer>, GatewayPayloadAbstract, ? extends Throwable> bytesToPayloadConverter;
 
+    /**
+     * Built-in decompression. {@code null} if no compression is used or if a custom {@link #bytesToPayloadConverter} is set.
+     */
+    private final @Nullable GatewayDecompressor decompressor;
+
+    /**
+     * Reassembles uncompressed {@link GatewayEncoding#ETF ETF} messages. {@code null} if compression, a custom
+     * {@link #bytesToPayloadConverter} or {@link GatewayEncoding#JSON JSON} is used.
+     */
+    private final @Nullable BinaryFrameBuffer etfFrameBuffer;
+    private final @NotNull ExceptionConverter<ByteBuffer, GatewayPayloadAbstract, ? extends Throwable> builtInBytesToPayloadConverter;
+
+    /**
+     * Parses large messages off the listener thread and applies backpressure to the {@link #webSocket}.
+     */
+    private final @NotNull GatewayPayloadPipeline payloadPipeline;
+
     private UnexpectedEventHandler unexpectedEventHandler = null;
 
     /**
@@ -257,27 +379,74 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
     private final LogInstance logger;
 
     /**
-     * Queue for commands. Is currently periodically checked, when a Heartbeat ack is received. (in {@link #handleReceivedPayload(GatewayPayloadAbstract)})
+     * Queue for commands. Is worked on, whenever a command is queued or a Heartbeat ack is received. (in {@link #handleReceivedPayload(GatewayPayloadAbstract)})
+     * If the rate limit is reached, the queue will continue, as soon as the next command may be sent.
      */
-    private final ConcurrentLinkedQueue<GatewayCommand> commandQueue;
+    private final GatewayCommandScheduler commandScheduler;
     private final AtomicBoolean queueWorking = new AtomicBoolean(false);
+    private final AtomicBoolean rateLimitWaitScheduled = new AtomicBoolean(false);
+
+    /**
+     * The {@link WebSocket} does not allow a send, while the previous one has not completed. All sends are chained on this future.
+     */
+    private final Object sendLock = new Object();
+    private CompletableFuture<WebSocket> lastSend = CompletableFuture.completedFuture(null);
+
+    /**
+     * {@link GatewayEvent#GUILD_CREATE GUILD_CREATE}, {@link GatewayEvent#GUILD_UPDATE GUILD_UPDATE} and
+     * {@link GatewayEvent#GUILD_DELETE GUILD_DELETE} contain a guild object, whose id is stored in the
+     * {@link Guild#ID_KEY id} field. All other events store it in the {@link #GUILD_ID_KEY guild_id} field.
+     * @param type type of the dispatch event
+     * @return key of the field in the event data, which contains the id of the guild the event belongs to
+     */
+    public static @NotNull String getGuildIdKey(@Nullable GatewayEvent type) {
+        if(type == GatewayEvent.GUILD_CREATE || type == GatewayEvent.GUILD_UPDATE || type == GatewayEvent.GUILD_DELETE)
+            return Guild.ID_KEY;
+        return GUILD_ID_KEY;
+    }
     
     public GatewayWebSocket(@NotNull LApiImpl lApi, @NotNull EventTransmitter transmitter, @NotNull Config config){
-        this(lApi, transmitter, config.getToken(),
+        this(lApi, transmitter, config, null, config.getGatewayConfig().getShardId(), config.getGatewayConfig().getNumShards());
+    }
+
+    /**
+     * Creates a shard managed by given {@link ShardManager}.
+     * @param shardManager the {@link ShardManager} managing this shard
+     * @param shardId id of this shard
+     */
+    @ApiStatus.Internal
+    public GatewayWebSocket(@NotNull LApiImpl lApi, @NotNull EventTransmitter transmitter, @NotNull Config config,
+                            @NotNull ShardManager shardManager, int shardId) {
+        this(lApi, transmitter, config, shardManager, shardId, shardManager.getNumShards());
+    }
+
+    private GatewayWebSocket(@NotNull LApiImpl lApi, @NotNull EventTransmitter transmitter, @NotNull Config config,
+                             @Nullable ShardManager shardManager, @Nullable Integer shardId, @Nullable Integer numShards) {
+        this(lApi, transmitter, shardManager, config.getToken(),
                 config.getGatewayConfig().getApiVersion(),
                 config.getGatewayConfig().getEncoding(),
                 config.getGatewayConfig().getCompression(),
                 config.getGatewayConfig().getOs(),
                 config.getGatewayConfig().getLargeThreshold(),
-                config.getGatewayConfig().getShardId(),
-                config.getGatewayConfig().getNumShards(),
+                shardId,
+                numShards,
                 config.getGatewayConfig().getStartupPresence(),
                 config.getGatewayConfig().getIntents(),
                 config.getGatewayConfig().getJsonToPayloadConverter(),
                 config.getGatewayConfig().getEtfToPayloadConverter(),
                 config.getGatewayConfig().getUnexpectedEventHandler(),
                 config.getGatewayConfig().getDispatchEventQueueSize(),
-                config.getGatewayConfig().getDispatchEventProcessorFactory()
+                config.getGatewayConfig().getDispatchEventProcessorFactory(),
+                config.getGatewayConfig().getPayloadParserThreadCount(),
+                config.getGatewayConfig().getMaxPayloadsInFlight(),
+                config.getGatewayConfig().getSessionCheckpointFile(),
+                config.getGatewayConfig().getSessionCheckpointInterval(),
+                config.getGatewayConfig().getSessionCheckpointMaxAge(),
+                config.getGatewayConfig().isAutomaticIntents(),
+                config.getGatewayConfig().getTrafficRecordingFile(),
+                config.getGatewayConfig().isPreConnectOnResume(),
+                //Guilds would not be cached, because no GUILD_CREATE events are received after resuming
+                !config.isFlagSet(ConfigFlag.CACHE_GUILDS)
         );
     }
 
@@ -288,17 +457,24 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
      * Use {@link GatewayWebSocket#GatewayWebSocket(LApiImpl, EventTransmitter, Config)} instead.
      */
     @ApiStatus.Internal
-    private GatewayWebSocket(@NotNull LApiImpl lApi, @NotNull EventTransmitter transmitter, @NotNull String token, @Nullable ApiVersion apiVersion,
+    private GatewayWebSocket(@NotNull LApiImpl lApi, @NotNull EventTransmitter transmitter, @Nullable ShardManager shardManager,
+                             @NotNull String token, @Nullable ApiVersion apiVersion,
                              @Nullable GatewayEncoding encoding, @Nullable GatewayCompression compression,
                              @NotNull String os, @NotNull Integer largeThreshold, @Nullable Integer shardId,
                              @Nullable Integer numShards, @NotNull SelfUserPresenceUpdater selfPresence, @NotNull GatewayIntent[] intents,
                              @NotNull ExceptionConverter<String, GatewayPayloadAbstract, ? extends Throwable> jsonToPayloadConverter,
                              ExceptionConverter<ArrayList<ByteBuffer>, GatewayPayloadAbstract, ? extends Throwable> bytesToPayloadConverter,
                              @NotNull UnexpectedEventHandler unexpectedEventHandler, int dispatchEventQueueSize,
-                             @NotNull DispatchEventProcessorFactory dispatchEventProcessorFactory) {
+                             @NotNull DispatchEventProcessorFactory dispatchEventProcessorFactory,
+                             int payloadParserThreadCount, int maxPayloadsInFlight,
+                             @Nullable Path sessionCheckpointFile, long sessionCheckpointInterval,
+                             long sessionCheckpointMaxAge, boolean automaticIntents,
+                             @Nullable Path trafficRecordingFile, boolean preConnectOnResume,
+                             boolean resumeFromCheckpoint) {
         this.lApi = lApi;
         this.unexpectedEventHandler = unexpectedEventHandler;
         this.transmitter = transmitter;
+        this.shardManager = shardManager;
         this.token = token;
         this.properties = new ConnectionProperties(os, LApi.LAPI_NAME, LApi.LAPI_NAME);
         this.largeThreshold = largeThreshold;
@@ -317,7 +493,9 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
 
         this.selfPresence = selfPresence.setGateway(this);
         this.intents = intents;
-
+        this.automaticIntents = automaticIntents;
+        this.preConnectOnResume = preConnectOnResume;
+        this.dispatchEventFilter = new DispatchEventFilter(lApi, transmitter);
 
         if (apiVersion == null) apiVersion = ApiVersion.V9;
         if (encoding == null) encoding = GatewayEncoding.JSON;
@@ -327,29 +505,149 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
         this.encoding = encoding;
         this.compression = compression;
 
-        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(new LApiThreadFactory(lApi, true, "Gateway Heartbeat Thread"));
+        //shards of a ShardManager share their threads
+        if(shardManager != null) this.heartbeatExecutor = shardManager.getScheduler();
+        else this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(new LApiThreadFactory(lApi, true, "Gateway Heartbeat Thread"));
 
         this.logger = Logger.getLogger(GatewayWebSocket.class.getSimpleName(), Logger.Type.DEBUG);
 
         this.canResume = new AtomicBoolean(false);
 
         this.dispatchEventQueue = new DispatchEventQueue(dispatchEventQueueSize);
-        this.dispatchEventQueue.setProcessor(
-                dispatchEventProcessorFactory.newInstance(lApi, dispatchEventQueue, this));
+        this.dispatchEventProcessor = dispatchEventProcessorFactory.newInstance(lApi, dispatchEventQueue, this);
+        this.dispatchEventQueue.setProcessor(dispatchEventProcessor);
 
         this.heartbeatsSent = new AtomicLong(0);
         this.heartbeatAcknowledgementsReceived = new AtomicLong(0);
+        this.heartbeatLatency = new LatencyHistogram();
+        this.dispatchMetrics = new DispatchMetrics();
+        this.connectionHeartbeats = new AtomicLong(0);
+        this.connectionHeartbeatAcks = new AtomicLong(0);
+        this.scheduledHeartbeat = 0;
         this.pendingConnects = new AtomicInteger(0);
 
         this.jsonToPayloadConverter = jsonToPayloadConverter;
+        this.textFrameBuffer = new TextFrameBuffer(TextFrameBuffer.DEFAULT_INITIAL_CAPACITY);
         this.bytesToPayloadConverter = bytesToPayloadConverter;
 
-        this.commandQueue = new ConcurrentLinkedQueue<>();
+        if(bytesToPayloadConverter == null && compression != GatewayCompression.NONE) {
+            this.decompressor = new GatewayDecompressor(compression);
+        } else {
+            this.decompressor = null;
+        }
+
+        if(bytesToPayloadConverter == null && compression == GatewayCompression.NONE && encoding == GatewayEncoding.ETF) {
+            this.etfFrameBuffer = new BinaryFrameBuffer(GatewayDecompressor.DEFAULT_OUTPUT_BUFFER_SIZE);
+        } else {
+            this.etfFrameBuffer = null;
+        }
+
+        this.builtInBytesToPayloadConverter = encoding == GatewayEncoding.ETF ?
+                STANDARD_ETF_BYTES_TO_PAYLOAD_CONVERTER : STANDARD_JSON_BYTES_TO_PAYLOAD_CONVERTER;
+
+        if(shardManager != null) {
+            this.payloadPipeline = new GatewayPayloadPipeline(this, shardManager.getParserExecutor(), false, maxPayloadsInFlight);
+        } else {
+            this.payloadPipeline = new GatewayPayloadPipeline(this,
+                    payloadParserThreadCount == 0 ? null : Executors.newFixedThreadPool(payloadParserThreadCount,
+                            new LApiThreadFactory(lApi, false, "Gateway Payload Parser Thread")),
+                    true, maxPayloadsInFlight);
+        }
+        this.dispatchEventQueue.setBackpressureListener(this::onBackpressure);
+
+        this.commandScheduler = new GatewayCommandScheduler();
+
+        if(sessionCheckpointFile != null) {
+            if(usesSharding)
+                sessionCheckpointFile = sessionCheckpointFile.resolveSibling(sessionCheckpointFile.getFileName() + "-shard" + this.shardId);
+            this.checkpointStore = new SessionCheckpointStore(sessionCheckpointFile);
+
+            if(resumeFromCheckpoint) loadCheckpoint(sessionCheckpointMaxAge);
+            else logger.warning("Session checkpoints are written, but sessions are not resumed from them, because " + ConfigFlag.CACHE_GUILDS + " is set.");
+
+            this.checkpointFuture = heartbeatExecutor.scheduleWithFixedDelay(this::writeCheckpoint,
+                    sessionCheckpointInterval, sessionCheckpointInterval, TimeUnit.MILLISECONDS);
+        } else {
+            this.checkpointStore = null;
+            this.checkpointFuture = null;
+        }
+
+        if(trafficRecordingFile != null) {
+            if(usesSharding)
+                trafficRecordingFile = trafficRecordingFile.resolveSibling(trafficRecordingFile.getFileName() + "-shard" + this.shardId);
+            try {
+                this.trafficRecorder = new GatewayTrafficRecorder(trafficRecordingFile);
+            } catch (IOException e) {
+                logger.error("Could not open traffic recording file " + trafficRecordingFile + ": " + e.getMessage());
+                this.trafficRecorder = null;
+            }
+        } else {
+            this.trafficRecorder = null;
+        }
 
         registerShutdownable();
     }
 
+    /**
+     * Retrieves the gateway url (see {@link me.linusdev.lapi.api.request.requests.GatewayRequests#getGatewayBot() getGatewayBot()})
+     * and {@link #connect(GetGatewayResponse) connects} to it. If the current session can be resumed, the
+     * {@link ReadyEvent#getResumeGatewayUrl() resume gateway url} is used instead, without retrieving the gateway url.
+     */
     public void start() {
+        String resumeUrl = this.resumeGatewayUrl;
+        if(canResume.get() && resumeUrl != null) {
+            connect(resumeUrl, false);
+            return;
+        }
+
+        // If we have no internet connection, LApi will automatically delay this request
+        // until we have internet connection again
+        lApi.getRequestFactory().getGatewayBot().queue((getGatewayResponse, response, error) -> {
+            if (error != null) {
+                error.log(logger);
+                if (unexpectedEventHandler != null) unexpectedEventHandler.handleError(lApi, this, error.asThrowable());
+                return;
+            }
+
+            connect(getGatewayResponse);
+        });
+    }
+
+    /**
+     * Connects to the url of given {@link GetGatewayResponse}.<br>
+     * If a new session must be started, but the {@link SessionStartLimit} has no session starts remaining, the
+     * connection is delayed until the limit resets. If this gateway is a shard of a {@link ShardManager}, the
+     * {@link ShardManager} takes care of the {@link SessionStartLimit}.
+     * @param getGatewayResponse response of {@link me.linusdev.lapi.api.request.requests.GatewayRequests#getGatewayBot() getGatewayBot()}
+     */
+    @ApiStatus.Internal
+    public void connect(@NotNull GetGatewayResponse getGatewayResponse) {
+        try {
+            SessionStartLimit limit = getGatewayResponse.getSessionStartLimit();
+            if(shardManager != null) {
+                shardManager.updateSessionStartLimit(limit);
+
+            } else if(!canResume.get() && limit.getRemaining() <= 0) {
+                logger.warning("No session starts remaining. Connecting in " + limit.getResetAfter() + " milliseconds.");
+                heartbeatExecutor.schedule(() -> connect(getGatewayResponse), limit.getResetAfter(), TimeUnit.MILLISECONDS);
+                return;
+            }
+
+            connect(getGatewayResponse.getUrl(), false);
+
+        } catch (Exception error) {
+            logger.error(error);
+            if (unexpectedEventHandler != null) unexpectedEventHandler.handleError(lApi, this, error);
+        }
+    }
+
+    /**
+     * Connects to given gateway url.
+     * @param gatewayUrl the url to connect to
+     * @param preConnect {@code true} if the current {@link WebSocket} should be kept open, until the new one has been
+     *                   {@link #onOpen(WebSocket) opened}
+     */
+    private void connect(@NotNull String gatewayUrl, boolean preConnect) {
         try {
             LApiHttpHeader authenticationHeader = lApi.getAuthorizationHeader();
             LApiHttpHeader userAgentHeader = lApi.getUserAgentHeader();
@@ -360,55 +658,49 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
                     .header(authenticationHeader.getName(), authenticationHeader.getValue())
                     .header(userAgentHeader.getName(), userAgentHeader.getValue());
 
-            // If we have no internet connection, LApi will automatically delay this request
-            // until we have internet connection again
-            lApi.getRequestFactory().getGatewayBot().queue((getGatewayResponse, response, error) -> {
-                try {
-                    if (error != null) {
-                        error.log(logger);
-                        if (unexpectedEventHandler != null) unexpectedEventHandler.handleError(lApi, this, error.asThrowable());
-                        return;
-                    }
+            URI uri = new URI(gatewayUrl
+                    + "?" + QUERY_STRING_API_VERSION_KEY + "=" + apiVersion.getVersionNumber()
+                    + "&" + QUERY_STRING_ENCODING_KEY + "=" + encoding.getValue()
+                    + (compression.getValue() != null ? "&" + QUERY_STRING_COMPRESS_KEY + "=" + compression.getValue() : ""));
 
-                    //TODO check session start limit
+            logger.debug("Gateway connecting to " + uri);
 
-                    URI uri = new URI(getGatewayResponse.getUrl()
-                            + "?" + QUERY_STRING_API_VERSION_KEY + "=" + apiVersion.getVersionNumber()
-                            + "&" + QUERY_STRING_ENCODING_KEY + "=" + encoding.getValue()
-                            + (compression.getValue() != null ? "&" + QUERY_STRING_COMPRESS_KEY + "=" + compression.getValue() : ""));
+            final GatewayWebSocket _this = this;
+            pendingConnects.incrementAndGet();
+            if(preConnect) this.replacedWebSocket = this.webSocket;
+            else this.webSocket = null;
 
-                    logger.debug("Gateway connecting to " + uri);
+            builder.buildAsync(uri, this).whenComplete((webSocket, throwable) -> {
 
-                    final GatewayWebSocket _this = this;
-                    pendingConnects.incrementAndGet();
-                    this.webSocket = null;
-                    builder.buildAsync(uri, this).whenComplete((webSocket, throwable) -> {
+                if(throwable != null){
+                    logger.error("Could not build web socket! We will try again");
+                    logger.error(throwable);
 
-                        if(throwable != null){
-                            logger.error("Could not build web socket! We will try again");
-                            logger.error(throwable);
-                            // if this happens, we should have an internet connection, because getGatewayBot worked...
-                            // so let's try again
-                            if(pendingConnects.get() < 4){
-                                start();
-                                return;
-                            }
+                    if(preConnect) {
+                        WebSocket replaced = this.replacedWebSocket;
+                        this.replacedWebSocket = null;
+                        this.webSocket = null;
+                        if(replaced != null) replaced.abort();
+                    }
 
-                            // we already tried 3+ times
-                            if(unexpectedEventHandler != null) unexpectedEventHandler.onFatal(lApi, _this, "The web socket could not be build several times in a row", throwable);
-                            return;
-                        }
+                    //the resume gateway url might not be reachable anymore, the next try will retrieve the gateway url
+                    if(gatewayUrl.equals(resumeGatewayUrl)) resumeGatewayUrl = null;
 
-                        this.webSocket = webSocket;
-                        logger.debug("build async finished");
-                    });
+                    // if this happens, we should have an internet connection, because getGatewayBot worked...
+                    // so let's try again
+                    if(pendingConnects.get() < 4){
+                        start();
+                        return;
+                    }
 
-                } catch (Exception e) {
-                    logger.error(e);
-                    if (unexpectedEventHandler != null) unexpectedEventHandler.handleError(lApi, this, e);
+                    // we already tried 3+ times
+                    if(unexpectedEventHandler != null) unexpectedEventHandler.onFatal(lApi, _this, "The web socket could not be build several times in a row", throwable);
+                    return;
                 }
-            });
 
+                this.webSocket = webSocket;
+                logger.debug("build async finished");
+            });
 
         } catch (Exception error) {
             logger.error(error);
@@ -431,12 +723,34 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
      * Note: {@link GatewayEvent#GUILD_CREATE} must be handled as first event for every guild,
      * otherwise an {@link IllegalStateException} will be thrown.
      *
+     * The time spent handling the payload is recorded in the {@link #getDispatchMetrics() dispatch metrics}.
+     *
+     * @param payload {@link ReceivedPayload}
+     */
+    @ApiStatus.Internal
+    public void handleReceivedEvent(@NotNull ReceivedPayload payload) {
+        long start = dispatchMetrics.onHandleStart(payload);
+        try {
+            handleReceivedEvent(payload.getPayload());
+        } finally {
+            dispatchMetrics.onHandled(payload, start);
+            dispatchEventQueue.onHandled(payload);
+        }
+    }
+
+    /**
+     * Handles given payload without recording it in the {@link #getDispatchMetrics() dispatch metrics}.
      * @param payload {@link GatewayPayloadAbstract}
+     * @see #handleReceivedEvent(ReceivedPayload)
      */
     @ApiStatus.Internal
     public void handleReceivedEvent(@NotNull GatewayPayloadAbstract payload) {
         try {
             @Nullable GatewayEvent type = payload.getType();
+
+            //Nobody is interested in this event: do not parse and decode it
+            if (dispatchEventFilter.canSkip(payload)) return;
+
             @Nullable SOData innerPayload = (SOData) payload.getPayloadData();
 
             if (type == null) {
@@ -1842,6 +2156,11 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
         if(Logger.DEBUG_LOG) logger.debugData("received payload: " + payload.toJsonString(), "payloads");
 
         if (opcode == GatewayOpcode.DISPATCH) {
+            if(checkpointReadyData != null && payload.getType() != GatewayEvent.READY) {
+                //first event of a session resumed from a checkpoint (replayed or RESUMED)
+                restoreCheckpointReady();
+            }
+
             if (payload.getType() == GatewayEvent.READY) {
                 if(Logger.DEBUG_LOG) logger.debug("Received " + payload.getType() + " event");
                 //ready event. we need to save the session id
@@ -1850,10 +2169,26 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
                 ReadyEvent event = ReadyEvent.fromData(lApi, payload, (SOData) payload.getPayloadData());
 
                 this.sessionId = event.getSessionId();
+                this.resumeGatewayUrl = event.getResumeGatewayUrl();
                 this.canResume.set(true);
                 this.pendingConnects.set(0);
 
+                if(checkpointStore != null) {
+                    //a new session has been started. The READY event of a resumed checkpoint is not required anymore
+                    checkpointReadyData = null;
+                    SOData readyData = (SOData) payload.getPayloadData();
+                    heartbeatExecutor.execute(() -> {
+                        try {
+                            checkpointStore.writeReady(readyData);
+                        } catch (IOException e) {
+                            logger.warning("Could not write READY event of the session checkpoint: " + e.getMessage());
+                        }
+                    });
+                }
+
                 if(lApi.getGuildManager() != null) lApi.getGuildManager().onReady(event);
+                //after the guild manager knows the guilds of this shard, so GUILDS_READY cannot occur without them
+                if(shardManager != null) shardManager.onShardReady(shardId);
                 workOnQueueIfPossible();
 
             } else if (payload.getType() == GatewayEvent.RESUMED) {
@@ -1867,12 +2202,14 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
                         + GatewayOpcode.DISPATCH + " but without a type... payload:\n" + payload.toJsonString());
             }
 
-            dispatchEventQueue.push(new ReceivedPayload(payload));
+            ReceivedPayload received = new ReceivedPayload(payload);
+            dispatchMetrics.onReceived(received);
+            if(!dispatchEventQueue.push(received)) dispatchMetrics.onDropped(received);
             //handleReceivedEvent(payload);
 
         } else if (opcode == GatewayOpcode.HEARTBEAT) {
             //Discord requested us to send a Heartbeat
-            sendHeartbeat();
+            sendHeartbeat(false);
 
         } else if (opcode == GatewayOpcode.RECONNECT) {
             //Discord wants us to reconnect and resume
@@ -1909,8 +2246,11 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
 
             this.heartbeatInterval = heartbeatInterval.longValue();
 
+            this.scheduledHeartbeat = 0;
+            this.connectionHeartbeats.set(0);
+            this.connectionHeartbeatAcks.set(0);
             this.heartbeatFuture = heartbeatExecutor.scheduleAtFixedRate(
-                    this::sendHeartbeat, this.heartbeatInterval, this.heartbeatInterval, TimeUnit.MILLISECONDS);
+                    this::sendScheduledHeartbeat, this.heartbeatInterval, this.heartbeatInterval, TimeUnit.MILLISECONDS);
 
 
 
@@ -1919,20 +2259,34 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
                 Resume resume = new Resume(token, sessionId, dispatchEventQueue.getLastSequence());
 
                 GatewayPayload resumePayload = GatewayPayload.newResume(resume);
+                commandScheduler.acquireReserved();
                 sendPayload(resumePayload);
 
             }else{
-                Identify identify = new Identify(token, properties, compression == GatewayCompression.PAYLOAD_COMPRESSION,
-                        largeThreshold, usesSharding ? shardId : null, usesSharding ? numShards : null, selfPresence.getPresenceUpdate(),
-                        GatewayIntent.toInt(intents));
-
-                GatewayPayload identifyPayload = GatewayPayload.newIdentify(identify);
-                sendPayload(identifyPayload);
+                final WebSocket identifyingWebSocket = this.webSocket;
+                Runnable identifyTask = () -> {
+                    //the connection may have been closed, while this identify was scheduled
+                    if(identifyingWebSocket != this.webSocket) return;
+
+                    Identify identify = new Identify(token, properties, compression == GatewayCompression.PAYLOAD_COMPRESSION,
+                            largeThreshold, usesSharding ? shardId : null, usesSharding ? numShards : null, selfPresence.getPresenceUpdate(),
+                            getIdentifyIntents());
+
+                    GatewayPayload identifyPayload = GatewayPayload.newIdentify(identify);
+                    commandScheduler.acquireReserved();
+                    sendPayload(identifyPayload);
+                };
+
+                //Identifies of different shards must respect max_concurrency
+                if(shardManager != null) shardManager.scheduleIdentify(shardId, identifyTask);
+                else identifyTask.run();
             }
 
         } else if (opcode == GatewayOpcode.HEARTBEAT_ACK) {
             //our heartbeat was acknowledged
             heartbeatAcknowledgementsReceived.incrementAndGet();
+            if(connectionHeartbeatAcks.incrementAndGet() == scheduledHeartbeat)
+                heartbeatLatency.record(System.nanoTime() - lastHeartbeatSentNanos);
             if(Logger.DEBUG_LOG) logger.debug(String.format("Heartbeat ack received. Heartbeats sent: %d, acks received: %d"
                     , heartbeatsSent.get(), heartbeatAcknowledgementsReceived.get()));
 
@@ -1970,11 +2324,20 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
     }
 
     /**
-     * Will create a new WebSocket and resume the Session
+     * Will create a new WebSocket and resume the Session. If {@link me.linusdev.lapi.api.config.GatewayConfigBuilder#setPreConnectOnResume(Boolean) pre-connecting}
+     * is enabled and the current {@link WebSocket} is still receiving, the new {@link WebSocket} is opened, before the
+     * current one is closed.
      */
     public void resume() {
         heartbeatFuture.cancel(true);
 
+        String resumeUrl = this.resumeGatewayUrl;
+        if(preConnectOnResume && canResume.get() && resumeUrl != null && webSocket != null && !webSocket.isInputClosed()) {
+            logger.debug("Pre-connecting to resume the session");
+            connect(resumeUrl, true);
+            return;
+        }
+
         if(webSocket.isInputClosed() && webSocket.isOutputClosed()){
             //input and output are both closed
             start();
@@ -2018,14 +2381,17 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
         @NotNull Number heartbeatsSent = (Number) data.getAndRequireNotNull(HEARTBEATS_SENT_KEY, InvalidDataException.SUPPLIER);
         @NotNull  Number heartbeatsAcksReceived = (Number) data.getAndRequireNotNull(HEARTBEAT_ACKNOWLEDGEMENTS_RECEIVED_KEY, InvalidDataException.SUPPLIER);
         @NotNull Number genMillis = (Number) data.getAndRequireNotNull(DATA_GENERATED_TIME_MILLIS_KEY, InvalidDataException.SUPPLIER);
+        @Nullable String resumeGatewayUrl = (String) data.get(RESUME_GATEWAY_URL_KEY);
 
         long timePasted = System.currentTimeMillis() - genMillis.longValue();
 
         logger.debug("going to resume with a " + timePasted / 1000 + " seconds old GatewayResumeData");
 
         this.sessionId = sessionId;
+        this.resumeGatewayUrl = resumeGatewayUrl;
         this.canResume.set(canResume);
         this.dispatchEventQueue = DispatchEventQueue.fromData(dispatchEventQueueData);
+        this.dispatchEventQueue.setBackpressureListener(this::onBackpressure);
         this.heartbeatsSent.set(heartbeatsSent.longValue());
         this.heartbeatAcknowledgementsReceived.set(heartbeatsAcksReceived.longValue());
 
@@ -2044,7 +2410,14 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
             throw new UnsupportedOperationException("cannot disconnect, because you are not connected in the first place");
 
         logger.debug("sending close with reason: " + reason);
-        CompletableFuture<WebSocket> future = webSocket.sendClose(GatewayCloseStatusCode.SEND_CLOSE.getCode(), reason == null ? "" : reason);
+        final WebSocket closingWebSocket = this.webSocket;
+        CompletableFuture<WebSocket> future;
+        synchronized (sendLock) {
+            //payloads, which have been sent before, should reach discord
+            future = lastSend.handle((ws, error) -> null).thenCompose(nothing ->
+                    closingWebSocket.sendClose(GatewayCloseStatusCode.SEND_CLOSE.getCode(), reason == null ? "" : reason));
+            lastSend = future;
+        }
 
         final GatewayWebSocket _this = this;
         future = future.whenComplete((webSocket, error) -> {
@@ -2065,23 +2438,184 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
     protected void resetState(){
         heartbeatFuture.cancel(true);
         webSocket = null;
+        replacedWebSocket = null;
         sessionId = null;
+        resumeGatewayUrl = null;
         canResume.set(false);
 
         dispatchEventQueue.reset();
+        dispatchMetrics.reset();
 
         heartbeatsSent.set(0);
         heartbeatAcknowledgementsReceived.set(0);
     }
 
+    /**
+     * If {@link me.linusdev.lapi.api.config.GatewayConfigBuilder#setAutomaticIntents(Boolean) automatic intents} are
+     * enabled, the intents are calculated from the currently registered listeners. Otherwise the configured intents
+     * are used.
+     * @return the intents to send in the identify
+     */
+    private int getIdentifyIntents() {
+        int identifyIntents = GatewayIntent.toInt(intents);
+
+        if(automaticIntents) {
+            int allowed = intents.length == 0 ? GatewayIntentCalculator.NON_PRIVILEGED_INTENTS : identifyIntents;
+            identifyIntents = GatewayIntentCalculator.calculate(lApi, transmitter.getListenedIdentifiers(), allowed);
+            logger.debug("Identifying with intents " + Arrays.toString(GatewayIntent.fromInt(identifyIntents)));
+        }
+
+        transmitter.onIdentify(identifyIntents);
+        return identifyIntents;
+    }
+
+    /**
+     * Informed by the {@link #dispatchEventQueue}, when it fills up or has been drained again. Reading from the
+     * websocket is paused meanwhile.
+     * @param active {@code true} to pause reading, {@code false} to continue
+     */
+    private void onBackpressure(boolean active) {
+        if(active) readPausedSinceHeartbeat = true;
+        payloadPipeline.setPaused(active);
+    }
+
+    /**
+     * Called every {@link #heartbeatInterval} milliseconds. If the previous scheduled heartbeat has not been acknowledged, the
+     * connection is probably a zombie (e.g. half-open TCP connection), which would not deliver any events until TCP
+     * times out. In this case the connection is closed and {@link #resume() resumed} instead of sending a heartbeat.
+     * This check is suspended, while reading is {@link #onBackpressure(boolean) paused}, because the ACK cannot be
+     * read then.
+     * @see <a href="https://discord.com/developers/docs/topics/gateway#heartbeat-interval-example-heartbeat-ack" target="_top">Heartbeat ACK</a>
+     */
+    protected void sendScheduledHeartbeat() {
+        //the ACK may still be waiting in the socket, if reading has been paused
+        boolean paused = payloadPipeline.isPaused();
+        boolean readPaused = paused || readPausedSinceHeartbeat;
+        readPausedSinceHeartbeat = paused;
+
+        if(!readPaused && connectionHeartbeatAcks.get() < scheduledHeartbeat) {
+            logger.warning("No heartbeat ACK received since the last heartbeat. Connection is probably dead, resuming...");
+            //resume() cancels the heartbeatFuture, which is currently running
+            heartbeatExecutor.execute(this::resume);
+            return;
+        }
+
+        sendHeartbeat(true);
+    }
+
+    /**
+     * Restores the session of the stored {@link SessionCheckpoint}, if it is fresh enough. The gateway will
+     * {@link Resume resume} it, once it has connected.
+     * @param maxAgeMillis max age of the checkpoint
+     */
+    private void loadCheckpoint(long maxAgeMillis) {
+        if(checkpointStore == null) return;
+
+        try {
+            SessionCheckpoint checkpoint = checkpointStore.read();
+            if(checkpoint == null) return;
+
+            if(!checkpoint.isFresh(maxAgeMillis)) {
+                logger.debug("Session checkpoint is too old, starting a new session.");
+                return;
+            }
+
+            if(checkpoint.getShardId() != shardId || checkpoint.getNumShards() != numShards) {
+                logger.debug("Session checkpoint belongs to a different shard, starting a new session.");
+                return;
+            }
+
+            SOData readyData = checkpointStore.readReady();
+            if(readyData == null) return;
+
+            this.sessionId = checkpoint.getSessionId();
+            this.resumeGatewayUrl = checkpoint.getResumeGatewayUrl();
+            this.canResume.set(true);
+            this.dispatchEventQueue.resumeAt(checkpoint.getSequence());
+            this.checkpointReadyData = readyData;
+            logger.debug("Going to resume session from a " + (System.currentTimeMillis() - checkpoint.getCreatedAtMillis()) / 1000 + " seconds old checkpoint.");
+
+        } catch (IOException e) {
+            logger.warning("Could not read session checkpoint, starting a new session: " + e.getMessage());
+        }
+    }
+
+    /**
+     * We resumed a session of a previous process. Our listeners have not received its READY event yet.<br>
+     * The READY event of the {@link SessionCheckpoint} is handled like a received READY event: The guild manager and
+     * the shard manager are informed and the event is added to the {@link #dispatchEventQueue} in front of the
+     * replayed events.
+     */
+    private void restoreCheckpointReady() throws InvalidDataException {
+        SOData readyData = checkpointReadyData;
+        if(readyData == null) return;
+        checkpointReadyData = null;
+        logger.debug("Resumed session from checkpoint, transmitting READY event of the checkpoint");
+
+        GatewayPayload payload = new GatewayPayload(GatewayOpcode.DISPATCH, readyData, null, GatewayEvent.READY, null);
+        ReadyEvent event = ReadyEvent.fromData(lApi, payload, readyData);
+
+        if(lApi.getGuildManager() != null) lApi.getGuildManager().onReady(event);
+        //after the guild manager knows the guilds of this shard, so GUILDS_READY cannot occur without them
+        if(shardManager != null) shardManager.onShardReady(shardId);
+
+        ReceivedPayload received = new ReceivedPayload(payload);
+        dispatchMetrics.onReceived(received);
+        dispatchEventQueue.pushUnsequenced(received);
+    }
+
+    /**
+     * Writes a {@link SessionCheckpoint}, if events have been processed since the last checkpoint. The
+     * {@link DispatchEventQueue#getLastHandledSequence() last handled sequence} of the {@link #dispatchEventQueue} is
+     * stored, so events, which are still in the queue or waiting in the processor, will be sent again after resuming.
+     */
+    private void writeCheckpoint() {
+        String sessionId = this.sessionId;
+        if(checkpointStore == null || sessionId == null || !canResume.get()) return;
+
+        synchronized (checkpointStore) {
+            long sequence = dispatchEventQueue.getLastHandledSequence();
+            if(sequence == lastCheckpointSequence && sessionId.equals(lastCheckpointSessionId)) return;
+
+            try {
+                checkpointStore.write(new SessionCheckpoint(sessionId, resumeGatewayUrl, sequence, shardId, numShards, System.currentTimeMillis()));
+                lastCheckpointSequence = sequence;
+                lastCheckpointSessionId = sessionId;
+            } catch (IOException e) {
+                logger.warning("Could not write session checkpoint: " + e.getMessage());
+            }
+        }
+    }
+
+    private void deleteCheckpoint() {
+        if(checkpointStore == null) return;
+        if(checkpointFuture != null) checkpointFuture.cancel(false);
+
+        synchronized (checkpointStore) {
+            try {
+                checkpointStore.delete();
+            } catch (IOException e) {
+                logger.warning("Could not delete session checkpoint: " + e.getMessage());
+            }
+        }
+    }
+
     /**
      * sends a Heartbeat to discord
+     * @param scheduled {@code true} if this is a periodic heartbeat, {@code false} if Discord requested it
      */
-    protected void sendHeartbeat() {
+    protected void sendHeartbeat(boolean scheduled) {
         long sequence = dispatchEventQueue.getLastSequence();
 
         GatewayPayload payload = GatewayPayload.newHeartbeat(sequence);
         logger.debug("sending heartbeat: sequence=" + sequence);
+        if(!commandScheduler.acquireReserved())
+            logger.warning("Gateway rate limit exceeded by a heartbeat. Discord may close the connection.");
+        long number = connectionHeartbeats.incrementAndGet();
+        if(scheduled) {
+            lastHeartbeatSentNanos = System.nanoTime();
+            scheduledHeartbeat = number;
+        }
         sendPayload(payload).whenComplete((webSocket, throwable) -> {
             if(throwable == null) heartbeatsSent.incrementAndGet();
         });
@@ -2098,7 +2632,16 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
 
         if(Logger.DEBUG_LOG) logger.debug(String.format("Sending Payload. Opcode: %s", payload.getOpcode()));
         if(Logger.DEBUG_LOG) logger.debugData("Sending payload data: " + payload.toJsonString(), "payloads");
-        CompletableFuture<WebSocket> future = webSocket.sendText(payload.toJsonString(), true);
+        final WebSocket sendingWebSocket = this.webSocket;
+        CompletableFuture<WebSocket> future;
+        synchronized (sendLock) {
+            //wait for the previous send to complete, even if it failed
+            future = lastSend.handle((ws, error) -> null).thenCompose(nothing -> {
+                if(encoding == GatewayEncoding.ETF) return sendingWebSocket.sendBinary(EtfEncoder.encode(payload.getData()), true);
+                return sendingWebSocket.sendText(payload.toJsonString(), true);
+            });
+            lastSend = future;
+        }
 
         final GatewayWebSocket _this = this;
         return future.whenComplete((webSocket, error) -> {
@@ -2109,8 +2652,13 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
         });
     }
 
+    /**
+     * Queues given command. Queued commands are sent as fast as the gateway rate limit allows. See
+     * {@link GatewayCommandScheduler} for the order, in which commands are sent.
+     * @param command the command to queue
+     */
     public synchronized void queueCommand(@NotNull GatewayCommand command) {
-        this.commandQueue.add(command);
+        this.commandScheduler.queue(command);
         workOnQueueIfPossible();
     }
 
@@ -2126,12 +2674,31 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
     }
 
     public synchronized void sendNextInCommandQueue() {
-        GatewayCommand cmd = commandQueue.poll();
+        if(webSocket == null || webSocket.isOutputClosed()) {
+            queueWorking.set(false);
+            return;
+        }
+
+        GatewayCommand cmd = commandScheduler.poll();
         if (cmd != null) {
             queueWorking.set(true);
-            sendCommand(cmd.getType(), cmd.getObject());
-        } else {
-            queueWorking.set(false);
+            GatewayPayload payload = new GatewayPayload(cmd.getType().getOpcode(), cmd.getObject(), null, null, null);
+            sendPayload(payload).whenComplete((webSocket, error) -> {
+                if(error != null) cmd.getSentFuture().completeExceptionally(error);
+                else cmd.getSentFuture().complete(null);
+                sendNextInCommandQueue();
+            });
+            return;
+        }
+
+        queueWorking.set(false);
+
+        //the rate limit has been reached. Continue, once the next command may be sent
+        if(commandScheduler.hasQueuedCommands() && !rateLimitWaitScheduled.getAndSet(true)) {
+            heartbeatExecutor.schedule(() -> {
+                rateLimitWaitScheduled.set(false);
+                workOnQueueIfPossible();
+            }, commandScheduler.getWaitMillis(), TimeUnit.MILLISECONDS);
         }
     }
 
@@ -2150,23 +2717,42 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
                     "The GatewayWebSocket will send these commands automatically when required.");
         }
 
-        sendPayload(payload).thenApply(webSocket -> {
-            sendNextInCommandQueue();
-            return null;
-        });
+        sendPayload(payload).whenComplete((webSocket, error) -> sendNextInCommandQueue());
     }
 
 
     @Override
     public synchronized void onOpen(WebSocket webSocket) {
         logger.debug("onOpen");
+        WebSocket replaced = this.replacedWebSocket;
+        this.replacedWebSocket = null;
         this.webSocket = webSocket;
+
+        if(replaced != null && replaced != webSocket) {
+            //pre-connection is open. Events of the replaced connection are ignored from now on and will be sent again
+            //after resuming, because their sequence has not been received
+            logger.debug("Pre-connection opened, closing the replaced connection");
+            replaced.abort();
+        }
+
+        //Discord uses a new zlib context for every connection
+        if(decompressor != null) decompressor.reset();
+        //drop frames of unfinished messages of the previous connection
+        if(etfFrameBuffer != null) etfFrameBuffer.clear();
+        textFrameBuffer.clear();
+        //the rate limit is per connection
+        commandScheduler.onNewConnection();
         WebSocket.Listener.super.onOpen(webSocket);
     }
 
     /**
      *
-     * transmits the raw input to {@link #handleReceivedPayload(GatewayPayloadAbstract)}
+     * transmits the raw input to the {@link #payloadPipeline}, which will parse it and call
+     * {@link #handleReceivedPayload(GatewayPayloadAbstract)}<br>
+     * Frames of a message are collected in the {@link #textFrameBuffer}. If no custom {@link #jsonToPayloadConverter}
+     * is set, the message is parsed directly from the received frame or the {@link #textFrameBuffer}, without creating
+     * a {@link String} of the whole message.<br>
+     * The next message is only requested, if the {@link #payloadPipeline} is not fully occupied.
      */
     @Override
     public synchronized CompletionStage<?> onText(WebSocket webSocket, CharSequence text, boolean last) {
@@ -2175,32 +2761,55 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
             if(webSocket != this.webSocket) return null;
 
             if (!last) {
-                if (currentText == null) {
-                    currentText = text.toString();
-                    return WebSocket.Listener.super.onText(webSocket, text, false);
-                }
-                currentText += text;
+                textFrameBuffer.append(text);
                 return WebSocket.Listener.super.onText(webSocket, text, false);
             }
 
-            if (currentText == null) currentText = text.toString();
-            else currentText += text.toString();
+            //single frame messages do not need to be copied
+            CharSequence message = text;
+            if(!textFrameBuffer.isEmpty()) {
+                textFrameBuffer.append(text);
+                message = textFrameBuffer;
+            }
+
+            GatewayTrafficRecorder recorder = trafficRecorder;
+            if(recorder != null) record(recorder, message, null);
 
-            GatewayPayloadAbstract payload = jsonToPayloadConverter.convert(currentText);
-            handleReceivedPayload(payload);
+            try {
+                if(payloadPipeline.parseInline(message.length())) {
+                    GatewayPayloadAbstract payload = null;
+                    Throwable error = null;
+                    try {
+                        payload = parseText(message);
+                    } catch (Throwable t) {
+                        error = t;
+                    }
+                    payloadPipeline.parsed(webSocket, payload, error);
+
+                } else {
+                    payloadPipeline.submit(webSocket, message, this::parseText);
+                }
+            } finally {
+                textFrameBuffer.clear();
+            }
 
-            currentText = null;
         } catch (Throwable error) {
             logger.error(error);
             if (unexpectedEventHandler != null) unexpectedEventHandler.handleError(lApi, this, error);
         }
 
-        return WebSocket.Listener.super.onText(webSocket, text, false);
+        payloadPipeline.requestNext(webSocket);
+        return null;
     }
 
     /**
      *
-     * transmits the raw input to {@link #handleReceivedPayload(GatewayPayloadAbstract)}
+     * transmits the raw input to the {@link #payloadPipeline}, which will parse it and call
+     * {@link #handleReceivedPayload(GatewayPayloadAbstract)}.<br>
+     * If the built-in {@link GatewayDecompressor} is used, the input will be decompressed first. If no custom
+     * {@link #bytesToPayloadConverter} is set, {@link GatewayEncoding#ETF ETF} messages are decoded by the {@link EtfDecoder}.
+     * Messages for a custom {@link #bytesToPayloadConverter} are always converted on the listener thread.<br>
+     * The next message is only requested, if the {@link #payloadPipeline} is not fully occupied.
      */
     @Override
     public synchronized CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer bytes, boolean last) {
@@ -2208,34 +2817,168 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
 
             if(webSocket != this.webSocket) return null;
 
-            if (!last) {
-                if (currentBytes == null) {
-                    currentBytes = new ArrayList<>();
-                    currentBytes.add(bytes);
-                    return WebSocket.Listener.super.onBinary(webSocket, bytes, last);
+            if(decompressor != null) {
+                if(decompressor.append(bytes, last)) {
+                    onBinaryMessage(webSocket, decompressor.decompress());
                 }
 
+            } else if(etfFrameBuffer != null) {
+                etfFrameBuffer.append(bytes);
+                if(last) {
+                    try {
+                        onBinaryMessage(webSocket, etfFrameBuffer.getMessage());
+                    } finally {
+                        etfFrameBuffer.clear();
+                    }
+                }
+
+            } else {
+                if (currentBytes == null) currentBytes = new ArrayList<>(1);
                 currentBytes.add(bytes);
-                return WebSocket.Listener.super.onBinary(webSocket, bytes, last);
-            }
 
-            if (currentBytes == null) currentBytes = new ArrayList<>(1);
-            currentBytes.add(bytes);
+                if(last) {
+                    GatewayPayloadAbstract payload = null;
+                    Throwable error = null;
+                    try {
+                        payload = bytesToPayloadConverter.convert(currentBytes);
+                    } catch (Throwable t) {
+                        error = t;
+                    }
+                    payloadPipeline.parsed(webSocket, payload, error);
 
-            try {
-                GatewayPayloadAbstract payload = bytesToPayloadConverter.convert(currentBytes);
-                handleReceivedPayload(payload);
-            } catch (Exception e) {
-                logger.error(e);
-                if (unexpectedEventHandler != null) unexpectedEventHandler.handleError(lApi, this, e);
+                    currentBytes.clear();
+                }
             }
 
-            currentBytes.clear();
         } catch (Throwable error) {
             logger.error(error);
             if (unexpectedEventHandler != null) unexpectedEventHandler.handleError(lApi, this, error);
         }
-        return WebSocket.Listener.super.onBinary(webSocket, bytes, last);
+
+        if(!last) return WebSocket.Listener.super.onBinary(webSocket, bytes, false);
+
+        payloadPipeline.requestNext(webSocket);
+        return null;
+    }
+
+    /**
+     * Parses given complete binary message on the listener thread or submits it to the {@link #payloadPipeline}.
+     * @param webSocket the {@link WebSocket} the message was received on
+     * @param message the message between its position and limit. May be reused after this method returned
+     */
+    private void onBinaryMessage(@NotNull WebSocket webSocket, @NotNull ByteBuffer message) {
+        GatewayTrafficRecorder recorder = trafficRecorder;
+        if(recorder != null) record(recorder, null, message);
+
+        if(payloadPipeline.parseInline(message.remaining())) {
+            GatewayPayloadAbstract payload = null;
+            Throwable error = null;
+            try {
+                payload = builtInBytesToPayloadConverter.convert(message);
+            } catch (Throwable t) {
+                error = t;
+            }
+            payloadPipeline.parsed(webSocket, payload, error);
+
+        } else {
+            payloadPipeline.submit(webSocket, message, builtInBytesToPayloadConverter);
+        }
+    }
+
+    /**
+     * Records a complete message. If it cannot be recorded, the recording is stopped.
+     * @param recorder the {@link #trafficRecorder}
+     * @param text the text message or {@code null}
+     * @param binary the binary message or {@code null}
+     */
+    private void record(@NotNull GatewayTrafficRecorder recorder, @Nullable CharSequence text, @Nullable ByteBuffer binary) {
+        try {
+            if(text != null) recorder.recordText(text);
+            else if(binary != null) recorder.recordBinary(binary);
+        } catch (IOException e) {
+            logger.error("Could not record message, stopping traffic recording: " + e.getMessage());
+            stopTrafficRecording();
+        }
+    }
+
+    /**
+     * Releases the native memory of the {@link #decompressor}. Must only be called during the shutdown, because the
+     * decompressor cannot be used afterwards.
+     */
+    private synchronized void endDecompressor() {
+        //synchronized with onBinary, which may still be decompressing a message of the aborted connection
+        if(decompressor != null) decompressor.end();
+    }
+
+    /**
+     * Closes the {@link #trafficRecorder}, if messages are recorded.
+     */
+    private void stopTrafficRecording() {
+        GatewayTrafficRecorder recorder = trafficRecorder;
+        trafficRecorder = null;
+        if(recorder == null) return;
+
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            logger.error("Could not close traffic recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles a message recorded by a {@link GatewayTrafficRecorder} as if it had just been received. Used by the
+     * {@link GatewayTrafficReplayer}. Only {@link GatewayOpcode#DISPATCH DISPATCH} payloads are handled, because all
+     * other payloads require a connection.
+     * @param binary whether it is a binary message or an UTF-8 encoded text message
+     * @param message the complete (decompressed) message
+     * @throws Throwable if the message could not be parsed or handled
+     */
+    @ApiStatus.Internal
+    public void replay(boolean binary, @NotNull ByteBuffer message) throws Throwable {
+        GatewayPayloadAbstract payload = binary ? builtInBytesToPayloadConverter.convert(message)
+                : parseText(StandardCharsets.UTF_8.decode(message));
+
+        if(payload.getOpcode() != GatewayOpcode.DISPATCH) return;
+        handleReceivedPayload(payload);
+    }
+
+    /**
+     * Parses a complete text message with the {@link #jsonToPayloadConverter}.<br>
+     * If no custom {@link #jsonToPayloadConverter} is set, the message is only pre-scanned by the
+     * {@link JsonPayloadScanner}. The event data will be parsed, when it is needed.
+     * @param message the message
+     * @return parsed {@link GatewayPayloadAbstract}
+     */
+    private @NotNull GatewayPayloadAbstract parseText(@NotNull CharSequence message) throws Throwable {
+        if(jsonToPayloadConverter == STANDARD_JSON_TO_PAYLOAD_CONVERTER) {
+            //the payload references the message, so a reused buffer must be handed over
+            CharSequence owned = message instanceof TextFrameBuffer ? ((TextFrameBuffer) message).detach() : message;
+            LazyGatewayPayload payload = JsonPayloadScanner.scan(owned);
+            if(payload != null) return payload;
+            message = owned;
+            return STANDARD_JSON_CHARS_TO_PAYLOAD_CONVERTER.convert(message);
+        }
+        return jsonToPayloadConverter.convert(message.toString());
+    }
+
+    /**
+     * Called by the {@link #payloadPipeline} for every received message in the order they were received (except for
+     * {@link GatewayPayloadPipeline#isFastPath(GatewayOpcode) fast path} payloads). Payloads received on a previous
+     * {@link WebSocket} are ignored.
+     * @param webSocket the {@link WebSocket} the payload was received on
+     * @param payload the parsed payload or {@code null} if parsing failed
+     * @param error the error, if parsing failed
+     */
+    void onPayloadParsed(@NotNull WebSocket webSocket, @Nullable GatewayPayloadAbstract payload, @Nullable Throwable error) {
+        if(webSocket != this.webSocket) return;
+
+        try {
+            if(error != null) throw error;
+            if(payload != null) handleReceivedPayload(payload);
+        } catch (Throwable t) {
+            logger.error(t);
+            if (unexpectedEventHandler != null) unexpectedEventHandler.handleError(lApi, this, t);
+        }
     }
 
     @Override
@@ -2255,7 +2998,8 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
     @Override
     public synchronized CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
         try {
-            if (webSocket != this.webSocket) return null;
+            //a replaced connection may be closed, while the pre-connection is being opened
+            if (webSocket != this.webSocket || webSocket == replacedWebSocket) return null;
             heartbeatFuture.cancel(true);
 
             GatewayCloseStatusCode closeCode = GatewayCloseStatusCode.fromInt(statusCode);
@@ -2295,7 +3039,7 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
 
     @Override
     public void onError(WebSocket webSocket, Throwable error) {
-        if (webSocket != this.webSocket) return;
+        if (webSocket != this.webSocket || webSocket == replacedWebSocket) return;
 
         if(error instanceof SocketException){
             if(error.getMessage().equals("Connection reset")){
@@ -2325,6 +3069,65 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
         this.unexpectedEventHandler = unexpectedEventHandler;
     }
 
+    /**
+     *
+     * @return {@link LatencyHistogram} containing the round trip times of the latest heartbeats
+     */
+    public @NotNull LatencyHistogram getHeartbeatLatency() {
+        return heartbeatLatency;
+    }
+
+    /**
+     *
+     * @return {@link DispatchMetrics} containing the queue wait, handling and listener times of dispatch events and
+     * the current dispatch lag
+     */
+    public @NotNull DispatchMetrics getDispatchMetrics() {
+        return dispatchMetrics;
+    }
+
+    /**
+     *
+     * @return round trip time of the latest acknowledged heartbeat in milliseconds or {@code -1} if no heartbeat has
+     * been acknowledged yet
+     */
+    public double getLastHeartbeatLatencyMillis() {
+        return heartbeatLatency.getLastMillis();
+    }
+
+    /**
+     *
+     * @return scheduler used for heartbeats of this gateway
+     */
+    @ApiStatus.Internal
+    public @NotNull ScheduledExecutorService getScheduler() {
+        return heartbeatExecutor;
+    }
+
+    /**
+     *
+     * @return {@link GatewayCommandScheduler} containing the queued commands of this gateway
+     */
+    public @NotNull GatewayCommandScheduler getCommandScheduler() {
+        return commandScheduler;
+    }
+
+    /**
+     *
+     * @return id of this shard or {@code 0} if sharding is not used
+     */
+    public int getShardId() {
+        return shardId;
+    }
+
+    /**
+     *
+     * @return {@link ShardManager} managing this shard or {@code null} if this gateway is not managed by a {@link ShardManager}
+     */
+    public @Nullable ShardManager getShardManager() {
+        return shardManager;
+    }
+
     /**
      *
      * @return the {@link SelfUserPresenceUpdater} bound to this Gateway
@@ -2340,9 +3143,10 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
 
     @Override
     public SOData getData() {
-        SOData data = SOData.newOrderedDataWithKnownSize(6);
+        SOData data = SOData.newOrderedDataWithKnownSize(7);
 
         data.add(SESSION_ID_KEY, sessionId);
+        data.add(RESUME_GATEWAY_URL_KEY, resumeGatewayUrl);
         data.add(CAN_RESUME_KEY, canResume.get());
         data.add(DISPATCH_EVENT_QUEUE_KEY, dispatchEventQueue);
         data.add(HEARTBEATS_SENT_KEY, heartbeatsSent.get());
@@ -2362,10 +3166,34 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
                 if(ShutdownOptions.GATEWAY_ABORT.isSet(shutdownOptions)) {
                     log.info("Gateway aborting...");
                     abort();
+                    //the session is still valid and can be resumed by the next process
+                    if(checkpointFuture != null) checkpointFuture.cancel(false);
+                    writeCheckpoint();
+                    payloadPipeline.shutdown();
+                    dispatchEventProcessor.shutdown();
+                    stopTrafficRecording();
+                    endDecompressor();
                     return new ComputationResult<>(Nothing.getInstance(), parent, null);
                 }
 
+                //send the latest presence, if an update is still being coalesced, before the connection is closed
+                selfPresence.flush();
+                GatewayCommand presence;
+                synchronized (GatewayWebSocket.this) {
+                    //commands polled from the queue have already been passed to sendPayload(), which the close waits for
+                    presence = commandScheduler.peek(GatewayCommandScheduler.Lane.PRESENCE);
+                }
+                if(presence != null) {
+                    try {
+                        presence.getSentFuture().get(Math.max(shutdownBy - System.currentTimeMillis() - 300, 0), TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException | ExecutionException e) {
+                        log.warning("Could not send the latest presence before disconnecting.");
+                    }
+                }
+
                 CompletableFuture<WebSocket> f = disconnect(null);
+                //the close invalidates the session
+                deleteCheckpoint();
 
                 try {
                     long remainingTime = shutdownBy - System.currentTimeMillis() - 150;
@@ -2382,6 +3210,11 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
                 } catch (ExecutionException e) {
                     return new ComputationResult<>(Nothing.getInstance(), parent, new ThrowableError(e));
 
+                } finally {
+                    payloadPipeline.shutdown();
+                    dispatchEventProcessor.shutdown();
+                    stopTrafficRecording();
+                    endDecompressor();
                 }
 
                 return new ComputationResult<>(Nothing.getInstance(), parent, null);
@@ -2395,6 +3228,7 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
     public void shutdownNow(@NotNull LApiImpl lApi, @NotNull LogInstance log, @NotNull Executor shutdownExecutor) {
         shutdownExecutor.execute(() -> {
             try {
+                deleteCheckpoint();
                 disconnect(null).get(100, TimeUnit.MILLISECONDS);
             } catch (InterruptedException ignored) {
             } catch (ExecutionException e) {
@@ -2402,6 +3236,11 @@ public class GatewayWebSocket implements WebSocket.Listener, HasLApi, Datable, S
                 log.error(e);
             } catch (TimeoutException e) {
                 log.error(this.getShutdownableName() + " could not shutdown immediately.");
+            } finally {
+                payloadPipeline.shutdown();
+                dispatchEventProcessor.shutdownNow();
+                stopTrafficRecording();
+                endDecompressor();
             }
         });
 
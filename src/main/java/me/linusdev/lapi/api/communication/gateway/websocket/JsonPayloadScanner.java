@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.websocket;
+
+import me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent;
+import me.linusdev.lapi.api.communication.gateway.enums.GatewayOpcode;
+import me.linusdev.lapi.api.communication.gateway.other.GatewayPayload;
+import me.linusdev.lapi.api.communication.gateway.other.LazyGatewayPayload;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ *     Pre-scans a received json payload. Only the top level fields {@link GatewayPayload#OPCODE_KEY op},
+ *     {@link GatewayPayload#SEQUENCE_KEY s} and {@link GatewayPayload#TYPE_KEY t} are decoded. The
+ *     {@link GatewayPayload#DATA_KEY d} field is only skipped. The {@link LazyGatewayPayload} keeps a reference to the
+ *     json and the offsets of the {@link GatewayPayload#DATA_KEY d} field, so nothing is copied until the event data is
+ *     parsed. While skipping it, its top level field containing the guild id is read (see
+ *     {@link GatewayWebSocket#getGuildIdKey(GatewayEvent)}).
+ * </p>
+ * <p>
+ *     The scan does not validate the json. If it encounters something unexpected, {@link #scan(CharSequence)} returns
+ *     {@code null} and the payload should be parsed completely instead.
+ * </p>
+ */
+@ApiStatus.Internal
+public class JsonPayloadScanner {
+
+    private final @NotNull CharSequence json;
+    private final int length;
+    private int pos;
+
+    private JsonPayloadScanner(@NotNull CharSequence json) {
+        this.json = json;
+        this.length = json.length();
+        this.pos = 0;
+    }
+
+    /**
+     *
+     * @param json complete json of a received payload. It is referenced by the returned payload until its event data
+     *             has been parsed and must therefore not be changed afterwards. See {@link TextFrameBuffer#detach()}
+     * @return {@link LazyGatewayPayload} or {@code null} if the pre-scan failed
+     */
+    public static @Nullable LazyGatewayPayload scan(@NotNull CharSequence json) {
+        try {
+            return new JsonPayloadScanner(json).scanPayload();
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private @Nullable LazyGatewayPayload scanPayload() {
+        if(next() != '{') return null;
+
+        Integer op = null;
+        Long s = null;
+        String t = null;
+        int dStart = -1, dEnd = -1;
+
+        skipWhitespace();
+        if(json.charAt(pos) == '}') return null;
+
+        while (true) {
+            if(next() != '"') return null;
+            String key = readString();
+            if(next() != ':') return null;
+            skipWhitespace();
+
+            int start = pos;
+            if(!skipValue()) return null;
+            int end = pos;
+
+            switch (key) {
+                case GatewayPayload.OPCODE_KEY:
+                    op = Integer.parseInt(json, start, end, 10);
+                    break;
+                case GatewayPayload.SEQUENCE_KEY:
+                    if(!isNull(start, end)) s = Long.parseLong(json, start, end, 10);
+                    break;
+                case GatewayPayload.TYPE_KEY:
+                    if(!isNull(start, end)) {
+                        if(json.charAt(start) != '"') return null;
+                        pos = start + 1;
+                        t = readString();
+                        pos = end;
+                    }
+                    break;
+                case GatewayPayload.DATA_KEY:
+                    dStart = start;
+                    dEnd = end;
+                    break;
+            }
+
+            char c = next();
+            if(c == '}') break;
+            if(c != ',') return null;
+        }
+
+        if(op == null) return null;
+
+        GatewayEvent type = GatewayEvent.fromString(t);
+        String guildId = null;
+        if(dStart != -1 && isNull(dStart, dEnd)) {
+            dStart = -1;
+        } else if(dStart != -1 && json.charAt(dStart) == '{') {
+            pos = dStart;
+            guildId = scanGuildId(GatewayWebSocket.getGuildIdKey(type));
+        }
+
+        return new LazyGatewayPayload(GatewayOpcode.fromValue(op), dStart == -1 ? null : json, dStart, dEnd, s,
+                type, guildId);
+    }
+
+    /**
+     * Reads the top level field containing the guild id of the object starting at {@link #pos}.
+     * @param guildIdKey key of the field, see {@link GatewayWebSocket#getGuildIdKey(GatewayEvent)}
+     * @return guild id or {@code null} if there is no such field or it is not a string
+     */
+    private @Nullable String scanGuildId(@NotNull String guildIdKey) {
+        if(next() != '{') return null;
+        skipWhitespace();
+        if(json.charAt(pos) == '}') return null;
+
+        while (true) {
+            if(next() != '"') return null;
+            String key = readString();
+            if(next() != ':') return null;
+            skipWhitespace();
+
+            if(guildIdKey.equals(key)) {
+                if(json.charAt(pos) != '"') return null;
+                pos++;
+                return readString();
+            }
+
+            if(!skipValue()) return null;
+
+            char c = next();
+            if(c != ',') return null;
+        }
+    }
+
+    /**
+     * Skips whitespace and returns the next char.
+     */
+    private char next() {
+        skipWhitespace();
+        return json.charAt(pos++);
+    }
+
+    private void skipWhitespace() {
+        while (pos < length) {
+            char c = json.charAt(pos);
+            if(c != ' ' && c != '\n' && c != '\r' && c != '\t') return;
+            pos++;
+        }
+    }
+
+    private boolean isNull(int start, int end) {
+        return end - start == 4 && json.charAt(start) == 'n';
+    }
+
+    /**
+     * Reads a string. {@link #pos} must be after the opening quote and will be after the closing quote afterwards.
+     */
+    private @NotNull String readString() {
+        int start = pos;
+        StringBuilder escaped = null;
+
+        while (true) {
+            char c = json.charAt(pos++);
+            if(c == '"') {
+                if(escaped == null) return json.subSequence(start, pos - 1).toString();
+                return escaped.toString();
+            }
+
+            if(c == '\\') {
+                if(escaped == null) escaped = new StringBuilder().append(json, start, pos - 1);
+                char e = json.charAt(pos++);
+                switch (e) {
+                    case 'b': escaped.append('\b'); break;
+                    case 'f': escaped.append('\f'); break;
+                    case 'n': escaped.append('\n'); break;
+                    case 'r': escaped.append('\r'); break;
+                    case 't': escaped.append('\t'); break;
+                    case 'u':
+                        escaped.append((char) Integer.parseInt(json, pos, pos + 4, 16));
+                        pos += 4;
+                        break;
+                    default: escaped.append(e);
+                }
+
+            } else if(escaped != null) {
+                escaped.append(c);
+            }
+        }
+    }
+
+    /**
+     * Skips the value starting at {@link #pos}.
+     * @return {@code false} if the value is not valid
+     */
+    private boolean skipValue() {
+        char c = json.charAt(pos);
+
+        if(c == '"') {
+            pos++;
+            skipString();
+            return true;
+        }
+
+        if(c == '{' || c == '[') {
+            int depth = 0;
+            while (true) {
+                c = json.charAt(pos++);
+                if(c == '"') skipString();
+                else if(c == '{' || c == '[') depth++;
+                else if(c == '}' || c == ']') {
+                    if(--depth == 0) return true;
+                }
+            }
+        }
+
+        //number, true, false or null
+        int start = pos;
+        while (pos < length) {
+            c = json.charAt(pos);
+            if(c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t') break;
+            pos++;
+        }
+        return pos > start;
+    }
+
+    /**
+     * {@link #pos} must be after the opening quote and will be after the closing quote afterwards.
+     */
+    private void skipString() {
+        while (true) {
+            char c = json.charAt(pos++);
+            if(c == '\\') pos++;
+            else if(c == '"') return;
+        }
+    }
+}
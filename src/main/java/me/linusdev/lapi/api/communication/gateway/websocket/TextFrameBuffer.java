@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package me.linusdev.lapi.api.communication.gateway.websocket;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * <p>
+ *     Collects the frames of a text websocket message into a single {@code char[]}.
+ *     The array is reused for every message and only grows if a message does not fit. This replaces
+ *     concatenating {@link String Strings}, which copies all previously received frames for every new frame.
+ * </p>
+ * <p>
+ *     If a message was larger than {@link #MAX_RETAINED_CAPACITY}, the array is shrunk back to its initial
+ *     capacity on {@link #clear()}, so a single huge message (for example a GUILD_CREATE of a very large guild)
+ *     does not keep its memory for the whole connection.
+ * </p>
+ * <p>
+ *     The collected message can be read without creating a {@link String} using a {@link CharSequenceReader}.
+ * </p>
+ * <p>
+ *     This class is not thread safe.
+ * </p>
+ */
+@ApiStatus.Internal
+public class TextFrameBuffer implements CharSequence {
+
+    public static final int DEFAULT_INITIAL_CAPACITY = 16 * 1024;
+    public static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+    private static final char @NotNull [] NO_CHARS = new char[0];
+
+    private final int initialCapacity;
+    private char @NotNull [] chars;
+    private int length;
+
+    /**
+     * @param initialCapacity initial capacity in chars
+     */
+    public TextFrameBuffer(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.chars = new char[initialCapacity];
+        this.length = 0;
+    }
+
+    /**
+     * Copies given frame to the end of this buffer.
+     * @param frame the received frame
+     */
+    public void append(@NotNull CharSequence frame) {
+        int frameLength = frame.length();
+        int minCapacity = length + frameLength;
+
+        if(chars.length < minCapacity) {
+            int newCapacity = Math.max(chars.length, initialCapacity);
+            while (newCapacity < minCapacity) newCapacity *= 2;
+            chars = Arrays.copyOf(chars, newCapacity);
+        }
+
+        if(frame instanceof String) {
+            ((String) frame).getChars(0, frameLength, chars, length);
+        } else {
+            for(int i = 0; i < frameLength; i++) chars[length + i] = frame.charAt(i);
+        }
+
+        length = minCapacity;
+    }
+
+    /**
+     * Copies chars of this buffer into given array.
+     * @see String#getChars(int, int, char[], int)
+     */
+    public void getChars(int srcBegin, int srcEnd, char @NotNull [] dst, int dstBegin) {
+        if(srcBegin < 0 || srcEnd > length || srcBegin > srcEnd) throw new IndexOutOfBoundsException();
+        System.arraycopy(chars, srcBegin, dst, dstBegin, srcEnd - srcBegin);
+    }
+
+    /**
+     * Clears this buffer. The capacity is kept, unless it is larger than {@link #MAX_RETAINED_CAPACITY}.
+     */
+    public void clear() {
+        length = 0;
+        if(chars.length > MAX_RETAINED_CAPACITY) chars = new char[initialCapacity];
+    }
+
+    /**
+     * Hands the collected message over without copying it. The buffer is empty afterwards and allocates a new array
+     * with the next {@link #append(CharSequence)}. Used if the message is still referenced after the buffer would have
+     * been reused (for example by a {@link me.linusdev.lapi.api.communication.gateway.other.LazyGatewayPayload
+     * LazyGatewayPayload}).
+     * @return the collected message. Not affected by later changes of this buffer
+     */
+    public @NotNull CharBuffer detach() {
+        CharBuffer message = CharBuffer.wrap(chars, 0, length);
+        chars = NO_CHARS;
+        length = 0;
+        return message;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public int getCapacity() {
+        return chars.length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if(index < 0 || index >= length) throw new IndexOutOfBoundsException(index);
+        return chars[index];
+    }
+
+    @Override
+    public @NotNull CharSequence subSequence(int start, int end) {
+        if(start < 0 || end > length || start > end) throw new IndexOutOfBoundsException();
+        return new String(chars, start, end - start);
+    }
+
+    /**
+     *
+     * @return the collected message as {@link String}. This copies the whole message.
+     */
+    @Override
+    public @NotNull String toString() {
+        return new String(chars, 0, length);
+    }
+}
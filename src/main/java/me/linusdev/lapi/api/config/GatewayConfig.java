@@ -30,6 +30,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 
 /**
@@ -54,8 +55,16 @@ public class GatewayConfig {
     private final @NotNull GatewayWebSocket.UnexpectedEventHandler unexpectedEventHandler;
     private final int dispatchEventQueueSize;
     private final @NotNull DispatchEventProcessorFactory dispatchEventProcessorFactory;
-
-    public GatewayConfig(@NotNull ApiVersion ApiVersion, @NotNull GatewayEncoding encoding, @NotNull GatewayCompression compression, @NotNull String os, int largeThreshold, @Nullable Integer shardId, @Nullable Integer numShards, @NotNull SelfUserPresenceUpdater startupPresence, @NotNull GatewayIntent[] intents, @NotNull ExceptionConverter<String, GatewayPayloadAbstract, ? extends Throwable> jsonToPayloadConverter, @Nullable ExceptionConverter<ArrayList<ByteBuffer>, GatewayPayloadAbstract, ? extends Throwable> etfToPayloadConverter, GatewayWebSocket.UnexpectedEventHandler unexpectedEventHandler, int dispatchEventQueueSize, @NotNull DispatchEventProcessorFactory dispatchEventProcessorFactory) {
+    private final int payloadParserThreadCount;
+    private final int maxPayloadsInFlight;
+    private final @Nullable Path sessionCheckpointFile;
+    private final long sessionCheckpointInterval;
+    private final long sessionCheckpointMaxAge;
+    private final boolean automaticIntents;
+    private final @Nullable Path trafficRecordingFile;
+    private final boolean preConnectOnResume;
+
+    public GatewayConfig(@NotNull ApiVersion ApiVersion, @NotNull GatewayEncoding encoding, @NotNull GatewayCompression compression, @NotNull String os, int largeThreshold, @Nullable Integer shardId, @Nullable Integer numShards, @NotNull SelfUserPresenceUpdater startupPresence, @NotNull GatewayIntent[] intents, @NotNull ExceptionConverter<String, GatewayPayloadAbstract, ? extends Throwable> jsonToPayloadConverter, @Nullable ExceptionConverter<ArrayList<ByteBuffer>, GatewayPayloadAbstract, ? extends Throwable> etfToPayloadConverter, GatewayWebSocket.UnexpectedEventHandler unexpectedEventHandler, int dispatchEventQueueSize, @NotNull DispatchEventProcessorFactory dispatchEventProcessorFactory, int payloadParserThreadCount, int maxPayloadsInFlight, @Nullable Path sessionCheckpointFile, long sessionCheckpointInterval, long sessionCheckpointMaxAge, boolean automaticIntents, @Nullable Path trafficRecordingFile, boolean preConnectOnResume) {
         this.apiVersion = ApiVersion;
         this.encoding = encoding;
         this.compression = compression;
@@ -71,6 +80,14 @@ public class GatewayConfig {
         this.unexpectedEventHandler = unexpectedEventHandler;
         this.dispatchEventQueueSize = dispatchEventQueueSize;
         this.dispatchEventProcessorFactory = dispatchEventProcessorFactory;
+        this.payloadParserThreadCount = payloadParserThreadCount;
+        this.maxPayloadsInFlight = maxPayloadsInFlight;
+        this.sessionCheckpointFile = sessionCheckpointFile;
+        this.sessionCheckpointInterval = sessionCheckpointInterval;
+        this.sessionCheckpointMaxAge = sessionCheckpointMaxAge;
+        this.automaticIntents = automaticIntents;
+        this.trafficRecordingFile = trafficRecordingFile;
+        this.preConnectOnResume = preConnectOnResume;
     }
 
     public @NotNull ApiVersion getApiVersion() {
@@ -136,4 +153,36 @@ public class GatewayConfig {
     public @NotNull DispatchEventProcessorFactory getDispatchEventProcessorFactory() {
         return dispatchEventProcessorFactory;
     }
+
+    public int getPayloadParserThreadCount() {
+        return payloadParserThreadCount;
+    }
+
+    public int getMaxPayloadsInFlight() {
+        return maxPayloadsInFlight;
+    }
+
+    public @Nullable Path getSessionCheckpointFile() {
+        return sessionCheckpointFile;
+    }
+
+    public long getSessionCheckpointInterval() {
+        return sessionCheckpointInterval;
+    }
+
+    public long getSessionCheckpointMaxAge() {
+        return sessionCheckpointMaxAge;
+    }
+
+    public boolean isAutomaticIntents() {
+        return automaticIntents;
+    }
+
+    public @Nullable Path getTrafficRecordingFile() {
+        return trafficRecordingFile;
+    }
+
+    public boolean isPreConnectOnResume() {
+        return preConnectOnResume;
+    }
 }
@@ -21,7 +21,6 @@ import me.linusdev.data.functions.ExceptionConverter;
 import me.linusdev.data.so.SOData;
 import me.linusdev.lapi.api.communication.ApiVersion;
 import me.linusdev.lapi.api.exceptions.InvalidDataException;
-import me.linusdev.lapi.api.exceptions.LApiRuntimeException;
 import me.linusdev.lapi.api.communication.gateway.abstracts.GatewayPayloadAbstract;
 import me.linusdev.lapi.api.communication.gateway.enums.GatewayIntent;
 import me.linusdev.lapi.api.communication.gateway.identify.Identify;
@@ -32,10 +31,12 @@ import me.linusdev.lapi.api.communication.gateway.queue.processor.SingleThreadDi
 import me.linusdev.lapi.api.communication.gateway.websocket.GatewayCompression;
 import me.linusdev.lapi.api.communication.gateway.websocket.GatewayEncoding;
 import me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket;
+import me.linusdev.lapi.api.exceptions.LApiRuntimeException;
 import me.linusdev.lapi.api.lapi.LApi;
 import org.jetbrains.annotations.*;
 
 import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Objects;
 import java.util.function.Consumer;
@@ -57,6 +58,10 @@ public class GatewayConfigBuilder implements Datable {
     public static final String INTENTS_KEY = "intents";
 
     public static final int DEFAULT_DISPATCH_EVENT_QUEUE_SIZE = 200;
+    public static final int DEFAULT_PAYLOAD_PARSER_THREAD_COUNT = 1;
+    public static final int DEFAULT_MAX_PAYLOADS_IN_FLIGHT = 4;
+    public static final long DEFAULT_SESSION_CHECKPOINT_INTERVAL_MILLIS = 5_000L;
+    public static final long DEFAULT_SESSION_CHECKPOINT_MAX_AGE_MILLIS = 60_000L;
 
     private ApiVersion apiVersion = null;
     private GatewayEncoding encoding = null;
@@ -72,6 +77,14 @@ public class GatewayConfigBuilder implements Datable {
     private GatewayWebSocket.UnexpectedEventHandler unexpectedEventHandler = null;
     private Integer dispatchEventQueueSize = null;
     private DispatchEventProcessorFactory dispatchEventProcessorFactory = null;
+    private Integer payloadParserThreadCount = null;
+    private Integer maxPayloadsInFlight = null;
+    private Path sessionCheckpointFile = null;
+    private Long sessionCheckpointInterval = null;
+    private Long sessionCheckpointMaxAge = null;
+    private Boolean automaticIntents = null;
+    private Path trafficRecordingFile = null;
+    private Boolean preConnectOnResume = null;
 
     public GatewayConfigBuilder() {
         this.startupPresence = new SelfUserPresenceUpdater(false);
@@ -155,8 +168,9 @@ public class GatewayConfigBuilder implements Datable {
      * Sets the {@link GatewayEncoding encoding} the {@link GatewayWebSocket gateway} should use.
      * </p>
      * <p>
-     * I recommend to let this be default. If you change this to {@link GatewayEncoding#ETF}, you will also
-     * have to add a {@link #setBytesToPayloadConverter(ExceptionConverter)}.
+     * {@link GatewayEncoding#ETF} is decoded and encoded by LApi itself. ETF payloads are smaller and faster to
+     * parse. Big integers (snowflakes are sent as such) are decoded as {@link String}, like in json.
+     * You can still add a custom {@link #setBytesToPayloadConverter(ExceptionConverter)}.
      * </p>
      * <p>
      * Set to {@code null} to use default
@@ -176,10 +190,9 @@ public class GatewayConfigBuilder implements Datable {
      * Sets the {@link GatewayCompression compression} the {@link GatewayWebSocket gateway} should use.
      * </p>
      * <p>
-     * I recommend to let this be default. If you change this to {@link GatewayCompression#ZLIB_STREAM} or
-     * {@link GatewayCompression#PAYLOAD_COMPRESSION} you will have to set a
-     * {@link #setJsonToPayloadConverter(ExceptionConverter) json-to-payload converter}
-     * and a {@link #setBytesToPayloadConverter(ExceptionConverter) bytes-to-payload converter}.
+     * {@link GatewayCompression#ZLIB_STREAM} and {@link GatewayCompression#PAYLOAD_COMPRESSION} are decompressed
+     * by LApi, unless a {@link #setBytesToPayloadConverter(ExceptionConverter) bytes-to-payload converter} is set.
+     * {@link GatewayCompression#ZLIB_STREAM} greatly reduces the received traffic.
      * </p>
      * <p>
      * Set to {@code null} to use default
@@ -237,6 +250,10 @@ public class GatewayConfigBuilder implements Datable {
      * Set to {@code null} to use default
      * </p>
      *
+     * <p>
+     * If only {@link #setNumShards(Integer) numShards} is set, but no shardId, LApi will run all shards itself.
+     * </p>
+     *
      * @param shardId shardId for this {@link GatewayWebSocket gateway}
      */
     public GatewayConfigBuilder setShardId(@Nullable Integer shardId) {
@@ -254,6 +271,12 @@ public class GatewayConfigBuilder implements Datable {
      * Set to {@code null} to use default
      * </p>
      *
+     * <p>
+     * If numShards is set, but no {@link #setShardId(Integer) shardId}, LApi will run all shards in this process using
+     * a {@link me.linusdev.lapi.api.communication.gateway.sharding.ShardManager ShardManager}. All shards share the
+     * same http client, request queue, cache and event listeners.
+     * </p>
+     *
      * @param numShards see <a href="https://discord.com/developers/docs/topics/gateway#sharding" target="_top">sharding</a>
      */
     public GatewayConfigBuilder setNumShards(@Nullable Integer numShards) {
@@ -347,6 +370,9 @@ public class GatewayConfigBuilder implements Datable {
     /**
      * <em>Optional / Not Recommended</em><br>
      * Default: {@code null}
+     * <p>
+     * If this is {@code null}, LApi will decompress binary messages itself, if a {@link GatewayCompression} is set.
+     * </p>
      *
      * @param bytesToPayloadConverter the converter to convert from bytes to a payload
      */
@@ -373,8 +399,10 @@ public class GatewayConfigBuilder implements Datable {
      * <em>Optional</em><br>
      * Default: {@link #DEFAULT_DISPATCH_EVENT_QUEUE_SIZE}
      * <p>
-     * The size of the dispatch event queue. If there are too many events for you to handle,
-     * they will be stored in the dispatch event queue.
+     * The initial size of the dispatch event queue. If there are too many events for you to handle,
+     * they will be stored in the dispatch event queue. The queue grows if required. Once
+     * {@link me.linusdev.lapi.api.communication.gateway.queue.DispatchEventQueue#DEFAULT_BACKPRESSURE_THRESHOLD DEFAULT_BACKPRESSURE_THRESHOLD}
+     * events are waiting, no further messages are read from the gateway, until the queue has been drained to half of it.
      * </p>
      * <p>
      * Set to {@code null} to use default
@@ -394,6 +422,12 @@ public class GatewayConfigBuilder implements Datable {
      * The Factory for the {@link DispatchEventProcessor}
      * </p>
      * <p>
+     * The default processor handles all events in a single thread. To handle events of different guilds in parallel
+     * use {@link me.linusdev.lapi.api.communication.gateway.queue.processor.GuildParallelDispatchEventProcessor#factory(int)
+     * GuildParallelDispatchEventProcessor.factory(laneCount)}. To only cache the guilds received after a READY event in
+     * parallel use {@link SingleThreadDispatchEventProcessor#factory(int) SingleThreadDispatchEventProcessor.factory(hydrationThreadCount)}.
+     * </p>
+     * <p>
      * Set to {@code null} to use default
      * </p>
      *
@@ -404,6 +438,187 @@ public class GatewayConfigBuilder implements Datable {
         return this;
     }
 
+    /**
+     * <em>Optional</em><br>
+     * Default: {@link #DEFAULT_PAYLOAD_PARSER_THREAD_COUNT}
+     * <p>
+     * The count of threads, which parse large received messages. Small messages (like heartbeat acknowledgements)
+     * are always parsed on the websocket listener thread.
+     * </p>
+     * <p>
+     * Set to {@code 0} to parse all messages on the websocket listener thread.
+     * Set to {@code null} to use default
+     * </p>
+     *
+     * @param payloadParserThreadCount count of parser threads
+     */
+    public GatewayConfigBuilder setPayloadParserThreadCount(@Nullable Integer payloadParserThreadCount) {
+        this.payloadParserThreadCount = payloadParserThreadCount;
+        return this;
+    }
+
+    /**
+     * <em>Optional</em><br>
+     * Default: {@link #DEFAULT_MAX_PAYLOADS_IN_FLIGHT}
+     * <p>
+     * The max count of received messages, which are parsed at the same time. If this count is reached, no further
+     * messages are requested from the websocket until a message has been parsed.
+     * </p>
+     * <p>
+     * Set to {@code null} to use default
+     * </p>
+     *
+     * @param maxPayloadsInFlight max count of messages being parsed
+     */
+    public GatewayConfigBuilder setMaxPayloadsInFlight(@Nullable Integer maxPayloadsInFlight) {
+        this.maxPayloadsInFlight = maxPayloadsInFlight;
+        return this;
+    }
+
+    /**
+     * <em>Optional</em><br>
+     * Default: {@code null}
+     * <p>
+     * If set, the state of the gateway session is periodically written to given file. When the gateway is started
+     * again with a {@link #setSessionCheckpointMaxAge(Long) fresh} checkpoint (e.g. after a restart of your bot), it will
+     * resume the session instead of identifying. The {@link me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent#READY READY}
+     * event is restored from the checkpoint, but no {@link me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent#GUILD_CREATE GUILD_CREATE}
+     * events will be received for the guilds. That is why sessions are only resumed from a checkpoint, if
+     * {@link ConfigFlag#CACHE_GUILDS CACHE_GUILDS} is not set.
+     * </p>
+     * <p>
+     * The session can only be resumed, if the gateway was shut down with {@link me.linusdev.lapi.api.lapi.shutdown.ShutdownOptions#GATEWAY_ABORT GATEWAY_ABORT}
+     * or the process did not shut down the gateway at all. A normal shutdown closes the session and deletes the checkpoint.
+     * If sharding is used, every shard uses its own file with the suffix {@code -shard<shardId>}.
+     * </p>
+     * <p>
+     * Set to {@code null} to disable session checkpoints
+     * </p>
+     *
+     * @param sessionCheckpointFile file to store the checkpoint in
+     */
+    public GatewayConfigBuilder setSessionCheckpointFile(@Nullable Path sessionCheckpointFile) {
+        this.sessionCheckpointFile = sessionCheckpointFile;
+        return this;
+    }
+
+    /**
+     * <em>Optional</em><br>
+     * Default: {@link #DEFAULT_SESSION_CHECKPOINT_INTERVAL_MILLIS}
+     * <p>
+     * Interval in milliseconds in which the session checkpoint is written. A checkpoint is only written, if
+     * events have been processed since the last one.
+     * </p>
+     * <p>
+     * Set to {@code null} to use default
+     * </p>
+     *
+     * @param sessionCheckpointInterval interval in milliseconds
+     * @see #setSessionCheckpointFile(Path)
+     */
+    public GatewayConfigBuilder setSessionCheckpointInterval(@Nullable Long sessionCheckpointInterval) {
+        this.sessionCheckpointInterval = sessionCheckpointInterval;
+        return this;
+    }
+
+    /**
+     * <em>Optional</em><br>
+     * Default: {@link #DEFAULT_SESSION_CHECKPOINT_MAX_AGE_MILLIS}
+     * <p>
+     * Max age in milliseconds of a session checkpoint, which will be resumed on startup. Older checkpoints are ignored
+     * and a new session is started.
+     * </p>
+     * <p>
+     * Set to {@code null} to use default
+     * </p>
+     *
+     * @param sessionCheckpointMaxAge max age in milliseconds
+     * @see #setSessionCheckpointFile(Path)
+     */
+    public GatewayConfigBuilder setSessionCheckpointMaxAge(@Nullable Long sessionCheckpointMaxAge) {
+        this.sessionCheckpointMaxAge = sessionCheckpointMaxAge;
+        return this;
+    }
+
+    /**
+     * <em>Optional</em><br>
+     * Default: {@code false}
+     * <p>
+     * If enabled, the intents sent in the identify are calculated from the listeners registered at the
+     * {@link me.linusdev.lapi.api.communication.gateway.events.transmitter.EventTransmitter EventTransmitter} and the
+     * enabled cache {@link me.linusdev.lapi.api.config.ConfigFlag flags}. Only intents, which are required to receive
+     * the events listened to, are sent. This reduces the amount of events Discord sends to the bot.
+     * </p>
+     * <p>
+     * The {@link #addIntent(GatewayIntent...) added intents} are then the intents, which may be used. If no intents were
+     * added, all non-{@link GatewayIntent#isPrivileged() privileged} intents may be used. A warning is logged for
+     * every listened event, which cannot be received with the calculated intents.
+     * </p>
+     * <p>
+     * The intents are calculated every time the gateway identifies. Listeners should be added before the gateway
+     * connects, listeners added afterwards will only be considered on the next identify.
+     * </p>
+     * <p>
+     * Set to {@code null} to use default
+     * </p>
+     *
+     * @param automaticIntents whether to calculate the intents from the listeners
+     */
+    public GatewayConfigBuilder setAutomaticIntents(@Nullable Boolean automaticIntents) {
+        this.automaticIntents = automaticIntents;
+        return this;
+    }
+
+    /**
+     * <em>Optional</em><br>
+     * Default: {@code null}
+     * <p>
+     * If set, every message received by the gateway is recorded to given file by a
+     * {@link me.linusdev.lapi.api.communication.gateway.record.GatewayTrafficRecorder GatewayTrafficRecorder}. The file
+     * is overwritten every time the gateway is created. It can be replayed without a connection by a
+     * {@link me.linusdev.lapi.api.communication.gateway.record.GatewayTrafficReplayer GatewayTrafficReplayer}, for example
+     * to benchmark your listeners with real traffic. Messages for a custom {@link #setBytesToPayloadConverter(ExceptionConverter)
+     * bytes to payload converter} are not recorded.
+     * If sharding is used, every shard uses its own file with the suffix {@code -shard<shardId>}.
+     * </p>
+     * <p>
+     * The recording contains all data Discord sends to the bot, including messages of users. Make sure to store it safely.
+     * </p>
+     * <p>
+     * Set to {@code null} to disable recording
+     * </p>
+     *
+     * @param trafficRecordingFile file to record to
+     */
+    public GatewayConfigBuilder setTrafficRecordingFile(@Nullable Path trafficRecordingFile) {
+        this.trafficRecordingFile = trafficRecordingFile;
+        return this;
+    }
+
+    /**
+     * <em>Optional</em><br>
+     * Default: {@code true}
+     * <p>
+     * If enabled, the gateway opens the new connection before closing the old one, when it resumes a session (for
+     * example after Discord requested a reconnect). Events are received on the old connection until the new one is
+     * open. This hides the time required to open the connection.
+     * </p>
+     * <p>
+     * Sessions are always resumed using the {@code resume_gateway_url} received in the
+     * {@link me.linusdev.lapi.api.communication.gateway.events.ready.ReadyEvent ReadyEvent}, without retrieving the
+     * gateway url again.
+     * </p>
+     * <p>
+     * Set to {@code null} to use default
+     * </p>
+     *
+     * @param preConnectOnResume whether to open the new connection before closing the old one
+     */
+    public GatewayConfigBuilder setPreConnectOnResume(@Nullable Boolean preConnectOnResume) {
+        this.preConnectOnResume = preConnectOnResume;
+        return this;
+    }
+
     /**
      * builds a {@link GatewayConfig}
      *
@@ -420,8 +635,6 @@ public class GatewayConfigBuilder implements Datable {
 
         if (jsonToPayloadConverter == null)
             jsonToPayloadConverter = GatewayWebSocket.STANDARD_JSON_TO_PAYLOAD_CONVERTER;
-        if (bytesToPayloadConverter == null && compression != GatewayCompression.NONE)
-            throw new LApiRuntimeException("compression is set to " + compression + ", but no etfToPayloadConverter is given!");
 
         if (unexpectedEventHandler == null) unexpectedEventHandler = GatewayWebSocket.STANDARD_UNEXPECTED_EVENT_HANDLER;
 
@@ -430,10 +643,31 @@ public class GatewayConfigBuilder implements Datable {
         if(dispatchEventProcessorFactory == null)
             dispatchEventProcessorFactory = SingleThreadDispatchEventProcessor::new;
 
+        if(payloadParserThreadCount == null) payloadParserThreadCount = DEFAULT_PAYLOAD_PARSER_THREAD_COUNT;
+        if(maxPayloadsInFlight == null) maxPayloadsInFlight = DEFAULT_MAX_PAYLOADS_IN_FLIGHT;
+        if(sessionCheckpointInterval == null) sessionCheckpointInterval = DEFAULT_SESSION_CHECKPOINT_INTERVAL_MILLIS;
+        if(sessionCheckpointMaxAge == null) sessionCheckpointMaxAge = DEFAULT_SESSION_CHECKPOINT_MAX_AGE_MILLIS;
+        if(automaticIntents == null) automaticIntents = false;
+        if(preConnectOnResume == null) preConnectOnResume = true;
+
+        if(numShards != null && numShards < 1)
+            throw new LApiRuntimeException("numShards must be at least 1.");
+        if(shardId != null && (numShards == null || shardId < 0 || shardId >= numShards))
+            throw new LApiRuntimeException("shardId must be between 0 and numShards - 1.");
+
+        if(payloadParserThreadCount < 0)
+            throw new LApiRuntimeException("payloadParserThreadCount must not be negative.");
+        if(maxPayloadsInFlight < 1)
+            throw new LApiRuntimeException("maxPayloadsInFlight must be at least 1.");
+        if(sessionCheckpointInterval < 1)
+            throw new LApiRuntimeException("sessionCheckpointInterval must be at least 1.");
+
         return new GatewayConfig(apiVersion, encoding, compression, os, largeThreshold, shardId,
                 numShards, startupPresence, intents.toArray(new GatewayIntent[0]), jsonToPayloadConverter,
                 bytesToPayloadConverter, unexpectedEventHandler, dispatchEventQueueSize,
-                dispatchEventProcessorFactory);
+                dispatchEventProcessorFactory, payloadParserThreadCount, maxPayloadsInFlight,
+                sessionCheckpointFile, sessionCheckpointInterval, sessionCheckpointMaxAge, automaticIntents,
+                trafficRecordingFile, preConnectOnResume);
     }
 
 
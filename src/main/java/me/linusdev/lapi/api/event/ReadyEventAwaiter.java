@@ -19,6 +19,7 @@ package me.linusdev.lapi.api.event;
 import me.linusdev.lapi.api.communication.gateway.events.Event;
 import me.linusdev.lapi.api.communication.gateway.events.transmitter.AnyEventListener;
 import me.linusdev.lapi.api.communication.gateway.events.transmitter.EventIdentifier;
+import me.linusdev.lapi.api.communication.gateway.sharding.ShardManager;
 import me.linusdev.lapi.api.lapi.LApi;
 import me.linusdev.lapi.api.lapi.LApiImpl;
 import org.jetbrains.annotations.NotNull;
@@ -31,9 +32,11 @@ import java.util.function.BiConsumer;
 public class ReadyEventAwaiter implements AnyEventListener {
 
 
+    private final @NotNull LApiImpl lApi;
     private final Map<EventIdentifier, EventAwaiter> events;
 
     public ReadyEventAwaiter(@NotNull LApiImpl lApi) {
+        this.lApi = lApi;
         this.events = new ConcurrentHashMap<>();
 
         for(EventIdentifier identifier : EventIdentifier.READY_EVENTS) {
@@ -73,6 +76,12 @@ public class ReadyEventAwaiter implements AnyEventListener {
 
     @Override
     public void onEvent(@NotNull LApi lApi, @NotNull Event event, @NotNull EventIdentifier identifier) {
+        if(identifier == EventIdentifier.READY) {
+            //with multiple shards, READY is only ready once every shard received it
+            ShardManager shardManager = this.lApi.getShardManager();
+            if(shardManager != null && !shardManager.allShardsReady()) return;
+        }
+
         final EventAwaiter awaiter = events.get(identifier);
         if(awaiter != null) {
             awaiter.trigger();
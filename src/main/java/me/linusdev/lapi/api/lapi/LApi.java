@@ -37,6 +37,7 @@ import me.linusdev.lapi.api.exceptions.LApiRuntimeException;
 import me.linusdev.lapi.api.exceptions.NoInternetException;
 import me.linusdev.lapi.api.communication.gateway.events.transmitter.AbstractEventTransmitter;
 import me.linusdev.lapi.api.communication.gateway.presence.SelfUserPresenceUpdater;
+import me.linusdev.lapi.api.communication.gateway.sharding.ShardManager;
 import me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket;
 import me.linusdev.lapi.api.communication.http.request.IllegalRequestMethodException;
 import me.linusdev.lapi.api.communication.http.request.LApiHttpRequest;
@@ -254,9 +255,18 @@ public interface LApi extends HasLApi {
     /**
      *
      * @return {@link GatewayWebSocket} or {@code null} if {@link ConfigFlag#ENABLE_GATEWAY ENABLE_GATEWAY} is not enabled.
+     * If a {@link ShardManager} is used, this is the shard with id 0.
      */
     GatewayWebSocket getGateway();
 
+    /**
+     *
+     * @return {@link ShardManager} or {@code null} if {@link ConfigFlag#ENABLE_GATEWAY ENABLE_GATEWAY} is not enabled or
+     * this {@link LApi} does not run all shards itself
+     * (see {@link me.linusdev.lapi.api.config.GatewayConfigBuilder#setNumShards(Integer) setNumShards(Integer)}).
+     */
+    @Nullable ShardManager getShardManager();
+
     /**
      *
      * @return {@link Cache} or {@code null} if {@link ConfigFlag#BASIC_CACHE} is not enabled.
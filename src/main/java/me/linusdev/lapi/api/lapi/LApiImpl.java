@@ -28,6 +28,7 @@ import me.linusdev.lapi.api.communication.gateway.events.transmitter.AbstractEve
 import me.linusdev.lapi.api.communication.gateway.events.transmitter.EventIdentifier;
 import me.linusdev.lapi.api.communication.gateway.events.transmitter.EventTransmitter;
 import me.linusdev.lapi.api.communication.gateway.presence.SelfUserPresenceUpdater;
+import me.linusdev.lapi.api.communication.gateway.sharding.ShardManager;
 import me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket;
 import me.linusdev.lapi.api.communication.http.queue.QueueThread;
 import me.linusdev.lapi.api.communication.http.request.IllegalRequestMethodException;
@@ -122,6 +123,7 @@ public class LApiImpl implements LApi {
     //Gateway
     @NotNull final EventTransmitter eventTransmitter;
     @Nullable final GatewayWebSocket gateway;
+    @Nullable final ShardManager shardManager;
 
     //Executor
     private final ScheduledExecutorService supervisedRunnableExecutor;
@@ -227,9 +229,18 @@ public class LApiImpl implements LApi {
 
         //Gateway
         if(config.isFlagSet(ConfigFlag.ENABLE_GATEWAY)){
-            this.gateway = new GatewayWebSocket(this, eventTransmitter, config);
-            gateway.start();
+            if(config.getGatewayConfig().getShardId() == null && config.getGatewayConfig().getNumShards() != null) {
+                //run all shards in this LApi
+                this.shardManager = new ShardManager(this, eventTransmitter, config);
+                this.gateway = shardManager.getShard(0);
+                shardManager.start();
+            } else {
+                this.shardManager = null;
+                this.gateway = new GatewayWebSocket(this, eventTransmitter, config);
+                gateway.start();
+            }
         }else{
+            this.shardManager = null;
             this.gateway = null;
         }
 
@@ -460,6 +471,9 @@ public class LApiImpl implements LApi {
             shutdownNow();
         }
 
+        //the gateway does not transmit events anymore. Let the listeners process the queued ones
+        eventTransmitter.shutdownListenerExecutors(shutdownBy - 100);
+
         supervisedRunnableExecutor.shutdownNow();
         try {
             long remaining = Shutdownable.calcRemainingShutdownTime(shutdownBy, 50);
@@ -504,6 +518,8 @@ public class LApiImpl implements LApi {
            shutdownable.shutdownNow(this, log, executor);
         }
 
+        eventTransmitter.shutdownListenerExecutors(0L);
+
         synchronized (isShutdown) {
             isShutdown.set(true);
         }
@@ -570,6 +586,11 @@ public class LApiImpl implements LApi {
         return gateway;
     }
 
+    @Override
+    public @Nullable ShardManager getShardManager() {
+        return shardManager;
+    }
+
     @Override
     public @Nullable Cache getCache() {
         return cache;
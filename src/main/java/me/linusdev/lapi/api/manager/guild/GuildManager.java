@@ -39,11 +39,29 @@ public interface GuildManager extends GuildPool, Manager {
      * or a
      * {@link me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent#GUILD_DELETE GUILD_DELETE}
      * , {@code false} otherwise
+     * <p>
+     * This is checked for every dispatch event, until all guilds are ready. It should therefore not iterate over all guilds.
+     * </p>
      *
      * @return boolean as specified above
      */
     boolean allGuildsReceivedEvent();
 
+    /**
+     * Whether given guild has not yet received a
+     * {@link me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent#GUILD_CREATE GUILD_CREATE} or
+     * {@link me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent#GUILD_DELETE GUILD_DELETE} after the
+     * last {@link #onReady(ReadyEvent) ready event}. Events of such a guild are postponed by the
+     * {@link me.linusdev.lapi.api.communication.gateway.queue.processor.DispatchEventProcessor DispatchEventProcessor}.
+     *
+     * @param guildId the id of the guild
+     * @return {@code true} if given guild is still awaiting its first event
+     */
+    default boolean isAwaitingEvent(@Nullable String guildId) {
+        CachedGuildImpl guild = getUpdatableGuildById(guildId);
+        return guild != null && guild.isAwaitingEvent();
+    }
+
     /**
      * Ready event to init guilds as unavailable(Note: they are probably not unavailable, they just always start of as unavailable).
      * If a guild actually is unavailable, it will receive a
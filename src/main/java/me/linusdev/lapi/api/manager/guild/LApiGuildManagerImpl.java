@@ -20,30 +20,70 @@ import me.linusdev.data.so.SOData;
 import me.linusdev.lapi.api.exceptions.InvalidDataException;
 import me.linusdev.lapi.api.communication.gateway.abstracts.GatewayPayloadAbstract;
 import me.linusdev.lapi.api.communication.gateway.events.ready.ReadyEvent;
+import me.linusdev.lapi.api.communication.gateway.events.transmitter.AbstractEventTransmitter;
+import me.linusdev.lapi.api.communication.gateway.events.transmitter.EventTransmitter;
 import me.linusdev.lapi.api.communication.gateway.update.Update;
 import me.linusdev.lapi.api.communication.gateway.websocket.GatewayWebSocket;
 import me.linusdev.lapi.api.lapi.LApi;
 import me.linusdev.lapi.api.lapi.LApiImpl;
 import me.linusdev.lapi.api.objects.guild.*;
+import me.linusdev.lapi.log.LogInstance;
+import me.linusdev.lapi.log.Logger;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Iterator;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Standard implementation of {@link GuildManager}
+ * <p>
+ *     The guilds, which are still awaiting their first event after a {@link ReadyEvent}, are counted, so
+ *     {@link #allGuildsReceivedEvent()} does not have to iterate over all guilds. Guilds, which did not receive an
+ *     event within {@link #DEFAULT_AWAIT_EVENT_TIMEOUT} milliseconds after the last {@link ReadyEvent}, are no longer awaited.
+ * </p>
  */
 public class LApiGuildManagerImpl implements GuildManager {
 
+    /**
+     * 60 seconds
+     */
+    public static final long DEFAULT_AWAIT_EVENT_TIMEOUT = 60_000L;
+
     private final @NotNull LApiImpl lApi;
+    private final @NotNull LogInstance logger;
     private boolean initialized = false;
 
     private @Nullable ConcurrentHashMap<String, CachedGuildImpl> guilds;
 
-    public LApiGuildManagerImpl(@NotNull LApiImpl lApi){
+    /**
+     * ids of all guilds, which did not receive a GUILD_CREATE or GUILD_DELETE since the last {@link ReadyEvent}
+     */
+    private final @NotNull Set<String> awaitingGuilds;
+    private final @NotNull AtomicInteger awaitingEventCount;
+    private final long awaitEventTimeout;
+    private volatile long awaitEventDeadline;
+
+    /**
+     *
+     * @param lApi {@link LApiImpl}
+     * @param awaitEventTimeout time in milliseconds after the last {@link ReadyEvent}, after which guilds, which did not
+     *                          receive an event yet, are no longer awaited
+     */
+    public LApiGuildManagerImpl(@NotNull LApiImpl lApi, long awaitEventTimeout){
         this.lApi = lApi;
+        this.logger = Logger.getLogger(this);
+        this.awaitingGuilds = ConcurrentHashMap.newKeySet();
+        this.awaitingEventCount = new AtomicInteger(0);
+        this.awaitEventTimeout = awaitEventTimeout;
+        this.awaitEventDeadline = System.nanoTime();
+    }
 
+    public LApiGuildManagerImpl(@NotNull LApiImpl lApi){
+        this(lApi, DEFAULT_AWAIT_EVENT_TIMEOUT);
     }
 
     @Override
@@ -61,10 +101,28 @@ public class LApiGuildManagerImpl implements GuildManager {
     @Override
     public void onReady(@NotNull ReadyEvent event){
         if(guilds == null) throw new UnsupportedOperationException("init() not yet called!");
+        awaitEventDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(awaitEventTimeout);
         for(UnavailableGuild uGuild : event.getGuilds()){
             CachedGuildImpl guild = CachedGuildImpl.fromUnavailableGuild(lApi, uGuild);
             guilds.put(guild.getId(), guild);
+            if(awaitingGuilds.add(guild.getId())) awaitingEventCount.incrementAndGet();
         }
+
+        if(awaitingEventCount.get() > 0) {
+            //The GUILDS_READY event must also occur, if no event is received after the timeout
+            lApi.runSupervised(() -> {
+                AbstractEventTransmitter transmitter = lApi.getEventTransmitter();
+                if(transmitter instanceof EventTransmitter) ((EventTransmitter) transmitter).checkGuildsReady();
+            }, awaitEventTimeout + 1);
+        }
+    }
+
+    /**
+     * Must be called, when given guild received a GUILD_CREATE or GUILD_DELETE.
+     * @param guildId the id of the guild
+     */
+    private void receivedEvent(@Nullable String guildId) {
+        if(guildId != null && awaitingGuilds.remove(guildId)) awaitingEventCount.decrementAndGet();
     }
 
     @Override
@@ -74,27 +132,33 @@ public class LApiGuildManagerImpl implements GuildManager {
         SOData guildData = (SOData) payload.getPayloadData();
 
         String guildId = (String) guildData.get(GuildImpl.ID_KEY);
-        CachedGuildImpl guild = guilds.get(guildId);
-        if(guild == null) {
-            //Current user joined a new guild
-            guild = CachedGuildImpl.fromData(lApi, guildData);
-            guilds.put(guildId, guild);
-            return new GatewayWebSocket.OnGuildCreateReturn(guild, true, false);
+        try {
+            CachedGuildImpl guild = guilds.get(guildId);
+            if(guild == null) {
+                //Current user joined a new guild
+                guild = CachedGuildImpl.fromData(lApi, guildData);
+                guilds.put(guildId, guild);
+                return new GatewayWebSocket.OnGuildCreateReturn(guild, true, false);
 
-        }
+            }
 
-        //This guild is available or became available
+            //This guild is available or became available
 
-        if(guild.isAwaitingEvent()){
-            //guild is available
-            guild.updateSelfByData(guildData);
-            return new GatewayWebSocket.OnGuildCreateReturn(guild, false, false);
+            if(guild.isAwaitingEvent()){
+                //guild is available
+                guild.updateSelfByData(guildData);
+                return new GatewayWebSocket.OnGuildCreateReturn(guild, false, false);
 
-        } else {
-            //guild became available.... event!
-            guild.updateSelfByData(guildData);
-            return new GatewayWebSocket.OnGuildCreateReturn(guild, false, true);
+            } else {
+                //guild became available.... event!
+                guild.updateSelfByData(guildData);
+                return new GatewayWebSocket.OnGuildCreateReturn(guild, false, true);
 
+            }
+        } finally {
+            //only after the guild has been cached completely, it is no longer awaited.
+            //GUILD_CREATE events may be handled in parallel, the GUILDS_READY event must wait for all of them
+            receivedEvent(guildId);
         }
     }
 
@@ -103,6 +167,7 @@ public class LApiGuildManagerImpl implements GuildManager {
         if(guilds == null) throw new UnsupportedOperationException("init() not yet called!");
         if(payload.getPayloadData() == null) throw new InvalidDataException((SOData) payload.getPayloadData(), "GuildImpl data is missing!");
         UnavailableGuild uGuild = UnavailableGuild.fromData((SOData) payload.getPayloadData());
+        receivedEvent(uGuild.getId());
 
         if(uGuild.getUnavailable() == null) {
             //The unavailable field is not set, this means
@@ -141,13 +206,29 @@ public class LApiGuildManagerImpl implements GuildManager {
     @Override
     public boolean allGuildsReceivedEvent(){
         if(guilds == null) throw new UnsupportedOperationException("init() not yet called!");
-        for(CachedGuildImpl guild : guilds.values()){
-            if(guild.isAwaitingEvent()) return false;
+        if(awaitingEventCount.get() <= 0) return true;
+        if(System.nanoTime() - awaitEventDeadline < 0) return false;
+
+        //timeout: stop waiting for the remaining guilds
+        int timedOut = 0;
+        for(String guildId : awaitingGuilds) {
+            if(awaitingGuilds.remove(guildId)) {
+                awaitingEventCount.decrementAndGet();
+                timedOut++;
+            }
         }
 
+        if(timedOut > 0)
+            logger.warning(timedOut + " guilds did not receive a GUILD_CREATE or GUILD_DELETE within "
+                    + awaitEventTimeout + " milliseconds. They are no longer awaited.");
         return true;
     }
 
+    @Override
+    public boolean isAwaitingEvent(@Nullable String guildId) {
+        return guildId != null && awaitingGuilds.contains(guildId);
+    }
+
     @Override
     public @Nullable Guild getGuildById(@Nullable String guildId) {
         if(guilds == null) throw new UnsupportedOperationException("init() not yet called!");
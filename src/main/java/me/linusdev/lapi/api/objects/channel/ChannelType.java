@@ -18,6 +18,7 @@ package me.linusdev.lapi.api.objects.channel;
 
 import me.linusdev.data.SimpleDatable;
 import me.linusdev.lapi.api.objects.enums.SimpleChannelType;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import me.linusdev.lapi.api.objects.permission.Permission;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -146,6 +147,8 @@ public enum ChannelType implements SimpleDatable {
         return simpleChannelType;
     }
 
+    private static final IntEnumTable<ChannelType> VALUE_TABLE = new IntEnumTable<>(values(), ChannelType::getId, UNKNOWN);
+
     /**
      * Converts from id to {@link ChannelType}
      *
@@ -153,9 +156,7 @@ public enum ChannelType implements SimpleDatable {
      * @return {@link ChannelType} with given id or {@link #UNKNOWN} if no such {@link ChannelType} exists
      */
     public static @NotNull ChannelType fromId(int id) {
-        for (ChannelType type : ChannelType.values())
-            if (type.getId() == id) return type;
-        return UNKNOWN;
+        return VALUE_TABLE.get(id);
     }
 
     @Contract("null -> null; !null -> !null")
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.command;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -53,17 +54,15 @@ public enum ApplicationCommandType implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<ApplicationCommandType> VALUE_TABLE = new IntEnumTable<>(values(), t -> t.value, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link ApplicationCommandType} matching given value or {@link #UNKNOWN} if none matches
      */
     public static @NotNull ApplicationCommandType fromValue(int value){
-        for(ApplicationCommandType type : ApplicationCommandType.values()){
-            if(type.value == value) return type;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
@@ -22,6 +22,7 @@ import me.linusdev.lapi.api.exceptions.InvalidDataException;
 import me.linusdev.lapi.api.lapi.LApi;
 import me.linusdev.lapi.api.objects.attachment.Attachment;
 import me.linusdev.lapi.api.objects.channel.Channel;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import me.linusdev.lapi.api.objects.role.Role;
 import me.linusdev.lapi.api.objects.user.User;
 import me.linusdev.lapi.api.other.LApiConverter;
@@ -122,17 +123,15 @@ public final class ApplicationCommandOptionType<C, R, E extends InvalidDataExcep
         this.converter = converter;
     }
 
+    private static final IntEnumTable<ApplicationCommandOptionType<?, ?, ?>> VALUE_TABLE = new IntEnumTable<>(values, t -> t.value, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link ApplicationCommandOptionType} matching given value or {@link #UNKNOWN} if none matches
      */
     public static @NotNull ApplicationCommandOptionType<?, ?, ?> fromValue(int value){
-        for(ApplicationCommandOptionType<?, ?, ?> type : values){
-            if(type.value == value) return type;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public R convertValue(LApi lApi, C convertible) throws E {
@@ -24,6 +24,7 @@ import me.linusdev.lapi.api.objects.component.actionrow.ActionRow;
 import me.linusdev.lapi.api.objects.component.button.Button;
 import me.linusdev.lapi.api.objects.component.selectmenu.SelectMenu;
 import me.linusdev.lapi.api.objects.component.textinput.TextInput;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -140,17 +141,15 @@ public enum ComponentType implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<ComponentType> VALUE_TABLE = new IntEnumTable<>(values(), t -> t.value, UNKNOWN);
+
     /**
      *
      * @param value to get corresponding {@link ComponentType}
      * @return {@link ComponentType} matching given value or {@link #UNKNOWN} if none matches
      */
     public static @NotNull ComponentType fromValue(int value){
-        for(ComponentType type : ComponentType.values()){
-            if(type.value == value) return type;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
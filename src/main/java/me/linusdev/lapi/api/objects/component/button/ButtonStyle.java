@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.component.button;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -68,17 +69,15 @@ public enum ButtonStyle implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<ButtonStyle> VALUE_TABLE = new IntEnumTable<>(values(), s -> s.value, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return corresponding {@link ButtonStyle} or {@link #UNKNOWN} if none matches
      */
     public static @NotNull ButtonStyle fromValue(int value){
-        for(ButtonStyle style : ButtonStyle.values()){
-            if(style.value == value) return style;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     @Override
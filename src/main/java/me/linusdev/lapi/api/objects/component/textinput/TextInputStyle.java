@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.component.textinput;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 public enum TextInputStyle implements SimpleDatable {
@@ -40,14 +41,10 @@ public enum TextInputStyle implements SimpleDatable {
         this.value = value;
     }
 
-    public static @NotNull TextInputStyle fromValue(int value) {
-
-        for(TextInputStyle style : TextInputStyle.values()) {
-            if(style.value == value)
-                return style;
-        }
+    private static final IntEnumTable<TextInputStyle> VALUE_TABLE = new IntEnumTable<>(values(), s -> s.value, UNKNOWN);
 
-        return UNKNOWN;
+    public static @NotNull TextInputStyle fromValue(int value) {
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
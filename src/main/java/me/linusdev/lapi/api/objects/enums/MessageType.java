@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.enums;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import me.linusdev.lapi.api.objects.permission.Permission;
 import org.jetbrains.annotations.NotNull;
 
@@ -88,16 +89,14 @@ public enum MessageType implements SimpleDatable {
         return deletable;
     }
 
+    private static final IntEnumTable<MessageType> VALUE_TABLE = new IntEnumTable<>(values(), MessageType::getValue, DEFAULT);
+
     /**
      * @param value {@link #getValue() value} of any {@link MessageType}.
      * @return {@link MessageType} with given value or {@link #DEFAULT} if no such {@link MessageType} exists.
      */
     public static @NotNull MessageType fromValue(int value){
-        for(MessageType type : MessageType.values()){
-            if(type.getValue() == value)
-                return type;
-        }
-        return DEFAULT;
+        return VALUE_TABLE.get(value);
     }
 
     @Override
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package me.linusdev.lapi.api.objects.enums.lookup;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>
+ *     Maps int values received from Discord to the corresponding constants in constant time. Replaces looping over
+ *     all {@code values()} of an enum on every decode.
+ * </p>
+ * <p>
+ *     If the values lie in a small range, they are stored in an array indexed by {@code value - min}. Otherwise a
+ *     {@link HashMap} is used. If several constants have the same value, the first one wins, just like a linear
+ *     search would.
+ * </p>
+ * <p>
+ *     Instances are immutable and thread safe.
+ * </p>
+ * @param <E> type of the constants
+ * @see StringEnumTable
+ */
+@ApiStatus.Internal
+public class IntEnumTable<E> {
+
+    /**
+     * Max size of the array. If the values span a larger range, a {@link HashMap} is used.
+     */
+    public static final int MAX_ARRAY_SIZE = 1024;
+
+    private final @Nullable E fallback;
+
+    private final int min;
+    private final @Nullable Object[] array;
+    private final @Nullable HashMap<Integer, E> map;
+
+    /**
+     *
+     * @param values all constants, usually {@code values()}
+     * @param value function returning the int value of a constant
+     * @param fallback returned by {@link #get(int)}, if no constant has the requested value
+     */
+    public IntEnumTable(@NotNull E @NotNull [] values, @NotNull ToIntFunction<E> value, @Nullable E fallback) {
+        this.fallback = fallback;
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for(E e : values) {
+            int v = value.applyAsInt(e);
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+
+        if(values.length > 0 && (long) max - (long) min < MAX_ARRAY_SIZE) {
+            this.min = min;
+            this.array = new Object[max - min + 1];
+            this.map = null;
+
+            for(E e : values) {
+                int index = value.applyAsInt(e) - min;
+                if(array[index] == null) array[index] = e;
+            }
+
+        } else {
+            this.min = 0;
+            this.array = null;
+            this.map = new HashMap<>(values.length * 2);
+
+            for(E e : values) {
+                map.putIfAbsent(value.applyAsInt(e), e);
+            }
+        }
+    }
+
+    /**
+     *
+     * @param value the int value
+     * @return the first constant with given value or the fallback if there is no such constant
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int value) {
+        if(array != null) {
+            int index = value - min;
+            if(index < 0 || index >= array.length) return fallback;
+            E e = (E) array[index];
+            return e == null ? fallback : e;
+        }
+
+        //noinspection ConstantConditions
+        E e = map.get(value);
+        return e == null ? fallback : e;
+    }
+}
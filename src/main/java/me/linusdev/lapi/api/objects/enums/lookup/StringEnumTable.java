@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package me.linusdev.lapi.api.objects.enums.lookup;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * <p>
+ *     Maps String values received from Discord to the corresponding constants in constant time. Replaces looping over
+ *     all {@code values()} of an enum and comparing every value on every decode.
+ * </p>
+ * <p>
+ *     If the lookup ignores case, the exact value is looked up first, because Discord sends the values exactly as
+ *     documented. Only if that fails, the lower case value is looked up. Constants with a {@code null} value cannot be
+ *     looked up. If several constants have the same value, the first one wins, just like a linear search would.
+ * </p>
+ * <p>
+ *     Instances are immutable and thread safe.
+ * </p>
+ * @param <E> type of the constants
+ * @see IntEnumTable
+ */
+@ApiStatus.Internal
+public class StringEnumTable<E> {
+
+    private final @Nullable E fallback;
+    private final @NotNull HashMap<String, E> map;
+    private final @Nullable HashMap<String, E> lowerCaseMap;
+
+    /**
+     *
+     * @param values all constants, usually {@code values()}
+     * @param value function returning the String value of a constant
+     * @param fallback returned by {@link #get(String)}, if no constant has the requested value
+     * @param ignoreCase whether the case of the values should be ignored
+     */
+    public StringEnumTable(@NotNull E @NotNull [] values, @NotNull Function<E, String> value, @Nullable E fallback,
+                           boolean ignoreCase) {
+        this.fallback = fallback;
+        this.map = new HashMap<>(values.length * 2);
+        this.lowerCaseMap = ignoreCase ? new HashMap<>(values.length * 2) : null;
+
+        for(E e : values) {
+            String v = value.apply(e);
+            if(v == null) continue;
+            map.putIfAbsent(v, e);
+            if(lowerCaseMap != null) lowerCaseMap.putIfAbsent(v.toLowerCase(Locale.ROOT), e);
+        }
+    }
+
+    /**
+     *
+     * @param value the String value
+     * @return the first constant with given value or the fallback if there is no such constant
+     */
+    public E get(@NotNull String value) {
+        E e = map.get(value);
+        if(e != null) return e;
+
+        if(lowerCaseMap != null) {
+            e = lowerCaseMap.get(value.toLowerCase(Locale.ROOT));
+            if(e != null) return e;
+        }
+
+        return fallback;
+    }
+}
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.guild.enums;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 
 /**
  * @see <a href="https://discord.com/developers/docs/resources/guild#guild-object-explicit-content-filter-level" target="_top">Explicit Content Filter Level</a>
@@ -50,17 +51,15 @@ public enum ExplicitContentFilterLevel implements SimpleDatable {
         this.integer = integer;
     }
 
+    private static final IntEnumTable<ExplicitContentFilterLevel> VALUE_TABLE = new IntEnumTable<>(values(), l -> l.integer, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link ExplicitContentFilterLevel} matching given value or {@link #UNKNOWN} if none matches
      */
     public static ExplicitContentFilterLevel fromValue(int value){
-        for(ExplicitContentFilterLevel level : ExplicitContentFilterLevel.values()){
-            if(level.integer == value) return level;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.guild.enums;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.StringEnumTable;
 import me.linusdev.lapi.api.objects.permission.Permission;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -185,14 +186,12 @@ public enum GuildFeature implements SimpleDatable {
         this(value, false, null);
     }
 
+    private static final StringEnumTable<GuildFeature> VALUE_TABLE = new StringEnumTable<>(values(), f -> f.value, UNKNOWN, false);
+
     @Contract("null -> null; !null -> !null")
     public static @Nullable GuildFeature fromValue(@Nullable String value){
         if(value == null) return null;
-        for(GuildFeature feature : GuildFeature.values()){
-            if(feature.value.equals(value)) return feature;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     /**
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.guild.enums;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -41,17 +42,15 @@ public enum GuildNsfwLevel implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<GuildNsfwLevel> VALUE_TABLE = new IntEnumTable<>(values(), l -> l.value, UNKNOWN);
+
     /**
      *
      * @param value int value
      * @return {@link GuildNsfwLevel} matching given value or {@link #UNKNOWN} if none matches
      */
     public static @NotNull GuildNsfwLevel fromValue(int value){
-        for(GuildNsfwLevel level : GuildNsfwLevel.values()){
-            if(level.value == value) return level;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.guild.enums;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -47,17 +48,15 @@ public enum MFALevel implements SimpleDatable {
         this.integer = integer;
     }
 
+    private static final IntEnumTable<MFALevel> VALUE_TABLE = new IntEnumTable<>(values(), l -> l.integer, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link MFALevel} matching given value or {@link #UNKNOWN} if none matches
      */
     public static @NotNull MFALevel fromValue(int value){
-        for(MFALevel level : MFALevel.values()){
-            if(level.integer == value) return level;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
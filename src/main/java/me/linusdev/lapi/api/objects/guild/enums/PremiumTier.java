@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.guild.enums;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -56,17 +57,15 @@ public enum PremiumTier implements SimpleDatable {
         this.integer = integer;
     }
 
+    private static final IntEnumTable<PremiumTier> VALUE_TABLE = new IntEnumTable<>(values(), t -> t.integer, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link PremiumTier} matching given value or {@link #UNKNOWN}
      */
     public static @NotNull PremiumTier fromValue(int value){
-        for(PremiumTier tier : PremiumTier.values()){
-            if(tier.integer == value) return tier;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.guild.scheduledevent;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -67,16 +68,15 @@ public enum EntityType implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<EntityType> VALUE_TABLE = new IntEnumTable<>(values(), t -> t.value, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link EntityType} matching given value or {@link #UNKNOWN} if none matches
      */
     public static @NotNull EntityType fromValue(int value){
-        for(EntityType type : EntityType.values()){
-            if(type.value == value) return type;
-        }
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.guild.scheduledevent;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 
 /**
  * <p>
@@ -53,17 +54,15 @@ public enum Status implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<Status> VALUE_TABLE = new IntEnumTable<>(values(), s -> s.value, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link Status} matching given value or {@link #UNKNOWN} if none matches
      */
     public static Status fromValue(int value){
-        for(Status status : Status.values()){
-            if(status.value == value) return status;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.integration;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -39,17 +40,15 @@ public enum IntegrationExpireBehavior implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<IntegrationExpireBehavior> VALUE_TABLE = new IntEnumTable<>(values(), b -> b.value, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link IntegrationExpireBehavior} matching given value or {@link #UNKNOWN} if none matches
      */
     public static @NotNull IntegrationExpireBehavior fromValue(int value){
-        for(IntegrationExpireBehavior behavior : IntegrationExpireBehavior.values()){
-            if(behavior.value == value) return behavior;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
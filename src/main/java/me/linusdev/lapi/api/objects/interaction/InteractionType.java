@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.interaction;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -43,17 +44,15 @@ public enum InteractionType implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<InteractionType> VALUE_TABLE = new IntEnumTable<>(values(), t -> t.value, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link InteractionType} matching given value or {@link #UNKNOWN} if none matches
      */
     public static @NotNull InteractionType fromValue(int value){
-        for(InteractionType type : InteractionType.values()){
-            if(type.value == value) return type;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
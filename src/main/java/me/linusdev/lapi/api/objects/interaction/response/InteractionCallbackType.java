@@ -18,6 +18,7 @@ package me.linusdev.lapi.api.objects.interaction.response;
 
 import me.linusdev.data.SimpleDatable;
 import me.linusdev.lapi.api.objects.component.Component;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -75,17 +76,15 @@ public enum InteractionCallbackType implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<InteractionCallbackType> VALUE_TABLE = new IntEnumTable<>(values(), t -> t.value, UNKNOWN);
+
     /**
      *
      * @param value value
      * @return {@link InteractionCallbackType} matching given value or {@link #UNKNOWN} if none matches
      */
     public static @NotNull InteractionCallbackType fromValue(int value){
-        for(InteractionCallbackType type : InteractionCallbackType.values()){
-            if(type.value == value) return type;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.invite;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 public enum TargetType implements SimpleDatable {
@@ -36,17 +37,15 @@ public enum TargetType implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<TargetType> VALUE_TABLE = new IntEnumTable<>(values(), t -> t.value, UNKNOWN);
+
     /**
      *
      * @param value to get {@link TargetType} for
      * @return {@link TargetType} matching given value, or {@link #UNKNOWN} if none matches
      */
     public static @NotNull TargetType fromValue(int value){
-        for(TargetType type : TargetType.values()){
-            if(type.value == value) return type;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
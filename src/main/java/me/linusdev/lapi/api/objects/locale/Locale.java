@@ -16,6 +16,7 @@
 
 package me.linusdev.lapi.api.objects.locale;
 
+import me.linusdev.lapi.api.objects.enums.lookup.StringEnumTable;
 import me.linusdev.lapi.helper.Helper;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
@@ -89,6 +90,8 @@ public enum Locale {
         return nativeName;
     }
 
+    private static final StringEnumTable<Locale> LOCALE_TABLE = new StringEnumTable<>(values(), l -> l.locale, UNKNOWN, false);
+
     /**
      *
      * @param locale String locale or {@code null}
@@ -98,11 +101,7 @@ public enum Locale {
     @Nullable
     public static Locale fromString(@Nullable String locale){
         if(locale == null) return null;
-        for(Locale loc : Locale.values()){
-            if(loc.locale.equals(locale)) return loc;
-        }
-
-        return UNKNOWN;
+        return LOCALE_TABLE.get(locale);
     }
 
     /**
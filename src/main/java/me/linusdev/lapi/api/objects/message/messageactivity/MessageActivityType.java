@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.message.messageactivity;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -36,15 +37,13 @@ public enum MessageActivityType implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<MessageActivityType> VALUE_TABLE = new IntEnumTable<>(values(), t -> t.value, UNKNOWN);
+
     /**
      * @return {@link MessageActivityType} with given value or {@link #UNKNOWN} if no such type exists
      */
     public static @NotNull MessageActivityType fromValue(int value){
-        for(MessageActivityType type : MessageActivityType.values()){
-            if(type.value == value) return type;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     @Override
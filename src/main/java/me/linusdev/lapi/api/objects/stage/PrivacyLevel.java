@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.stage;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 
 /**
  * @see <a href="https://discord.com/developers/docs/resources/stage-instance#stage-instance-object-privacy-level" target="_top">Privacy Level</a>
@@ -44,16 +45,15 @@ public enum PrivacyLevel implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<PrivacyLevel> VALUE_TABLE = new IntEnumTable<>(values(), l -> l.value, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link PrivacyLevel} matching given value or {@link #UNKNOWN} if none matches
      */
     public static PrivacyLevel fromValue(int value){
-        for(PrivacyLevel level : PrivacyLevel.values()){
-            if(level.value == value) return level;
-        }
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.sticker;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 
 /**
  * @see <a href="https://discord.com/developers/docs/resources/sticker#sticker-object-sticker-format-types" target="_top">
@@ -37,17 +38,15 @@ public enum StickerFormatType implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<StickerFormatType> VALUE_TABLE = new IntEnumTable<>(values(), t -> t.value, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link StickerFormatType} matching to given value or {@link #UNKNOWN} if none matches
      */
     public static final StickerFormatType fromValue(int value){
-        for(StickerFormatType type : StickerFormatType.values()){
-            if(type.value == value) return type;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.sticker;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -35,17 +36,15 @@ public enum StickerType implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<StickerType> VALUE_TABLE = new IntEnumTable<>(values(), t -> t.value, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link StickerType} with given value or {@link #UNKNOWN} if none matches
      */
     public static @NotNull StickerType fromValue(int value){
-        for(StickerType type : StickerType.values()){
-            if(type.value == value) return type;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.user;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -40,17 +41,15 @@ public enum PremiumType implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<PremiumType> VALUE_TABLE = new IntEnumTable<>(values(), t -> t.value, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link PremiumType} matching given value or {@link #UNKNOWN} if none matches
      */
     public static @NotNull PremiumType fromValue(int value){
-        for(PremiumType type : PremiumType.values()){
-            if(type.value == value) return type;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
@@ -17,6 +17,7 @@
 package me.linusdev.lapi.api.objects.user.connection;
 
 import me.linusdev.data.SimpleDatable;
+import me.linusdev.lapi.api.objects.enums.lookup.IntEnumTable;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -46,17 +47,15 @@ public enum VisibilityType implements SimpleDatable {
         this.value = value;
     }
 
+    private static final IntEnumTable<VisibilityType> VALUE_TABLE = new IntEnumTable<>(values(), t -> t.value, UNKNOWN);
+
     /**
      *
      * @param value int
      * @return {@link VisibilityType} matching to given value or {@link #UNKNOWN} if none matches
      */
     public static @NotNull VisibilityType fromValue(int value){
-        for(VisibilityType type : VisibilityType.values()){
-            if(type.value == value) return type;
-        }
-
-        return UNKNOWN;
+        return VALUE_TABLE.get(value);
     }
 
     public int getValue() {
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2022 Linus Andera
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package me.linusdev.lapi.api.objects.enums.lookup;
+
+import me.linusdev.lapi.api.communication.gateway.enums.GatewayEvent;
+import me.linusdev.lapi.api.communication.gateway.enums.GatewayOpcode;
+import me.linusdev.lapi.api.objects.channel.ChannelType;
+import me.linusdev.lapi.api.objects.enums.MessageType;
+
+/**
+ * <p>
+ *     Compares the per-payload cost of decoding the enums of a dispatch payload (opcode, event name and, for message
+ *     events, channel and message type) with a linear search over {@code values()} and with the lookup tables.
+ * </p>
+ * <p>
+ *     This is a plain main method, not a JMH benchmark. The numbers include loop overhead and are only meant
+ *     for comparing both variants on the same machine. It is part of the test sources, so it is not published.
+ * </p>
+ */
+public class EnumDecodeBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+    private static final int PAYLOADS_PER_ROUND = 2_000_000;
+
+    /**
+     * Typical mix of dispatch events received by a bot in some guilds.
+     */
+    private static final String[] EVENTS = {
+            "MESSAGE_CREATE", "TYPING_START", "PRESENCE_UPDATE", "MESSAGE_CREATE", "GUILD_MEMBER_UPDATE",
+            "MESSAGE_REACTION_ADD", "MESSAGE_UPDATE", "VOICE_STATE_UPDATE", "INTERACTION_CREATE", "MESSAGE_DELETE",
+            "WEBHOOKS_UPDATE", "MESSAGE_CREATE", "PRESENCE_UPDATE", "THREAD_UPDATE", "GUILD_SCHEDULED_EVENT_UPDATE",
+            "SOME_NEW_EVENT"
+    };
+
+    private static final int[] CHANNEL_TYPES = {0, 0, 1, 11, 2, 5, 0, 15};
+    private static final int[] MESSAGE_TYPES = {0, 0, 19, 0, 20, 7, 0, 21};
+
+    public static void main(String... args) {
+        int sink = 0;
+
+        for(int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += runLinear();
+            sink += runTable();
+        }
+
+        long linear = 0;
+        long table = 0;
+        for(int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink += runLinear();
+            linear += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            sink += runTable();
+            table += System.nanoTime() - start;
+        }
+
+        double payloads = (double) ROUNDS * PAYLOADS_PER_ROUND;
+        System.out.printf("linear search: %.2f ns/payload%n", linear / payloads);
+        System.out.printf("lookup tables: %.2f ns/payload%n", table / payloads);
+        System.out.println("(ignore: " + sink + ")");
+    }
+
+    private static int runLinear() {
+        int sink = 0;
+        for(int i = 0; i < PAYLOADS_PER_ROUND; i++) {
+            sink += linearOpcode(0).ordinal();
+            GatewayEvent event = linearEvent(EVENTS[i % EVENTS.length]);
+            sink += event.ordinal();
+            if(event == GatewayEvent.MESSAGE_CREATE) {
+                sink += linearChannelType(CHANNEL_TYPES[i % CHANNEL_TYPES.length]).ordinal();
+                sink += linearMessageType(MESSAGE_TYPES[i % MESSAGE_TYPES.length]).ordinal();
+            }
+        }
+        return sink;
+    }
+
+    private static int runTable() {
+        int sink = 0;
+        for(int i = 0; i < PAYLOADS_PER_ROUND; i++) {
+            sink += GatewayOpcode.fromValue(0).ordinal();
+            //noinspection ConstantConditions
+            GatewayEvent event = GatewayEvent.fromString(EVENTS[i % EVENTS.length]);
+            sink += event.ordinal();
+            if(event == GatewayEvent.MESSAGE_CREATE) {
+                sink += ChannelType.fromId(CHANNEL_TYPES[i % CHANNEL_TYPES.length]).ordinal();
+                sink += MessageType.fromValue(MESSAGE_TYPES[i % MESSAGE_TYPES.length]).ordinal();
+            }
+        }
+        return sink;
+    }
+
+    /*
+     * The previous implementations
+     */
+
+    private static GatewayOpcode linearOpcode(int opcode) {
+        for(GatewayOpcode o : GatewayOpcode.values()) {
+            if(o.getOpcode() == opcode) return o;
+        }
+        return GatewayOpcode.UNKNOWN;
+    }
+
+    private static GatewayEvent linearEvent(String value) {
+        for(GatewayEvent event : GatewayEvent.values()) {
+            if(event.getValue().equalsIgnoreCase(value)) return event;
+        }
+        return GatewayEvent.UNKNOWN;
+    }
+
+    private static ChannelType linearChannelType(int id) {
+        for(ChannelType type : ChannelType.values()) {
+            if(type.getId() == id) return type;
+        }
+        return ChannelType.UNKNOWN;
+    }
+
+    private static MessageType linearMessageType(int value) {
+        for(MessageType type : MessageType.values()) {
+            if(type.getValue() == value) return type;
+        }
+        return MessageType.DEFAULT;
+    }
+}